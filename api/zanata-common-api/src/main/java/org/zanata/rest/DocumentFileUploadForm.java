@@ -36,6 +36,10 @@ import org.jboss.resteasy.annotations.providers.multipart.PartType;
  * subsequent parts. The document is parsed when the final part is sent with
  * last=TRUE.
  *
+ * For chunked upload, 'part' may be set to the number of the chunk, starting
+ * at 1. A chunk which is sent again with the same number (eg when a request is
+ * retried) is then stored only once.
+ *
  * Hash should always be set to the md5 hash of the entire document. For chunked
  * upload, the hash is checked against the complete document after the chunks
  * are joined.
@@ -79,6 +83,10 @@ public class DocumentFileUploadForm implements Serializable {
     @PartType("text/plain")
     private String adapterParams;
 
+    @FormParam("part")
+    @PartType("text/plain")
+    private Integer part;
+
     public InputStream getFileStream() {
         return fileStream;
     }
@@ -142,4 +150,12 @@ public class DocumentFileUploadForm implements Serializable {
     public void setAdapterParams(String adapterParams) {
         this.adapterParams = adapterParams;
     }
+
+    public Integer getPart() {
+        return part;
+    }
+
+    public void setPart(Integer part) {
+        this.part = part;
+    }
 }
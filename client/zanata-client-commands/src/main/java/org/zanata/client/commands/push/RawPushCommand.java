@@ -593,6 +593,7 @@ public class RawPushCommand extends PushPullCommand<PushOptions> {
                                 generateUploadForm(isFirst, isLast, fileType,
                                         md5hash,
                                         chunkSize, chunkStream);
+                        uploadForm.setPart(chunker.currentChunkNumber());
                         if (!isFirst) {
                             uploadForm.setUploadId(uploadId);
                         }
@@ -25,6 +25,7 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.fedorahosted.tennera.jgettext.HeaderFields;
@@ -88,6 +89,29 @@ public class PoReader2 {
      */
     public TranslationsResource extractTarget(InputSource inputSource) {
         TranslationsResource document = new TranslationsResource();
+        readTarget(inputSource,
+                poHeader -> document.getExtensions(true).add(poHeader),
+                document.getTextFlowTargets()::add);
+        return document;
+    }
+
+    /**
+     * Reads a PO file one message at a time, passing each header and
+     * translation to the consumers as soon as it is parsed, so that callers
+     * can save or send translations in batches without holding the whole
+     * file in memory.
+     *
+     * @param inputSource
+     *            PO file to be read
+     * @param headerConsumer
+     *            receives the PO header, if the file has one
+     * @param targetConsumer
+     *            receives each (non-obsolete) translation, in file order
+     * @see #extractTarget(InputSource)
+     */
+    public void readTarget(InputSource inputSource,
+            Consumer<PoTargetHeader> headerConsumer,
+            Consumer<TextFlowTarget> targetConsumer) {
         MessageStreamParser messageParser = createParser(inputSource);
 
         boolean headerFound = false;
@@ -102,7 +126,7 @@ public class PoReader2 {
                 // add target header data
                 PoTargetHeader poHeader = new PoTargetHeader();
                 extractPoHeader(message, poHeader);
-                document.getExtensions(true).add(poHeader);
+                headerConsumer.accept(poHeader);
             } else if (message.isObsolete()) {
                 // TODO append obsolete
             } else {
@@ -120,10 +144,9 @@ public class PoReader2 {
                 tfTarget.getExtensions(true).add(
                         new SimpleComment(StringUtils.join(
                                 message.getComments(), "\n")));
-                document.getTextFlowTargets().add(tfTarget);
+                targetConsumer.accept(tfTarget);
             }
         }
-        return document;
     }
 
     /**
@@ -196,11 +219,33 @@ public class PoReader2 {
     public Resource extractTemplate(InputSource inputSource,
             LocaleId sourceLocaleId, String docName) {
         Resource document = new Resource(docName);
-        MessageStreamParser messageParser = createParser(inputSource);
-
         document.setLang(sourceLocaleId);
         document.setContentType(PO_CONTENT_TYPE);
-        List<TextFlow> resources = document.getTextFlows();
+        readTemplate(inputSource, sourceLocaleId,
+                potHeader -> document.getExtensions(true).add(potHeader),
+                document.getTextFlows()::add);
+        return document;
+    }
+
+    /**
+     * Reads a POT file one message at a time, passing each header and text
+     * flow to the consumers as soon as it is parsed, so that callers can save
+     * or send text flows in batches without holding the whole file in memory.
+     *
+     * @param inputSource
+     *            POT file to be read
+     * @param sourceLocaleId
+     *            locale of POT, used to set the text flows' locale
+     * @param headerConsumer
+     *            receives the POT header, if the file has one
+     * @param textFlowConsumer
+     *            receives each (non-obsolete) text flow, in file order
+     * @see #extractTemplate(InputSource, LocaleId, String)
+     */
+    public void readTemplate(InputSource inputSource, LocaleId sourceLocaleId,
+            Consumer<PoHeader> headerConsumer,
+            Consumer<TextFlow> textFlowConsumer) {
+        MessageStreamParser messageParser = createParser(inputSource);
 
         boolean headerFound = false;
         while (messageParser.hasNext()) {
@@ -214,7 +259,7 @@ public class PoReader2 {
                 // store POT data
                 PoHeader potHeader = new PoHeader();
                 extractPotHeader(message, potHeader);
-                document.getExtensions(true).add(potHeader);
+                headerConsumer.accept(potHeader);
 
             } else if (message.isObsolete()) {
                 // TODO append obsolete
@@ -228,14 +273,13 @@ public class PoReader2 {
                 } else {
                     tf.setContents(message.getMsgid());
                 }
-                resources.add(tf);
 
                 // add the entry header POT fields
                 tf.getExtensions(true).add(createPotEntryHeader(message));
                 tf.getExtensions().add(createSimpleComment(message));
+                textFlowConsumer.accept(tf);
             }
         }
-        return document;
     }
 
     private static PotEntryHeader createPotEntryHeader(Message message) {
@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.bind.JAXBContext;
@@ -20,6 +21,8 @@ import org.slf4j.LoggerFactory;
 import org.xml.sax.InputSource;
 import org.zanata.common.ContentState;
 import org.zanata.common.LocaleId;
+import org.zanata.rest.dto.extensions.gettext.PoHeader;
+import org.zanata.rest.dto.extensions.gettext.PoTargetHeader;
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.rest.dto.resource.TextFlow;
 import org.zanata.rest.dto.resource.TextFlowTarget;
@@ -94,6 +97,38 @@ public class PoReader2Test {
         getTemplate();
     }
 
+    @Test
+    public void readTargetStreamsEachTarget() throws Exception {
+        InputSource inputSource = getTestInputSource("ja-JP/RPM.po");
+        inputSource.setEncoding("utf8");
+        List<PoTargetHeader> headers = new ArrayList<>();
+        List<TextFlowTarget> targets = new ArrayList<>();
+
+        poReader.readTarget(inputSource, headers::add, targets::add);
+
+        assertThat(headers).hasSize(1);
+        assertThat(targets).hasSize(137);
+        assertThat(targets.get(3).getContents())
+                .isEqualTo(asList("キーのインポート"));
+    }
+
+    @Test
+    public void readTemplateStreamsEachTextFlow() throws Exception {
+        InputSource inputSource = getTestInputSource("pot/RPM.pot");
+        inputSource.setEncoding("utf8");
+        List<PoHeader> headers = new ArrayList<>();
+        List<TextFlow> textFlows = new ArrayList<>();
+
+        poReader.readTemplate(inputSource, LocaleId.EN_US, headers::add,
+                textFlows::add);
+
+        assertThat(headers).hasSize(1);
+        assertThat(textFlows).hasSize(137);
+        assertThat(textFlows.get(3).getContents())
+                .isEqualTo(asList("Important"));
+        assertThat(textFlows.get(3).getLang()).isEqualTo(LocaleId.EN_US);
+    }
+
     @Test
     public void extractInvalidTemplate() throws Exception {
         InputSource inputSource = getTestInputSource("pot/invalid.pot");
@@ -10,6 +10,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -60,20 +61,48 @@ public class XliffReader extends XliffCommon {
         Resource document = new Resource(docName);
         document.setContentType(ContentType.TextPlain);
         document.setLang(sourceLocaleId);
-        srcLang = sourceLocaleId;
-        this.validationType =
-                ValidationType.valueOf(validationType.toUpperCase());
-        extractXliff(file, document, null);
+        readTemplate(file, sourceLocaleId, validationType,
+                document.getTextFlows()::add);
         return document;
     }
 
     public TranslationsResource extractTarget(File file)
             throws FileNotFoundException {
         TranslationsResource document = new TranslationsResource();
-        extractXliff(file, null, document);
+        readTarget(file, document.getTextFlowTargets()::add);
         return document;
     }
 
+    /**
+     * Reads the trans-units of an XLIFF file in a single pass, passing each
+     * text flow to the consumer as soon as it is parsed, so that callers can
+     * save or send text flows in batches without holding the whole document
+     * in memory.
+     *
+     * @see #extractTemplate(File, LocaleId, String, String)
+     */
+    public void readTemplate(File file, LocaleId sourceLocaleId,
+            String validationType, Consumer<TextFlow> textFlowConsumer)
+            throws FileNotFoundException {
+        srcLang = sourceLocaleId;
+        this.validationType =
+                ValidationType.valueOf(validationType.toUpperCase());
+        extractXliff(file, textFlowConsumer, null);
+    }
+
+    /**
+     * Reads the translated trans-units of an XLIFF file in a single pass,
+     * passing each translation to the consumer as soon as it is parsed.
+     * Trans-units without a target are skipped.
+     *
+     * @see #extractTarget(File)
+     */
+    public void readTarget(File file,
+            Consumer<TextFlowTarget> targetConsumer)
+            throws FileNotFoundException {
+        extractXliff(file, null, targetConsumer);
+    }
+
     /*
      * Validate xliff file against schema version 1.1
      */
@@ -108,20 +137,19 @@ public class XliffReader extends XliffCommon {
         }
     }
 
-    private void extractXliff(@Nonnull File file, @Nullable Resource document,
-            @Nullable TranslationsResource transDoc)
+    private void extractXliff(@Nonnull File file,
+            @Nullable Consumer<TextFlow> textFlowConsumer,
+            @Nullable Consumer<TextFlowTarget> targetConsumer)
             throws FileNotFoundException {
-        assert document != null || transDoc != null;
+        assert textFlowConsumer != null || targetConsumer != null;
         if (validationType == ValidationType.XSD) {
             validateXliffFile(new StreamSource(file));
         }
 
-        try {
-            // decode entities into one string
-            xmlif.setProperty(XMLInputFactory.IS_COALESCING, true);
-
-            InputSource inputSource =
-                    new InputSource(new FileInputStream(file));
+        // decode entities into one string
+        xmlif.setProperty(XMLInputFactory.IS_COALESCING, true);
+        try (InputStream in = new FileInputStream(file)) {
+            InputSource inputSource = new InputSource(in);
             inputSource.setEncoding("utf8");
             final XMLStreamReader xmlr =
                     xmlif.createXMLStreamReader(inputSource.getByteStream());
@@ -151,14 +179,13 @@ public class XliffReader extends XliffCommon {
                                         + "'file' element: ignoring the "
                                         + "rest of the file " + file);
                     }
-                    if (document != null) {
-                        TextFlow textFlow = extractTransUnit(xmlr);
-                        document.getTextFlows().add(textFlow);
-                    } else if (transDoc != null) {
+                    if (textFlowConsumer != null) {
+                        textFlowConsumer.accept(extractTransUnit(xmlr));
+                    } else if (targetConsumer != null) {
                         TextFlowTarget tfTarget = extractTransUnitTarget(xmlr);
                         // TODO should we include empty TFTs?
                         if (tfTarget.getState() != ContentState.New) {
-                            transDoc.getTextFlowTargets().add(tfTarget);
+                            targetConsumer.accept(tfTarget);
                         }
                     }
                 } else if (isEndElement(xmlr, ELE_FILE)) {
@@ -169,6 +196,10 @@ public class XliffReader extends XliffCommon {
             xmlr.close();
         } catch (XMLStreamException e) {
             throw new RuntimeException("Invalid XLIFF file format", e);
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read XLIFF file " + file, e);
         }
     }
 
@@ -5,6 +5,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -176,6 +178,30 @@ public class XliffReaderTest {
         reader.extractTarget(fileTarget);
     }
 
+    @Test
+    public void readTemplateStreamsEachTextFlow() throws FileNotFoundException {
+        File file = new File(TEST_DIR, File.separator + DOC_NAME);
+        List<TextFlow> textFlows = new ArrayList<>();
+
+        reader.readTemplate(file, LocaleId.EN_US,
+                ValidationType.CONTENT.toString(), textFlows::add);
+
+        assertThat(textFlows).hasSize(7);
+        assertThat(textFlows.get(0).getContents())
+                .isEqualTo(asList("Translation Unit 1"));
+        assertThat(textFlows.get(0).getLang()).isEqualTo(LocaleId.EN_US);
+    }
+
+    @Test
+    public void readTargetStreamsEachTarget() throws FileNotFoundException {
+        File fileTarget = new File(TEST_DIR, "/StringResource_de.xml");
+        List<TextFlowTarget> targets = new ArrayList<>();
+
+        reader.readTarget(fileTarget, targets::add);
+
+        assertThat(targets).hasSize(4);
+    }
+
     private Resource getTemplateDoc() throws FileNotFoundException {
         File file = new File(TEST_DIR, File.separator + DOC_NAME);
         return reader.extractTemplate(file, LocaleId.EN_US, DOC_NAME,
@@ -152,6 +152,13 @@ public class Application implements EntryPoint {
             public void onFailure(Throwable e) {
                 showErrorWithLink("Failed to start Event Service...", e);
             }
+
+            @Override
+            public void onReconnected(String connectionId) {
+                injector.getDispatcher().execute(
+                        new EventServiceConnectedAction(connectionId),
+                        new NoOpAsyncCallback<NoOpResult>());
+            }
         });
 
         Window.enableScrolling(true);
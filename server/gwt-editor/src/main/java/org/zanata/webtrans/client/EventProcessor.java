@@ -10,7 +10,9 @@ import org.zanata.webtrans.client.events.TMMergeProgressEvent;
 import org.zanata.webtrans.client.events.TMMergeStartOrEndEvent;
 import org.zanata.webtrans.client.events.TransUnitEditEvent;
 import org.zanata.webtrans.client.events.TransUnitUpdatedEvent;
+import org.zanata.webtrans.client.events.TransUnitsBulkUpdatedEvent;
 import org.zanata.webtrans.client.events.WorkspaceContextUpdateEvent;
+import org.zanata.webtrans.client.rpc.EventSocket;
 import org.zanata.webtrans.shared.model.UserWorkspaceContext;
 import org.zanata.webtrans.shared.rpc.AddReviewComment;
 import org.zanata.webtrans.shared.rpc.EnterWorkspace;
@@ -27,6 +29,7 @@ import org.zanata.webtrans.shared.rpc.TMMergeInProgress;
 import org.zanata.webtrans.shared.rpc.TransMemoryMergeStartOrEnd;
 import org.zanata.webtrans.shared.rpc.TransUnitEdit;
 import org.zanata.webtrans.shared.rpc.TransUnitUpdated;
+import org.zanata.webtrans.shared.rpc.TransUnitsBulkUpdated;
 import org.zanata.webtrans.shared.rpc.WorkspaceContextUpdate;
 
 import com.allen_sauer.gwt.log.client.Log;
@@ -54,6 +57,12 @@ public class EventProcessor implements RemoteEventListener {
         void onSuccess(String connectionId);
 
         void onFailure(Throwable e);
+
+        /**
+         * Called when the event socket was lost after a successful start, and
+         * events are now received by long polling instead.
+         */
+        void onReconnected(String connectionId);
     }
 
     private static class EventRegistry {
@@ -68,6 +77,13 @@ public class EventProcessor implements RemoteEventListener {
                             new TransUnitUpdatedEvent(
                                     (HasTransUnitUpdatedData) event));
 
+            factories.put(TransUnitsBulkUpdated.class, event -> {
+                TransUnitsBulkUpdated bulkUpdated = (TransUnitsBulkUpdated) event;
+                return new TransUnitsBulkUpdatedEvent(
+                        bulkUpdated.getDocumentId(),
+                        bulkUpdated.getEditorClientId());
+            });
+
             factories.put(ExitWorkspace.class,
                     (EventFactory<ExitWorkspaceEvent>) event ->
                             new ExitWorkspaceEvent(
@@ -128,22 +144,55 @@ public class EventProcessor implements RemoteEventListener {
 
     private final EventRegistry eventRegistry;
     private final RemoteEventService remoteEventService;
+    private final EventSocket eventSocket;
     private final Domain domain;
     private final EventBus eventBus;
 
     @Inject
     public EventProcessor(EventBus eventBus,
             UserWorkspaceContext userWorkspaceContext,
-            RemoteEventService remoteEventService) {
+            RemoteEventService remoteEventService, EventSocket eventSocket) {
         this.eventBus = eventBus;
         this.remoteEventService = remoteEventService;
+        this.eventSocket = eventSocket;
         this.eventRegistry = new EventRegistry();
         this.domain =
                 DomainFactory.getDomain(userWorkspaceContext
                         .getWorkspaceContext().getWorkspaceId().toString());
     }
 
+    /**
+     * Starts receiving events, over a WebSocket if possible, otherwise by
+     * GWTEventService long polling.
+     */
     public void start(final StartCallback callback) {
+        if (!eventSocket.isSupported()) {
+            listenForEvents(callback, false);
+            return;
+        }
+        eventSocket.open(new EventSocket.Listener() {
+            @Override
+            public void onOpen(String connectionId) {
+                Log.info("EventProcessor is now listening for events on socket "
+                        + connectionId);
+                callback.onSuccess(connectionId);
+            }
+
+            @Override
+            public void onEvent(SessionEventData event) {
+                fireEvent(event);
+            }
+
+            @Override
+            public void onClose(boolean wasOpen) {
+                Log.warn("Event socket unavailable; falling back to long polling");
+                listenForEvents(callback, wasOpen);
+            }
+        });
+    }
+
+    private void listenForEvents(final StartCallback callback,
+            final boolean reconnect) {
         remoteEventService.addListener(domain, this, new AsyncCallback<Void>() {
             @Override
             public void onSuccess(Void result) {
@@ -151,7 +200,11 @@ public class EventProcessor implements RemoteEventListener {
                         + domain.getName());
                 String connectionId =
                         eventServiceConfiguration().getConnectionId();
-                callback.onSuccess(connectionId);
+                if (reconnect) {
+                    callback.onReconnected(connectionId);
+                } else {
+                    callback.onSuccess(connectionId);
+                }
             }
 
             @Override
@@ -175,19 +228,22 @@ public class EventProcessor implements RemoteEventListener {
     public void apply(Event event) {
         // Log.info("received remote event "+event);
         if (event instanceof SessionEventData) {
-            SessionEventData ed = (SessionEventData) event;
-            GwtEvent<?> gwtEvent = eventRegistry.getEvent(ed);
-            if (gwtEvent != null) {
-                Log.debug("received event " + event + ", GWT event "
-                        + gwtEvent.getClass().getName());
-                try {
-                    eventBus.fireEvent(gwtEvent);
-                } catch (UmbrellaException e) {
-                    Log.error("Event failed", e);
-                }
-            } else {
-                Log.warn("unknown event " + event);
+            fireEvent((SessionEventData) event);
+        }
+    }
+
+    private void fireEvent(SessionEventData ed) {
+        GwtEvent<?> gwtEvent = eventRegistry.getEvent(ed);
+        if (gwtEvent != null) {
+            Log.debug("received event " + ed + ", GWT event "
+                    + gwtEvent.getClass().getName());
+            try {
+                eventBus.fireEvent(gwtEvent);
+            } catch (UmbrellaException e) {
+                Log.error("Event failed", e);
             }
+        } else {
+            Log.warn("unknown event " + ed);
         }
     }
 
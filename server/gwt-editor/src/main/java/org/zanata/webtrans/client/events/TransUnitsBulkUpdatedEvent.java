@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.client.events;
+
+import org.zanata.webtrans.shared.auth.EditorClientId;
+import org.zanata.webtrans.shared.model.DocumentId;
+
+import com.google.gwt.event.shared.GwtEvent;
+
+/**
+ * Many text flows of a document have changed on the server, so the visible
+ * rows and the document statistics should be reloaded.
+ *
+ * @see org.zanata.webtrans.shared.rpc.TransUnitsBulkUpdated
+ */
+public class TransUnitsBulkUpdatedEvent
+        extends GwtEvent<TransUnitsBulkUpdatedEventHandler> {
+    public static final Type<TransUnitsBulkUpdatedEventHandler> TYPE =
+            new Type<>();
+    private final DocumentId documentId;
+    private final EditorClientId editorClientId;
+
+    public TransUnitsBulkUpdatedEvent(DocumentId documentId,
+            EditorClientId editorClientId) {
+        this.documentId = documentId;
+        this.editorClientId = editorClientId;
+    }
+
+    public DocumentId getDocumentId() {
+        return documentId;
+    }
+
+    public EditorClientId getEditorClientId() {
+        return editorClientId;
+    }
+
+    @Override
+    public Type<TransUnitsBulkUpdatedEventHandler> getAssociatedType() {
+        return TYPE;
+    }
+
+    @Override
+    protected void dispatch(TransUnitsBulkUpdatedEventHandler handler) {
+        handler.onTransUnitsBulkUpdated(this);
+    }
+}
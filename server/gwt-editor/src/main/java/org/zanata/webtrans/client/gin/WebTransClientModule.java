@@ -66,6 +66,8 @@ import org.zanata.webtrans.client.resources.Resources;
 import org.zanata.webtrans.client.resources.WebTransMessages;
 import org.zanata.webtrans.client.rpc.CachingDispatchAsync;
 import org.zanata.webtrans.client.rpc.DelegatingDispatchAsync;
+import org.zanata.webtrans.client.rpc.EventSocket;
+import org.zanata.webtrans.client.rpc.EventSocketImpl;
 import org.zanata.webtrans.client.service.ValidationService;
 import org.zanata.webtrans.client.ui.TransMemoryMergePopupPanelDisplay;
 import org.zanata.webtrans.client.ui.TransMemoryMergePopupPanelView;
@@ -206,6 +208,7 @@ public class WebTransClientModule extends AbstractPresenterModule {
         bind(EventWrapper.class).to(EventWrapperImpl.class).in(Singleton.class);
         bind(TimerFactory.class).to(TimerFactoryImpl.class).in(Singleton.class);
         bind(NativeEvent.class).to(NativeEventImpl.class).in(Singleton.class);
+        bind(EventSocket.class).to(EventSocketImpl.class).in(Singleton.class);
         bind(History.class).to(HistoryImpl.class).in(Singleton.class);
         bind(Window.class).to(WindowImpl.class).in(Singleton.class);
         bind(Window.Location.class).to(WindowLocationImpl.class).in(
@@ -48,6 +48,8 @@ import org.zanata.webtrans.client.events.RunDocValidationEvent;
 import org.zanata.webtrans.client.events.RunDocValidationEventHandler;
 import org.zanata.webtrans.client.events.TransUnitUpdatedEvent;
 import org.zanata.webtrans.client.events.TransUnitUpdatedEventHandler;
+import org.zanata.webtrans.client.events.TransUnitsBulkUpdatedEvent;
+import org.zanata.webtrans.client.events.TransUnitsBulkUpdatedEventHandler;
 import org.zanata.webtrans.client.events.UserConfigChangeEvent;
 import org.zanata.webtrans.client.events.UserConfigChangeHandler;
 import org.zanata.webtrans.client.events.WorkspaceContextUpdateEvent;
@@ -90,7 +92,8 @@ import com.google.inject.Inject;
 public class DocumentListPresenter extends WidgetPresenter<DocumentListDisplay>
         implements DocumentListDisplay.Listener, DocumentSelectionHandler,
         UserConfigChangeHandler, TransUnitUpdatedEventHandler,
-        WorkspaceContextUpdateEventHandler, RunDocValidationEventHandler {
+        WorkspaceContextUpdateEventHandler, RunDocValidationEventHandler,
+        TransUnitsBulkUpdatedEventHandler {
     private final UserWorkspaceContext userWorkspaceContext;
     private DocumentInfo currentDocument;
     private final WebTransMessages messages;
@@ -143,6 +146,8 @@ public class DocumentListPresenter extends WidgetPresenter<DocumentListDisplay>
                 this));
         registerHandler(eventBus.addHandler(TransUnitUpdatedEvent.getType(),
                 this));
+        registerHandler(eventBus.addHandler(TransUnitsBulkUpdatedEvent.TYPE,
+                this));
         registerHandler(eventBus.addHandler(UserConfigChangeEvent.TYPE, this));
         registerHandler(eventBus.addHandler(
                 WorkspaceContextUpdateEvent.getType(), this));
@@ -475,6 +480,15 @@ public class DocumentListPresenter extends WidgetPresenter<DocumentListDisplay>
                 .newArrayList(nodes.values())));
     }
 
+    @Override
+    public void onTransUnitsBulkUpdated(TransUnitsBulkUpdatedEvent event) {
+        // individual updates were not sent, so the stats can not be adjusted
+        dispatcher.execute(
+                new GetDocumentStats(
+                        Lists.newArrayList(event.getDocumentId())),
+                getDocumentStatCallBack);
+    }
+
     private void updateLastTranslatedInfo(DocumentInfo doc,
             TransUnit updatedTransUnit) {
         doc.setLastTranslated(new AuditInfo(updatedTransUnit
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.client.rpc;
+
+import org.zanata.webtrans.shared.rpc.SessionEventData;
+
+/**
+ * WebSocket connection which receives workspace events from the server.
+ * Wrapped in an interface to allow mocking for testing.
+ */
+public interface EventSocket {
+
+    interface Listener {
+        /**
+         * @param connectionId
+         *            id of the connection, to be reported to the server
+         */
+        void onOpen(String connectionId);
+
+        void onEvent(SessionEventData event);
+
+        /**
+         * @param wasOpen
+         *            false if the connection could not be established
+         */
+        void onClose(boolean wasOpen);
+    }
+
+    /**
+     * @return whether the browser supports WebSockets
+     */
+    boolean isSupported();
+
+    void open(Listener listener);
+}
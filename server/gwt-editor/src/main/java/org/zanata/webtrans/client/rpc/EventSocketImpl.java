@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.client.rpc;
+
+import org.zanata.util.CoverageIgnore;
+import org.zanata.webtrans.shared.WorkspaceEventChannel;
+import org.zanata.webtrans.shared.rpc.GetEventSocketTokenAction;
+import org.zanata.webtrans.shared.rpc.GetEventSocketTokenResult;
+import org.zanata.webtrans.shared.rpc.SessionEventData;
+
+import com.allen_sauer.gwt.log.client.Log;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.http.client.URL;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.gwt.user.client.rpc.SerializationException;
+import com.google.gwt.user.client.rpc.SerializationStreamFactory;
+import com.google.gwt.user.client.rpc.ServiceDefTarget;
+import com.google.inject.Inject;
+
+/**
+ * Browser WebSocket connected to the server's workspace event endpoint. The
+ * first message received is the connection id, the rest are events encoded
+ * with GWT RPC serialization. The handshake carries a one-time token from
+ * GetEventSocketTokenAction, so that the server can match the socket to the
+ * editor's HTTP session.
+ *
+ * @see org.zanata.webtrans.server.WorkspaceEventEndpoint
+ */
+public class EventSocketImpl implements EventSocket {
+    private final SerializationStreamFactory streamFactory =
+            GWT.create(WorkspaceEventChannel.class);
+    private final CachingDispatchAsync dispatcher;
+    private Listener listener;
+    private String connectionId;
+
+    @Inject
+    public EventSocketImpl(CachingDispatchAsync dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    @CoverageIgnore("JSNI")
+    public native boolean isSupported()
+    /*-{
+        return !!$wnd.WebSocket;
+    }-*/;
+
+    @Override
+    public void open(final Listener listener) {
+        this.listener = listener;
+        dispatcher.execute(new GetEventSocketTokenAction(),
+                new AsyncCallback<GetEventSocketTokenResult>() {
+                    @Override
+                    public void onFailure(Throwable caught) {
+                        Log.warn("Unable to get event socket token", caught);
+                        listener.onClose(false);
+                    }
+
+                    @Override
+                    public void onSuccess(GetEventSocketTokenResult result) {
+                        connect(socketUrl(result.getToken()));
+                    }
+                });
+    }
+
+    private String socketUrl(String token) {
+        String policyName = ((ServiceDefTarget) streamFactory)
+                .getSerializationPolicyName();
+        return GWT.getModuleBaseURL().replaceFirst("^http", "ws")
+                + "events?policy=" + URL.encodeQueryString(policyName)
+                + "&token=" + URL.encodeQueryString(token);
+    }
+
+    @CoverageIgnore("JSNI")
+    private native void connect(String url)
+    /*-{
+        var self = this;
+        var socket = new $wnd.WebSocket(url);
+        socket.onmessage = $entry(function(event) {
+            self.@org.zanata.webtrans.client.rpc.EventSocketImpl::onMessage(Ljava/lang/String;)(event.data);
+        });
+        socket.onclose = $entry(function() {
+            self.@org.zanata.webtrans.client.rpc.EventSocketImpl::onClose()();
+        });
+    }-*/;
+
+    private void onMessage(String data) {
+        if (connectionId == null) {
+            connectionId = data;
+            listener.onOpen(connectionId);
+            return;
+        }
+        try {
+            SessionEventData event = (SessionEventData) streamFactory
+                    .createStreamReader(data).readObject();
+            listener.onEvent(event);
+        } catch (SerializationException e) {
+            Log.error("Unable to read event from socket", e);
+        }
+    }
+
+    private void onClose() {
+        Log.info("event socket closed");
+        listener.onClose(connectionId != null);
+    }
+}
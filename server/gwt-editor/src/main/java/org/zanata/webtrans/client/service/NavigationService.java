@@ -47,6 +47,8 @@ import org.zanata.webtrans.client.events.TableRowSelectedEvent;
 import org.zanata.webtrans.client.events.TransUnitSelectionEvent;
 import org.zanata.webtrans.client.events.TransUnitUpdatedEvent;
 import org.zanata.webtrans.client.events.TransUnitUpdatedEventHandler;
+import org.zanata.webtrans.client.events.TransUnitsBulkUpdatedEvent;
+import org.zanata.webtrans.client.events.TransUnitsBulkUpdatedEventHandler;
 import org.zanata.webtrans.client.history.History;
 import org.zanata.webtrans.client.history.HistoryToken;
 import org.zanata.webtrans.client.presenter.MainView;
@@ -77,7 +79,8 @@ import com.google.inject.Singleton;
 public class NavigationService implements TransUnitUpdatedEventHandler,
         DocumentSelectionHandler, NavTransUnitHandler,
         EditorPageSizeChangeEventHandler, BookmarkedTextFlowEventHandler,
-        InitEditorEventHandler, RequestSelectTableRowEventHandler {
+        InitEditorEventHandler, RequestSelectTableRowEventHandler,
+        TransUnitsBulkUpdatedEventHandler {
     public static final int FIRST_PAGE = 0;
     public static final int UNDEFINED = -1;
     private final EventBus eventBus;
@@ -87,6 +90,8 @@ public class NavigationService implements TransUnitUpdatedEventHandler,
     private final UserConfigHolder configHolder;
     private final TableEditorMessages messages;
     private final SinglePageDataModelImpl pageModel;
+    private final TransUnitPageCache pageCache;
+    private final SaveEventQueue saveEventQueue;
     private NavigationService.PageDataChangeListener pageDataChangeListener;
 
     private final History history;
@@ -97,7 +102,8 @@ public class NavigationService implements TransUnitUpdatedEventHandler,
             TableEditorMessages messages, SinglePageDataModelImpl pageModel,
             ModalNavigationStateHolder navigationStateHolder,
             GetTransUnitActionContextHolder getTransUnitActionContextHolder,
-            History history) {
+            History history, TransUnitPageCache pageCache,
+            SaveEventQueue saveEventQueue) {
         this.eventBus = eventBus;
         this.dispatcher = dispatcher;
         this.configHolder = configHolder;
@@ -106,6 +112,8 @@ public class NavigationService implements TransUnitUpdatedEventHandler,
         this.navigationStateHolder = navigationStateHolder;
         this.contextHolder = getTransUnitActionContextHolder;
         this.history = history;
+        this.pageCache = pageCache;
+        this.saveEventQueue = saveEventQueue;
         bindHandlers();
     }
 
@@ -117,6 +125,7 @@ public class NavigationService implements TransUnitUpdatedEventHandler,
         eventBus.addHandler(BookmarkedTextFlowEvent.TYPE, this);
         eventBus.addHandler(InitEditorEvent.TYPE, this);
         eventBus.addHandler(RequestSelectTableRowEvent.TYPE, this);
+        eventBus.addHandler(TransUnitsBulkUpdatedEvent.TYPE, this);
     }
 
     public void clearData() {
@@ -124,8 +133,11 @@ public class NavigationService implements TransUnitUpdatedEventHandler,
     }
 
     protected void requestTransUnitsAndUpdatePageIndex(
-            GetTransUnitActionContext actionContext,
+            final GetTransUnitActionContext actionContext,
             final boolean needReloadIndex) {
+        if (!needReloadIndex && showCachedPage(actionContext)) {
+            return;
+        }
         eventBus.fireEvent(LoadingEvent.START_EVENT);
 
         GetTransUnitList action =
@@ -144,39 +156,136 @@ public class NavigationService implements TransUnitUpdatedEventHandler,
 
             @Override
             public void onSuccess(GetTransUnitListResult result) {
-                List<TransUnit> units = result.getUnits();
-                Log.info("result size: " + units.size());
-                contextHolder.changeOffset(result.getTargetOffset());
-                pageModel.setData(units);
-                pageDataChangeListener.showDataForCurrentPage(pageModel
-                        .getData());
-
-                if (result.getNavigationIndex() != null) {
-                    navigationStateHolder.init(result.getNavigationIndex()
-                            .getTransIdStateList(), result.getNavigationIndex()
-                            .getIdIndexList());
-                    eventBus.fireEvent(new PageCountChangeEvent(
-                            navigationStateHolder.getPageCount()));
+                if (configHolder.isAcceptAllStatus()) {
+                    pageCache.putPage(
+                            actionContext.withOffset(result.getTargetOffset())
+                                    .withTargetTransUnitId(null),
+                            result.getUnits());
                 }
-                navigationStateHolder.updateCurrentPage(result
-                        .getTargetPageIndex());
-
-                if (!units.isEmpty()) {
-                    TransUnitId selectedId =
-                            units.get(result.getGotoRow()).getId();
-                    navigationStateHolder.updateSelected(selectedId);
-                    // in case there is pending save (as fuzzy) happening, we do
-                    // not want to trigger another pending save
-                    eventBus.fireEvent(new TableRowSelectedEvent(selectedId)
-                            .setSuppressSavePending(true));
-                }
-                eventBus.fireEvent(new PageChangeEvent(result
-                        .getTargetPageIndex()));
-                highlightSearch();
+                showPage(result);
+            }
+        });
+    }
 
-                // run validation on TransUnit and display error message
-                eventBus.fireEvent(new RequestPageValidationEvent());
-                eventBus.fireEvent(LoadingEvent.FINISH_EVENT);
+    /**
+     * Shows the page from the page cache, if it is there and the target trans
+     * unit (if any) is on it.
+     *
+     * @return true if the page was shown
+     */
+    private boolean showCachedPage(GetTransUnitActionContext actionContext) {
+        if (!configHolder.isAcceptAllStatus()) {
+            return false;
+        }
+        List<TransUnit> units = pageCache.getPage(actionContext);
+        if (units == null) {
+            return false;
+        }
+        int gotoRow = 0;
+        TransUnitId targetId = actionContext.getTargetTransUnitId();
+        if (targetId != null) {
+            gotoRow = indexOf(units, targetId);
+            if (gotoRow < 0) {
+                return false;
+            }
+        }
+        Log.info("showing cached page at offset " + actionContext.getOffset());
+        int offset = actionContext.getOffset();
+        showPage(new GetTransUnitListResult(actionContext.getDocument()
+                .getId(), units, gotoRow, offset, offset
+                / actionContext.getCount()));
+        return true;
+    }
+
+    private static int indexOf(List<TransUnit> units, TransUnitId id) {
+        for (int i = 0; i < units.size(); i++) {
+            if (units.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void showPage(GetTransUnitListResult result) {
+        List<TransUnit> units = result.getUnits();
+        Log.info("result size: " + units.size());
+        contextHolder.changeOffset(result.getTargetOffset());
+        pageModel.setData(units);
+        pageDataChangeListener.showDataForCurrentPage(pageModel.getData());
+
+        if (result.getNavigationIndex() != null) {
+            navigationStateHolder.init(result.getNavigationIndex()
+                    .getTransIdStateList(), result.getNavigationIndex()
+                    .getIdIndexList());
+            eventBus.fireEvent(new PageCountChangeEvent(navigationStateHolder
+                    .getPageCount()));
+        }
+        navigationStateHolder.updateCurrentPage(result.getTargetPageIndex());
+
+        if (!units.isEmpty()) {
+            TransUnitId selectedId = units.get(result.getGotoRow()).getId();
+            navigationStateHolder.updateSelected(selectedId);
+            // in case there is pending save (as fuzzy) happening, we do
+            // not want to trigger another pending save
+            eventBus.fireEvent(new TableRowSelectedEvent(selectedId)
+                    .setSuppressSavePending(true));
+        }
+        eventBus.fireEvent(new PageChangeEvent(result.getTargetPageIndex()));
+        highlightSearch();
+
+        // run validation on TransUnit and display error message
+        eventBus.fireEvent(new RequestPageValidationEvent());
+        eventBus.fireEvent(LoadingEvent.FINISH_EVENT);
+        prefetchAdjacentPages();
+    }
+
+    /**
+     * Loads the pages either side of the current page into the page cache in
+     * the background. Filtering by status makes the page boundaries move as
+     * trans units are saved, so nothing is prefetched then.
+     */
+    private void prefetchAdjacentPages() {
+        if (!configHolder.isAcceptAllStatus()) {
+            return;
+        }
+        int currentPage = navigationStateHolder.getCurrentPage();
+        prefetchPage(currentPage + 1);
+        prefetchPage(currentPage - 1);
+    }
+
+    private void prefetchPage(int page) {
+        if (page < FIRST_PAGE || page > navigationStateHolder.lastPage()) {
+            return;
+        }
+        GetTransUnitActionContext context = contextHolder.getContext();
+        final GetTransUnitActionContext pageContext =
+                context.withOffset(context.getCount() * page)
+                        .withTargetTransUnitId(null);
+        if (pageCache.containsPage(pageContext)) {
+            return;
+        }
+        final int modificationCount = pageCache.getModificationCount();
+        GetTransUnitList action =
+                GetTransUnitList.newAction(pageContext).setNeedReloadIndex(
+                        false);
+        dispatcher.execute(action, new AsyncCallback<GetTransUnitListResult>() {
+            @Override
+            public void onFailure(Throwable caught) {
+                Log.debug("prefetching page " + pageContext.getOffset()
+                        + " failed: " + caught);
+            }
+
+            @Override
+            public void onSuccess(GetTransUnitListResult result) {
+                // a trans unit may have changed, or the filter may have
+                // changed, while the page was on its way
+                GetTransUnitActionContext current = contextHolder.getContext();
+                if (modificationCount == pageCache.getModificationCount()
+                        && current != null
+                        && !current.withOffset(pageContext.getOffset())
+                                .needReloadList(pageContext)) {
+                    pageCache.putPage(pageContext, result.getUnits());
+                }
             }
         });
     }
@@ -271,9 +380,72 @@ public class NavigationService implements TransUnitUpdatedEventHandler,
         }
     }
 
+    @Override
+    public void onTransUnitsBulkUpdated(TransUnitsBulkUpdatedEvent event) {
+        if (contextHolder.isContextInitialized()
+                && Objects.equal(event.getDocumentId(),
+                        contextHolder.getContext().getDocument().getId())) {
+            pageCache.invalidate(event.getDocumentId());
+            refreshCurrentPage(event.getEditorClientId());
+        }
+    }
+
+    /**
+     * Reloads the rows of the current page and the navigation index, and
+     * refreshes the rows whose version has changed, so that the page stays
+     * where it is. The selected row, which may hold unsaved text, and rows
+     * with pending saves are left alone; a later save of such a row is
+     * checked against the new version by the server as usual.
+     */
+    private void refreshCurrentPage(final EditorClientId editorClientId) {
+        GetTransUnitList action = GetTransUnitList.newAction(
+                contextHolder.getContext().withTargetTransUnitId(null))
+                .setNeedReloadIndex(true);
+        dispatcher.execute(action, new AsyncCallback<GetTransUnitListResult>() {
+            @Override
+            public void onFailure(Throwable caught) {
+                Log.error("GetTransUnits failure " + caught, caught);
+            }
+
+            @Override
+            public void onSuccess(GetTransUnitListResult result) {
+                if (result.getNavigationIndex() != null) {
+                    navigationStateHolder.init(result.getNavigationIndex()
+                            .getTransIdStateList(), result.getNavigationIndex()
+                            .getIdIndexList());
+                    eventBus.fireEvent(new PageCountChangeEvent(
+                            navigationStateHolder.getPageCount()));
+                }
+                for (TransUnit updatedTU : result.getUnits()) {
+                    if (isChangedAndNotBeingEdited(updatedTU)
+                            && updateDataModel(updatedTU)) {
+                        pageDataChangeListener.refreshRow(updatedTU,
+                                editorClientId,
+                                TransUnitUpdated.UpdateType.NonEditorSave);
+                    }
+                }
+            }
+        });
+    }
+
+    private boolean isChangedAndNotBeingEdited(TransUnit updatedTU) {
+        TransUnitId id = updatedTU.getId();
+        TransUnit current = pageModel.getByIdOrNull(id);
+        if (current == null || Objects.equal(current.getVerNum(),
+                updatedTU.getVerNum())) {
+            return false;
+        }
+        TransUnit selected = pageModel.getSelectedOrNull();
+        if (selected != null && selected.getId().equals(id)) {
+            return false;
+        }
+        return !saveEventQueue.hasPending(id) && !saveEventQueue.isSaving(id);
+    }
+
     public boolean updateDataModel(TransUnit updatedTU) {
         navigationStateHolder.updateState(updatedTU.getId(),
                 updatedTU.getStatus());
+        pageCache.update(updatedTU);
         return pageModel.updateIfInCurrentPage(updatedTU);
     }
 
@@ -330,6 +502,11 @@ public class NavigationService implements TransUnitUpdatedEventHandler,
             Log.debug("old context: " + context);
             Log.debug("new context: " + newContext);
             if (context.needReloadList(newContext)) {
+                if (context.needReloadNavigationIndex(newContext.withOffset(
+                        context.getOffset()))) {
+                    // different document or filter
+                    pageCache.clear();
+                }
                 boolean needReloadIndex =
                         context.needReloadNavigationIndex(newContext);
                 requestTransUnitsAndUpdatePageIndex(newContext, needReloadIndex);
@@ -120,6 +120,12 @@ public class SaveEventQueue {
                 .isPresent();
     }
 
+    public boolean hasPending(TransUnitId transUnitId) {
+        return Iterables.tryFind(eventQueue, Predicates.and(
+                new FindByTransUnitIdPredicate(transUnitId),
+                NotSavingPredicate.INSTANCE)).isPresent();
+    }
+
     public boolean isSaving(TransUnitId transUnitId) {
         Optional<EventWrapper> saving =
                 Iterables.tryFind(eventQueue, Predicates.and(
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.client.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.zanata.webtrans.shared.model.DocumentId;
+import org.zanata.webtrans.shared.model.GetTransUnitActionContext;
+import org.zanata.webtrans.shared.model.TransUnit;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+import com.google.inject.Singleton;
+
+/**
+ * Keeps the most recently loaded or prefetched pages of the editor table, so
+ * that going to an adjacent page does not have to wait for the server.
+ * <p>
+ * All cached pages belong to the same list of trans units (document, filter
+ * and page size). Caching a page of a different list discards the others.
+ */
+@Singleton
+public class TransUnitPageCache {
+    static final int MAX_PAGES = 5;
+
+    private GetTransUnitActionContext listContext;
+    private int modificationCount;
+    private final Map<Integer, List<TransUnit>> pages =
+            new LinkedHashMap<Integer, List<TransUnit>>(MAX_PAGES + 1, 0.75f,
+                    true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<Integer, List<TransUnit>> eldest) {
+                    return size() > MAX_PAGES;
+                }
+            };
+
+    /**
+     * @param context
+     *            context of the wanted page
+     * @return the trans units of the page at the context's offset, or null if
+     *         it is not cached
+     */
+    public List<TransUnit> getPage(GetTransUnitActionContext context) {
+        if (!isSameList(context)) {
+            return null;
+        }
+        List<TransUnit> units = pages.get(context.getOffset());
+        return units == null ? null : Lists.newArrayList(units);
+    }
+
+    public boolean containsPage(GetTransUnitActionContext context) {
+        return isSameList(context) && pages.containsKey(context.getOffset());
+    }
+
+    /**
+     * @param context
+     *            context the page was loaded with, at the page's offset
+     * @param units
+     *            trans units of the page
+     */
+    public void putPage(GetTransUnitActionContext context,
+            List<TransUnit> units) {
+        if (!isSameList(context)) {
+            pages.clear();
+            listContext = context;
+        }
+        pages.put(context.getOffset(), Lists.newArrayList(units));
+    }
+
+    /**
+     * Replaces the cached copy of the trans unit, if any page contains it.
+     */
+    public void update(TransUnit updatedTransUnit) {
+        modificationCount++;
+        for (List<TransUnit> units : pages.values()) {
+            for (int i = 0; i < units.size(); i++) {
+                if (units.get(i).getId().equals(updatedTransUnit.getId())) {
+                    units.set(i, updatedTransUnit);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Discards the cached pages if they belong to the given document.
+     */
+    public void invalidate(DocumentId documentId) {
+        if (listContext != null && Objects.equal(documentId,
+                listContext.getDocument().getId())) {
+            clear();
+        }
+    }
+
+    public void clear() {
+        modificationCount++;
+        pages.clear();
+        listContext = null;
+    }
+
+    /**
+     * @return a counter which changes whenever a trans unit is updated or the
+     *         cache is cleared, so that a page requested before then can be
+     *         recognised as possibly stale
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    private boolean isSameList(GetTransUnitActionContext context) {
+        return listContext != null
+                && !listContext.withOffset(context.getOffset())
+                        .needReloadList(context);
+    }
+}
@@ -21,6 +21,11 @@
 
 package org.zanata.webtrans.client.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.zanata.common.ContentState;
 import org.zanata.webtrans.client.events.CheckStateHasChangedEvent;
 import org.zanata.webtrans.client.events.CheckStateHasChangedHandler;
@@ -28,6 +33,8 @@ import org.zanata.webtrans.client.events.NavTransUnitEvent;
 import org.zanata.webtrans.client.events.NotificationEvent;
 import org.zanata.webtrans.client.events.TransUnitSaveEvent;
 import org.zanata.webtrans.client.events.TransUnitSaveEventHandler;
+import org.zanata.webtrans.client.keys.Timer;
+import org.zanata.webtrans.client.keys.TimerFactory;
 import org.zanata.webtrans.client.presenter.DocumentListPresenter;
 import org.zanata.webtrans.client.presenter.TargetContentsPresenter;
 import org.zanata.webtrans.client.resources.TableEditorMessages;
@@ -38,6 +45,7 @@ import org.zanata.webtrans.client.view.TargetContentsDisplay;
 import org.zanata.webtrans.shared.model.DocumentInfo;
 import org.zanata.webtrans.shared.model.TransUnit;
 import org.zanata.webtrans.shared.model.TransUnitId;
+import org.zanata.webtrans.shared.model.TransUnitUpdateInfo;
 import org.zanata.webtrans.shared.model.TransUnitUpdateRequest;
 import org.zanata.webtrans.shared.rpc.TransUnitUpdated;
 import org.zanata.webtrans.shared.rpc.UpdateTransUnit;
@@ -52,6 +60,10 @@ import com.google.inject.Singleton;
 import net.customware.gwt.presenter.client.EventBus;
 
 /**
+ * Saves translations from the editor. Saves of different rows made within
+ * {@link #SAVE_BATCH_DELAY_MILLIS} of each other are sent together as one
+ * {@link UpdateTransUnit}, and the result of each row is handled separately.
+ *
  * @author Patrick Huang <a
  *         href="mailto:pahuang@redhat.com">pahuang@redhat.com</a>
  */
@@ -67,6 +79,21 @@ public class TransUnitSaveService implements TransUnitSaveEventHandler,
     private final NavigationService navigationService;
     private final Provider<GoToRowLink> goToRowLinkProvider;
     private final SaveEventQueue queue;
+    private final TimerFactory timers;
+    // rows waiting for the next batch, in the order they were saved
+    private final Set<TransUnitId> scheduledSaves =
+            new LinkedHashSet<TransUnitId>();
+    private Timer saveTimer;
+
+    /**
+     * How long to wait for more saves before sending a batch. Each new save
+     * restarts the wait.
+     */
+    static final int SAVE_BATCH_DELAY_MILLIS = 200;
+    /**
+     * A batch is sent without waiting once it has this many rows.
+     */
+    static final int MAX_SAVE_BATCH_SIZE = 50;
 
     @Inject
     public TransUnitSaveService(EventBus eventBus,
@@ -75,7 +102,8 @@ public class TransUnitSaveService implements TransUnitSaveEventHandler,
             DocumentListPresenter documentListPresenter,
             TargetContentsPresenter targetContentsPresenter,
             TableEditorMessages messages, NavigationService navigationService,
-            Provider<GoToRowLink> goToRowLinkProvider, SaveEventQueue queue) {
+            Provider<GoToRowLink> goToRowLinkProvider, SaveEventQueue queue,
+            TimerFactory timers) {
         this.messages = messages;
         this.eventBus = eventBus;
         this.dispatcher = dispatcher;
@@ -85,6 +113,7 @@ public class TransUnitSaveService implements TransUnitSaveEventHandler,
         this.navigationService = navigationService;
         this.goToRowLinkProvider = goToRowLinkProvider;
         this.queue = queue;
+        this.timers = timers;
     }
 
     public void init() {
@@ -108,7 +137,22 @@ public class TransUnitSaveService implements TransUnitSaveEventHandler,
             return;
         }
 
-        performSave(idToSave);
+        scheduleSave(idToSave);
+    }
+
+    private void scheduleSave(TransUnitId idToSave) {
+        scheduledSaves.add(idToSave);
+        targetContentsPresenter.setEditingState(idToSave,
+                TargetContentsDisplay.EditingState.SAVING);
+        if (saveTimer == null) {
+            saveTimer = timers.create(this::performSaves);
+        }
+        if (scheduledSaves.size() >= MAX_SAVE_BATCH_SIZE) {
+            saveTimer.cancel();
+            performSaves();
+        } else {
+            saveTimer.schedule(SAVE_BATCH_DELAY_MILLIS);
+        }
     }
 
     /**
@@ -116,26 +160,38 @@ public class TransUnitSaveService implements TransUnitSaveEventHandler,
      */
     private final static String SOURCE_TYPE_GWT = "GWT";
 
-    private void performSave(TransUnitId idToSave) {
-        TransUnitSaveEvent forSaving = queue.getNextPendingForSaving(idToSave);
-        if (forSaving == null) {
-            Log.info("no pending save for " + idToSave);
+    /**
+     * Sends the next pending save of every scheduled row in one RPC.
+     */
+    private void performSaves() {
+        List<TransUnitSaveEvent> forSaving =
+                new ArrayList<TransUnitSaveEvent>();
+        for (TransUnitId idToSave : scheduledSaves) {
+            TransUnitSaveEvent event = queue.getNextPendingForSaving(idToSave);
+            if (event == null) {
+                Log.info("no pending save for " + idToSave);
+            } else {
+                forSaving.add(event);
+            }
+        }
+        scheduledSaves.clear();
+        if (forSaving.isEmpty()) {
             return;
         }
 
-        targetContentsPresenter.setEditingState(idToSave,
-                TargetContentsDisplay.EditingState.SAVING);
-
         UpdateTransUnit updateTransUnit =
-                new UpdateTransUnit(new TransUnitUpdateRequest(idToSave,
-                        forSaving.getTargets(), forSaving.getAdjustedStatus(),
-                        forSaving.getVerNum(), SOURCE_TYPE_GWT),
-                        TransUnitUpdated.UpdateType.WebEditorSave);
+                new UpdateTransUnit(TransUnitUpdated.UpdateType.WebEditorSave);
+        for (TransUnitSaveEvent event : forSaving) {
+            updateTransUnit.addTransUnit(new TransUnitUpdateRequest(
+                    event.getTransUnitId(), event.getTargets(),
+                    event.getAdjustedStatus(), event.getVerNum(),
+                    SOURCE_TYPE_GWT));
+        }
         Log.info("about to save translation: " + updateTransUnit);
-        dispatcher.execute(
-                updateTransUnit,
-                new UpdateTransUnitCallback(forSaving, documentListPresenter
-                        .getCurrentDocument(), idToSave));
+        DocumentInfo currentDocument =
+                documentListPresenter.getCurrentDocument();
+        dispatcher.execute(updateTransUnit,
+                new UpdateTransUnitCallback(forSaving, currentDocument));
     }
 
     /**
@@ -182,63 +238,83 @@ public class TransUnitSaveService implements TransUnitSaveEventHandler,
 
     private class UpdateTransUnitCallback implements
             AsyncCallback<UpdateTransUnitResult> {
-        private final TransUnitSaveEvent event;
-        private final TransUnitId id;
-        private final GoToRowLink goToRowLink;
-
-        public UpdateTransUnitCallback(TransUnitSaveEvent event,
-                DocumentInfo docInfo, TransUnitId id) {
-            this.event = event;
-            this.id = id;
-            goToRowLink = goToRowLinkProvider.get();
-            goToRowLink.prepare("", docInfo, id);
+        private final List<TransUnitSaveEvent> events;
+        private final List<GoToRowLink> goToRowLinks;
+
+        public UpdateTransUnitCallback(List<TransUnitSaveEvent> events,
+                DocumentInfo docInfo) {
+            this.events = events;
+            goToRowLinks = new ArrayList<GoToRowLink>(events.size());
+            for (TransUnitSaveEvent event : events) {
+                GoToRowLink goToRowLink = goToRowLinkProvider.get();
+                goToRowLink.prepare("", docInfo, event.getTransUnitId());
+                goToRowLinks.add(goToRowLink);
+            }
         }
 
         @Override
         public void onFailure(Throwable e) {
             Log.error("UpdateTransUnit failure ", e);
-            saveFailure(e.getMessage());
+            for (int i = 0; i < events.size(); i++) {
+                saveFailure(i, e.getMessage());
+            }
         }
 
         @Override
         public void onSuccess(UpdateTransUnitResult result) {
-            TransUnit updatedTU =
-                    result.getUpdateInfoList().get(0).getTransUnit();
+            List<TransUnitUpdateInfo> updateInfoList =
+                    result.getUpdateInfoList();
+            // results are in the same order as the requests
+            for (int i = 0; i < events.size(); i++) {
+                if (i < updateInfoList.size()) {
+                    onRowResult(i, updateInfoList.get(i));
+                } else {
+                    saveFailure(i, "no result");
+                }
+            }
+            for (TransUnitSaveEvent event : events) {
+                if (queue.hasPending(event.getTransUnitId())) {
+                    scheduleSave(event.getTransUnitId());
+                }
+            }
+        }
+
+        private void onRowResult(int index, TransUnitUpdateInfo updateInfo) {
+            TransUnit updatedTU = updateInfo.getTransUnit();
             Log.debug("save resulted TU: " + updatedTU.debugString());
-            if (result.isSingleSuccess()) {
+            if (updateInfo.isSuccess()) {
                 eventBus.fireEvent(new NotificationEvent(
                         NotificationEvent.Severity.Info, messages
                                 .notifyUpdateSaved(updatedTU.getRowIndex(),
                                         updatedTU.getId().toString()),
-                        goToRowLink));
+                        goToRowLinks.get(index)));
                 int rowIndexOnPage =
                         navigationService.findRowIndexById(updatedTU.getId());
                 if (rowIndexOnPage != NavigationService.UNDEFINED) {
                     UndoLink undoLink = undoLinkProvider.get();
-                    undoLink.prepareUndoFor(result);
+                    undoLink.prepareUndoFor(
+                            new UpdateTransUnitResult(updateInfo));
                     targetContentsPresenter.addUndoLink(rowIndexOnPage,
                             undoLink);
                     navigationService.updateDataModel(updatedTU);
                     targetContentsPresenter.confirmSaved(updatedTU);
                     targetContentsPresenter.setFocus();
                 }
-                queue.removeSaved(event, updatedTU.getVerNum());
+                queue.removeSaved(events.get(index), updatedTU.getVerNum());
             } else {
-                saveFailure(result.getUpdateInfoList().get(0).getErrorMessage());
-            }
-            if (queue.hasPending()) {
-                performSave(id);
+                saveFailure(index, updateInfo.getErrorMessage());
             }
         }
 
-        private void saveFailure(String errorMessage) {
-            queue.removeAllPending(event.getTransUnitId());
-            targetContentsPresenter.setEditingState(event.getTransUnitId(),
+        private void saveFailure(int index, String errorMessage) {
+            TransUnitId id = events.get(index).getTransUnitId();
+            queue.removeAllPending(id);
+            targetContentsPresenter.setEditingState(id,
                     TargetContentsDisplay.EditingState.UNSAVED);
             eventBus.fireEvent(new NotificationEvent(
                     NotificationEvent.Severity.Error, messages
                             .notifyUpdateFailed("id " + id, errorMessage),
-                    goToRowLink));
+                    goToRowLinks.get(index)));
         }
     }
 }
@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.zanata.common.ProjectType;
 import org.zanata.webtrans.client.events.WorkspaceContextUpdateEvent;
+import org.zanata.webtrans.client.rpc.EventSocket;
 import org.zanata.webtrans.shared.model.UserWorkspaceContext;
 import org.zanata.webtrans.shared.rpc.SessionEventData;
 import org.zanata.webtrans.shared.rpc.WorkspaceContextUpdate;
@@ -21,8 +22,10 @@ import de.novanic.eventservice.client.event.domain.Domain;
 import net.customware.gwt.presenter.client.EventBus;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -48,6 +51,10 @@ public class EventProcessorTest {
     private ArgumentCaptor<AsyncCallback<Void>> callbackCaptor;
     @Mock
     private EventServiceConfigurationTransferable configuration;
+    @Mock
+    private EventSocket eventSocket;
+    @Captor
+    private ArgumentCaptor<EventSocket.Listener> socketListenerCaptor;
 
     @Before
     public void beforeMethod() {
@@ -55,7 +62,7 @@ public class EventProcessorTest {
         userWorkspaceContext = userWorkspaceContext();
         EventProcessor processor =
                 new EventProcessor(eventBus, userWorkspaceContext,
-                        remoteEventService);
+                        remoteEventService, eventSocket);
         eventProcessor = spy(processor);
         when(eventProcessor.eventServiceConfiguration()).thenReturn(
                 configuration);
@@ -87,6 +94,41 @@ public class EventProcessorTest {
         Log.setCurrentLogLevel(currentLogLevel);
     }
 
+    @Test
+    public void startsWithEventSocketIfSupported() {
+        when(eventSocket.isSupported()).thenReturn(true);
+
+        eventProcessor.start(startCallback);
+
+        verify(eventSocket).open(socketListenerCaptor.capture());
+        verify(remoteEventService, never()).addListener(any(Domain.class),
+                any(EventProcessor.class), any());
+        EventSocket.Listener listener = socketListenerCaptor.getValue();
+        listener.onOpen("socketId");
+        verify(startCallback).onSuccess("socketId");
+
+        listener.onEvent(
+                new WorkspaceContextUpdate(true, ProjectType.Gettext, null));
+        verify(eventBus).fireEvent(any(WorkspaceContextUpdateEvent.class));
+    }
+
+    @Test
+    public void fallsBackToLongPollingWhenSocketCloses() {
+        when(eventSocket.isSupported()).thenReturn(true);
+        when(configuration.getConnectionId()).thenReturn("connectionId");
+        eventProcessor.start(startCallback);
+        verify(eventSocket).open(socketListenerCaptor.capture());
+        EventSocket.Listener listener = socketListenerCaptor.getValue();
+        listener.onOpen("socketId");
+
+        listener.onClose(true);
+
+        verify(remoteEventService).addListener(any(Domain.class),
+                eq(eventProcessor), callbackCaptor.capture());
+        callbackCaptor.getValue().onSuccess(null);
+        verify(startCallback).onReconnected("connectionId");
+    }
+
     @Test
     public void callApplyWithNotSessionEvent() throws Exception {
         Event notSessionEvent = mock(Event.class);
@@ -26,6 +26,7 @@ import org.zanata.webtrans.client.events.RequestSelectTableRowEvent;
 import org.zanata.webtrans.client.events.TableRowSelectedEvent;
 import org.zanata.webtrans.client.events.TableRowSelectedEventHandler;
 import org.zanata.webtrans.client.events.TransUnitUpdatedEvent;
+import org.zanata.webtrans.client.events.TransUnitsBulkUpdatedEvent;
 import org.zanata.webtrans.client.history.History;
 import org.zanata.webtrans.client.history.HistoryToken;
 import org.zanata.webtrans.client.presenter.MainView;
@@ -47,6 +48,7 @@ import org.zanata.webtrans.shared.rpc.TransUnitUpdated;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.gwt.event.shared.GwtEvent;
+import com.google.gwt.user.client.rpc.AsyncCallback;
 
 /**
  * @author Patrick Huang <a
@@ -90,7 +92,8 @@ public class NavigationServiceUnitTest {
         service =
                 new NavigationService(eventBus, dispatcher, configHolder,
                         mock(TableEditorMessages.class), pageModel,
-                        navigationStateHolder, contextHolder, history);
+                        navigationStateHolder, contextHolder, history,
+                        new TransUnitPageCache(), new SaveEventQueue());
         service.addPageDataChangeListener(pageDataChangeListener);
 
         verify(eventBus).addHandler(DocumentSelectionEvent.getType(), service);
@@ -214,6 +217,32 @@ public class NavigationServiceUnitTest {
                 .isEqualTo(data.get(2).getId());
     }
 
+    @Test
+    public void gotoPageShowsPrefetchedPageWithoutRequest() {
+        service.init(initContext);
+        verify(dispatcher).execute(actionCaptor.capture(),
+                resultCaptor.capture());
+        resultCaptor.getValue().onSuccess(new GetTransUnitListResult(
+                initContext.getDocument().getId(), data.subList(0, 3), 0, 0,
+                0));
+
+        // the next page is prefetched
+        verify(dispatcher, times(2)).execute(actionCaptor.capture(),
+                resultCaptor.capture());
+        GetTransUnitList prefetch = actionCaptor.getValue();
+        assertThat(prefetch.getOffset()).isEqualTo(3);
+        assertThat(prefetch.isNeedReloadIndex()).isFalse();
+        resultCaptor.getValue().onSuccess(new GetTransUnitListResult(
+                initContext.getDocument().getId(), data.subList(3, 5), 0, 3,
+                1));
+
+        service.gotoPage(1);
+
+        verify(pageDataChangeListener)
+                .showDataForCurrentPage(data.subList(3, 5));
+        verifyNoMoreInteractions(dispatcher);
+    }
+
     @Test
     public void testOnTransUnitUpdatedInCurrentPage() throws Exception {
         // Given: updated trans unit is from same document and it's on current
@@ -240,6 +269,34 @@ public class NavigationServiceUnitTest {
 
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void bulkUpdateRefreshesOnlyChangedRowsNotBeingEdited() {
+        service.selectByRowIndex(0);
+        EditorClientId editorClientId = new EditorClientId("sessionId", 1);
+        DocumentId documentId =
+                contextHolder.getContext().getDocument().getId();
+
+        service.onTransUnitsBulkUpdated(
+                new TransUnitsBulkUpdatedEvent(documentId, editorClientId));
+
+        ArgumentCaptor<AsyncCallback<GetTransUnitListResult>> callback =
+                ArgumentCaptor.forClass(AsyncCallback.class);
+        verify(dispatcher).execute(actionCaptor.capture(), callback.capture());
+        TransUnit selected = TransUnit.Builder.from(data.get(0))
+                .setVerNum(1).build();
+        TransUnit changed = TransUnit.Builder.from(data.get(1))
+                .setVerNum(1).build();
+        TransUnit unchanged = data.get(2);
+        callback.getValue().onSuccess(new GetTransUnitListResult(documentId,
+                Lists.newArrayList(selected, changed, unchanged), 0, 0, 0));
+
+        verify(pageDataChangeListener).refreshRow(changed, editorClientId,
+                TransUnitUpdated.UpdateType.NonEditorSave);
+        verifyNoMoreInteractions(pageDataChangeListener);
+        assertThat(service.getSelectedOrNull()).isSameAs(data.get(0));
+    }
+
     @Test
     public void testOnTransUnitUpdatedNotInCurrentPage() throws Exception {
         // Given: updated trans unit is from same document but NOT on current
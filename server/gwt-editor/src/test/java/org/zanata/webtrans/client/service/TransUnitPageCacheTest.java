@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.client.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.zanata.webtrans.test.GWTTestData.documentInfo;
+import static org.zanata.webtrans.test.GWTTestData.makeTransUnit;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zanata.common.ContentState;
+import org.zanata.webtrans.shared.model.GetTransUnitActionContext;
+import org.zanata.webtrans.shared.model.TransUnit;
+
+import com.google.common.collect.Lists;
+
+public class TransUnitPageCacheTest {
+    private TransUnitPageCache cache;
+    private GetTransUnitActionContext context;
+
+    @Before
+    public void setUp() {
+        cache = new TransUnitPageCache();
+        context = new GetTransUnitActionContext(documentInfo(1, "a.po"))
+                .withCount(2);
+    }
+
+    @Test
+    public void returnsPageOfSameList() {
+        List<TransUnit> units = Lists.newArrayList(makeTransUnit(3),
+                makeTransUnit(4));
+        cache.putPage(context.withOffset(2), units);
+
+        assertThat(cache.getPage(context.withOffset(2))).isEqualTo(units);
+        assertThat(cache.getPage(context.withOffset(0))).isNull();
+        assertThat(cache.getPage(context.withOffset(2).withFindMessage("x")))
+                .isNull();
+    }
+
+    @Test
+    public void cachingOtherListDiscardsPages() {
+        cache.putPage(context, Lists.newArrayList(makeTransUnit(1)));
+
+        cache.putPage(context.withCount(5),
+                Lists.newArrayList(makeTransUnit(1)));
+
+        assertThat(cache.containsPage(context)).isFalse();
+        assertThat(cache.containsPage(context.withCount(5))).isTrue();
+    }
+
+    @Test
+    public void keepsMostRecentlyUsedPages() {
+        for (int page = 0; page <= TransUnitPageCache.MAX_PAGES; page++) {
+            cache.putPage(context.withOffset(page * 2),
+                    Lists.newArrayList(makeTransUnit(page)));
+            // keeps the first page in use
+            cache.getPage(context);
+        }
+
+        assertThat(cache.containsPage(context)).isTrue();
+        assertThat(cache.containsPage(context.withOffset(2))).isFalse();
+    }
+
+    @Test
+    public void updatesCachedTransUnit() {
+        cache.putPage(context, Lists.newArrayList(makeTransUnit(1),
+                makeTransUnit(2)));
+        int modificationCount = cache.getModificationCount();
+        TransUnit updated = makeTransUnit(2, ContentState.Approved);
+
+        cache.update(updated);
+
+        assertThat(cache.getPage(context).get(1)).isSameAs(updated);
+        assertThat(cache.getModificationCount())
+                .isNotEqualTo(modificationCount);
+    }
+
+    @Test
+    public void invalidatesPagesOfDocument() {
+        cache.putPage(context, Lists.newArrayList(makeTransUnit(1)));
+
+        cache.invalidate(documentInfo(2, "b.po").getId());
+        assertThat(cache.containsPage(context)).isTrue();
+
+        cache.invalidate(context.getDocument().getId());
+        assertThat(cache.containsPage(context)).isFalse();
+    }
+}
@@ -1,6 +1,9 @@
 package org.zanata.webtrans.client.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -19,6 +22,9 @@ import org.mockito.MockitoAnnotations;
 import org.zanata.common.ContentState;
 import org.zanata.webtrans.client.events.NotificationEvent;
 import org.zanata.webtrans.client.events.TransUnitSaveEvent;
+import org.zanata.webtrans.client.keys.TimedAction;
+import org.zanata.webtrans.client.keys.Timer;
+import org.zanata.webtrans.client.keys.TimerFactory;
 import org.zanata.webtrans.client.presenter.DocumentListPresenter;
 import org.zanata.webtrans.client.presenter.TargetContentsPresenter;
 import org.zanata.webtrans.client.resources.TableEditorMessages;
@@ -71,6 +77,12 @@ public class TransUnitSaveServiceTest {
     private UndoLink undoLink;
     @Mock
     private GoToRowLink goToLink;
+    @Mock
+    private TimerFactory timerFactory;
+    @Mock
+    private Timer saveTimer;
+    @Captor
+    private ArgumentCaptor<TimedAction> saveActionCaptor;
     private SaveEventQueue queue;
 
     @Before
@@ -80,8 +92,20 @@ public class TransUnitSaveServiceTest {
         service =
                 new TransUnitSaveService(eventBus, dispatcher, undoProvider,
                         documentListPresenter, targetContentsPresenter,
-                        messages, navigationService, goToRowProvider, queue);
+                        messages, navigationService, goToRowProvider, queue,
+                        timerFactory);
         when(goToRowProvider.get()).thenReturn(goToLink);
+        when(timerFactory.create(saveActionCaptor.capture()))
+                .thenReturn(saveTimer);
+    }
+
+    /**
+     * Simulates the batching delay running out.
+     */
+    private void sendScheduledSaves() {
+        verify(saveTimer, atLeastOnce())
+                .schedule(TransUnitSaveService.SAVE_BATCH_DELAY_MILLIS);
+        saveActionCaptor.getValue().run();
     }
 
     private static TransUnitSaveEvent event(String newContent,
@@ -120,6 +144,7 @@ public class TransUnitSaveServiceTest {
         // When: save as approved
         service.onTransUnitSave(event("new content", ContentState.Approved,
                 TRANS_UNIT_ID, VER_NUM, "old content"));
+        sendScheduledSaves();
 
         // Then:
         verify(dispatcher).execute(actionCaptor.capture(),
@@ -146,9 +171,10 @@ public class TransUnitSaveServiceTest {
                         ContentState.NeedReview, "old content");
         when(navigationService.getByIdOrNull(TRANS_UNIT_ID)).thenReturn(old);
 
-        // When: save twice
+        // When: save again while the first save is being sent
         service.onTransUnitSave(event("new content", ContentState.Approved,
                 TRANS_UNIT_ID, VER_NUM, "old content"));
+        sendScheduledSaves();
         service.onTransUnitSave(event("newer content", ContentState.NeedReview,
                 TRANS_UNIT_ID, VER_NUM, "new content"));
 
@@ -182,6 +208,7 @@ public class TransUnitSaveServiceTest {
         // When: save as fuzzy
         service.onTransUnitSave(event("new content", ContentState.NeedReview,
                 TRANS_UNIT_ID, VER_NUM, "old content"));
+        sendScheduledSaves();
 
         // Then:
         verify(dispatcher).execute(actionCaptor.capture(),
@@ -215,7 +242,11 @@ public class TransUnitSaveServiceTest {
         NotificationEvent event = notificationEventCaptor.getValue();
         assertThat(event.getSeverity()).isEqualTo(NotificationEvent.Severity.Info);
         assertThat(event.getMessage()).isEqualTo("saved row 1, id 1");
-        verify(undoLink).prepareUndoFor(result);
+        ArgumentCaptor<UpdateTransUnitResult> undoResultCaptor =
+                ArgumentCaptor.forClass(UpdateTransUnitResult.class);
+        verify(undoLink).prepareUndoFor(undoResultCaptor.capture());
+        assertThat(undoResultCaptor.getValue().getUpdateInfoList())
+                .isEqualTo(result.getUpdateInfoList());
         verify(targetContentsPresenter).addUndoLink(rowIndex, undoLink);
         verify(navigationService).updateDataModel(updatedTU);
         verify(targetContentsPresenter).confirmSaved(updatedTU);
@@ -233,6 +264,7 @@ public class TransUnitSaveServiceTest {
         // When: save twice and one will be pending
         service.onTransUnitSave(event("new content", ContentState.NeedReview,
                 TRANS_UNIT_ID, VER_NUM, "old content"));
+        sendScheduledSaves();
         service.onTransUnitSave(event("newer content", ContentState.NeedReview,
                 TRANS_UNIT_ID, VER_NUM, "new content"));
 
@@ -258,6 +290,7 @@ public class TransUnitSaveServiceTest {
 
         // When:
         callback.onSuccess(result);
+        sendScheduledSaves();
         verify(dispatcher, times(2)).execute(actionCaptor.capture(),
                 resultCaptor.capture());
 
@@ -280,6 +313,7 @@ public class TransUnitSaveServiceTest {
         // When: save as fuzzy
         service.onTransUnitSave(event("new content", ContentState.NeedReview,
                 TRANS_UNIT_ID, VER_NUM, "old content"));
+        sendScheduledSaves();
 
         // Then:
         verify(dispatcher).execute(actionCaptor.capture(),
@@ -327,6 +361,7 @@ public class TransUnitSaveServiceTest {
                 event("new content", ContentState.NeedReview, TRANS_UNIT_ID,
                         VER_NUM, "old content");
         service.onTransUnitSave(saveEvent);
+        sendScheduledSaves();
         verify(dispatcher).execute(actionCaptor.capture(),
                 resultCaptor.capture());
         // on rpc failure:
@@ -350,6 +385,58 @@ public class TransUnitSaveServiceTest {
         assertThat(event.getInlineLink()).isSameAs(goToLink);
     }
 
+    @Test
+    public void savesOfDifferentRowsAreSentTogether() {
+        // Given:
+        TransUnitId otherId = new TransUnitId(2);
+        when(navigationService.getByIdOrNull(TRANS_UNIT_ID)).thenReturn(
+                makeTransUnit(TRANS_UNIT_ID.getId(), ContentState.NeedReview,
+                        "old content"));
+        when(navigationService.getByIdOrNull(otherId)).thenReturn(
+                makeTransUnit(otherId.getId(), ContentState.NeedReview,
+                        "old content"));
+
+        // When: two rows are saved within the batching delay
+        service.onTransUnitSave(event("new content", ContentState.Approved,
+                TRANS_UNIT_ID, VER_NUM, "old content"));
+        service.onTransUnitSave(event("other content",
+                ContentState.Translated, otherId, VER_NUM, "old content"));
+        sendScheduledSaves();
+
+        // Then: one request carries both rows
+        verify(dispatcher).execute(actionCaptor.capture(),
+                resultCaptor.capture());
+        assertThat(actionCaptor.getValue().getUpdateRequests())
+                .extracting(TransUnitUpdateRequest::getTransUnitId)
+                .containsExactly(TRANS_UNIT_ID, otherId);
+
+        // When: the first row is saved and the second one has a conflict
+        when(undoProvider.get()).thenReturn(undoLink);
+        when(navigationService.findRowIndexById(any(TransUnitId.class)))
+                .thenReturn(NavigationService.UNDEFINED);
+        when(messages.notifyUpdateFailed("id " + otherId, "conflict"))
+                .thenReturn("update failed");
+        TransUnit savedTU = makeTransUnit(TRANS_UNIT_ID.getId(),
+                ContentState.Approved, "new content");
+        UpdateTransUnitResult result =
+                result(true, savedTU, ContentState.NeedReview, null);
+        result.addUpdateResult(new TransUnitUpdateInfo(false, false,
+                new DocumentId(new Long(1), ""),
+                makeTransUnit(otherId.getId(), ContentState.NeedReview,
+                        "old content"),
+                9, VER_NUM, ContentState.NeedReview, "conflict"));
+        resultCaptor.getValue().onSuccess(result);
+
+        // Then: each row gets its own outcome
+        verify(targetContentsPresenter).setEditingState(otherId,
+                TargetContentsDisplay.EditingState.UNSAVED);
+        verify(targetContentsPresenter, never()).setEditingState(
+                TRANS_UNIT_ID, TargetContentsDisplay.EditingState.UNSAVED);
+        assertThat(queue.getEventQueue()).isEmpty();
+        verify(dispatcher).execute(any(UpdateTransUnit.class),
+                any(AsyncCallback.class));
+    }
+
     private static UpdateTransUnitResult
             result(boolean success, TransUnit transUnit,
                     ContentState previousState, String errorMessage) {
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.shared;
+
+import org.zanata.webtrans.shared.rpc.SessionEventData;
+
+import com.google.gwt.user.client.rpc.RemoteService;
+
+/**
+ * Describes the workspace events pushed over the editor's WebSocket, so that
+ * the server can encode them with GWT RPC serialization and the client can
+ * decode them with the generated serializer. There is no servlet behind this
+ * service; its proxy is only used as a serialization stream factory.
+ */
+public interface WorkspaceEventChannel extends RemoteService {
+
+    SessionEventData nextEvent();
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.shared.rpc;
+
+import org.zanata.webtrans.shared.auth.EditorClientId;
+import org.zanata.webtrans.shared.model.DocumentId;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Sent instead of individual {@link TransUnitUpdated} events when too many
+ * text flows of a document changed within a short time (eg TM merge or a
+ * REST push). Clients should reload the visible rows and statistics of the
+ * document rather than expect an event for every row.
+ */
+public class TransUnitsBulkUpdated implements SessionEventData {
+    private static final long serialVersionUID = 1L;
+    private DocumentId documentId;
+    private int updateCount;
+    private EditorClientId editorClientId;
+
+    // required for GWT rpc serialization
+    public TransUnitsBulkUpdated() {
+    }
+
+    public TransUnitsBulkUpdated(DocumentId documentId, int updateCount,
+            EditorClientId editorClientId) {
+        this.documentId = documentId;
+        this.updateCount = updateCount;
+        this.editorClientId = editorClientId;
+    }
+
+    public DocumentId getDocumentId() {
+        return documentId;
+    }
+
+    /**
+     * @return number of updates which were collapsed into this event
+     */
+    public int getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * @return the editor client of the most recent update
+     */
+    public EditorClientId getEditorClientId() {
+        return editorClientId;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("documentId", documentId)
+                .add("updateCount", updateCount)
+                .add("editorClientId", editorClientId)
+                .toString();
+    }
+}
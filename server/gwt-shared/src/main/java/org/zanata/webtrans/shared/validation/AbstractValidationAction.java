@@ -37,6 +37,8 @@ import org.zanata.webtrans.shared.validation.action.XmlEntityValidation;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.gwt.regexp.shared.MatchResult;
+import com.google.gwt.regexp.shared.RegExp;
 
 /**
  *
@@ -81,6 +83,33 @@ public abstract class AbstractValidationAction implements ValidationAction {
 
     protected abstract List<String> doValidate(String source, String target);
 
+    /**
+     * Finds all successive matches of a pattern, like repeatedly calling exec
+     * on a global RegExp. The pattern must not be global: this keeps no
+     * lastIndex state, so a single precompiled RegExp can be shared by all
+     * threads (validation actions are shared on the server). Patterns passed
+     * here must not use anchors and must not match the empty string.
+     *
+     * @param regExp
+     *            non-global pattern
+     * @param text
+     *            text to scan
+     * @return matched strings in order of appearance
+     */
+    protected static ArrayList<String> findAll(RegExp regExp, String text) {
+        ArrayList<String> matches = new ArrayList<String>();
+        String remaining = text;
+        MatchResult result = regExp.exec(remaining);
+        while (result != null) {
+            String match = result.getGroup(0);
+            matches.add(match);
+            remaining =
+                    remaining.substring(result.getIndex() + match.length());
+            result = regExp.exec(remaining);
+        }
+        return matches;
+    }
+
     @Override
     public List<ValidationAction> getExclusiveValidations() {
         return exclusiveValidations;
@@ -27,7 +27,6 @@ import org.zanata.webtrans.shared.model.ValidationId;
 import org.zanata.webtrans.shared.resources.ValidationMessages;
 import org.zanata.webtrans.shared.validation.AbstractValidationAction;
 
-import com.google.gwt.regexp.shared.MatchResult;
 import com.google.gwt.regexp.shared.RegExp;
 
 /**
@@ -41,24 +40,25 @@ public class HtmlXmlTagValidation extends AbstractValidationAction {
     }
 
     private final static String tagRegex = "<[^>]+>";
+    private final static RegExp tagRegExp = RegExp.compile(tagRegex);
 
     @Override
     public List<String> doValidate(String source, String target) {
         ArrayList<String> errors = new ArrayList<String>();
+        // each text is scanned for tags only once
+        ArrayList<String> sourceTags = getTagList(source);
+        ArrayList<String> targetTags = getTagList(target);
 
-        List<String> foundErrors = listMissing(source, target);
+        List<String> foundErrors = listMissing(sourceTags, target);
         if (!foundErrors.isEmpty()) {
             errors.add(getMessages().tagsMissing(foundErrors));
         }
-        foundErrors = listMissing(target, source);
+        foundErrors = listMissing(targetTags, source);
         if (!foundErrors.isEmpty()) {
             errors.add(getMessages().tagsAdded(foundErrors));
         }
 
         if (errors.isEmpty()) {
-            ArrayList<String> sourceTags = getTagList(source);
-            ArrayList<String> targetTags = getTagList(target);
-
             errors.addAll(orderValidation(sourceTags, targetTags));
         }
         return errors;
@@ -131,27 +131,23 @@ public class HtmlXmlTagValidation extends AbstractValidationAction {
     }
 
     private ArrayList<String> getTagList(String src) {
-        final RegExp regExp = RegExp.compile(tagRegex, "g");
-
-        ArrayList<String> list = new ArrayList<String>();
-        MatchResult result = regExp.exec(src);
-        while (result != null) {
-            String node = result.getGroup(0);
-            list.add(node);
-            result = regExp.exec(src);
-        }
-        return list;
+        return findAll(tagRegExp, src);
     }
 
-    private List<String> listMissing(String compareFrom, String compareTo) {
-        final RegExp regExp = RegExp.compile(tagRegex, "g");
-
+    /**
+     * @param compareFromTags
+     *            tags of one text, in order
+     * @param compareTo
+     *            the other text
+     * @return tags which are not found in compareTo (each occurrence in
+     *         compareTo matches only one tag)
+     */
+    private List<String> listMissing(List<String> compareFromTags,
+            String compareTo) {
         String tmp = compareTo;
         ArrayList<String> unmatched = new ArrayList<String>();
-        MatchResult result = regExp.exec(compareFrom);
 
-        while (result != null) {
-            String node = result.getGroup(0);
+        for (String node : compareFromTags) {
             if (!tmp.contains(node)) {
                 unmatched.add(node);
             } else {
@@ -161,7 +157,6 @@ public class HtmlXmlTagValidation extends AbstractValidationAction {
                 // remove matched node from
                 tmp = beforeNode + afterNode;
             }
-            result = regExp.exec(compareFrom);
         }
         return unmatched;
     }
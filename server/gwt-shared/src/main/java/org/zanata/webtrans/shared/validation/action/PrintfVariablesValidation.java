@@ -29,7 +29,6 @@ import org.zanata.webtrans.shared.validation.AbstractValidationAction;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
-import com.google.gwt.regexp.shared.MatchResult;
 import com.google.gwt.regexp.shared.RegExp;
 
 /**
@@ -38,12 +37,11 @@ import com.google.gwt.regexp.shared.RegExp;
  *
  **/
 public class PrintfVariablesValidation extends AbstractValidationAction {
-    private static final String GLOBAL_FLAG = "g";
-
     // derived from translate toolkit printf style variable matching regex. See:
     // http://translate.svn.sourceforge.net/viewvc/translate/src/trunk/translate/filters/checks.py?revision=17978&view=markup
     private static final String VAR_REGEX =
             "%((?:\\d+\\$|\\(\\w+\\))?[+#-]*(\\d+)?(\\.\\d+)?(hh|h|ll|l|L|z|j|t)?[\\w%])";
+    private static final RegExp VAR_REG_EXP = RegExp.compile(VAR_REGEX);
 
     public PrintfVariablesValidation(ValidationId id,
             ValidationMessages messages) {
@@ -111,15 +109,7 @@ public class PrintfVariablesValidation extends AbstractValidationAction {
     }
 
     protected ArrayList<String> findVars(String inString) {
-        ArrayList<String> vars = new ArrayList<String>();
-        // compile each time to reset index
-        RegExp varRegExp = RegExp.compile(VAR_REGEX, GLOBAL_FLAG);
-        MatchResult result = varRegExp.exec(inString);
-        while (result != null) {
-            vars.add(result.getGroup(0));
-            result = varRegExp.exec(inString);
-        }
-        return vars;
+        return findAll(VAR_REG_EXP, inString);
     }
 
     @Override
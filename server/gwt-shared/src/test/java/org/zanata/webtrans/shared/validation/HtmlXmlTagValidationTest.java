@@ -209,4 +209,19 @@ public class HtmlXmlTagValidationTest {
                 "<three>", "</three>")));
         assertThat(errorList.size()).isEqualTo(1);
     }
+
+    @Test
+    public void repeatedTagsMatchedOncePerOccurrence() {
+        String source = "<b>one</b> <b>two</b> <br/>";
+        String target = "<b>uno</b> dos <br/>";
+
+        // same results when the shared instance validates again
+        for (int i = 0; i < 2; i++) {
+            List<String> errorList =
+                    htmlXmlTagValidation.validate(source, target);
+
+            assertThat(errorList).containsExactly(
+                    messages.tagsMissing(asList("<b>", "</b>")));
+        }
+    }
 }
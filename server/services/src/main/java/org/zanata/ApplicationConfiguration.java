@@ -90,6 +90,18 @@ public class ApplicationConfiguration implements Serializable {
     private static final int defaultAnonymousSessionTimeoutMinutes = 30;
     public static final String ACCESS_TOKEN_EXPIRES_IN_SECONDS =
             "accessTokenExpiresInSeconds";
+    public static final String TRANSLATED_FILE_CACHE_MAX_MB =
+            "zanata.file.translated-cache.max-mb";
+    private static final long defaultTranslatedFileCacheMaxMB = 1024;
+    public static final String INDEX_QUEUE_SIZE =
+            "zanata.search.index-queue.size";
+    private static final int defaultIndexQueueSize = 50000;
+    public static final String INDEX_QUEUE_BATCH_SIZE =
+            "zanata.search.index-queue.batch-size";
+    private static final int defaultIndexQueueBatchSize = 500;
+    public static final String CONTRIBUTION_ROLLUP_SETTLE_MINUTES =
+            "zanata.contribution.rollup.settle-minutes";
+    private static final long defaultContributionRollupSettleMinutes = 10;
     @Inject
     private DatabaseBackedConfig databaseBackedConfig;
     @Inject
@@ -132,6 +144,10 @@ public class ApplicationConfiguration implements Serializable {
     private Set<String> adminUsers;
     private Optional<String> openIdProvider; // Cache the OpenId provider
     private long tokenExpiresInSeconds;
+    private long translatedFileCacheMaxMB;
+    private int indexQueueSize;
+    private int indexQueueBatchSize;
+    private long contributionRollupSettleMinutes;
 
     @PostConstruct
     public void load() {
@@ -144,6 +160,15 @@ public class ApplicationConfiguration implements Serializable {
                 sysPropConfigStore.get("zanata.enforce.matchingusernames"));
         tokenExpiresInSeconds = sysPropConfigStore
                 .getLong(ACCESS_TOKEN_EXPIRES_IN_SECONDS, 3600);
+        translatedFileCacheMaxMB = sysPropConfigStore.getLong(
+                TRANSLATED_FILE_CACHE_MAX_MB, defaultTranslatedFileCacheMaxMB);
+        indexQueueSize = sysPropConfigStore.get(INDEX_QUEUE_SIZE,
+                defaultIndexQueueSize);
+        indexQueueBatchSize = sysPropConfigStore.get(INDEX_QUEUE_BATCH_SIZE,
+                defaultIndexQueueBatchSize);
+        contributionRollupSettleMinutes = sysPropConfigStore.getLong(
+                CONTRIBUTION_ROLLUP_SETTLE_MINUTES,
+                defaultContributionRollupSettleMinutes);
     }
 
     /**
@@ -483,6 +508,38 @@ public class ApplicationConfiguration implements Serializable {
         return tokenExpiresInSeconds;
     }
 
+    /**
+     * @return disk space allowed for generated translated documents, in
+     *         megabytes (0 disables the cache)
+     */
+    public long getTranslatedFileCacheMaxMB() {
+        return translatedFileCacheMaxMB;
+    }
+
+    /**
+     * @return number of changed translations which may wait to be indexed
+     *         (0 indexes them synchronously when they are saved)
+     */
+    public int getIndexQueueSize() {
+        return indexQueueSize;
+    }
+
+    /**
+     * @return number of queued translations indexed together
+     */
+    public int getIndexQueueBatchSize() {
+        return indexQueueBatchSize;
+    }
+
+    /**
+     * @return minutes a saved translation waits before it is added to the
+     *         contribution rollup. Must be longer than the transaction
+     *         timeout of the application server.
+     */
+    public long getContributionRollupSettleMinutes() {
+        return contributionRollupSettleMinutes;
+    }
+
     @Produces
     @SupportOAuth
     protected boolean isOAuthSupported() {
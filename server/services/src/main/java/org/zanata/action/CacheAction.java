@@ -26,6 +26,8 @@ import org.apache.commons.text.StringEscapeUtils;
 import org.infinispan.Cache;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.stats.Stats;
+import org.zanata.cache.CacheRegionStats;
+import org.zanata.cache.CacheStatisticsService;
 import org.zanata.i18n.Messages;
 import org.zanata.security.annotations.CheckRole;
 import org.zanata.util.Zanata;
@@ -56,6 +58,8 @@ public class CacheAction implements Serializable {
     private EmbeddedCacheManager cacheManager;
     @Inject
     private Messages msgs;
+    @Inject
+    private CacheStatisticsService cacheStatisticsService;
 
     public CacheAction() {
     }
@@ -141,6 +145,30 @@ public class CacheAction implements Serializable {
         }
     }
 
+    /**
+     * Return statistics and settings of the Hibernate second-level cache
+     * regions, followed by the totals for the query cache.
+     */
+    public List<CacheRegionStats> getHibernateRegionStats() {
+        List<CacheRegionStats> regions =
+                new ArrayList<>(cacheStatisticsService.getHibernateRegionStats());
+        regions.add(cacheStatisticsService.getQueryCacheTotals());
+        return regions;
+    }
+
+    public boolean isHibernateStatisticsEnabled() {
+        return cacheStatisticsService.isHibernateStatisticsEnabled();
+    }
+
+    public void toggleHibernateStatistics() {
+        cacheStatisticsService
+                .setHibernateStatisticsEnabled(!isHibernateStatisticsEnabled());
+    }
+
+    public void resetHibernateStatistics() {
+        cacheStatisticsService.resetHibernateStatistics();
+    }
+
     public String getNameOfProperty(String key) {
         return msgs.get("jsf.cacheStats." + key + ".name");
     }
@@ -929,8 +929,12 @@ public class VersionHomeAction extends AbstractSortAction
             }
             filePersistService.persistRawDocumentContentFromFile(rawDocument,
                     tempFile, FilenameUtils.getExtension(fileName));
+            HRawDocument oldRawDocument = document.getRawDocument();
             documentDAO.addRawDocument(document, rawDocument);
             documentDAO.flush();
+            if (oldRawDocument != null) {
+                filePersistService.removeRawDocumentContent(oldRawDocument);
+            }
         }
         translationFileServiceImpl.removeTempFile(tempFile);
     }
@@ -21,10 +21,12 @@
 package org.zanata.async;
 
 import java.security.Principal;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -55,6 +57,8 @@ public class AsyncTaskManager {
     private ExecutorService scheduler;
     @Inject
     private AsyncConfig asyncConfig;
+    @Inject
+    private AsyncTaskHandleManager taskHandleManager;
 
     @PostConstruct
     public void init() {
@@ -119,6 +123,40 @@ public class AsyncTaskManager {
         return taskFuture;
     }
 
+    /**
+     * Starts a group of independent tasks which report to a single handle.
+     * The tasks run in parallel, as far as the thread pool allows, each with
+     * its own contexts and the caller's security context. The handle is done
+     * when all of the tasks are done, and fails if any of them failed.
+     *
+     * @param handle
+     *            registered handle for the group of tasks
+     * @param tasks
+     *            The tasks to run.
+     * @param <V>
+     *            The type of result expected from each task.
+     * @return A future for the results of the tasks, in the same order as the
+     *         tasks.
+     */
+    public <V> CompletableFuture<List<V>> startTasks(
+            @Nonnull AsyncTaskHandle<List<V>> handle,
+            @Nonnull List<AsyncTask<Future<V>>> tasks) {
+        handle.startTiming();
+        List<CompletableFuture<V>> futures = tasks.stream()
+                .map(this::startTask).collect(Collectors.toList());
+        CompletableFuture<List<V>> allResults = CompletableFuture
+                .allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> futures.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
+        handle.setFutureResult(allResults);
+        allResults.whenComplete((results, throwable) -> {
+            handle.finishTiming();
+            taskHandleManager.taskFinished(handle);
+        });
+        return allResults;
+    }
+
     private static <V> V getReturnValue(Future<V> asyncTaskFuture)
             throws Exception {
         // If the async method returns void
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.async.handle;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.zanata.async.AsyncTaskHandle;
+import org.zanata.async.UserTriggeredTaskHandle;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Asynchronous task handle for a batch of source documents uploaded together,
+ * which are parsed and saved in parallel. Progress is counted in files.
+ */
+public class SourceDocumentUploadTaskHandle
+        extends AsyncTaskHandle<List<String>>
+        implements UserTriggeredTaskHandle {
+    private static final long serialVersionUID = 1L;
+    private final Map<String, String> fileOutcomes = new LinkedHashMap<>();
+    private final Set<String> failedFiles = new HashSet<>();
+    private String triggeredBy;
+
+    public SourceDocumentUploadTaskHandle(int totalFiles) {
+        setMaxProgress(totalFiles);
+    }
+
+    /**
+     * Records a file which was parsed and saved. May be called from several
+     * task threads at once.
+     */
+    public synchronized void fileSucceeded(String docId, String message) {
+        fileOutcomes.put(docId, message);
+        increaseProgress(1);
+    }
+
+    /**
+     * Records a file which could not be parsed or saved. May be called from
+     * several task threads at once.
+     */
+    public synchronized void fileFailed(String docId, String error) {
+        fileOutcomes.put(docId, error);
+        failedFiles.add(docId);
+        increaseProgress(1);
+    }
+
+    /**
+     * @return outcome message for each file processed so far, by document id
+     */
+    public synchronized Map<String, String> getFileOutcomes() {
+        return ImmutableMap.copyOf(fileOutcomes);
+    }
+
+    /**
+     * @return document ids of the files which failed so far
+     */
+    public synchronized Set<String> getFailedFiles() {
+        return ImmutableSet.copyOf(failedFiles);
+    }
+
+    @Override
+    public String getTriggeredBy() {
+        return this.triggeredBy;
+    }
+
+    @Override
+    public void setTriggeredBy(final String triggeredBy) {
+        this.triggeredBy = triggeredBy;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return MoreObjects.toStringHelper(this).omitNullValues()
+                .add("currentProgress", getCurrentProgress())
+                .add("maxProgress", getMaxProgress())
+                .add("triggeredBy", triggeredBy)
+                .toString();
+    }
+
+    @Override
+    public String getTaskName() {
+        return ObjectUtils.firstNonNull(this.taskName,
+                "Source document upload");
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.async.handle;
+
+import java.util.List;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.zanata.async.AsyncTaskHandle;
+import org.zanata.async.UserTriggeredTaskHandle;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Asynchronous task handle for a TMX export which is split into id ranges
+ * and exported in parallel. Progress is counted in ranges.
+ */
+public class TMXExportTaskHandle extends AsyncTaskHandle<List<String>>
+        implements UserTriggeredTaskHandle {
+    private static final long serialVersionUID = 1L;
+    private volatile String downloadId;
+    private String triggeredBy;
+
+    public TMXExportTaskHandle(int totalRanges) {
+        setMaxProgress(totalRanges);
+    }
+
+    /**
+     * @return id of the finished export file (see
+     *         {@link org.zanata.service.FileSystemService}), or null until
+     *         all ranges have been exported
+     */
+    public String getDownloadId() {
+        return downloadId;
+    }
+
+    public void setDownloadId(String downloadId) {
+        this.downloadId = downloadId;
+    }
+
+    @Override
+    public String getTriggeredBy() {
+        return this.triggeredBy;
+    }
+
+    @Override
+    public void setTriggeredBy(final String triggeredBy) {
+        this.triggeredBy = triggeredBy;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).omitNullValues()
+                .add("currentProgress", getCurrentProgress())
+                .add("maxProgress", getMaxProgress())
+                .add("downloadId", downloadId)
+                .add("triggeredBy", triggeredBy)
+                .toString();
+    }
+
+    @Override
+    public String getTaskName() {
+        return ObjectUtils.firstNonNull(this.taskName, "TMX export");
+    }
+}
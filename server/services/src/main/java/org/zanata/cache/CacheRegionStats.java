@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.cache;
+
+import java.io.Serializable;
+
+/**
+ * Counters and settings of a single cache or Hibernate cache region. Values
+ * which are not available (eg statistics disabled) are -1, as in Infinispan.
+ */
+public final class CacheRegionStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+    static final long UNAVAILABLE = -1;
+
+    private final String name;
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    private final long evictions;
+    private final long entries;
+    private final long sizeInMemory;
+    private final String evictionStrategy;
+    private final long maxEntries;
+    private final long lifespan;
+    private final long maxIdle;
+
+    CacheRegionStats(String name, long hits, long misses, long puts,
+            long evictions, long entries, long sizeInMemory,
+            String evictionStrategy, long maxEntries, long lifespan,
+            long maxIdle) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.evictions = evictions;
+        this.entries = entries;
+        this.sizeInMemory = sizeInMemory;
+        this.evictionStrategy = evictionStrategy;
+        this.maxEntries = maxEntries;
+        this.lifespan = lifespan;
+        this.maxIdle = maxIdle;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return number of entries currently held in memory
+     */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return approximate memory used by the entries, in bytes
+     */
+    public long getSizeInMemory() {
+        return sizeInMemory;
+    }
+
+    /**
+     * @return hits as a percentage of all lookups, or -1 if unknown
+     */
+    public double getHitRatio() {
+        if (hits < 0 || misses < 0 || hits + misses == 0) {
+            return UNAVAILABLE;
+        }
+        return 100.0 * hits / (hits + misses);
+    }
+
+    /**
+     * @return configured eviction strategy, or null if unknown
+     */
+    public String getEvictionStrategy() {
+        return evictionStrategy;
+    }
+
+    /**
+     * @return configured maximum number of entries (-1 means unbounded)
+     */
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return configured lifespan (TTL) of entries in milliseconds (-1 means
+     *         no expiry)
+     */
+    public long getLifespan() {
+        return lifespan;
+    }
+
+    /**
+     * @return configured maximum idle time of entries in milliseconds (-1
+     *         means no expiry)
+     */
+    public long getMaxIdle() {
+        return maxIdle;
+    }
+}
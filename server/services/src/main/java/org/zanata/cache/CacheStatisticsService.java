@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.cache;
+
+import static org.zanata.cache.CacheRegionStats.UNAVAILABLE;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.stats.Stats;
+import org.zanata.util.Zanata;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Collects hit/miss/eviction counters and sizing settings for Zanata's own
+ * Infinispan caches and for the Hibernate second-level cache regions.
+ * <p>
+ * Hibernate region counters need {@code hibernate.generate_statistics}.
+ * Eviction and expiry settings of the regions are read from the application
+ * server's "hibernate" cache container, if it can be found in JNDI.
+ */
+@ApplicationScoped
+public class CacheStatisticsService implements Serializable {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(CacheStatisticsService.class);
+    private static final long serialVersionUID = 1L;
+
+    static final String HIBERNATE_CACHE_CONTAINER =
+            "java:jboss/infinispan/container/hibernate";
+    public static final String QUERY_CACHE_TOTALS = "(all query caches)";
+
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    private EmbeddedCacheManager cacheManager;
+
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    private SessionFactory sessionFactory;
+
+    // constructor for CDI
+    public CacheStatisticsService() {
+    }
+
+    @Inject
+    public CacheStatisticsService(@Zanata EmbeddedCacheManager cacheManager,
+            @Zanata SessionFactory sessionFactory) {
+        this.cacheManager = cacheManager;
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * @return statistics of the caches in the "zanata" cache container
+     */
+    public List<CacheRegionStats> getZanataCacheStats() {
+        List<CacheRegionStats> result = new ArrayList<>();
+        for (String name : sorted(cacheManager.getCacheNames())) {
+            result.add(toRegionStats(name, cacheManager.getCache(name)));
+        }
+        return result;
+    }
+
+    /**
+     * @return statistics of every Hibernate second-level cache region
+     */
+    public List<CacheRegionStats> getHibernateRegionStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Optional<EmbeddedCacheManager> regionCaches =
+                lookupHibernateCacheManager();
+        List<CacheRegionStats> result = new ArrayList<>();
+        for (String region : sorted(Arrays
+                .asList(statistics.getSecondLevelCacheRegionNames()))) {
+            SecondLevelCacheStatistics regionStats =
+                    statistics.getSecondLevelCacheStatistics(region);
+            Optional<Cache<Object, Object>> cache = regionCaches
+                    .filter(cm -> cm.cacheExists(region))
+                    .map(cm -> cm.getCache(region));
+            long evictions = cache.map(CacheStatisticsService::getStats)
+                    .map(Stats::getEvictions).orElse(UNAVAILABLE);
+            Optional<Configuration> config =
+                    cache.map(Cache::getCacheConfiguration);
+            boolean counted =
+                    statistics.isStatisticsEnabled() && regionStats != null;
+            result.add(new CacheRegionStats(region,
+                    counted ? regionStats.getHitCount() : UNAVAILABLE,
+                    counted ? regionStats.getMissCount() : UNAVAILABLE,
+                    counted ? regionStats.getPutCount() : UNAVAILABLE,
+                    evictions,
+                    regionStats != null ? regionStats.getElementCountInMemory()
+                            : UNAVAILABLE,
+                    regionStats != null ? regionStats.getSizeInMemory()
+                            : UNAVAILABLE,
+                    config.map(c -> c.eviction().strategy().name())
+                            .orElse(null),
+                    config.map(c -> c.eviction().maxEntries())
+                            .orElse(UNAVAILABLE),
+                    config.map(c -> c.expiration().lifespan())
+                            .orElse(UNAVAILABLE),
+                    config.map(c -> c.expiration().maxIdle())
+                            .orElse(UNAVAILABLE)));
+        }
+        return result;
+    }
+
+    /**
+     * @return query cache counters summed over all query cache regions
+     */
+    public CacheRegionStats getQueryCacheTotals() {
+        Statistics statistics = sessionFactory.getStatistics();
+        boolean counted = statistics.isStatisticsEnabled();
+        return new CacheRegionStats(QUERY_CACHE_TOTALS,
+                counted ? statistics.getQueryCacheHitCount() : UNAVAILABLE,
+                counted ? statistics.getQueryCacheMissCount() : UNAVAILABLE,
+                counted ? statistics.getQueryCachePutCount() : UNAVAILABLE,
+                UNAVAILABLE, UNAVAILABLE, UNAVAILABLE, null, UNAVAILABLE,
+                UNAVAILABLE, UNAVAILABLE);
+    }
+
+    public boolean isHibernateStatisticsEnabled() {
+        return sessionFactory.getStatistics().isStatisticsEnabled();
+    }
+
+    /**
+     * Turns collection of Hibernate statistics on or off until the next
+     * restart, eg to measure a particular load without restarting.
+     */
+    public void setHibernateStatisticsEnabled(boolean enabled) {
+        log.info("Hibernate statistics enabled: {}", enabled);
+        sessionFactory.getStatistics().setStatisticsEnabled(enabled);
+    }
+
+    public void resetHibernateStatistics() {
+        sessionFactory.getStatistics().clear();
+    }
+
+    private static CacheRegionStats toRegionStats(String name,
+            Cache<Object, Object> cache) {
+        Configuration config = cache.getCacheConfiguration();
+        Optional<Stats> stats = Optional.ofNullable(getStats(cache));
+        return new CacheRegionStats(name,
+                stats.map(Stats::getHits).orElse(UNAVAILABLE),
+                stats.map(Stats::getMisses).orElse(UNAVAILABLE),
+                stats.map(Stats::getStores).orElse(UNAVAILABLE),
+                stats.map(Stats::getEvictions).orElse(UNAVAILABLE),
+                stats.map(s -> (long) s.getCurrentNumberOfEntries())
+                        .orElse(UNAVAILABLE),
+                UNAVAILABLE, config.eviction().strategy().name(),
+                config.eviction().maxEntries(),
+                config.expiration().lifespan(),
+                config.expiration().maxIdle());
+    }
+
+    /**
+     * @return the cache's statistics, or null if they are not enabled
+     */
+    private static Stats getStats(Cache<Object, Object> cache) {
+        if (!cache.getCacheConfiguration().jmxStatistics().enabled()) {
+            return null;
+        }
+        try {
+            return cache.getAdvancedCache().getStats();
+        } catch (RuntimeException e) {
+            log.debug("unable to get statistics for cache {}",
+                    cache.getName(), e);
+            return null;
+        }
+    }
+
+    private Optional<EmbeddedCacheManager> lookupHibernateCacheManager() {
+        try {
+            EmbeddedCacheManager manager =
+                    InitialContext.doLookup(HIBERNATE_CACHE_CONTAINER);
+            return Optional.of(manager);
+        } catch (NamingException | ClassCastException e) {
+            log.debug("Hibernate cache container not available: {}",
+                    e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private static List<String> sorted(Collection<String> names) {
+        List<String> list = new ArrayList<>(names);
+        list.sort(null);
+        return list;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Named;
+
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.zanata.common.ContentState;
+import org.zanata.model.ContributionRollup;
+import org.zanata.model.ContributionRollup.Role;
+
+import com.google.common.collect.Iterables;
+
+@Named("contributionRollupDAO")
+@RequestScoped
+public class ContributionRollupDAO
+        extends AbstractDAOImpl<ContributionRollup, Long> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Maximum number of target ids in a single 'in' clause.
+     */
+    private static final int MAX_IN_CLAUSE = 1000;
+
+    public ContributionRollupDAO() {
+        super(ContributionRollup.class);
+    }
+
+    public ContributionRollupDAO(Session session) {
+        super(ContributionRollup.class, session);
+    }
+
+    public ContributionRollup findRollup(long personId,
+            long projectIterationId, long localeId, ContentState state,
+            boolean automatedEntry, Role role, Date period) {
+        Query query = getSession().createQuery("from ContributionRollup r "
+                + "where r.personId = :personId "
+                + "and r.period = :period and r.role = :role "
+                + "and r.projectIterationId = :projectIterationId "
+                + "and r.localeId = :localeId and r.state = :state "
+                + "and r.automatedEntry = :automatedEntry");
+        query.setParameter("personId", personId);
+        query.setTimestamp("period", period);
+        query.setParameter("role", role);
+        query.setParameter("projectIterationId", projectIterationId);
+        query.setParameter("localeId", localeId);
+        query.setParameter("state", state);
+        query.setBoolean("automatedEntry", automatedEntry);
+        query.setComment("contributionRollupDAO.findRollup");
+        return (ContributionRollup) query.uniqueResult();
+    }
+
+    /**
+     * Sums the TRANSLATED or REVIEWED words of a person in a version.
+     *
+     * @return list of Object[wordCount][contentState][localeId], where
+     *         localeId is the id of the HLocale
+     */
+    public List<Object[]> getContributionTotals(Role role, long versionId,
+            long personId, Date fromDate, Date toDate,
+            boolean automatedEntry) {
+        Query query = getSession().createQuery(
+                "select sum(r.wordCount), r.state, r.localeId "
+                        + "from ContributionRollup r "
+                        + "where r.projectIterationId = :versionId "
+                        + "and r.personId = :personId and r.role = :role "
+                        + "and r.automatedEntry = :automatedEntry "
+                        + "and r.period >= :fromDate "
+                        + "and r.period <= :toDate "
+                        + "group by r.state, r.localeId");
+        query.setParameter("versionId", versionId);
+        query.setParameter("personId", personId);
+        query.setParameter("role", role);
+        query.setBoolean("automatedEntry", automatedEntry);
+        query.setTimestamp("fromDate", fromDate);
+        query.setTimestamp("toDate", toDate);
+        query.setComment("contributionRollupDAO.getContributionTotals");
+        @SuppressWarnings("unchecked")
+        List<Object[]> list = query.list();
+        return list;
+    }
+
+    /**
+     * Sums the EDITED words of a person, excluding automated entries.
+     *
+     * @return list of Object[period][projectIterationId][localeId]
+     *         [contentState][wordCount], one per period
+     */
+    public List<Object[]> getWorkTotals(long personId, Date fromDate,
+            Date toDate) {
+        Query query = getSession().createQuery(
+                "select r.period, r.projectIterationId, r.localeId, r.state, "
+                        + "sum(r.wordCount) from ContributionRollup r "
+                        + "where r.personId = :personId and r.role = :role "
+                        + "and r.automatedEntry = false "
+                        + "and r.period >= :fromDate "
+                        + "and r.period <= :toDate "
+                        + "group by r.period, r.projectIterationId, "
+                        + "r.localeId, r.state");
+        query.setParameter("personId", personId);
+        query.setParameter("role", Role.EDITED);
+        query.setTimestamp("fromDate", fromDate);
+        query.setTimestamp("toDate", toDate);
+        query.setComment("contributionRollupDAO.getWorkTotals");
+        @SuppressWarnings("unchecked")
+        List<Object[]> list = query.list();
+        return list;
+    }
+
+    /**
+     * Finds where a batch of about {@code maxVersions} saved versions after
+     * {@code after} ends, so that the rollup can catch up in bounded steps.
+     *
+     * @return the lastChanged of roughly the maxVersions-th version saved
+     *         after the given time, or null if there are not that many
+     */
+    @Nullable
+    public Date findBatchEnd(Date after, int maxVersions) {
+        Date end = null;
+        for (String entity : new String[] { "HTextFlowTarget",
+                "HTextFlowTargetHistory" }) {
+            Date candidate = (Date) getSession()
+                    .createQuery("select lastChanged from " + entity
+                            + " where lastChanged > :after "
+                            + "order by lastChanged")
+                    .setTimestamp("after", after)
+                    .setFirstResult(maxVersions - 1).setMaxResults(1)
+                    .setComment("contributionRollupDAO.findBatchEnd")
+                    .uniqueResult();
+            if (candidate != null && (end == null || candidate.before(end))) {
+                end = candidate;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Finds targets which have a version saved in the given period.
+     *
+     * @param after
+     *            exclusive start
+     * @param upTo
+     *            inclusive end, or null for no end
+     * @param versionId
+     *            only targets in this project version, if not null
+     * @param lastModifiedById
+     *            only versions saved by this person, if not null
+     */
+    public Set<Long> findTargetIdsChanged(Date after, @Nullable Date upTo,
+            @Nullable Long versionId, @Nullable Long lastModifiedById) {
+        Set<Long> result = new LinkedHashSet<>();
+        result.addAll(findChangedIds("select tft.id from HTextFlowTarget tft",
+                "tft", after, upTo, versionId, lastModifiedById));
+        result.addAll(findChangedIds("select tft.id "
+                + "from HTextFlowTargetHistory h join h.textFlowTarget tft",
+                "h", after, upTo, versionId, lastModifiedById));
+        return result;
+    }
+
+    private List<Long> findChangedIds(String select, String alias,
+            Date after, @Nullable Date upTo, @Nullable Long versionId,
+            @Nullable Long lastModifiedById) {
+        StringBuilder hql = new StringBuilder(select);
+        hql.append(" where ").append(alias).append(".lastChanged > :after");
+        if (upTo != null) {
+            hql.append(" and ").append(alias).append(".lastChanged <= :upTo");
+        }
+        if (versionId != null) {
+            hql.append(" and tft.textFlow.document.projectIteration.id")
+                    .append(" = :versionId");
+        }
+        if (lastModifiedById != null) {
+            hql.append(" and ").append(alias)
+                    .append(".lastModifiedBy.id = :lastModifiedById");
+        }
+        Query query = getSession().createQuery(hql.toString());
+        query.setTimestamp("after", after);
+        if (upTo != null) {
+            query.setTimestamp("upTo", upTo);
+        }
+        if (versionId != null) {
+            query.setParameter("versionId", versionId);
+        }
+        if (lastModifiedById != null) {
+            query.setParameter("lastModifiedById", lastModifiedById);
+        }
+        query.setComment("contributionRollupDAO.findTargetIdsChanged");
+        @SuppressWarnings("unchecked")
+        List<Long> list = query.list();
+        return list;
+    }
+
+    /**
+     * Loads every version (history and current) of the given targets.
+     *
+     * @return list of Object[targetId][versionNum][lastChanged][state]
+     *         [translatorId][reviewerId][lastModifiedById][automatedEntry]
+     *         [projectIterationId][localeId][wordCount]
+     */
+    public List<Object[]> findVersions(Collection<Long> targetIds) {
+        List<Object[]> result = new ArrayList<>();
+        for (List<Long> ids : Iterables.partition(targetIds, MAX_IN_CLAUSE)) {
+            result.addAll(findVersions("select tft.id, h.versionNum, "
+                    + "h.lastChanged, h.state, h.translator.id, "
+                    + "h.reviewer.id, h.lastModifiedBy.id, h.automatedEntry, "
+                    + "doc.projectIteration.id, tft.locale.id, tf.wordCount "
+                    + "from HTextFlowTargetHistory h "
+                    + "join h.textFlowTarget tft join tft.textFlow tf "
+                    + "join tf.document doc where tft.id in (:ids)", ids));
+            result.addAll(findVersions("select tft.id, tft.versionNum, "
+                    + "tft.lastChanged, tft.state, tft.translator.id, "
+                    + "tft.reviewer.id, tft.lastModifiedBy.id, "
+                    + "tft.automatedEntry, doc.projectIteration.id, "
+                    + "tft.locale.id, tf.wordCount "
+                    + "from HTextFlowTarget tft join tft.textFlow tf "
+                    + "join tf.document doc where tft.id in (:ids)", ids));
+        }
+        return result;
+    }
+
+    private List<Object[]> findVersions(String hql, List<Long> ids) {
+        Query query = getSession().createQuery(hql);
+        query.setParameterList("ids", ids);
+        query.setComment("contributionRollupDAO.findVersions");
+        @SuppressWarnings("unchecked")
+        List<Object[]> list = query.list();
+        return list;
+    }
+}
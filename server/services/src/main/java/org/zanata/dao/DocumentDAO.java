@@ -10,6 +10,8 @@ import javax.annotation.Nullable;
 import org.hibernate.LobHelper;
 import org.hibernate.Query;
 import org.hibernate.Session;
+import org.hibernate.type.IntegerType;
+import org.hibernate.type.LongType;
 import org.hibernate.type.TimestampType;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Named;
@@ -460,6 +462,11 @@ public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
 
     /**
      * Calculates a translated document's hash.
+     * <p>
+     * The latest change time alone may miss changes: MySQL stores it to the
+     * second, and deleting a translation does not change it. So the hash
+     * also covers the document's version, the number of translations and the
+     * sum of their versions.
      *
      * @param projectSlug
      *            Project identifier
@@ -483,15 +490,19 @@ public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
         // NB: This method uses a native SQL query tested on mysql and h2
         // databases.
         String sql =
-                "select greatest(\n  d.lastChanged,\n  max(ifnull(tft.lastChanged, {d \'1753-01-01\'})),\n  max(ifnull(c.lastChanged, {d \'1753-01-01\'})),\n  max(ifnull(poth.lastChanged, {d \'1753-01-01\'}))\n) as latest\nfrom HDocument d\n  left outer join HTextFlow tf\n    on d.id = tf.document_id\n  left outer join HTextFlowTarget tft\n    on tft.tf_id = tf.id and tft.locale = :locale\n  left outer join HSimpleComment c\n    on c.id = tft.comment_id\n  left outer join HPoTargetHeader poth\n    on poth.document_id = d.id\n    and poth.targetLanguage = :locale\nwhere d.id = :doc\ngroup by d.lastChanged";
+                "select greatest(\n  d.lastChanged,\n  max(ifnull(tft.lastChanged, {d \'1753-01-01\'})),\n  max(ifnull(c.lastChanged, {d \'1753-01-01\'})),\n  max(ifnull(poth.lastChanged, {d \'1753-01-01\'}))\n) as latest,\n  d.versionNum as docVersion,\n  count(tft.id) as targets,\n  sum(ifnull(tft.versionNum, 0)) as targetVersions\nfrom HDocument d\n  left outer join HTextFlow tf\n    on d.id = tf.document_id\n  left outer join HTextFlowTarget tft\n    on tft.tf_id = tf.id and tft.locale = :locale\n  left outer join HSimpleComment c\n    on c.id = tft.comment_id\n  left outer join HPoTargetHeader poth\n    on poth.document_id = d.id\n    and poth.targetLanguage = :locale\nwhere d.id = :doc\ngroup by d.lastChanged, d.versionNum";
         Query query =
                 // ensure that mysql driver doesn't return byte[] :
                 getSession().createSQLQuery(sql)
                         .addScalar("latest", TimestampType.INSTANCE)
+                        .addScalar("docVersion", IntegerType.INSTANCE)
+                        .addScalar("targets", LongType.INSTANCE)
+                        .addScalar("targetVersions", LongType.INSTANCE)
                         .setParameter("locale", locale)
                         .setParameter("doc", doc);
-        Timestamp timestamp = (Timestamp) query.uniqueResult();
-        return timestamp.toString();
+        Object[] state = (Object[]) query.uniqueResult();
+        Timestamp timestamp = (Timestamp) state[0];
+        return timestamp + ";" + state[1] + ";" + state[2] + ";" + state[3];
     }
 
     /**
@@ -20,6 +20,8 @@
  */
 package org.zanata.dao;
 
+import java.util.Collection;
+
 import org.hibernate.Query;
 import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
@@ -89,4 +91,18 @@ public class HTextFlowTargetStreamingDAO
                 .setParameter("iteration", iteration)
                 .scroll(ScrollMode.FORWARD_ONLY);
     }
+
+    /**
+     * @return scrollable result set of the given HTextFlowTargets, with all
+     *         of their fields(locale, textflow, document, document locale,
+     *         project iteration and project) eagerly fetched.
+     */
+    public ScrollableResults getTargetsWithAllFieldsEagerlyFetchedByIds(
+            Collection<Long> targetIds) {
+        Query query = getSession().createQuery(
+                "from HTextFlowTarget tft join fetch tft.locale join fetch tft.textFlow join fetch tft.textFlow.document join fetch tft.textFlow.document.locale join fetch tft.textFlow.document.projectIteration join fetch tft.textFlow.document.projectIteration.project where tft.id in (:targetIds)");
+        return query.setFetchSize(Integer.MIN_VALUE)
+                .setParameterList("targetIds", targetIds)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
 }
@@ -30,4 +30,16 @@ public class RawDocumentDAO extends AbstractDAOImpl<HRawDocument, Long> {
         q.setComment("RawDocumentDAO.getByDocumentId");
         return (HRawDocument) q.uniqueResult();
     }
+
+    /**
+     * Counts the raw documents which use the given stored file.
+     */
+    public long countByFileId(String fileId) {
+        Query q = getSession().createQuery(
+                "select count(*) from HRawDocument rawDoc " +
+                        "where rawDoc.fileId = :fileId");
+        q.setParameter("fileId", fileId);
+        q.setComment("RawDocumentDAO.countByFileId");
+        return (Long) q.uniqueResult();
+    }
 }
@@ -52,8 +52,7 @@ public abstract class StreamingDAO<T> implements Serializable {
      */
     StreamingEntityIterator<T> createIterator() {
         @Nonnull
-        Session session =
-                sessionFactory.openSession();
+        Session session = openSession();
         try {
             return new StreamingEntityIterator<T>(session);
         } catch (Throwable e) {
@@ -62,4 +61,11 @@ public abstract class StreamingDAO<T> implements Serializable {
         }
     }
 
+    /**
+     * Opens a separate session, which the caller must close.
+     */
+    Session openSession() {
+        return sessionFactory.openSession();
+    }
+
 }
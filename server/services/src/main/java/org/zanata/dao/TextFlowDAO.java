@@ -77,6 +77,24 @@ public class TextFlowDAO extends AbstractDAOImpl<HTextFlow, Long> {
         return query.list();
     }
 
+    /**
+     * Loads the comments and PO entry data of the given text flows into the
+     * session with a single query, so that reading them afterwards does not
+     * query the database once per text flow.
+     */
+    public void loadCommentsAndPotEntryData(List<Long> idList) {
+        if (idList.isEmpty()) {
+            return;
+        }
+        Query query = getSession().createQuery("select tf from HTextFlow tf "
+                + "left join fetch tf.comment "
+                + "left join fetch tf.potEntryData "
+                + "where tf.id in (:idList)");
+        query.setParameterList("idList", idList);
+        query.setComment("TextFlowDAO.loadCommentsAndPotEntryData");
+        query.list();
+    }
+
     @SuppressWarnings("unchecked")
     public List<HTextFlow> getNavigationByDocumentId(DocumentId documentId,
             HLocale hLocale, ResultTransformer resultTransformer,
@@ -24,6 +24,7 @@ package org.zanata.dao;
 import javax.annotation.Nonnull;
 
 import org.hibernate.Query;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 
 import javax.enterprise.context.RequestScoped;
@@ -39,6 +40,8 @@ import org.zanata.util.Zanata;
 
 import java.util.Optional;
 
+import com.google.common.collect.Range;
+
 /**
  * This class uses Hibernate's StatelessSession to iterate over large queries
  * returning HTextFlow. Each of the public methods should have a variant which
@@ -203,4 +206,73 @@ public class TextFlowStreamingDAO extends StreamingDAO<HTextFlow> {
         }
     }
 
+    /**
+     * Returns the lowest and highest HTextFlow id, eg to split an export of
+     * all text flows into id ranges.
+     *
+     * @return the id range, or absent if there are no text flows
+     */
+    public Optional<Range<Long>> getTextFlowIdRange() {
+        Session session = openSession();
+        try {
+            Object[] bounds = (Object[]) session
+                    .createQuery("select min(tf.id), max(tf.id) from HTextFlow tf")
+                    .setComment("TextFlowStreamDAO.getTextFlowIdRange")
+                    .uniqueResult();
+            if (bounds == null || bounds[0] == null) {
+                return Optional.empty();
+            }
+            return Optional.of(Range.closed((Long) bounds[0], (Long) bounds[1]));
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Like {@link #findTextFlows(Optional)}, but only returns HTextFlows whose
+     * id is in the given range, in order of id. Several ranges can be streamed
+     * in parallel, each with its own database cursor.
+     * <p>
+     * NB: caller must close the iterator, or call next() until the iterator is
+     * exhausted, or else a database connection will be leaked.
+     */
+    public @Nonnull
+            CloseableIterator<HTextFlow> findTextFlowsInIdRange(
+            Optional<LocaleId> localeId, Range<Long> idRange) {
+        StreamingEntityIterator<HTextFlow> iter = createIterator();
+        try {
+            StringBuilder queryString = new StringBuilder();
+            queryString
+                    .append("from HTextFlow tf ")
+                    .append("inner join fetch tf.targets target ")
+                    .append("inner join fetch target.locale ")
+                    .append("inner join fetch tf.document ")
+                    .append("inner join fetch tf.document.locale ")
+                    .append("inner join fetch tf.document.projectIteration ")
+                    .append("inner join fetch tf.document.projectIteration.project ")
+                    .append("where tf.document.projectIteration.project.status<>:OBSOLETE ")
+                    .append("and tf.document.projectIteration.status<>:OBSOLETE ")
+                    .append("and tf.document.obsolete=0 ")
+                    .append("and tf.obsolete=0 ")
+                    .append("and tf.id between :minId and :maxId ");
+            if (localeId.isPresent()) {
+                queryString.append("and tf.document.locale.localeId=:localeId ");
+            }
+            // keeps the rows of each text flow together for the fetch join
+            queryString.append("order by tf.id");
+            Query q = iter.getSession().createQuery(queryString.toString());
+            q.setParameter("OBSOLETE", EntityStatus.OBSOLETE);
+            q.setParameter("minId", idRange.lowerEndpoint());
+            q.setParameter("maxId", idRange.upperEndpoint());
+            if (localeId.isPresent()) {
+                q.setParameter("localeId", localeId.get());
+            }
+            q.setComment("TextFlowStreamDAO.findTextFlowsInIdRange");
+            iter.initQuery(q);
+            return iter;
+        } catch (Throwable e) {
+            iter.close();
+            throw new RuntimeException(e);
+        }
+    }
 }
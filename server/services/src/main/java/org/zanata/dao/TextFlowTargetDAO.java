@@ -1,8 +1,15 @@
 package org.zanata.dao;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.hibernate.Query;
 import org.hibernate.SQLQuery;
@@ -19,6 +26,8 @@ import org.zanata.model.HProject;
 import org.zanata.model.HProjectIteration;
 import org.zanata.model.HTextFlow;
 import org.zanata.model.HTextFlowTarget;
+import org.zanata.model.HTextFlowTargetHistory;
+import org.zanata.rest.dto.TranslationSourceType;
 import org.zanata.service.TranslationFinder;
 
 @Named("textFlowTargetDAO")
@@ -27,6 +36,8 @@ public class TextFlowTargetDAO extends AbstractDAOImpl<HTextFlowTarget, Long>
         implements TranslationFinder {
 
     private static final long serialVersionUID = -1426951552450893617L;
+    // content0 to content5 of HTextFlowTarget
+    private static final int MAX_TARGET_CONTENTS = 6;
 
     public TextFlowTargetDAO() {
         super(HTextFlowTarget.class);
@@ -364,6 +375,61 @@ public class TextFlowTargetDAO extends AbstractDAOImpl<HTextFlowTarget, Long>
         return query.list();
     }
 
+    /**
+     * Returns the targets of the given text flows in a locale, keyed by text
+     * flow id. Their comments and last modifying persons (with accounts) are
+     * fetched by the same query.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, HTextFlowTarget> getTargetsWithDetails(
+            List<Long> textFlowIds, HLocale locale) {
+        if (textFlowIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Query query =
+                getSession()
+                        .createQuery(
+                                "select tft from HTextFlowTarget tft "
+                                        + "left join fetch tft.comment "
+                                        + "left join fetch tft.lastModifiedBy person "
+                                        + "left join fetch person.account "
+                                        + "where tft.textFlow.id in (:idList) "
+                                        + "and tft.locale = :locale");
+        query.setParameterList("idList", textFlowIds);
+        query.setParameter("locale", locale);
+        query.setComment("TextFlowTargetDAO.getTargetsWithDetails");
+        Map<Long, HTextFlowTarget> result = new HashMap<>();
+        for (HTextFlowTarget target : (List<HTextFlowTarget>) query.list()) {
+            result.put(target.getTextFlow().getId(), target);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the source word count of each given target's text flow, keyed
+     * by text flow target id, without loading the entities.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, Long> getWordCountsByTargetIds(
+            Collection<Long> targetIds) {
+        if (targetIds == null || targetIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Query query =
+                getSession()
+                        .createQuery(
+                                "select tft.id, tft.textFlow.wordCount "
+                                        + "from HTextFlowTarget tft "
+                                        + "where tft.id in (:targetIds)");
+        query.setParameterList("targetIds", targetIds);
+        query.setComment("TextFlowTargetDAO.getWordCountsByTargetIds");
+        Map<Long, Long> result = new HashMap<>();
+        for (Object[] row : (List<Object[]>) query.list()) {
+            result.put((Long) row[0], (Long) row[1]);
+        }
+        return result;
+    }
+
     public HTextFlowTarget getTextFlowTarget(HTextFlow hTextFlow,
             LocaleId localeId) {
         HTextFlowTarget hTextFlowTarget =
@@ -477,4 +543,223 @@ public class TextFlowTargetDAO extends AbstractDAOImpl<HTextFlowTarget, Long>
                                 "TextFlowTargetDAO.getTranslationCandidateCountWithProjectAndLocale");
         return (Long) query.uniqueResult();
     }
+
+    /**
+     * Sets every translated or approved target of the given text flows back
+     * to NeedReview, eg because their source text has changed. This uses
+     * bulk statements instead of loading the targets, so the entity listeners
+     * do not run: the previous state of each target is copied into its
+     * history here, and the caller is responsible for reindexing the targets.
+     *
+     * @return the targets which were changed, with their previous state
+     */
+    @SuppressWarnings("unchecked")
+    public List<InvalidatedTarget> markTranslatedTargetsNeedReview(
+            Collection<Long> textFlowIds) {
+        if (textFlowIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query query = getSession()
+                .createQuery("select tft.id, tf.id, tft.locale.localeId, "
+                        + "tft.state, tf.wordCount "
+                        + "from HTextFlowTarget tft join tft.textFlow tf "
+                        + "where tf.id in (:textFlowIds) "
+                        + "and tft.state in (:translatedStates)")
+                .setParameterList("textFlowIds", textFlowIds)
+                .setParameterList("translatedStates",
+                        ContentState.TRANSLATED_STATES)
+                .setComment("TextFlowTargetDAO.markTranslatedTargetsNeedReview");
+        List<InvalidatedTarget> targets = new ArrayList<>();
+        for (Object[] row : (List<Object[]>) query.list()) {
+            targets.add(new InvalidatedTarget((Long) row[0], (Long) row[1],
+                    (LocaleId) row[2], (ContentState) row[3], (Long) row[4]));
+        }
+        if (targets.isEmpty()) {
+            return targets;
+        }
+        List<Long> targetIds = targets.stream()
+                .map(InvalidatedTarget::getTargetId)
+                .collect(Collectors.toList());
+        insertHistory(targetIds);
+        getSession()
+                .createQuery("update HTextFlowTarget "
+                        + "set state = :needReview, "
+                        + "versionNum = versionNum + 1, "
+                        + "lastChanged = :now, revisionComment = null "
+                        + "where id in (:targetIds)")
+                .setParameter("needReview", ContentState.NeedReview)
+                .setParameter("now", new Date())
+                .setParameterList("targetIds", targetIds)
+                .setComment("TextFlowTargetDAO.markTranslatedTargetsNeedReview")
+                .executeUpdate();
+        return targets;
+    }
+
+    /**
+     * Copies the current state of the given targets into their history, as
+     * HTextFlowTarget.EntityListener does before an update.
+     */
+    private void insertHistory(List<Long> targetIds) {
+        getSession().createSQLQuery("insert into HTextFlowTargetHistory "
+                + "(target_id, versionNum, lastChanged, last_modified_by_id, "
+                + "state, tf_revision, translated_by_id, reviewed_by_id, "
+                + "sourceType, automatedEntry, copiedEntityType, "
+                + "copiedEntityId, revisionComment) "
+                + "select id, versionNum, lastChanged, last_modified_by_id, "
+                + "state, tf_revision, translated_by_id, reviewed_by_id, "
+                + "sourceType, automatedEntry, copiedEntityType, "
+                + "copiedEntityId, revisionComment "
+                + "from HTextFlowTarget where id in (:targetIds)")
+                .addSynchronizedEntityClass(HTextFlowTargetHistory.class)
+                .setParameterList("targetIds", targetIds)
+                .executeUpdate();
+        for (int i = 0; i < MAX_TARGET_CONTENTS; i++) {
+            getSession().createSQLQuery(
+                    "insert into HTextFlowTargetContentHistory "
+                            + "(text_flow_target_history_id, pos, content) "
+                            + "select h.id, " + i + ", t.content" + i + " "
+                            + "from HTextFlowTarget t "
+                            + "join HTextFlowTargetHistory h "
+                            + "on h.target_id = t.id "
+                            + "and h.versionNum = t.versionNum "
+                            + "where t.id in (:targetIds) "
+                            + "and t.content" + i + " is not null")
+                    .addSynchronizedEntityClass(HTextFlowTargetHistory.class)
+                    .setParameterList("targetIds", targetIds)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * @return ids of the targets in the given locale for the active text
+     *         flows of the document
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> getTargetIds(HDocument document, HLocale locale) {
+        return getSession()
+                .createQuery("select tft.id from HTextFlowTarget tft "
+                        + "where tft.textFlow.document = :document "
+                        + "and tft.textFlow.obsolete = false "
+                        + "and tft.locale = :locale")
+                .setParameter("document", document)
+                .setParameter("locale", locale)
+                .setComment("TextFlowTargetDAO.getTargetIds").list();
+    }
+
+    /**
+     * Clears the given targets, like {@link HTextFlowTarget#clear()}, with
+     * bulk statements instead of loading them. Targets which are already New
+     * are left alone. As for
+     * {@link #markTranslatedTargetsNeedReview(Collection)}, the previous
+     * state is copied into history and the caller is responsible for
+     * reindexing the targets.
+     *
+     * @return the targets which were cleared, with their previous state
+     */
+    @SuppressWarnings("unchecked")
+    public List<InvalidatedTarget> clearTargets(Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query query = getSession()
+                .createQuery("select tft.id, tf.id, tft.locale.localeId, "
+                        + "tft.state, tf.wordCount, comment.id "
+                        + "from HTextFlowTarget tft join tft.textFlow tf "
+                        + "left join tft.comment comment "
+                        + "where tft.id in (:targetIds) "
+                        + "and tft.state <> :new")
+                .setParameterList("targetIds", targetIds)
+                .setParameter("new", ContentState.New)
+                .setComment("TextFlowTargetDAO.clearTargets");
+        List<InvalidatedTarget> targets = new ArrayList<>();
+        List<Long> commentIds = new ArrayList<>();
+        for (Object[] row : (List<Object[]>) query.list()) {
+            targets.add(new InvalidatedTarget((Long) row[0], (Long) row[1],
+                    (LocaleId) row[2], (ContentState) row[3], (Long) row[4]));
+            if (row[5] != null) {
+                commentIds.add((Long) row[5]);
+            }
+        }
+        if (targets.isEmpty()) {
+            return targets;
+        }
+        List<Long> clearedIds = targets.stream()
+                .map(InvalidatedTarget::getTargetId)
+                .collect(Collectors.toList());
+        insertHistory(clearedIds);
+        getSession()
+                .createQuery("update HTextFlowTarget "
+                        + "set content0 = null, content1 = null, "
+                        + "content2 = null, content3 = null, "
+                        + "content4 = null, content5 = null, "
+                        + "state = :new, comment = null, "
+                        + "lastModifiedBy = null, translator = null, "
+                        + "reviewer = null, revisionComment = null, "
+                        + "sourceType = :sourceType, "
+                        + "automatedEntry = :automatedEntry, "
+                        + "copiedEntityId = null, copiedEntityType = null, "
+                        + "versionNum = versionNum + 1, lastChanged = :now "
+                        + "where id in (:targetIds)")
+                .setParameter("new", ContentState.New)
+                .setParameter("sourceType", TranslationSourceType.UNKNOWN)
+                .setParameter("automatedEntry",
+                        TranslationSourceType.UNKNOWN.isAutomatedEntry())
+                .setParameter("now", new Date())
+                .setParameterList("targetIds", clearedIds)
+                .setComment("TextFlowTargetDAO.clearTargets")
+                .executeUpdate();
+        if (!commentIds.isEmpty()) {
+            // orphans of HTextFlowTarget.comment
+            getSession()
+                    .createQuery("delete HSimpleComment where id in (:ids)")
+                    .setParameterList("ids", commentIds)
+                    .setComment("TextFlowTargetDAO.clearTargets")
+                    .executeUpdate();
+        }
+        return targets;
+    }
+
+    /**
+     * A target which was changed by
+     * {@link #markTranslatedTargetsNeedReview(Collection)} or
+     * {@link #clearTargets(Collection)}.
+     */
+    public static final class InvalidatedTarget implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final Long targetId;
+        private final Long textFlowId;
+        private final LocaleId localeId;
+        private final ContentState previousState;
+        private final long wordCount;
+
+        public InvalidatedTarget(Long targetId, Long textFlowId,
+                LocaleId localeId, ContentState previousState,
+                Long wordCount) {
+            this.targetId = targetId;
+            this.textFlowId = textFlowId;
+            this.localeId = localeId;
+            this.previousState = previousState;
+            this.wordCount = wordCount != null ? wordCount : 0L;
+        }
+
+        public Long getTargetId() {
+            return targetId;
+        }
+
+        public Long getTextFlowId() {
+            return textFlowId;
+        }
+
+        public LocaleId getLocaleId() {
+            return localeId;
+        }
+
+        public ContentState getPreviousState() {
+            return previousState;
+        }
+
+        public long getWordCount() {
+            return wordCount;
+        }
+    }
 }
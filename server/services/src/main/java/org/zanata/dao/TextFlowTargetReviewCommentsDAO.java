@@ -21,7 +21,11 @@
 
 package org.zanata.dao;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.hibernate.Query;
 import org.hibernate.Session;
@@ -64,4 +68,29 @@ public class TextFlowTargetReviewCommentsDAO extends
         query.setCacheable(true);
         return query.list();
     }
+
+    /**
+     * Counts the review comments of each given target, keyed by target id.
+     * Targets without comments are not included.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, Long> getCommentCountsByTargetIds(
+            Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Query query = getSession().createQuery(
+                "select c.textFlowTarget.id, count(c) "
+                        + "from HTextFlowTargetReviewComment c "
+                        + "where c.textFlowTarget.id in (:targetIds) "
+                        + "group by c.textFlowTarget.id");
+        query.setParameterList("targetIds", targetIds);
+        query.setComment(
+                "TextFlowTargetReviewCommentsDAO.getCommentCountsByTargetIds");
+        Map<Long, Long> result = new HashMap<>();
+        for (Object[] row : (List<Object[]>) query.list()) {
+            result.put((Long) row[0], (Long) row[1]);
+        }
+        return result;
+    }
 }
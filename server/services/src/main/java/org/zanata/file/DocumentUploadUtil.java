@@ -24,14 +24,12 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.SequenceInputStream;
 import java.io.Serializable;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.sql.SQLException;
-import java.util.Vector;
 import javax.enterprise.context.Dependent;
 import javax.ws.rs.core.Response.Status;
 import org.hibernate.Session;
@@ -44,8 +42,8 @@ import org.zanata.dao.DocumentUploadDAO;
 import org.zanata.dao.ProjectIterationDAO;
 import org.zanata.exception.DocumentUploadException;
 import org.zanata.exception.HashMismatchException;
+import org.zanata.file.UploadPartPersistService.AssembledUpload;
 import org.zanata.model.HDocumentUpload;
-import org.zanata.model.HDocumentUploadPart;
 import org.zanata.model.HLocale;
 import org.zanata.model.HProjectIteration;
 import org.zanata.rest.DocumentFileUploadForm;
@@ -148,6 +146,16 @@ public class DocumentUploadUtil implements Serializable {
                             + "\' in request is not valid for document \'"
                             + id.getDocId() + "\'.");
         }
+        int expectedPart = getPartCount(upload) + 1;
+        if (uploadForm.getPart() != null
+                && (uploadForm.getPart() < 1
+                        || uploadForm.getPart() > expectedPart)) {
+            throw new DocumentUploadException(Status.PRECONDITION_FAILED,
+                    "Part " + uploadForm.getPart() + " of upload \'"
+                            + uploadForm.getUploadId()
+                            + "\' was sent, but part " + expectedPart
+                            + " was expected.");
+        }
     }
 
     private static void failIfDocumentTypeNotRecognized(
@@ -214,13 +222,39 @@ public class DocumentUploadUtil implements Serializable {
 
     private void saveUploadPart(DocumentFileUploadForm uploadForm,
             HDocumentUpload upload) {
-        InputStream contentStream = uploadForm.getFileStream();
-        int contentLength = uploadForm.getSize().intValue();
-        HDocumentUploadPart newPart = uploadPartPersistService
-                .newUploadPartFromStream(contentStream, contentLength);
-        upload.getParts().add(newPart);
+        // the upload needs an id before its content can be stored
         session.saveOrUpdate(upload);
         session.flush();
+        try {
+            uploadPartPersistService.appendUploadPart(upload,
+                    getPartNumber(uploadForm, upload),
+                    uploadForm.getFileStream());
+        } catch (IOException e) {
+            throw new DocumentUploadException(Status.INTERNAL_SERVER_ERROR,
+                    "Error while storing document upload part contents", e);
+        }
+    }
+
+    /**
+     * @return the part number sent by the client, or else the number of the
+     *         part after those stored so far
+     */
+    private int getPartNumber(DocumentFileUploadForm uploadForm,
+            HDocumentUpload upload) {
+        if (uploadForm.getPart() != null) {
+            return uploadForm.getPart();
+        }
+        if (Boolean.TRUE.equals(uploadForm.getFirst())) {
+            return 1;
+        }
+        return getPartCount(upload) + 1;
+    }
+
+    /**
+     * @return number of parts stored so far for a multi-part upload
+     */
+    public int getPartCount(HDocumentUpload upload) {
+        return uploadPartPersistService.getPartCount(upload);
     }
 
     protected static boolean isSinglePart(DocumentFileUploadForm uploadForm) {
@@ -238,9 +272,10 @@ public class DocumentUploadUtil implements Serializable {
                     + "\" sent with initial request does not match server-generated hash of combined parts \""
                     + e.getGeneratedHash()
                     + "\". Upload aborted. Retry upload from first part.");
-        } catch (SQLException e) {
+        } catch (IOException e) {
+            uploadPartPersistService.removeUploadParts(upload);
             throw new DocumentUploadException(Status.INTERNAL_SERVER_ERROR,
-                    "Error while retrieving document upload part contents", e);
+                    "Error while combining document upload part contents", e);
         } finally {
             // no more need for upload
             session.delete(upload);
@@ -249,25 +284,20 @@ public class DocumentUploadUtil implements Serializable {
     }
 
     private File combineToTempFile(HDocumentUpload upload,
-            DocumentFileUploadForm finalPart) throws SQLException {
-        Vector<InputStream> partStreams = new Vector<InputStream>();
-        for (HDocumentUploadPart part : upload.getParts()) {
-            partStreams.add(part.getContent().getBinaryStream());
-        }
-        partStreams.add(finalPart.getFileStream());
-        MessageDigest md;
+            DocumentFileUploadForm finalPart) throws IOException {
+        AssembledUpload assembled = uploadPartPersistService
+                .assembleUpload(upload, getPartNumber(finalPart, upload),
+                        finalPart.getFileStream());
+        File tempFile = assembled.getFile();
         try {
-            md = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            log.error("MD5 algorithm not available.", e);
-            throw new RuntimeException(e);
+            checkAndUpdateHash(finalPart, assembled.getMd5Hash(),
+                    upload.getContentHash());
+        } catch (DocumentUploadException e) {
+            if (!tempFile.delete()) {
+                log.warn("Unable to delete upload file {}", tempFile);
+            }
+            throw e;
         }
-        InputStream combinedParts =
-                new SequenceInputStream(partStreams.elements());
-        combinedParts = new DigestInputStream(combinedParts, md);
-        File tempFile =
-                translationFileServiceImpl.persistToTempFile(combinedParts);
-        checkAndUpdateHash(finalPart, md, upload.getContentHash());
         return tempFile;
     }
 
@@ -297,7 +327,9 @@ public class DocumentUploadUtil implements Serializable {
             tempFile =
                     translationFileServiceImpl.persistToTempFile(fileContents);
             String providedHash = uploadForm.getHash();
-            checkAndUpdateHash(uploadForm, md, providedHash);
+            checkAndUpdateHash(uploadForm,
+                    new String(PasswordUtil.encodeHex(md.digest())),
+                    providedHash);
         } catch (NoSuchAlgorithmException e) {
             throw new DocumentUploadException(Status.INTERNAL_SERVER_ERROR,
                     "MD5 hash algorithm not available", e);
@@ -309,9 +341,8 @@ public class DocumentUploadUtil implements Serializable {
      * Makes sure any provided hash matches the calculated hash, and sets the
      * calculated hash into the given upload form for use in subsequent steps.
      *
-     * @param md
-     *            an MD5 message digester that has had the contents of the file
-     *            streamed through it.
+     * @param md5hash
+     *            hex encoded MD5 hash of the file contents.
      * @param providedHash
      *            provided by client, may be null or empty
      * @throws DocumentUploadException
@@ -319,8 +350,7 @@ public class DocumentUploadUtil implements Serializable {
      *             file contents.
      */
     private void checkAndUpdateHash(DocumentFileUploadForm uploadForm,
-            MessageDigest md, String providedHash) throws DocumentUploadException {
-        String md5hash = new String(PasswordUtil.encodeHex(md.digest()));
+            String md5hash, String providedHash) throws DocumentUploadException {
         if (isNullOrEmpty(providedHash)) {
             // Web upload with no hash provided, use generated hash for metadata
             uploadForm.setHash(md5hash);
@@ -35,9 +35,21 @@ public interface FilePersistService extends Serializable {
     public void persistRawDocumentContentFromFile(HRawDocument rawDocument,
             File rawFile, String extension);
 
+    /**
+     * Makes toDoc refer to the same stored content as fromDoc. Content is
+     * shared rather than copied, so this does not touch the stored file.
+     */
     void copyAndPersistRawDocument(HRawDocument fromDoc,
             HRawDocument toDoc);
 
+    /**
+     * Deletes the stored content of a raw document after the current
+     * transaction commits, unless other raw documents still refer to it by
+     * then. Should be called once the raw document has been removed or
+     * replaced.
+     */
+    void removeRawDocumentContent(@Nonnull HRawDocument rawDocument);
+
     // TODO damason: parsing code only needs a file URI for this. Change to
     // return
     // uri when files are persisted to server.
@@ -25,23 +25,33 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Pattern;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.FilenameUtils;
 
 import javax.annotation.Nonnull;
-import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.zanata.ApplicationConfiguration;
+import org.zanata.async.Async;
 import org.zanata.dao.DocumentDAO;
+import org.zanata.dao.RawDocumentDAO;
+import org.zanata.events.RawDocumentContentRemovedEvent;
 import org.zanata.model.HDocument;
 import org.zanata.model.HProject;
 import org.zanata.model.HProjectIteration;
 import org.zanata.model.HRawDocument;
 import org.zanata.rest.service.VirusScanner;
+import org.zanata.transaction.TransactionUtil;
 
 @Named("filePersistService")
 @RequestScoped
@@ -50,39 +60,131 @@ public class FileSystemPersistService implements FilePersistService {
             org.slf4j.LoggerFactory.getLogger(FileSystemPersistService.class);
 
     private static final String RAW_DOCUMENTS_SUBDIRECTORY = "documents";
+    private static final Pattern MD5_HEX = Pattern.compile("[0-9a-f]{32}");
     private static final long serialVersionUID = 674922015890996446L;
     @Inject
     private ApplicationConfiguration appConfig;
     @Inject
     private DocumentDAO documentDAO;
     @Inject
+    private RawDocumentDAO rawDocumentDAO;
+    @Inject
     private VirusScanner virusScanner;
+    @Inject
+    private TransactionUtil transactionUtil;
+    @Inject
+    private RawDocumentFileLocks fileLocks;
+    @Inject
+    private Event<RawDocumentContentRemovedEvent> rawDocumentContentRemovedEvent;
 
     @Override
     public void persistRawDocumentContentFromFile(HRawDocument rawDocument,
             File fromFile, String extension) {
-        String fileName = generateFileNameFor(rawDocument, extension);
+        String fileName = generateFileNameFor(rawDocument, fromFile, extension);
         rawDocument.setFileId(fileName);
         File newFile = getFileForName(fileName);
+        GlobalDocumentId globalId = getGlobalId(rawDocument);
+        if (reuseExistingFile(newFile)) {
+            // identical content was stored (and scanned) before
+            log.info("Raw document {} shares existing file {}", globalId,
+                    newFile.getAbsolutePath());
+            return;
+        }
+        File tempFile = null;
         try {
-            FileUtils.copyFile(fromFile, newFile);
+            // scan before the file becomes visible under its content name
+            tempFile = File.createTempFile("raw", ".tmp",
+                    newFile.getParentFile());
+            FileUtils.copyFile(fromFile, tempFile);
+            virusScanner.scan(tempFile, globalId.toString());
+            Lock lock = fileLocks.getLock(newFile);
+            lock.lock();
+            try {
+                Files.move(tempFile.toPath(), newFile.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                lock.unlock();
+            }
         } catch (IOException e) {
             // FIXME damason: throw something more specific and handle at call
             // sites
             throw new RuntimeException(e);
+        } finally {
+            if (tempFile != null && tempFile.exists() && !tempFile.delete()) {
+                log.warn("unable to delete {}", tempFile);
+            }
         }
-        GlobalDocumentId globalId = getGlobalId(rawDocument);
         log.info("Persisted raw document {} to file {}", globalId,
                 newFile.getAbsolutePath());
-        virusScanner.scan(newFile, globalId.toString());
     }
 
     @Override
     public void copyAndPersistRawDocument(HRawDocument fromDoc,
             HRawDocument toDoc) {
-        File file = getFileForRawDocument(fromDoc);
-        persistRawDocumentContentFromFile(toDoc, file,
-                FilenameUtils.getExtension(file.getName()));
+        toDoc.setFileId(fromDoc.getFileId());
+    }
+
+    /**
+     * Marks an existing stored file as reused, so that a pending deletion
+     * which cannot see the new reference yet leaves it in place.
+     *
+     * @return false if there is no such file
+     */
+    private boolean reuseExistingFile(File file) {
+        Lock lock = fileLocks.getLock(file);
+        lock.lock();
+        try {
+            if (!file.exists()) {
+                return false;
+            }
+            fileLocks.markReused(file);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeRawDocumentContent(@Nonnull HRawDocument rawDocument) {
+        String fileId = rawDocument.getFileId();
+        if (fileId != null) {
+            rawDocumentContentRemovedEvent
+                    .fire(new RawDocumentContentRemovedEvent(fileId));
+        }
+    }
+
+    /**
+     * Deletes a stored file once the transaction which stopped using it has
+     * committed, and only if no committed raw document refers to it. A file
+     * reused within the last hour is kept, since the reusing transaction may
+     * still be open; at worst such a file is left behind unreferenced.
+     */
+    // uses Async to ensure transaction environment is reset, because
+    // this is triggered during transaction.commit
+    @Async
+    public void onRawDocumentContentRemoved(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) RawDocumentContentRemovedEvent event_)
+            throws Exception {
+        // workaround for https://issues.jboss.org/browse/WELD-2019
+        final RawDocumentContentRemovedEvent event = event_;
+        String fileId = event.getFileId();
+        File file = getFileForName(fileId);
+        Lock lock = fileLocks.getLock(file);
+        lock.lock();
+        try {
+            if (!file.exists() || fileLocks.isRecentlyReused(file)) {
+                return;
+            }
+            long references = transactionUtil
+                    .call(() -> rawDocumentDAO.countByFileId(fileId));
+            if (references == 0) {
+                Files.deleteIfExists(file.toPath());
+            }
+        } catch (IOException e) {
+            log.warn("unable to delete {}", file);
+        } finally {
+            lock.unlock();
+        }
     }
 
     private File getFileForName(String fileName) {
@@ -111,12 +213,22 @@ public class FileSystemPersistService implements FilePersistService {
         return docsDirectory;
     }
 
+    /**
+     * Raw documents are stored by content hash, so that documents with the
+     * same content (eg in copied versions) share a single file. Older raw
+     * documents may still use a file named by document id.
+     */
     private static String generateFileNameFor(HRawDocument rawDocument,
-            String extension) {
-        // Could change to use id of rawDocument, and throw if rawDocument has
-        // no id yet.
-        String idAsString = rawDocument.getDocument().getId().toString();
-        return idAsString + "." + extension;
+            File file, String extension) {
+        String hash = rawDocument.getContentHash();
+        if (hash == null || !MD5_HEX.matcher(hash).matches()) {
+            try (InputStream in = new FileInputStream(file)) {
+                hash = DigestUtils.md5Hex(in);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return hash + "." + extension;
     }
     // TODO damason: put this in a more appropriate location
 
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.file;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.zanata.ApplicationConfiguration;
+import org.zanata.model.HDocumentUpload;
+import org.zanata.util.PasswordUtil;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Striped;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Stores the parts of a multi-part upload by appending them to a single file
+ * per upload, so that upload content never goes through the database. The
+ * final file is handed over to the caller without being copied again.
+ * <p>
+ * For each upload there is a content file {@code <uploadId>.upload} and a
+ * small index file {@code <uploadId>.parts} holding the number, offset and
+ * length of each stored part. A part is only recorded in the index once all
+ * of its content has been written, and anything in the content file beyond
+ * the last recorded part (left by a failed request) is overwritten by the
+ * next part.
+ */
+@Named("uploadPartPersistService")
+@ApplicationScoped
+public class FileSystemUploadPartPersistService
+        implements UploadPartPersistService {
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory
+            .getLogger(FileSystemUploadPartPersistService.class);
+    private static final long serialVersionUID = 1L;
+    private static final String UPLOADS_SUBDIRECTORY = "uploads";
+    private static final String CONTENT_SUFFIX = ".upload";
+    private static final String PARTS_SUFFIX = ".parts";
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+    private static final long EXPIRY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private ApplicationConfiguration appConfig;
+
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    private final Striped<Lock> uploadLocks = Striped.lock(16);
+
+    // constructor for CDI
+    public FileSystemUploadPartPersistService() {
+    }
+
+    @Inject
+    public FileSystemUploadPartPersistService(
+            ApplicationConfiguration appConfig) {
+        this.appConfig = appConfig;
+    }
+
+    @Override
+    public int appendUploadPart(HDocumentUpload upload, int partNumber,
+            InputStream partContentStream) throws IOException {
+        Long uploadId = getUploadId(upload);
+        Lock lock = uploadLocks.get(uploadId);
+        lock.lock();
+        try {
+            List<StoredPart> parts = readParts(uploadId);
+            if (partNumber <= parts.size()) {
+                log.debug("part {} of upload {} is already stored", partNumber,
+                        uploadId);
+                return parts.size();
+            }
+            Preconditions.checkArgument(partNumber == parts.size() + 1,
+                    "part %s of upload %s received before part %s",
+                    partNumber, uploadId, parts.size() + 1);
+            long offset = parts.isEmpty() ? 0
+                    : parts.get(parts.size() - 1).getEnd();
+            long length = writeToFile(getContentFile(uploadId), offset,
+                    partContentStream);
+            parts.add(new StoredPart(partNumber, offset, length));
+            writeParts(uploadId, parts);
+            return parts.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getPartCount(HDocumentUpload upload) {
+        try {
+            return readParts(getUploadId(upload)).size();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public AssembledUpload assembleUpload(HDocumentUpload upload,
+            int partNumber, InputStream finalPartStream) throws IOException {
+        Long uploadId = getUploadId(upload);
+        appendUploadPart(upload, partNumber, finalPartStream);
+        Lock lock = uploadLocks.get(uploadId);
+        lock.lock();
+        try {
+            File contentFile = getContentFile(uploadId);
+            String md5Hash = md5Hash(contentFile);
+            deleteFile(getPartsFile(uploadId));
+            // the content file is complete, so hand it over as it is
+            return new AssembledUpload(contentFile, md5Hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeUploadParts(HDocumentUpload upload) {
+        Long uploadId = getUploadId(upload);
+        deleteFile(getContentFile(uploadId));
+        deleteFile(getPartsFile(uploadId));
+    }
+
+    @Override
+    public File[] getExpiredUploadPartFiles() {
+        long removalThreshold = System.currentTimeMillis() - EXPIRY_MILLIS;
+        File[] expired = ensureUploadsDirectory().listFiles(
+                f -> (f.getName().endsWith(CONTENT_SUFFIX)
+                        || f.getName().endsWith(PARTS_SUFFIX))
+                        && f.lastModified() < removalThreshold);
+        return expired != null ? expired : new File[0];
+    }
+
+    /**
+     * Streams the content into the file from the given offset using channel
+     * transfers. Anything in the file beyond the offset is discarded first.
+     *
+     * @return number of bytes written
+     */
+    @VisibleForTesting
+    static long writeToFile(File file, long offset, InputStream content)
+            throws IOException {
+        try (FileChannel out = FileChannel.open(file.toPath(), CREATE, WRITE);
+                ReadableByteChannel in = Channels.newChannel(content)) {
+            out.truncate(offset);
+            long position = offset;
+            long transferred;
+            while ((transferred = out.transferFrom(in, position,
+                    TRANSFER_CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+            out.force(false);
+            return position - offset;
+        }
+    }
+
+    private List<StoredPart> readParts(Long uploadId) throws IOException {
+        File partsFile = getPartsFile(uploadId);
+        List<StoredPart> parts = new ArrayList<>();
+        if (partsFile.exists()) {
+            for (String line : Files.readAllLines(partsFile.toPath(),
+                    UTF_8)) {
+                parts.add(StoredPart.parse(line));
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Replaces the index file in one step, so that it never holds a part which
+     * is only partly recorded.
+     */
+    private void writeParts(Long uploadId, List<StoredPart> parts)
+            throws IOException {
+        List<String> lines = new ArrayList<>(parts.size());
+        for (StoredPart part : parts) {
+            lines.add(part.toString());
+        }
+        File partsFile = getPartsFile(uploadId);
+        File tempFile = new File(partsFile.getParentFile(),
+                partsFile.getName() + ".tmp");
+        Files.write(tempFile.toPath(), lines, UTF_8);
+        Files.move(tempFile.toPath(), partsFile.toPath(), REPLACE_EXISTING,
+                ATOMIC_MOVE);
+    }
+
+    private static String md5Hash(File file) throws IOException {
+        MessageDigest digest = newMd5Digest();
+        try (FileChannel in = FileChannel.open(file.toPath(), READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return new String(PasswordUtil.encodeHex(digest.digest()));
+    }
+
+    private static MessageDigest newMd5Digest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            log.error("MD5 algorithm not available.", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Long getUploadId(HDocumentUpload upload) {
+        return Preconditions.checkNotNull(upload.getId(),
+                "upload must be persisted before storing parts");
+    }
+
+    private File getContentFile(Long uploadId) {
+        return new File(ensureUploadsDirectory(), uploadId + CONTENT_SUFFIX);
+    }
+
+    private File getPartsFile(Long uploadId) {
+        return new File(ensureUploadsDirectory(), uploadId + PARTS_SUFFIX);
+    }
+
+    private File ensureUploadsDirectory() {
+        File uploadsDirectory =
+                new File(appConfig.getDocumentFileStorageLocation(),
+                        UPLOADS_SUBDIRECTORY);
+        if (uploadsDirectory.mkdirs()) {
+            log.debug("Directory created: {}", uploadsDirectory);
+        }
+        return uploadsDirectory;
+    }
+
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            log.warn("Unable to delete upload file {}", file);
+        }
+    }
+
+    /**
+     * A line of the index file: part number, offset and length.
+     */
+    private static final class StoredPart {
+        private final int number;
+        private final long offset;
+        private final long length;
+
+        private StoredPart(int number, long offset, long length) {
+            this.number = number;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        private static StoredPart parse(String line) {
+            String[] fields = line.trim().split(" ");
+            return new StoredPart(Integer.parseInt(fields[0]),
+                    Long.parseLong(fields[1]), Long.parseLong(fields[2]));
+        }
+
+        private long getEnd() {
+            return offset + length;
+        }
+
+        @Override
+        public String toString() {
+            return number + " " + offset + " " + length;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.file;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Coordinates reuse and deletion of the stored raw document files which are
+ * shared by content hash, across all requests and background deletions.
+ *
+ * @see FileSystemPersistService
+ */
+@ApplicationScoped
+public class RawDocumentFileLocks {
+    /**
+     * Guards reuse and creation of a stored file against its deletion.
+     */
+    private final Striped<Lock> fileLocks = Striped.lock(64);
+    /**
+     * Stored files reused by an upload recently. The raw document of such an
+     * upload may not be committed yet, so deletion leaves these files alone.
+     */
+    private final Cache<String, Boolean> recentlyReused =
+            CacheBuilder.newBuilder().expireAfterWrite(1, TimeUnit.HOURS)
+                    .build();
+
+    public Lock getLock(File file) {
+        return fileLocks.get(file.getName());
+    }
+
+    /**
+     * Should be called while holding the file's lock.
+     */
+    public void markReused(File file) {
+        recentlyReused.put(file.getAbsolutePath(), Boolean.TRUE);
+    }
+
+    public boolean isRecentlyReused(File file) {
+        return recentlyReused.getIfPresent(file.getAbsolutePath()) != null;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.file;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import javax.enterprise.context.Dependent;
+import javax.inject.Inject;
+import javax.persistence.OptimisticLockException;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.io.IOUtils;
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.zanata.async.AsyncTask;
+import org.zanata.async.AsyncTaskHandleManager;
+import org.zanata.async.AsyncTaskManager;
+import org.zanata.async.AsyncTaskResult;
+import org.zanata.async.handle.SourceDocumentUploadTaskHandle;
+import org.zanata.rest.DocumentFileUploadForm;
+import org.zanata.rest.dto.ChunkUploadResponse;
+import org.zanata.security.ZanataIdentity;
+import org.zanata.util.BeanHolder;
+import org.zanata.util.ServiceLocator;
+
+import com.google.common.base.Strings;
+
+/**
+ * Processes a batch of validated source document uploads in the background.
+ * Each document is parsed and saved by its own async task, so independent
+ * documents are processed in parallel, bounded by the async thread pool.
+ */
+@Dependent
+public class SourceDocumentBatchUpload implements Serializable {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(SourceDocumentBatchUpload.class);
+    private static final long serialVersionUID = 1L;
+    static final String CONCURRENT_UPLOAD_ERROR =
+            "failed: someone else is already uploading this file";
+
+    @Inject
+    private AsyncTaskManager asyncTaskManager;
+    @Inject
+    private AsyncTaskHandleManager asyncTaskHandleManager;
+    @Inject
+    private ZanataIdentity identity;
+
+    /**
+     * Starts processing of the uploads, which must already have been
+     * validated (see
+     * {@link SourceDocumentUpload#getSourceUploadErrorWithoutHash}).
+     *
+     * @param uploads
+     *            single-part upload form for each document
+     * @param whenFinished
+     *            run once all of the documents have been processed, eg to
+     *            clean up the uploaded files
+     * @return key id of the task handle, which reports the progress and the
+     *         outcome for each document (see
+     *         {@link SourceDocumentUploadTaskHandle#getFileOutcomes()})
+     */
+    public String startUpload(Map<GlobalDocumentId, DocumentFileUploadForm> uploads,
+            Runnable whenFinished) {
+        SourceDocumentUploadTaskHandle handle =
+                new SourceDocumentUploadTaskHandle(uploads.size());
+        handle.setTriggeredBy(identity.getAccountUsername());
+        String keyId = asyncTaskHandleManager.registerTaskHandle(handle);
+        handle.setKeyId(keyId);
+
+        List<AsyncTask<Future<String>>> tasks = new ArrayList<>();
+        uploads.forEach((id, form) -> tasks.add(() -> {
+            uploadSourceFile(id, form, handle);
+            return AsyncTaskResult.completed(id.getDocId());
+        }));
+        asyncTaskManager.startTasks(handle, tasks)
+                .whenComplete((docIds, throwable) -> whenFinished.run());
+        return keyId;
+    }
+
+    /**
+     * Runs in an async task thread, which has its own request context.
+     * Records the outcome of the upload in handle.
+     */
+    private static void uploadSourceFile(GlobalDocumentId id,
+            DocumentFileUploadForm form,
+            SourceDocumentUploadTaskHandle handle) throws Exception {
+        String docId = id.getDocId();
+        try (BeanHolder<SourceDocumentUpload> uploader = ServiceLocator
+                .instance().getDependent(SourceDocumentUpload.class)) {
+            Response response =
+                    uploader.get().tryValidatedUploadSourceFile(id, form);
+            Object entity = response.getEntity();
+            if (!(entity instanceof ChunkUploadResponse)) {
+                handle.fileFailed(docId, "failed: " + entity);
+                return;
+            }
+            ChunkUploadResponse uploadResponse = (ChunkUploadResponse) entity;
+            String error =
+                    Strings.emptyToNull(uploadResponse.getErrorMessage());
+            if (error != null) {
+                handle.fileFailed(docId, error);
+            } else {
+                handle.fileSucceeded(docId, Strings
+                        .nullToEmpty(uploadResponse.getSuccessMessage()));
+            }
+        } catch (OptimisticLockException | StaleStateException
+                | ConstraintViolationException e) {
+            handle.fileFailed(docId, CONCURRENT_UPLOAD_ERROR);
+        } catch (RuntimeException e) {
+            log.error("failed to process source upload of {}", id, e);
+            handle.fileFailed(docId, "failed: " + e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(form.getFileStream());
+        }
+    }
+}
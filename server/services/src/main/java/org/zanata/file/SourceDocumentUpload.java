@@ -28,6 +28,7 @@ import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.Serializable;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.enterprise.context.Dependent;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -103,6 +104,22 @@ public class SourceDocumentUpload implements Serializable {
         return tryValidatedUploadSourceFile(id, uploadForm);
     }
 
+    /**
+     * Checks a source upload without a hash, without processing it.
+     *
+     * @return the reason the upload would be rejected, or absent if it can be
+     *         processed with {@link #tryValidatedUploadSourceFile}
+     */
+    public Optional<String> getSourceUploadErrorWithoutHash(
+            GlobalDocumentId id, DocumentFileUploadForm uploadForm) {
+        try {
+            failIfSourceUploadNotValid(id, uploadForm);
+            return Optional.absent();
+        } catch (DocumentUploadException e) {
+            return Optional.of(e.getMessage());
+        }
+    }
+
     public Response tryUploadSourceFile(GlobalDocumentId id,
             DocumentFileUploadForm uploadForm) {
         try {
@@ -123,7 +140,7 @@ public class SourceDocumentUpload implements Serializable {
             if (!uploadForm.getLast()) {
                 HDocumentUpload upload =
                         util.saveUploadPart(id, NULL_LOCALE, uploadForm);
-                totalChunks = upload.getParts().size();
+                totalChunks = util.getPartCount(upload);
                 return Response.status(Status.ACCEPTED)
                         .entity(new ChunkUploadResponse(upload.getId(),
                                 totalChunks, true,
@@ -136,7 +153,7 @@ public class SourceDocumentUpload implements Serializable {
             } else {
                 HDocumentUpload previousParts =
                         documentUploadDAO.findById(uploadForm.getUploadId());
-                totalChunks = previousParts.getParts().size();
+                totalChunks = util.getPartCount(previousParts);
                 totalChunks++; // add final part
                 tempFile =
                         Optional.of(util.combineToTempFileAndDeleteUploadRecord(
@@ -303,13 +320,32 @@ public class SourceDocumentUpload implements Serializable {
         rawDocument.setContentHash(contentHash);
         rawDocument.setType(documentType);
         rawDocument.setUploadedBy(identity.getCredentials().getUsername());
+        // the temp file name (.tmp or .upload) says nothing about the content
         filePersistService.persistRawDocumentContentFromFile(rawDocument,
-                rawFile, FilenameUtils.getExtension(rawFile.getName()));
+                rawFile, rawFileExtension(document.getDocId(), documentType));
         if (!params.isEmpty()) {
             rawDocument.setAdapterParameters(params);
         }
+        HRawDocument oldRawDocument = document.getRawDocument();
         documentDAO.addRawDocument(document, rawDocument);
         documentDAO.flush();
+        if (oldRawDocument != null) {
+            filePersistService.removeRawDocumentContent(oldRawDocument);
+        }
+    }
+
+    /**
+     * Extension for the stored raw file, taken from the document id like the
+     * web upload does, so that identical content shares one stored file.
+     */
+    private static String rawFileExtension(String docId,
+            @Nullable DocumentType documentType) {
+        String extension = FilenameUtils.getExtension(docId);
+        if (extension.isEmpty() && documentType != null
+                && !documentType.getSourceExtensions().isEmpty()) {
+            extension = documentType.getSourceExtensions().iterator().next();
+        }
+        return extension;
     }
 
     /**
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.zanata.ApplicationConfiguration;
+import org.zanata.util.HashUtil;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Joiner;
+
+/**
+ * Disk cache of generated translated documents, so that repeated downloads of
+ * an unchanged translation are served from a file instead of re-parsing the
+ * original and merging the translations again.
+ * <p>
+ * Callers build the key from everything the output depends on (see
+ * {@link #key(Object...)}), including a translation state hash, so that
+ * entries never need to be invalidated: stale entries are simply no longer
+ * requested, and are evicted in least recently used order once the cache
+ * exceeds its size limit.
+ */
+@ApplicationScoped
+public class TranslatedFileCache {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(TranslatedFileCache.class);
+
+    static final String CACHE_SUBDIRECTORY = "translated";
+    private static final String TEMP_PREFIX = "tmp";
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    /**
+     * Writes a translated document.
+     */
+    @FunctionalInterface
+    public interface Generator {
+        void writeTo(OutputStream output) throws IOException;
+    }
+
+    private ApplicationConfiguration appConfig;
+
+    // size of each cached file by key, least recently used first
+    private final LinkedHashMap<String, Long> entries =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private File directory;
+
+    @SuppressWarnings("unused")
+    public TranslatedFileCache() {
+    }
+
+    @Inject
+    public TranslatedFileCache(ApplicationConfiguration appConfig) {
+        this.appConfig = appConfig;
+    }
+
+    /**
+     * @return a cache key (hex digest) for the given components
+     */
+    public static String key(Object... components) {
+        return HashUtil.generateHash(
+                Joiner.on('\u0000').useForNull("").join(components));
+    }
+
+    public boolean isEnabled() {
+        return getMaxBytes() > 0;
+    }
+
+    /**
+     * Opens the cached document for key, generating it first if it is not
+     * cached. The channel is opened before any eviction can delete the file,
+     * so it stays readable until the caller closes it.
+     *
+     * @param key
+     *            from {@link #key(Object...)}
+     * @param generator
+     *            writes the document if it is not cached
+     * @return an open channel positioned at the start of the document
+     */
+    public FileChannel open(String key, Generator generator)
+            throws IOException {
+        FileChannel cached = openIfCached(key);
+        if (cached != null) {
+            log.debug("serving translated document {} from cache", key);
+            return cached;
+        }
+        File dir = getDirectory();
+        File tempFile = File.createTempFile(TEMP_PREFIX, ".part", dir);
+        try {
+            try (OutputStream output = Files.newOutputStream(tempFile.toPath())) {
+                generator.writeTo(output);
+            }
+            File cacheFile = new File(dir, key);
+            synchronized (this) {
+                Files.move(tempFile.toPath(), cacheFile.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                FileChannel channel = FileChannel.open(cacheFile.toPath());
+                Long previous = entries.put(key, cacheFile.length());
+                totalBytes += cacheFile.length()
+                        - (previous != null ? previous : 0);
+                evictLeastRecentlyUsed(key);
+                return channel;
+            }
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                log.warn("unable to delete {}", tempFile);
+            }
+        }
+    }
+
+    private synchronized FileChannel openIfCached(String key)
+            throws IOException {
+        File dir = getDirectory();
+        if (entries.get(key) == null) {
+            return null;
+        }
+        File file = new File(dir, key);
+        if (!file.exists()) {
+            // removed from disk by someone else
+            totalBytes -= entries.remove(key);
+            return null;
+        }
+        return FileChannel.open(file.toPath());
+    }
+
+    /**
+     * Deletes least recently used files until the cache fits its limit,
+     * keeping the entry which was just added.
+     */
+    private void evictLeastRecentlyUsed(String keep) {
+        long maxBytes = getMaxBytes();
+        Iterator<Map.Entry<String, Long>> iterator =
+                entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            File file = new File(directory, eldest.getKey());
+            if (!file.delete() && file.exists()) {
+                log.warn("unable to evict cached translated document {}",
+                        file);
+            }
+        }
+    }
+
+    /**
+     * Finds the cache directory, re-indexing files left by a previous run in
+     * order of their last modification.
+     */
+    private synchronized File getDirectory() throws IOException {
+        if (directory != null) {
+            return directory;
+        }
+        File dir = new File(appConfig.getDocumentFileStorageLocation(),
+                CACHE_SUBDIRECTORY);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("unable to create directory " + dir);
+        }
+        File[] files = dir.listFiles();
+        if (files != null) {
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+            for (File file : files) {
+                if (file.getName().startsWith(TEMP_PREFIX)) {
+                    // left over from an interrupted generation
+                    if (!file.delete()) {
+                        log.warn("unable to delete {}", file);
+                    }
+                } else {
+                    entries.put(file.getName(), file.length());
+                    totalBytes += file.length();
+                }
+            }
+        }
+        directory = dir;
+        return directory;
+    }
+
+    @VisibleForTesting
+    synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private long getMaxBytes() {
+        return appConfig.getTranslatedFileCacheMaxMB() * BYTES_PER_MB;
+    }
+}
@@ -96,7 +96,7 @@ public class TranslationDocumentUpload implements Serializable {
                 if (!uploadForm.getLast()) {
                     HDocumentUpload upload =
                             util.saveUploadPart(id, locale, uploadForm);
-                    totalChunks = upload.getParts().size();
+                    totalChunks = util.getPartCount(upload);
                     return Response.status(Status.ACCEPTED)
                             .entity(new ChunkUploadResponse(upload.getId(),
                                     totalChunks, true,
@@ -105,7 +105,7 @@ public class TranslationDocumentUpload implements Serializable {
                 } else {
                     HDocumentUpload previousParts = documentUploadDAO
                             .findById(uploadForm.getUploadId());
-                    totalChunks = previousParts.getParts().size();
+                    totalChunks = util.getPartCount(previousParts);
                     totalChunks++; // add final part
                     tempFile = Optional
                             .of(util.combineToTempFileAndDeleteUploadRecord(
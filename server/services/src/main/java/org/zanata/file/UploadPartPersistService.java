@@ -20,14 +20,73 @@
  */
 package org.zanata.file;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 
-import org.zanata.model.HDocumentUploadPart;
+import org.zanata.model.HDocumentUpload;
 
+/**
+ * Stores the content of multi-part document uploads until the final part
+ * arrives. The upload must have been persisted (so that it has an id) before
+ * parts are added to it.
+ */
 public interface UploadPartPersistService extends Serializable {
 
-    public HDocumentUploadPart newUploadPartFromStream(
-            InputStream partContentStream, int contentLength);
+    /**
+     * Appends the content of a part to the stored content of an upload. Parts
+     * are numbered from 1 and must arrive in order. A part which has already
+     * been stored is ignored, so a retried request does not store it twice.
+     *
+     * @return number of parts stored for the upload so far
+     * @throws IllegalArgumentException
+     *             if an earlier part has not been stored yet
+     */
+    int appendUploadPart(HDocumentUpload upload, int partNumber,
+            InputStream partContentStream) throws IOException;
+
+    /**
+     * @return number of parts stored for the upload so far
+     */
+    int getPartCount(HDocumentUpload upload);
+
+    /**
+     * Appends the final part and returns the complete content of the upload.
+     * The caller is responsible for deleting the returned file.
+     */
+    AssembledUpload assembleUpload(HDocumentUpload upload, int partNumber,
+            InputStream finalPartStream) throws IOException;
+
+    /**
+     * Discards any stored content for the upload.
+     */
+    void removeUploadParts(HDocumentUpload upload);
+
+    /**
+     * @return stored content of uploads which have not received a part for
+     *         more than a day, and so will most likely never be completed
+     */
+    File[] getExpiredUploadPartFiles();
+
+    final class AssembledUpload {
+        private final File file;
+        private final String md5Hash;
+
+        public AssembledUpload(File file, String md5Hash) {
+            this.file = file;
+            this.md5Hash = md5Hash;
+        }
+
+        public File getFile() {
+            return file;
+        }
 
+        /**
+         * @return hex encoded MD5 hash of the complete content
+         */
+        public String getMd5Hash() {
+            return md5Hash;
+        }
+    }
 }
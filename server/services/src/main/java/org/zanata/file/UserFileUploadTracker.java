@@ -22,8 +22,8 @@ package org.zanata.file;
 
 import javax.inject.Named;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service to track which users are currently uploading files.
@@ -36,7 +36,8 @@ import java.util.Set;
 
 public class UserFileUploadTracker {
 
-    Set<Long> uploadingUsers = new HashSet<Long>();
+    // source uploads are de-registered from async task threads
+    Set<Long> uploadingUsers = ConcurrentHashMap.newKeySet();
 
     /**
      * Attempt to register a user as uploading a file.
@@ -51,11 +52,7 @@ public class UserFileUploadTracker {
      * @return true if this attempt to register the user as uploading is successful.
      */
     public boolean tryToRegisterUserForFileUpload(Long userId) {
-        if (uploadingUsers.contains(userId)) {
-            return false;
-        }
-        uploadingUsers.add(userId);
-        return true;
+        return uploadingUsers.add(userId);
     }
 
     public boolean isUserUploading(Long userId) {
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.job;
+
+import java.io.Serializable;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+
+import org.apache.deltaspike.scheduler.api.Scheduled;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.zanata.service.impl.ActivityAccumulator;
+
+/**
+ * Periodically writes activities coalesced by {@link ActivityAccumulator} to
+ * the database.
+ */
+// We have to start a scope whether we need it or not, due to
+// https://issues.apache.org/jira/browse/DELTASPIKE-1002
+@Scheduled(cronExpression = ActivityFlushJob.CRON_EXPRESSION,
+        startScopes = { RequestScoped.class },
+        description = ActivityFlushJob.DESCRIPTION)
+@DisallowConcurrentExecution
+class ActivityFlushJob implements Job, Serializable {
+    static final String DESCRIPTION = "Activity Flush";
+    // seconds minutes hours dayOfMonth(1-31) month(1-12) dayOfWeek(1-7) year
+    // every 15 seconds
+    static final String CRON_EXPRESSION = "0/15 * * * * ? *";
+
+    private static final long serialVersionUID = 1L;
+
+    @Inject
+    private ActivityAccumulator activityAccumulator;
+
+    @Override
+    public void execute(JobExecutionContext context)
+            throws JobExecutionException {
+        activityAccumulator.flush();
+    }
+}
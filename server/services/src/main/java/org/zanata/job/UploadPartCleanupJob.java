@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.job;
+
+import java.io.File;
+import java.io.Serializable;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+
+import org.apache.deltaspike.scheduler.api.Scheduled;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.file.UploadPartPersistService;
+
+/**
+ * Removes the stored parts of multi-part document uploads which were never
+ * completed. DeltaSpike will register this job automatically on bootstrap.
+ */
+// We have to start a scope whether we need it or not, due to
+// https://issues.apache.org/jira/browse/DELTASPIKE-1002
+@Scheduled(cronExpression = UploadPartCleanupJob.CRON_EXPRESSION,
+        startScopes = { RequestScoped.class },
+        description = UploadPartCleanupJob.DESCRIPTION)
+class UploadPartCleanupJob implements Job, Serializable {
+    static final String DESCRIPTION = "Upload Part Cleanup";
+    // seconds minutes hours dayOfMonth(1-31) month(1-12) dayOfWeek(1-7) year
+    static final String CRON_EXPRESSION = "0 30 0 * * ? *";
+
+    private static final Logger log =
+            LoggerFactory.getLogger(UploadPartCleanupJob.class);
+    private static final long serialVersionUID = 1L;
+
+    @Inject
+    private UploadPartPersistService uploadPartPersistService;
+
+    @Override
+    public void execute(JobExecutionContext context)
+            throws JobExecutionException {
+        log.info("executing job: {}", DESCRIPTION);
+        for (File f : uploadPartPersistService.getExpiredUploadPartFiles()) {
+            log.debug("Removing file {}", f.getName());
+            if (!f.delete()) {
+                log.warn("Unable to delete expired upload file {}", f);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.admin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.zanata.cache.CacheStatisticsService;
+import org.zanata.security.annotations.CheckRole;
+
+/**
+ * Cache counters and settings for tuning the Infinispan caches and the
+ * Hibernate second-level cache regions.
+ */
+@RequestScoped
+@Path("/admin/cache-stats")
+@CheckRole("admin")
+@Produces(MediaType.APPLICATION_JSON)
+public class CacheStatsService {
+
+    private CacheStatisticsService cacheStatisticsService;
+
+    @SuppressWarnings("unused")
+    public CacheStatsService() {
+    }
+
+    @Inject
+    public CacheStatsService(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @GET
+    public Response getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hibernateStatisticsEnabled",
+                cacheStatisticsService.isHibernateStatisticsEnabled());
+        stats.put("caches", cacheStatisticsService.getZanataCacheStats());
+        stats.put("hibernateRegions",
+                cacheStatisticsService.getHibernateRegionStats());
+        stats.put("queryCache", cacheStatisticsService.getQueryCacheTotals());
+        return Response.ok(stats).build();
+    }
+
+    /**
+     * Turns collection of Hibernate statistics on or off (until restart).
+     */
+    @PUT
+    @Path("/hibernate")
+    public Response setHibernateStatisticsEnabled(
+            @QueryParam("enabled") boolean enabled) {
+        cacheStatisticsService.setHibernateStatisticsEnabled(enabled);
+        return Response.ok().build();
+    }
+
+    /**
+     * Resets the Hibernate counters, eg before measuring a particular load.
+     */
+    @DELETE
+    @Path("/hibernate")
+    public Response resetHibernateStatistics() {
+        cacheStatisticsService.resetHibernateStatistics();
+        return Response.ok().build();
+    }
+}
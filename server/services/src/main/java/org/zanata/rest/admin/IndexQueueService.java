@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.admin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.zanata.search.TextFlowTargetIndexQueue;
+import org.zanata.security.annotations.CheckRole;
+
+/**
+ * Lag and throughput of the background indexing of translations.
+ */
+@RequestScoped
+@Path("/admin/index-queue")
+@CheckRole("admin")
+@Produces(MediaType.APPLICATION_JSON)
+public class IndexQueueService {
+
+    private TextFlowTargetIndexQueue indexQueue;
+
+    @SuppressWarnings("unused")
+    public IndexQueueService() {
+    }
+
+    @Inject
+    public IndexQueueService(TextFlowTargetIndexQueue indexQueue) {
+        this.indexQueue = indexQueue;
+    }
+
+    @GET
+    public Response getIndexQueueStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", indexQueue.isRunning());
+        stats.put("queueSize", indexQueue.getQueueSize());
+        stats.put("queueCapacity", indexQueue.getQueueCapacity());
+        stats.put("lagMillis", indexQueue.getLagMillis());
+        stats.put("indexed", indexQueue.getIndexedCount());
+        stats.put("batches", indexQueue.getBatchCount());
+        stats.put("failedBatches", indexQueue.getFailedBatchCount());
+        stats.put("overflows", indexQueue.getOverflowCount());
+        stats.put("lastBatchMillis", indexQueue.getLastBatchMillis());
+        return Response.ok(stats).build();
+    }
+}
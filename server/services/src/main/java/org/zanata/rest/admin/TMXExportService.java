@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.admin;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+
+import org.zanata.common.LocaleId;
+import org.zanata.rest.service.TranslationMemoryResourceService;
+import org.zanata.security.annotations.CheckRole;
+import org.zanata.service.LocaleService;
+import org.zanata.tmx.TMXExportJob;
+
+/**
+ * Exports the translations of all projects as a gzip-compressed TMX file in
+ * the background, for servers where streaming the export from
+ * {@code /tm/all} would take too long.
+ */
+@RequestScoped
+@Path("/admin/tmx-export")
+@CheckRole("admin")
+@Produces(MediaType.APPLICATION_JSON)
+public class TMXExportService {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(TMXExportService.class);
+
+    @Context
+    private UriInfo uriInfo;
+
+    private TMXExportJob tmxExportJob;
+    private LocaleService localeServiceImpl;
+
+    @SuppressWarnings("unused")
+    public TMXExportService() {
+    }
+
+    @Inject
+    public TMXExportService(TMXExportJob tmxExportJob,
+            LocaleService localeServiceImpl) {
+        this.tmxExportJob = tmxExportJob;
+        this.localeServiceImpl = localeServiceImpl;
+    }
+
+    /**
+     * Starts (or resumes) an export. Its progress can be followed at the
+     * returned process status URL, which reports the download id of the
+     * finished file (see {@code /file/download/{downloadId}}).
+     *
+     * @param srcLocale
+     *            source locale of the text flows to export, or all if absent
+     * @param locale
+     *            target locale to export, or all if absent
+     */
+    @POST
+    public Response startExport(
+            @QueryParam("srcLocale") @Nullable LocaleId srcLocale,
+            @QueryParam("locale") @Nullable LocaleId locale) {
+        if (srcLocale != null) {
+            localeServiceImpl.validateSourceLocale(srcLocale);
+        }
+        if (locale != null) {
+            localeServiceImpl.validateSourceLocale(locale);
+        }
+        String filename = TranslationMemoryResourceService
+                .makeTMXFilename(null, null, srcLocale, locale);
+        String keyId;
+        try {
+            keyId = tmxExportJob.startExport(srcLocale, locale, filename);
+        } catch (IOException e) {
+            log.error("unable to start TMX export", e);
+            return Response.serverError().entity(e.getMessage()).build();
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("processKeyId", keyId);
+        result.put("processStatusUrl",
+                uriInfo.getBaseUri() + "process/key?keyId=" + keyId);
+        return Response.accepted(result).build();
+    }
+}
@@ -41,6 +41,7 @@ import javax.ws.rs.core.UriInfo;
 import org.zanata.async.AsyncTaskHandle;
 import org.zanata.async.AsyncTaskHandleManager;
 import org.zanata.async.UserTriggeredTaskHandle;
+import org.zanata.async.handle.SourceDocumentUploadTaskHandle;
 import org.zanata.exception.AuthorizationException;
 import org.zanata.rest.dto.ProcessStatus;
 import org.zanata.rest.editor.service.SuggestionsService;
@@ -244,11 +245,29 @@ public class AsyncProcessService {
                 status.setStatusCode(ProcessStatus.ProcessStatusCode.Failed);
                 status.addMessage("Unknown exception:" + e.getMessage());
             }
-            // TODO Need to find a generic way of returning all object types.
-            if (result != null) {
+            if (handle instanceof SourceDocumentUploadTaskHandle) {
+                addFileOutcomes(status,
+                        (SourceDocumentUploadTaskHandle) handle);
+            } else if (result != null) {
+                // TODO Need to find a generic way of returning all object
+                // types.
                 status.addMessage(result.toString());
             }
         }
         return status;
     }
+
+    /**
+     * Adds one message "docId: outcome" for each uploaded file, and marks the
+     * process as failed if any of the files failed.
+     */
+    private static void addFileOutcomes(ProcessStatus status,
+            SourceDocumentUploadTaskHandle handle) {
+        handle.getFileOutcomes().forEach(
+                (docId, outcome) -> status.addMessage(docId + ": " + outcome));
+        if (!handle.getFailedFiles().isEmpty() && status
+                .getStatusCode() == ProcessStatus.ProcessStatusCode.Finished) {
+            status.setStatusCode(ProcessStatus.ProcessStatusCode.Failed);
+        }
+    }
 }
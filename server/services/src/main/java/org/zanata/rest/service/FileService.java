@@ -25,7 +25,10 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -33,6 +36,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.RequestScoped;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.Path;
@@ -62,8 +66,10 @@ import org.zanata.file.FilePersistService;
 import org.zanata.file.GlobalDocumentId;
 import org.zanata.file.RawDocumentContentAccessException;
 import org.zanata.file.SourceDocumentUpload;
+import org.zanata.file.TranslatedFileCache;
 import org.zanata.file.TranslationDocumentUpload;
 import org.zanata.model.HDocument;
+import org.zanata.model.HLocale;
 import org.zanata.model.HProjectIteration;
 import org.zanata.model.HRawDocument;
 import org.zanata.rest.dto.TranslationSourceType;
@@ -76,6 +82,7 @@ import org.zanata.rest.dto.resource.TranslationsResource;
 import org.zanata.security.ZanataIdentity;
 import org.zanata.service.FileSystemService;
 import org.zanata.service.FileSystemService.DownloadDescriptorProperties;
+import org.zanata.service.LocaleService;
 import org.zanata.service.TranslationFileService;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
@@ -114,6 +121,13 @@ public class FileService implements FileResource {
     private ProjectIterationDAO projectIterationDAO;
     @Inject
     private ZanataIdentity identity;
+    @Inject
+    private TranslatedFileCache translatedFileCache;
+    @Inject
+    private LocaleService localeServiceImpl;
+    // cached files opened for responses, closed at the end of the request
+    // in case a response is never written
+    private final List<FileChannel> openChannels = new ArrayList<>();
 
     /**
      * Deprecated.
@@ -273,69 +287,72 @@ public class FileService implements FileResource {
                 }
                 assert document.getRawDocument() != null;
                 HRawDocument hRawDocument = document.getRawDocument();
-                Resource res = this.resourceUtils.buildResource(document);
-                final Set<String> extensions = Collections.<String> emptySet();
-                // FIXME convertFromDocumentURIId expects an idNoSlash, but what type is docId?
-                String convertedId = RestUtil.convertFromDocumentURIId(docId);
-                TranslationsResource transRes =
-                        (TranslationsResource) this.translatedDocResourceService
-                                .getTranslationsWithDocId(localeId, convertedId,
-                                        extensions, true, false, null)
-                                .getEntity();
-                // Filter to only provide translated targets. "Preview" downloads
-                // include fuzzy.
-                // New list is used as transRes list appears not to be a modifiable
-                // implementation.
-                List<TextFlowTarget> filteredTranslations = Lists.newArrayList();
-                boolean useFuzzy =
-                        FILETYPE_TRANSLATED_APPROVED_AND_FUZZY.equals(fileType);
-                for (TextFlowTarget target : transRes.getTextFlowTargets()) {
-                    // TODO rhbz953734 - translatedDocResourceService will map
-                    // review content state to old state. For now this is
-                    // acceptable. Once we have new REST options, we should review
-                    // this
-                    ContentState state = target.getState();
-                    if (state.isApproved() ||
-                            (useFuzzy && state.isRejectedOrFuzzy()) ||
-                            (!approvedOnly && state.isTranslated())) {
-                        filteredTranslations.add(target);
+                DocumentType type = hRawDocument.getType();
+                String params =
+                        Strings.nullToEmpty(hRawDocument.getAdapterParameters());
+                String name = projectSlug + ":" + iterationSlug + ":" + docId;
+                String translationFilename = translationFileServiceImpl
+                        .getAdapterFor(type)
+                        .generateTranslationFilename(document, locale);
+                String cacheKey = getTranslatedFileCacheKey(id, hRawDocument,
+                        localeId, params, fileType, approvedOnly);
+                if (cacheKey != null) {
+                    // a cache hit skips loading the translations entirely
+                    FileChannel channel;
+                    long size;
+                    try {
+                        channel = translatedFileCache.open(cacheKey, out -> {
+                            File tempFile =
+                                    copyRawDocumentToTempFile(hRawDocument, name);
+                            try {
+                                translationFileServiceImpl.writeTranslatedFile(
+                                        type, out,
+                                        createWriterOptions(tempFile, document,
+                                                localeId, docId, fileType,
+                                                approvedOnly, params),
+                                        approvedOnly);
+                            } finally {
+                                if (!tempFile.delete()) {
+                                    tempFile.deleteOnExit();
+                                }
+                            }
+                        });
+                        openChannels.add(channel);
+                        size = channel.size();
+                    } catch (IOException | RawDocumentContentAccessException e) {
+                        log.error(e.toString(), e);
+                        return Response.status(Status.INTERNAL_SERVER_ERROR)
+                                .entity(e).build();
                     }
-                }
-                transRes.getTextFlowTargets().clear();
-                transRes.getTextFlowTargets().addAll(filteredTranslations);
-                InputStream inputStream;
-                try {
-                    inputStream = filePersistService.getRawDocumentContentAsStream(
-                            hRawDocument);
-                } catch (RawDocumentContentAccessException e) {
-                    log.error(e.toString(), e);
-                    return Response.status(Status.INTERNAL_SERVER_ERROR).entity(e)
+                    response = Response.ok()
+                            .header("Content-Disposition", "attachment; filename=\""
+                                    + translationFilename + "\"")
+                            .header("Content-Length", size)
+                            .entity(new FileChannelStreamingOutput(channel))
                             .build();
+                } else {
+                    File tempFile;
+                    try {
+                        tempFile = copyRawDocumentToTempFile(hRawDocument, name);
+                    } catch (RawDocumentContentAccessException e) {
+                        log.error(e.toString(), e);
+                        return Response.status(Status.INTERNAL_SERVER_ERROR)
+                                .entity(e).build();
+                    }
+                    StreamingOutput output = new FormatAdapterStreamingOutput(
+                            translationFileServiceImpl.getAdapterFor(type),
+                            createWriterOptions(tempFile, document, localeId,
+                                    docId, fileType, approvedOnly, params),
+                            approvedOnly);
+                    response = Response.ok()
+                            .header("Content-Disposition", "attachment; filename=\""
+                                    + translationFilename + "\"")
+                            .entity(output).build();
+                    // TODO damason: remove more immediately, but make sure response has
+                    // finished with the file
+                    // Note: may not be necessary when file storage is on disk.
+                    tempFile.deleteOnExit();
                 }
-                File tempFile =
-                        translationFileServiceImpl.persistToTempFile(inputStream);
-                String name = projectSlug + ":" + iterationSlug + ":" + docId;
-                // TODO damason: this file is not transmitted, but used to generate
-                // a file later
-                // the generated file should be scanned instead
-                virusScanner.scan(tempFile, name);
-                URI uri = tempFile.toURI();
-                FileFormatAdapter adapter = translationFileServiceImpl
-                        .getAdapterFor(hRawDocument.getType());
-                String rawParamString = hRawDocument.getAdapterParameters();
-                String params = Strings.nullToEmpty(rawParamString);
-                StreamingOutput output = new FormatAdapterStreamingOutput(uri, res,
-                        transRes, localeId, adapter, params, approvedOnly);
-                String translationFilename =
-                        adapter.generateTranslationFilename(document, locale);
-                response = Response.ok()
-                        .header("Content-Disposition", "attachment; filename=\""
-                                + translationFilename + "\"")
-                        .entity(output).build();
-                // TODO damason: remove more immediately, but make sure response has
-                // finished with the file
-                // Note: may not be necessary when file storage is on disk.
-                tempFile.deleteOnExit();
             } else {
                 // TODO wrong code: fileType is not a mime media type
                 response = Response.status(Status.UNSUPPORTED_MEDIA_TYPE).build();
@@ -344,6 +361,90 @@ public class FileService implements FileResource {
         return response;
     }
 
+    @PreDestroy
+    public void closeOpenChannels() {
+        // closing an already closed channel has no effect
+        openChannels.forEach(IOUtils::closeQuietly);
+    }
+
+    /**
+     * @return key of the generated document in the translated file cache, or
+     *         null if it should not be cached
+     */
+    private String getTranslatedFileCacheKey(GlobalDocumentId id,
+            HRawDocument rawDocument, LocaleId localeId, String params,
+            String fileType, boolean approvedOnly) {
+        if (!translatedFileCache.isEnabled()
+                || rawDocument.getFileId() == null) {
+            return null;
+        }
+        HLocale hLocale = localeServiceImpl.getByLocaleId(localeId);
+        if (hLocale == null) {
+            return null;
+        }
+        String stateHash = documentDAO.getTranslatedDocumentStateHash(
+                id.getProjectSlug(), id.getVersionSlug(), id.getDocId(),
+                hLocale);
+        return TranslatedFileCache.key(rawDocument.getFileId(),
+                rawDocument.getType(), params, localeId, fileType,
+                approvedOnly, stateHash);
+    }
+
+    /**
+     * Copies the original document to a temporary file for the adapter, and
+     * scans it for viruses.
+     */
+    private File copyRawDocumentToTempFile(HRawDocument rawDocument,
+            String name) {
+        InputStream inputStream =
+                filePersistService.getRawDocumentContentAsStream(rawDocument);
+        File tempFile =
+                translationFileServiceImpl.persistToTempFile(inputStream);
+        // TODO damason: this file is not transmitted, but used to generate
+        // a file later
+        // the generated file should be scanned instead
+        virusScanner.scan(tempFile, name);
+        return tempFile;
+    }
+
+    private WriterOptions createWriterOptions(File original,
+            HDocument document, LocaleId localeId, String docId,
+            String fileType, boolean approvedOnly, String params) {
+        Resource res = this.resourceUtils.buildResource(document);
+        final Set<String> extensions = Collections.<String> emptySet();
+        // FIXME convertFromDocumentURIId expects an idNoSlash, but what type is docId?
+        String convertedId = RestUtil.convertFromDocumentURIId(docId);
+        TranslationsResource transRes =
+                (TranslationsResource) this.translatedDocResourceService
+                        .getTranslationsWithDocId(localeId, convertedId,
+                                extensions, true, false, null)
+                        .getEntity();
+        // Filter to only provide translated targets. "Preview" downloads
+        // include fuzzy.
+        // New list is used as transRes list appears not to be a modifiable
+        // implementation.
+        List<TextFlowTarget> filteredTranslations = Lists.newArrayList();
+        boolean useFuzzy =
+                FILETYPE_TRANSLATED_APPROVED_AND_FUZZY.equals(fileType);
+        for (TextFlowTarget target : transRes.getTextFlowTargets()) {
+            // TODO rhbz953734 - translatedDocResourceService will map
+            // review content state to old state. For now this is
+            // acceptable. Once we have new REST options, we should review
+            // this
+            ContentState state = target.getState();
+            if (state.isApproved() ||
+                    (useFuzzy && state.isRejectedOrFuzzy()) ||
+                    (!approvedOnly && state.isTranslated())) {
+                filteredTranslations.add(target);
+            }
+        }
+        transRes.getTextFlowTargets().clear();
+        transRes.getTextFlowTargets().addAll(filteredTranslations);
+        return new WriterOptions(
+                new ParserOptions(original.toURI(), localeId, params),
+                new TranslatedDoc(res, transRes, localeId));
+    }
+
     @Override
     public Response download(String downloadId) {
         // TODO scan (again) for virus
@@ -455,24 +556,14 @@ public class FileService implements FileResource {
     }
 
     private static class FormatAdapterStreamingOutput implements StreamingOutput {
-        private Resource resource;
-        private TranslationsResource translationsResource;
-        private LocaleId locale;
-        private URI original;
-        private FileFormatAdapter adapter;
-        private String params;
+        private final FileFormatAdapter adapter;
+        private final WriterOptions options;
         private final boolean approvedOnly;
 
-        FormatAdapterStreamingOutput(URI originalDoc, Resource resource,
-                TranslationsResource translationsResource, LocaleId locale,
-                FileFormatAdapter adapter, String params,
-                boolean approvedOnly) {
-            this.resource = resource;
-            this.translationsResource = translationsResource;
-            this.locale = locale;
-            this.original = originalDoc;
+        FormatAdapterStreamingOutput(FileFormatAdapter adapter,
+                WriterOptions options, boolean approvedOnly) {
             this.adapter = adapter;
-            this.params = params;
+            this.options = options;
             this.approvedOnly = approvedOnly;
         }
 
@@ -480,11 +571,7 @@ public class FileService implements FileResource {
         public void write(OutputStream output)
                 throws IOException, WebApplicationException {
             // FIXME should the generated file be virus scanned?
-            adapter.writeTranslatedFile(output,
-                    new WriterOptions(
-                            new ParserOptions(original, locale, params),
-                            new TranslatedDoc(resource, translationsResource, locale)),
-                    approvedOnly);
+            adapter.writeTranslatedFile(output, options, approvedOnly);
         }
     }
     /*
@@ -508,6 +595,33 @@ public class FileService implements FileResource {
         }
     }
 
+    /*
+     * Private class that sends a cached file, letting the channel transfer the
+     * bytes directly where the output allows it.
+     */
+
+    private static class FileChannelStreamingOutput implements StreamingOutput {
+        private final FileChannel channel;
+
+        FileChannelStreamingOutput(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(@Nonnull OutputStream output)
+                throws IOException, WebApplicationException {
+            try (FileChannel input = channel) {
+                WritableByteChannel target = Channels.newChannel(output);
+                long size = input.size();
+                long position = 0;
+                while (position < size) {
+                    position += input.transferTo(position, size - position,
+                            target);
+                }
+            }
+        }
+    }
+
     private boolean hasProjectVersionAccess(@NotNull String projectSlug,
             @NotNull String versionSlug) {
         HProjectIteration version =
@@ -14,6 +14,7 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -23,10 +24,12 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.persistence.EntityManager;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
@@ -36,6 +39,10 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.fedorahosted.tennera.jgettext.HeaderFields;
+import org.hibernate.Hibernate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.zanata.ApplicationConfiguration;
@@ -44,6 +51,13 @@ import org.zanata.common.LocaleId;
 import org.zanata.common.MergeType;
 import org.zanata.common.ResourceType;
 import org.zanata.dao.LocaleDAO;
+import org.zanata.dao.TextFlowTargetDAO;
+import org.zanata.dao.TextFlowTargetDAO.InvalidatedTarget;
+import org.zanata.events.DocStatsEvent;
+import org.zanata.events.DocumentLocaleKey;
+import org.zanata.events.TextFlowTargetStateEvent;
+import org.zanata.events.TextFlowTargetStateEvent.TextFlowTargetStateChange;
+import org.zanata.events.TextFlowTargetsBulkUpdatedEvent;
 import org.zanata.model.HDocument;
 import org.zanata.model.HLocale;
 import org.zanata.model.HPerson;
@@ -127,6 +141,18 @@ public class ResourceUtils implements Serializable {
     private EntityManager entityManager;
     @Inject
     private LocaleDAO localeDAO;
+    @Inject
+    private TextFlowTargetDAO textFlowTargetDAO;
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    @Inject
+    private Event<TextFlowTargetStateEvent> textFlowTargetStateEvent;
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    @Inject
+    private Event<DocStatsEvent> docStatsEvent;
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    @Inject
+    private Event<TextFlowTargetsBulkUpdatedEvent>
+            textFlowTargetsBulkUpdatedEvent;
 
     @PostConstruct
     public void create() {
@@ -161,6 +187,8 @@ public class ResourceUtils implements Serializable {
         Set<String> previousIds =
                 new HashSet<String>(to.getAllTextFlows().keySet());
         int count = 0;
+        List<HTextFlow> changedTextFlows = new ArrayList<>();
+        List<InvalidatedTarget> invalidatedTargets = new ArrayList<>();
         for (TextFlow tf : from) {
             if (!incomingIds.add(tf.getId())) {
                 Response response = Response.status(Status.BAD_REQUEST).entity(
@@ -183,14 +211,8 @@ public class ResourceUtils implements Serializable {
                     // changed
                     textFlow.setRevision(nextDocRev);
                     changed = true;
-                    for (HTextFlowTarget targ : textFlow.getTargets()
-                            .values()) {
-                        // if (targ.getState() != ContentState.New)
-                        if (targ.getState().isTranslated()) {
-                            targ.setState(ContentState.NeedReview);
-                            targ.setVersionNum(targ.getVersionNum() + 1);
-                        }
-                    }
+                    // its translations are set to fuzzy, see below
+                    changedTextFlows.add(textFlow);
                     log.debug("TextFlow with id {} has changed", tf.getId());
                 }
             } else {
@@ -206,6 +228,9 @@ public class ResourceUtils implements Serializable {
             count++;
             if (count % 100 == 0) {
                 entityManager.flush();
+                invalidatedTargets.addAll(
+                        markTranslatedTargetsNeedReview(changedTextFlows));
+                changedTextFlows.clear();
             }
             // FIXME we can't clear entityManager here. See
             // org.zanata.feature.rest.CopyTransTest.testPushTranslationAndCopyTrans.
@@ -220,6 +245,9 @@ public class ResourceUtils implements Serializable {
              * entityManager.find(HDocument.class, to.getId()); }
              */
         }
+        invalidatedTargets.addAll(
+                markTranslatedTargetsNeedReview(changedTextFlows));
+        fireInvalidatedTargetEvents(to, invalidatedTargets);
         // set remaining textflows to obsolete.
         for (String id : previousIds) {
             HTextFlow textFlow = to.getAllTextFlows().get(id);
@@ -235,6 +263,83 @@ public class ResourceUtils implements Serializable {
         return changed;
     }
 
+    /**
+     * Sets the translated and approved targets of the given text flows back
+     * to NeedReview. Targets which are already loaded are changed through
+     * their entities, so that the persistence context does not hold stale
+     * copies of bulk updated rows (nor write them back over the update). The
+     * targets of the other text flows are changed with bulk statements
+     * without loading them; if their collections are loaded later in this
+     * transaction, they are read after the update.
+     *
+     * @return the persisted targets which were changed
+     */
+    private List<InvalidatedTarget> markTranslatedTargetsNeedReview(
+            List<HTextFlow> textFlows) {
+        List<InvalidatedTarget> invalidated = new ArrayList<>();
+        List<Long> notLoaded = new ArrayList<>();
+        for (HTextFlow textFlow : textFlows) {
+            if (!Hibernate.isInitialized(textFlow.getTargets())) {
+                notLoaded.add(textFlow.getId());
+                continue;
+            }
+            for (HTextFlowTarget targ : textFlow.getTargets().values()) {
+                if (targ.getState().isTranslated()) {
+                    if (targ.getId() != null) {
+                        invalidated.add(new InvalidatedTarget(targ.getId(),
+                                textFlow.getId(), targ.getLocaleId(),
+                                targ.getState(), textFlow.getWordCount()));
+                    }
+                    targ.setState(ContentState.NeedReview);
+                    targ.setVersionNum(targ.getVersionNum() + 1);
+                }
+            }
+        }
+        invalidated.addAll(
+                textFlowTargetDAO.markTranslatedTargetsNeedReview(notLoaded));
+        return invalidated;
+    }
+
+    /**
+     * Fires one state event and one statistics event per locale for targets
+     * which were set to fuzzy in bulk, and requests their reindexing.
+     */
+    private void fireInvalidatedTargetEvents(HDocument document,
+            List<InvalidatedTarget> invalidatedTargets) {
+        if (invalidatedTargets.isEmpty()) {
+            return;
+        }
+        Long versionId = document.getProjectIteration().getId();
+        ListMultimap<LocaleId, InvalidatedTarget> targetsByLocale = Multimaps
+                .index(invalidatedTargets, InvalidatedTarget::getLocaleId);
+        for (LocaleId localeId : targetsByLocale.keySet()) {
+            DocumentLocaleKey key =
+                    new DocumentLocaleKey(document.getId(), localeId);
+            ImmutableList.Builder<TextFlowTargetStateChange> states =
+                    ImmutableList.builder();
+            Map<ContentState, Long> wordDeltasByState = new HashMap<>();
+            Long lastTargetId = null;
+            for (InvalidatedTarget target : targetsByLocale.get(localeId)) {
+                states.add(new TextFlowTargetStateChange(
+                        target.getTextFlowId(), target.getTargetId(),
+                        ContentState.NeedReview, target.getPreviousState()));
+                DocStatsEvent.updateContentStateDeltas(wordDeltasByState,
+                        ContentState.NeedReview, target.getPreviousState(),
+                        target.getWordCount());
+                lastTargetId = target.getTargetId();
+            }
+            // no actor: this is a consequence of a source change
+            textFlowTargetStateEvent.fire(new TextFlowTargetStateEvent(key,
+                    versionId, null, states.build()));
+            docStatsEvent.fire(new DocStatsEvent(key, versionId,
+                    wordDeltasByState, lastTargetId));
+        }
+        textFlowTargetsBulkUpdatedEvent
+                .fire(new TextFlowTargetsBulkUpdatedEvent(invalidatedTargets
+                        .stream().map(InvalidatedTarget::getTargetId)
+                        .collect(Collectors.toList())));
+    }
+
     /**
      * Merges from the DTO Resource into HDocument, adding and obsoleting
      * textflows, including metadata and the specified extensions
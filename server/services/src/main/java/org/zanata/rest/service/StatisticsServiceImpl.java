@@ -25,9 +25,11 @@ import java.math.BigInteger;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.enterprise.context.RequestScoped;
@@ -59,6 +61,7 @@ import org.zanata.dao.DocumentDAO;
 import org.zanata.dao.PersonDAO;
 import org.zanata.dao.ProjectIterationDAO;
 import org.zanata.dao.TextFlowTargetHistoryDAO;
+import org.zanata.model.ContributionRollup.Role;
 import org.zanata.model.HDocument;
 import org.zanata.model.HLocale;
 import org.zanata.model.HPerson;
@@ -76,6 +79,7 @@ import org.zanata.rest.dto.stats.contribution.ContributionStatistics;
 import org.zanata.rest.dto.stats.contribution.LocaleStatistics;
 import org.zanata.security.ZanataIdentity;
 import org.zanata.service.TranslationStateCache;
+import org.zanata.service.impl.ContributionRollupService;
 import org.zanata.service.impl.LocaleServiceImpl;
 import org.zanata.util.DateUtil;
 import org.zanata.webtrans.shared.model.DocumentStatus;
@@ -105,6 +109,8 @@ public class StatisticsServiceImpl implements StatisticsResource {
     @Inject
     private TextFlowTargetHistoryDAO textFlowTargetHistoryDAO;
     @Inject
+    private ContributionRollupService contributionRollupService;
+    @Inject
     private LocaleServiceImpl localeServiceImpl;
     @Inject
     private ZPathService zPathService;
@@ -325,17 +331,31 @@ public class StatisticsServiceImpl implements StatisticsResource {
         }
         HPerson person = findPersonOrExceptionOnNotFound(username);
         DateRange dateRange = DateRange.from(dateRangeParam);
-        List<Object[]> translationData = textFlowTargetHistoryDAO
-                .getUserTranslationStatisticInVersion(version.getId(),
-                        person.getId(), dateRange.getFromDate().toDate(),
-                        dateRange.getToDate().toDate(), automatedEntry);
-        List<Object[]> reviewData = textFlowTargetHistoryDAO
-                .getUserReviewStatisticInVersion(version.getId(),
-                        person.getId(), dateRange.getFromDate().toDate(),
-                        dateRange.getToDate().toDate(), automatedEntry);
+        Date fromDate = dateRange.getFromDate().toDate();
+        Date toDate = dateRange.getToDate().toDate();
+        List<Object[]> translationData = contributionRollupService
+                .getContributionTotals(Role.TRANSLATED, version.getId(),
+                        person.getId(), fromDate, toDate, automatedEntry);
+        List<Object[]> reviewData = contributionRollupService
+                .getContributionTotals(Role.REVIEWED, version.getId(),
+                        person.getId(), fromDate, toDate, automatedEntry);
+        if (translationData != null && reviewData != null) {
+            translationData = withLocaleIds(translationData);
+            reviewData = withLocaleIds(reviewData);
+        } else {
+            // rollup is still catching up
+            translationData = textFlowTargetHistoryDAO
+                    .getUserTranslationStatisticInVersion(version.getId(),
+                            person.getId(), fromDate, toDate,
+                            automatedEntry);
+            reviewData = textFlowTargetHistoryDAO
+                    .getUserReviewStatisticInVersion(version.getId(),
+                            person.getId(), fromDate, toDate,
+                            automatedEntry);
+        }
         Map<LocaleId, LocaleStatistics> localeStatsMap = Maps.newHashMap();
         for (Object[] entry : translationData) {
-            int count = ((BigDecimal) entry[0]).intValue();
+            int count = ((Number) entry[0]).intValue();
             ContentState state = ContentState.values()[(int) entry[1]];
             LocaleId localeId = new LocaleId(entry[2].toString());
             BaseContributionStatistic translationStats = null;
@@ -355,7 +375,7 @@ public class StatisticsServiceImpl implements StatisticsResource {
             localeStatsMap.put(localeId, localeStatistics);
         }
         for (Object[] entry : reviewData) {
-            int count = ((BigDecimal) entry[0]).intValue();
+            int count = ((Number) entry[0]).intValue();
             ContentState state = ContentState.values()[(int) entry[1]];
             LocaleId localeId = new LocaleId(entry[2].toString());
             BaseContributionStatistic reviewStats = null;
@@ -378,6 +398,18 @@ public class StatisticsServiceImpl implements StatisticsResource {
                 new ArrayList<>(localeStatsMap.values()));
     }
 
+    /**
+     * Replaces the HLocale ids in rolled up contribution totals with locale
+     * ids, as returned by the history queries.
+     */
+    private List<Object[]> withLocaleIds(List<Object[]> totals) {
+        for (Object[] entry : totals) {
+            entry[2] = entityManager.find(HLocale.class, entry[2])
+                    .getLocaleId().getId();
+        }
+        return totals;
+    }
+
     private HPerson findPersonOrExceptionOnNotFound(String username) {
         HPerson person = personDAO.findByUsername(username);
         if (person == null) {
@@ -468,14 +500,57 @@ public class StatisticsServiceImpl implements StatisticsResource {
         } else {
             userZoneOpt = Optional.absent();
         }
+        UserMatrixResultTransformer resultTransformer =
+                new UserMatrixResultTransformer(entityManager, identity,
+                        dateFormatter);
+        List<Object[]> workTotals = contributionRollupService.getWorkTotals(
+                person.getId(), fromDate.toDate(), toDate.toDate());
+        if (workTotals != null) {
+            return toUserMatrix(workTotals, dateFormatter, resultTransformer);
+        }
+        // rollup is still catching up
         List<TranslationMatrix> translationMatrixList =
                 textFlowTargetHistoryDAO.getUserTranslationMatrix(person,
                         fromDate, toDate, userZoneOpt, systemZone,
-                        new UserMatrixResultTransformer(entityManager,
-                                identity, dateFormatter));
+                        resultTransformer);
         return translationMatrixList;
     }
 
+    /**
+     * Groups quarter-hourly rollup totals into days of the user's time zone.
+     *
+     * @param workTotals
+     *            Object[period][projectIterationId][HLocale id]
+     *            [contentState ordinal][wordCount] as returned by
+     *            ContributionRollupService.getWorkTotals
+     */
+    private static List<TranslationMatrix> toUserMatrix(
+            List<Object[]> workTotals, DateTimeFormatter dateFormatter,
+            UserMatrixResultTransformer resultTransformer) {
+        Map<List<Object>, Object[]> days = new TreeMap<>(
+                Comparator.comparing((List<Object> key) -> (String) key.get(0))
+                        .thenComparing(key -> (Long) key.get(1))
+                        .thenComparing(key -> (Long) key.get(2))
+                        .thenComparing(key -> (Integer) key.get(3)));
+        for (Object[] entry : workTotals) {
+            List<Object> key = Arrays.asList(
+                    dateFormatter.print(((Date) entry[0]).getTime()),
+                    entry[1], entry[2], entry[3]);
+            Object[] day = days.get(key);
+            if (day == null) {
+                days.put(key, entry.clone());
+            } else {
+                day[4] = (Long) day[4] + (Long) entry[4];
+            }
+        }
+        List<TranslationMatrix> result = new ArrayList<>(days.size());
+        for (Object[] day : days.values()) {
+            result.add((TranslationMatrix) resultTransformer
+                    .transformTuple(day, null));
+        }
+        return result;
+    }
+
 
     @Override
     public Response getProjectStatisticsMatrix(final String projectSlug,
@@ -563,7 +638,7 @@ public class StatisticsServiceImpl implements StatisticsResource {
                     .print(new DateTime(tuple[0]).toDate().getTime());
             HProjectIteration iteration =
                     entityManager.find(HProjectIteration.class,
-                            ((BigInteger) tuple[1]).longValue());
+                            ((Number) tuple[1]).longValue());
             String projectSlug = iteration.getProject().getSlug();
             String projectName = iteration.getProject().getName();
             String versionSlug = iteration.getSlug();
@@ -573,11 +648,11 @@ public class StatisticsServiceImpl implements StatisticsResource {
                 versionSlug = null;
             }
             HLocale locale = entityManager.find(HLocale.class,
-                    ((BigInteger) tuple[2]).longValue());
+                    ((Number) tuple[2]).longValue());
             String localeDisplayName = locale.retrieveDisplayName();
             LocaleId localeId = locale.getLocaleId();
             ContentState savedState = ContentState.values()[(int) tuple[3]];
-            long wordCount = ((BigDecimal) tuple[4]).toBigInteger().longValue();
+            long wordCount = ((Number) tuple[4]).longValue();
             return new TranslationMatrix(savedDate, projectSlug, projectName,
                     versionSlug, localeId, localeDisplayName, savedState,
                     wordCount);
@@ -275,7 +275,7 @@ public class TranslationMemoryResourceService
     }
 
     @Nonnull
-    private static String makeTMXFilename(@Nullable String projectSlug,
+    public static String makeTMXFilename(@Nullable String projectSlug,
             @Nullable String iterationSlug, @Nullable LocaleId srcLocale,
             @Nullable LocaleId locale) {
         String p = projectSlug != null ? projectSlug : "allProjects";
@@ -21,10 +21,15 @@
 package org.zanata.rest.service;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import nu.xom.Attribute;
@@ -81,19 +86,60 @@ public class TranslationsTMXExportStrategy <T extends ITextFlow>
     @Override
     public Element buildHeader() throws IOException {
         Element header = new Element("header");
-        header.addAttribute(new Attribute("creationtool", creationTool));
-        header.addAttribute(
-                new Attribute("creationtoolversion", creationToolVersion));
-        header.addAttribute(new Attribute("segtype", "block"));
-        header.addAttribute(new Attribute("o-tmf", "unknown"));
-        header.addAttribute(new Attribute("adminlang", "en"));
-        header.addAttribute(new Attribute("srclang",
-                srcLocaleId != null ? srcLocaleId.getId() :
-                        TMXConstants.ALL_LOCALE));
-        header.addAttribute(new Attribute("datatype", "unknown"));
+        for (Map.Entry<String, String> attr : headerAttributes().entrySet()) {
+            header.addAttribute(new Attribute(attr.getKey(), attr.getValue()));
+        }
         return header;
     }
 
+    /**
+     * Writes the start of a TMX document, up to and including the
+     * {@code <body>} start tag, directly to a StAX writer. TUs can then be
+     * written with {@link #writeTU}, followed by {@link #writeEnd}.
+     */
+    public void writeStart(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeCharacters("\n");
+        writer.writeDTD("<!DOCTYPE tmx SYSTEM "
+                + "\"http://www.lisa.org/tmx/tmx14.dtd\">");
+        writer.writeCharacters("\n");
+        writer.writeStartElement("tmx");
+        writer.writeAttribute("version", "1.4");
+        writer.writeCharacters("\n  ");
+        writer.writeEmptyElement("header");
+        for (Map.Entry<String, String> attr : headerAttributes().entrySet()) {
+            writer.writeAttribute(attr.getKey(), attr.getValue());
+        }
+        writer.writeCharacters("\n  ");
+        writer.writeStartElement("body");
+        writer.writeCharacters("\n");
+    }
+
+    /**
+     * Closes the elements opened by {@link #writeStart}.
+     */
+    public void writeEnd(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeCharacters("  ");
+        writer.writeEndElement();
+        writer.writeCharacters("\n");
+        writer.writeEndElement();
+        writer.writeCharacters("\n");
+        writer.writeEndDocument();
+    }
+
+    private Map<String, String> headerAttributes() {
+        Map<String, String> attrs = new LinkedHashMap<>();
+        attrs.put("creationtool", creationTool);
+        attrs.put("creationtoolversion", creationToolVersion);
+        attrs.put("segtype", "block");
+        attrs.put("o-tmf", "unknown");
+        attrs.put("adminlang", "en");
+        attrs.put("srclang", srcLocaleId != null ? srcLocaleId.getId()
+                : TMXConstants.ALL_LOCALE);
+        attrs.put("datatype", "unknown");
+        return attrs;
+    }
+
     @SuppressFBWarnings({"SLF4J_FORMAT_SHOULD_BE_CONST"})
     public Optional<Element> buildTU(ITextFlow tf) throws IOException {
         try {
@@ -109,6 +155,58 @@ public class TranslationsTMXExportStrategy <T extends ITextFlow>
         }
     }
 
+    /**
+     * Writes a {@code <tu>} element for the text flow directly to a StAX
+     * writer, without building it in memory first. Like
+     * {@link TMXStreamingOutput}, text flows without any exportable
+     * translation are skipped, because a TU needs at least two TUVs.
+     *
+     * @return true if a TU was written
+     */
+    @SuppressFBWarnings({"SLF4J_FORMAT_SHOULD_BE_CONST"})
+    public boolean writeTU(XMLStreamWriter writer, ITextFlow tf)
+            throws XMLStreamException {
+        String srcContent;
+        try {
+            srcContent = getSourceContent(tf);
+        } catch (InvalidContentsException e) {
+            log.warn(e.getMessage());
+            return false;
+        }
+        Map<LocaleId, String> translations = new LinkedHashMap<>();
+        for (ITextFlowTarget target : getTargets(tf)) {
+            Optional<String> content = getTargetContent(target);
+            if (content.isPresent()) {
+                translations.put(target.getLocaleId(), content.get());
+            }
+        }
+        if (translations.isEmpty()) {
+            return false;
+        }
+        writer.writeStartElement("tu");
+        writer.writeAttribute(TMXConstants.SRCLANG, tf.getLocale().getId());
+        writer.writeAttribute("tuid", tf.getQualifiedId());
+        writeTUV(writer, tf.getLocale(), srcContent);
+        for (Map.Entry<LocaleId, String> translation : translations
+                .entrySet()) {
+            writeTUV(writer, translation.getKey(), translation.getValue());
+        }
+        writer.writeEndElement();
+        writer.writeCharacters("\n");
+        return true;
+    }
+
+    private static void writeTUV(XMLStreamWriter writer, LocaleId locale,
+            String content) throws XMLStreamException {
+        writer.writeStartElement("tuv");
+        writer.writeAttribute("xml", XMLConstants.XML_NS_URI, "lang",
+                locale.getId());
+        writer.writeStartElement("seg");
+        writer.writeCharacters(content);
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
+
     private void setAttributes(Element tu, ITextFlow tf) {
         LocaleId sourceLocaleId = tf.getLocale();
         String tuid = tf.getQualifiedId();
@@ -121,22 +219,22 @@ public class TranslationsTMXExportStrategy <T extends ITextFlow>
             throws InvalidContentsException {
         Set<Element> tuvSet = Sets.newLinkedHashSet();
         tuvSet.add(buildSourceTUV(tf));
-        if (exportAllLocales()) {
-            Iterable<ITextFlowTarget> allTargets = tf.getAllTargetContents();
-            for (ITextFlowTarget target : allTargets) {
-                Optional<Element> tuv = buildTargetTUV(target);
-                tuvSet.addAll(tuv.asSet());
-            }
-        } else {
-            ITextFlowTarget target = tf.getTargetContents(this.localeId);
-            if (target != null) {
-                Optional<Element> tuv = buildTargetTUV(target);
-                tuvSet.addAll(tuv.asSet());
-            }
+        for (ITextFlowTarget target : getTargets(tf)) {
+            Optional<Element> tuv = buildTargetTUV(target);
+            tuvSet.addAll(tuv.asSet());
         }
         return tuvSet;
     }
 
+    private Iterable<ITextFlowTarget> getTargets(ITextFlow tf) {
+        if (exportAllLocales()) {
+            return tf.getAllTargetContents();
+        }
+        ITextFlowTarget target = tf.getTargetContents(this.localeId);
+        return target != null ? Collections.singletonList(target)
+                : Collections.emptyList();
+    }
+
     private boolean exportAllLocales() {
         return this.localeId == null;
     }
@@ -147,6 +245,13 @@ public class TranslationsTMXExportStrategy <T extends ITextFlow>
         sourceTuv.addAttribute(new Attribute("xml:lang",
                 XMLConstants.XML_NS_URI, tf.getLocale().getId()));
         Element seg = new Element("seg");
+        seg.appendChild(getSourceContent(tf));
+        sourceTuv.appendChild(seg);
+        return sourceTuv;
+    }
+
+    private String getSourceContent(ITextFlow tf)
+            throws InvalidContentsException {
         String srcContent = tf.getContents().get(0);
         if (srcContent.contains("\000")) {
             // this should be very rare, so we can afford to use an exception
@@ -155,28 +260,37 @@ public class TranslationsTMXExportStrategy <T extends ITextFlow>
                             + tf.getQualifiedId();
             throw new InvalidContentsException(msg);
         }
-        seg.appendChild(srcContent);
-        sourceTuv.appendChild(seg);
-        return sourceTuv;
+        return srcContent;
     }
 
     private Optional<Element> buildTargetTUV(ITextFlowTarget target) {
+        Optional<String> trgContent = getTargetContent(target);
+        if (trgContent.isPresent()) {
+            Element tuv = new Element("tuv");
+            tuv.addAttribute(new Attribute("xml:lang", XMLConstants.XML_NS_URI,
+                    target.getLocaleId().getId()));
+            Element seg = new Element("seg");
+            seg.appendChild(trgContent.get());
+            tuv.appendChild(seg);
+            return Optional.of(tuv);
+        }
+        return Optional.absent();
+    }
+
+    /**
+     * @return the sanitized content of a translated target, or absent() if
+     *         it should not be exported
+     */
+    private Optional<String> getTargetContent(ITextFlowTarget target) {
         if (target.getState().isTranslated()) {
-            LocaleId locId = target.getLocaleId();
             String trgContent = target.getContents().get(0);
             if (trgContent.contains("\000")) {
                 log.warn(
                         "illegal null character; discarding TargetContents with locale={}, contents={}",
-                        locId, trgContent);
+                        target.getLocaleId(), trgContent);
                 return Optional.absent();
             }
-            Element tuv = new Element("tuv");
-            tuv.addAttribute(new Attribute("xml:lang", XMLConstants.XML_NS_URI,
-                    locId.getId()));
-            Element seg = new Element("seg");
-            seg.appendChild(sanitizeForXML(trgContent));
-            tuv.appendChild(seg);
-            return Optional.of(tuv);
+            return Optional.of(sanitizeForXML(trgContent));
         }
         return Optional.absent();
     }
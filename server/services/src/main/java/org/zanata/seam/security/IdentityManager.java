@@ -201,6 +201,10 @@ public class IdentityManager implements Serializable {
         return identityStore.getImpliedRoles(name);
     }
 
+    public List<String> getImpliedRolesForApiKey(String name, String apiKey) {
+        return identityStore.getImpliedRolesForApiKey(name, apiKey);
+    }
+
     public List<Principal> listMembers(String role) {
         ZanataIdentity.instance().checkPermission(ROLE_PERMISSION_NAME,
                 PERMISSION_READ);
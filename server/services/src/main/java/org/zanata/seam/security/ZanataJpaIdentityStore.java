@@ -32,6 +32,8 @@ import org.zanata.exception.NoSuchRoleException;
 import org.zanata.exception.NoSuchUserException;
 import org.zanata.model.HAccount;
 import org.zanata.model.HAccountRole;
+import org.zanata.security.ApiKeyAuthenticationCache;
+import org.zanata.security.ApiKeyAuthenticationCache.CachedAuthentication;
 import org.zanata.security.AuthenticatedAccountHolder;
 import org.zanata.security.AuthenticatedAccountSessionScopeHolder;
 import org.zanata.security.Role;
@@ -58,6 +60,7 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -84,8 +87,18 @@ public class ZanataJpaIdentityStore implements Serializable {
     @SuppressFBWarnings("SE_BAD_FIELD")
     @Inject
     private EntityManager entityManager;
+    @Inject
+    private ApiKeyAuthenticationCache apiKeyAuthenticationCache;
 
     private boolean apiKeyAuthenticate(String username, String apiKey) {
+        Optional<CachedAuthentication> cached =
+                getCachedAuthentication(username, apiKey);
+        if (cached.isPresent()) {
+            // HAccount is in the second level cache, so this is cheap
+            setAuthenticateUser(entityManager.find(HAccount.class,
+                    cached.get().getAccountId()));
+            return true;
+        }
         HAccount user = lookupUser(username);
         if (user == null || !user.isEnabled()) {
             return false;
@@ -96,9 +109,35 @@ public class ZanataJpaIdentityStore implements Serializable {
         }
         boolean success = apiKey.equals(userApiKey);
         setAuthenticateUser(user);
+        if (success) {
+            apiKeyAuthenticationCache.put(username, apiKey, user,
+                    getImpliedRoles(username));
+        }
         return success;
     }
 
+    /**
+     * Returns a cached API key authentication, provided the account has not
+     * changed since it was cached.
+     */
+    private Optional<CachedAuthentication> getCachedAuthentication(
+            String username, String apiKey) {
+        Optional<CachedAuthentication> cached =
+                apiKeyAuthenticationCache.get(username, apiKey);
+        if (!cached.isPresent()) {
+            return cached;
+        }
+        HAccount account =
+                entityManager.find(HAccount.class, cached.get().getAccountId());
+        if (account == null || !account.isEnabled()
+                || !Objects.equals(account.getVersionNum(),
+                        cached.get().getAccountVersion())) {
+            apiKeyAuthenticationCache.invalidate(username);
+            return Optional.empty();
+        }
+        return cached;
+    }
+
     /**
      * Custom authentication that ignores the account's enabled state.
      *
@@ -212,6 +251,7 @@ public class ZanataJpaIdentityStore implements Serializable {
                     "Could not delete, user \'" + name + "\' does not exist");
         }
         entityManager.remove(user);
+        apiKeyAuthenticationCache.invalidate(name);
         return true;
     }
 
@@ -283,6 +323,7 @@ public class ZanataJpaIdentityStore implements Serializable {
             return false;
         }
         user.setEnabled(false);
+        apiKeyAuthenticationCache.invalidate(name);
         return true;
     }
 
@@ -338,6 +379,7 @@ public class ZanataJpaIdentityStore implements Serializable {
         boolean success = false;
         if (user.getRoles().contains(roleToRevoke)) {
             user.getRoles().remove(roleToRevoke);
+            apiKeyAuthenticationCache.invalidate(username);
             success = true;
         }
         return success;
@@ -393,6 +435,7 @@ public class ZanataJpaIdentityStore implements Serializable {
             return false;
         }
         user.getRoles().add(roleToGrant);
+        apiKeyAuthenticationCache.invalidate(username);
         return true;
     }
 
@@ -432,6 +475,19 @@ public class ZanataJpaIdentityStore implements Serializable {
         return resultList;
     }
 
+    /**
+     * Same as {@link #getImpliedRoles(String)}, but answers from the API key
+     * authentication cache when the given API key was recently validated.
+     */
+    public List<String> getImpliedRolesForApiKey(String name, String apiKey) {
+        Optional<CachedAuthentication> cached =
+                apiKeyAuthenticationCache.get(name, apiKey);
+        if (cached.isPresent()) {
+            return new ArrayList<>(cached.get().getImpliedRoles());
+        }
+        return getImpliedRoles(name);
+    }
+
     public List<String> getImpliedRoles(String name) {
         HAccount user = lookupUser(name);
         if (user == null) {
@@ -492,6 +548,7 @@ public class ZanataJpaIdentityStore implements Serializable {
                     "Could not remove role from group, no such group \'" + group
                             + "\'");
         }
+        apiKeyAuthenticationCache.invalidateAll();
         return roleToRemove.getGroups().remove(targetGroup);
     }
 
@@ -541,6 +598,7 @@ public class ZanataJpaIdentityStore implements Serializable {
             return false;
         }
         targetRole.getGroups().add(targetGroup);
+        apiKeyAuthenticationCache.invalidateAll();
         return true;
     }
 
@@ -20,6 +20,8 @@
  */
 package org.zanata.search;
 
+import java.util.Collection;
+
 import org.hibernate.CacheMode;
 import org.hibernate.FlushMode;
 import org.hibernate.Query;
@@ -118,4 +120,17 @@ public class HTextFlowTargetIndexingStrategy
                         projectIteration);
         reindexScrollableResultSet(session, scrollableResults, handle);
     }
+
+    /**
+     * Reindexes the given targets, eg after they were changed by a bulk
+     * update which bypassed Hibernate Search.
+     */
+    public void reindexTargets(Collection<Long> targetIds,
+            FullTextSession session) {
+        HTextFlowTargetStreamingDAO dao =
+                new HTextFlowTargetStreamingDAO(HTextFlowTarget.class, session);
+        ScrollableResults scrollableResults =
+                dao.getTargetsWithAllFieldsEagerlyFetchedByIds(targetIds);
+        reindexScrollableResultSet(session, scrollableResults, null);
+    }
 }
@@ -0,0 +1,490 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.hibernate.Session;
+import org.hibernate.search.FullTextSession;
+import org.hibernate.search.Search;
+import org.zanata.ApplicationConfiguration;
+import org.zanata.events.ServerStarted;
+import org.zanata.hibernate.search.TextFlowTargetIndexDeferral;
+import org.zanata.util.Zanata;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Indexes added and updated HTextFlowTargets in batches on a background
+ * thread, so that saving a translation does not wait for Lucene.
+ * <p>
+ * Targets changed in a transaction are queued when it commits. If the queue
+ * is full, committing threads wait for up to {@link #ENQUEUE_TIMEOUT_MILLIS}
+ * before the changes are left for a catch-up pass instead, which reindexes
+ * every target changed since then.
+ * <p>
+ * A checkpoint file in the index directory records a time before which all
+ * changes are known to be indexed. After a crash, targets changed since the
+ * checkpoint are reindexed at startup.
+ */
+@ApplicationScoped
+public class TextFlowTargetIndexQueue
+        implements TextFlowTargetIndexDeferral.Listener {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(TextFlowTargetIndexQueue.class);
+
+    static final long INTERVAL_MILLIS = 1000;
+    static final long ENQUEUE_TIMEOUT_MILLIS = 10000;
+    // allows for changes saved just before the times recorded here
+    static final long CHECKPOINT_MARGIN_MILLIS = 60000;
+    static final long CHECKPOINT_WRITE_INTERVAL_MILLIS = 10000;
+    static final String CHECKPOINT_FILE = "text-flow-target.checkpoint";
+    private static final long NONE = Long.MAX_VALUE;
+    private static final Object TRANSACTION_KEY =
+            TextFlowTargetIndexQueue.class.getName();
+
+    private ApplicationConfiguration appConfig;
+    private EntityManagerFactory entityManagerFactory;
+    @Resource
+    private TransactionSynchronizationRegistry transactionRegistry;
+    private long enqueueTimeoutMillis = ENQUEUE_TIMEOUT_MILLIS;
+
+    private BlockingQueue<PendingTarget> queue;
+    private int batchSize;
+    private File checkpointFile;
+    private ScheduledExecutorService worker;
+    private final Set<TransactionTargets> openTransactions =
+            ConcurrentHashMap.newKeySet();
+    // oldest change which is neither queued nor indexed yet
+    private final AtomicLong catchUpFrom = new AtomicLong(NONE);
+    private volatile long batchChangedFrom = NONE;
+    private long lastWrittenCheckpoint;
+
+    private final AtomicLong indexedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+    private volatile long lastBatchMillis;
+
+    // constructor for CDI
+    public TextFlowTargetIndexQueue() {
+    }
+
+    @Inject
+    public TextFlowTargetIndexQueue(ApplicationConfiguration appConfig,
+            @Zanata EntityManagerFactory entityManagerFactory) {
+        this.appConfig = appConfig;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @VisibleForTesting
+    TextFlowTargetIndexQueue(
+            TransactionSynchronizationRegistry transactionRegistry,
+            long enqueueTimeoutMillis) {
+        this.transactionRegistry = transactionRegistry;
+        this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+    }
+
+    public void onServerStarted(@Observes ServerStarted payload) {
+        int size = appConfig.getIndexQueueSize();
+        if (size <= 0) {
+            log.info("HTextFlowTargets are indexed when they are saved");
+            return;
+        }
+        String indexBase = appConfig.getHibernateSearchIndexBase();
+        ScheduledExecutorService worker =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("text-flow-target-indexer")
+                                .setDaemon(true).build());
+        start(size, appConfig.getIndexQueueBatchSize(),
+                indexBase != null ? new File(indexBase, CHECKPOINT_FILE)
+                        : null,
+                worker);
+    }
+
+    @VisibleForTesting
+    void start(int capacity, int batchSize, File checkpointFile,
+            ScheduledExecutorService worker) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.checkpointFile = checkpointFile;
+        if (checkpointFile == null) {
+            log.warn(
+                    "no index directory: HTextFlowTarget changes can not be recovered after a crash");
+        } else if (checkpointFile.exists()) {
+            // replayed by the first run of the worker
+            catchUpFrom.set(readCheckpoint(checkpointFile));
+        }
+        this.worker = worker;
+        worker.scheduleWithFixedDelay(this::processQueue, 0,
+                INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        TextFlowTargetIndexDeferral.setListener(this);
+        log.info("HTextFlowTargets are indexed in the background (queue size {}, batch size {})",
+                capacity, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!isRunning()) {
+            return;
+        }
+        TextFlowTargetIndexDeferral.setListener(null);
+        worker.shutdown();
+        try {
+            worker.awaitTermination(ENQUEUE_TIMEOUT_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // anything still queued is replayed at the next startup
+        writeCheckpoint(computeCheckpoint(System.currentTimeMillis()));
+        log.info("stopped background indexing with {} HTextFlowTargets queued",
+                queue.size());
+    }
+
+    public boolean isRunning() {
+        return worker != null && !worker.isShutdown();
+    }
+
+    /**
+     * Called by the indexing interceptor while a transaction flushes.
+     */
+    @Override
+    public boolean deferIndexing(Long textFlowTargetId) {
+        try {
+            if (transactionRegistry
+                    .getTransactionStatus() == Status.STATUS_NO_TRANSACTION) {
+                // eg reindexing: nothing to wait for
+                return false;
+            }
+            TransactionTargets targets = (TransactionTargets) transactionRegistry
+                    .getResource(TRANSACTION_KEY);
+            if (targets == null) {
+                targets = new TransactionTargets(System.currentTimeMillis());
+                transactionRegistry.registerInterposedSynchronization(targets);
+                transactionRegistry.putResource(TRANSACTION_KEY, targets);
+                openTransactions.add(targets);
+            }
+            targets.ids.add(textFlowTargetId);
+            return true;
+        } catch (IllegalStateException e) {
+            log.debug("indexing HTextFlowTarget {} synchronously: {}",
+                    textFlowTargetId, e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Queues targets which were changed by a committed transaction.
+     *
+     * @return false if the queue is not running, so that the caller has to
+     *         index them
+     */
+    public boolean offer(Collection<Long> textFlowTargetIds) {
+        if (!isRunning()) {
+            return false;
+        }
+        enqueue(textFlowTargetIds, System.currentTimeMillis());
+        return true;
+    }
+
+    private void enqueue(Collection<Long> ids, long changedAt) {
+        try {
+            for (Long id : ids) {
+                // once the queue has overflowed, a catch-up pass is needed
+                // anyway, so there is no point in waiting again
+                long timeout =
+                        catchUpFrom.get() == NONE ? enqueueTimeoutMillis : 0;
+                if (!queue.offer(new PendingTarget(id, changedAt), timeout,
+                        TimeUnit.MILLISECONDS)) {
+                    overflowCount.incrementAndGet();
+                    requireCatchUpFrom(changedAt);
+                    log.warn("index queue is full: HTextFlowTargets changed since {} will be reindexed later",
+                            new Date(changedAt));
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            requireCatchUpFrom(changedAt);
+        }
+    }
+
+    private void requireCatchUpFrom(long time) {
+        catchUpFrom.accumulateAndGet(time, Math::min);
+    }
+
+    @VisibleForTesting
+    void processQueue() {
+        try {
+            long now = System.currentTimeMillis();
+            if (queue.isEmpty()) {
+                catchUp();
+            }
+            List<PendingTarget> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                batchChangedFrom = batch.get(0).changedAt;
+                Set<Long> ids = new LinkedHashSet<>();
+                batch.forEach(target -> ids.add(target.id));
+                if (!indexBatch(ids)) {
+                    requireCatchUpFrom(batchChangedFrom);
+                }
+                batchChangedFrom = NONE;
+                batch.clear();
+            }
+            long checkpoint = computeCheckpoint(now);
+            if (checkpoint - lastWrittenCheckpoint >= CHECKPOINT_WRITE_INTERVAL_MILLIS) {
+                writeCheckpoint(checkpoint);
+            }
+        } catch (RuntimeException e) {
+            // keep the worker running
+            log.error("error in HTextFlowTarget indexing worker", e);
+        }
+    }
+
+    private void catchUp() {
+        long from = catchUpFrom.getAndSet(NONE);
+        if (from == NONE) {
+            return;
+        }
+        batchChangedFrom = from;
+        log.info("reindexing HTextFlowTargets changed since {}",
+                new Date(from));
+        List<Long> ids;
+        try {
+            ids = findTargetsChangedSince(new Date(from));
+        } catch (RuntimeException e) {
+            log.error("unable to find HTextFlowTargets to reindex", e);
+            requireCatchUpFrom(from);
+            batchChangedFrom = NONE;
+            return;
+        }
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            List<Long> batch =
+                    ids.subList(i, Math.min(ids.size(), i + batchSize));
+            if (!indexBatch(new LinkedHashSet<>(batch))) {
+                requireCatchUpFrom(from);
+                break;
+            }
+        }
+        batchChangedFrom = NONE;
+        log.info("reindexed {} HTextFlowTargets changed since {}", ids.size(),
+                new Date(from));
+    }
+
+    private boolean indexBatch(Set<Long> ids) {
+        long start = System.currentTimeMillis();
+        try {
+            indexTargets(ids);
+            indexedCount.addAndGet(ids.size());
+            batchCount.incrementAndGet();
+            lastBatchMillis = System.currentTimeMillis() - start;
+            return true;
+        } catch (RuntimeException e) {
+            failedBatchCount.incrementAndGet();
+            log.error("unable to index {} HTextFlowTargets", ids.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * @return time of the oldest committed change which is not indexed yet,
+     *         or now
+     */
+    private long oldestUnindexed(long now) {
+        long oldest = Math.min(now, catchUpFrom.get());
+        oldest = Math.min(oldest, batchChangedFrom);
+        PendingTarget head = queue.peek();
+        if (head != null) {
+            oldest = Math.min(oldest, head.changedAt);
+        }
+        return oldest;
+    }
+
+    /**
+     * @return time before which all changes are indexed
+     */
+    private long computeCheckpoint(long now) {
+        long oldest = oldestUnindexed(now);
+        for (TransactionTargets targets : openTransactions) {
+            oldest = Math.min(oldest, targets.startedAt);
+        }
+        return oldest - CHECKPOINT_MARGIN_MILLIS;
+    }
+
+    private void writeCheckpoint(long checkpoint) {
+        if (checkpointFile == null) {
+            return;
+        }
+        try {
+            File tmp = new File(checkpointFile.getPath() + ".tmp");
+            Files.write(tmp.toPath(), Long.toString(checkpoint)
+                    .getBytes(StandardCharsets.US_ASCII));
+            Files.move(tmp.toPath(), checkpointFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            lastWrittenCheckpoint = checkpoint;
+        } catch (IOException e) {
+            log.warn("unable to write index checkpoint {}", checkpointFile, e);
+        }
+    }
+
+    private static long readCheckpoint(File file) {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(file.toPath()),
+                    StandardCharsets.US_ASCII).trim());
+        } catch (IOException | NumberFormatException e) {
+            log.warn("unable to read index checkpoint {}: reindexing changes of the last day",
+                    file, e);
+            return System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+        }
+    }
+
+    protected void indexTargets(Collection<Long> ids) {
+        try (FullTextSession session = openFullTextSession()) {
+            new HTextFlowTargetIndexingStrategy().reindexTargets(ids, session);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected List<Long> findTargetsChangedSince(Date since) {
+        try (FullTextSession session = openFullTextSession()) {
+            return session
+                    .createQuery(
+                            "select tft.id from HTextFlowTarget tft where tft.lastChanged >= :since order by tft.id")
+                    .setTimestamp("since", since).list();
+        }
+    }
+
+    private FullTextSession openFullTextSession() {
+        return Search.getFullTextSession(entityManagerFactory
+                .createEntityManager().unwrap(Session.class));
+    }
+
+    public int getQueueSize() {
+        return isRunning() ? queue.size() : 0;
+    }
+
+    public int getQueueCapacity() {
+        return isRunning() ? queue.size() + queue.remainingCapacity() : 0;
+    }
+
+    /**
+     * @return how long the oldest change which is not indexed yet has been
+     *         waiting, in milliseconds
+     */
+    public long getLagMillis() {
+        if (!isRunning()) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        return now - oldestUnindexed(now);
+    }
+
+    public long getIndexedCount() {
+        return indexedCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatchCount.get();
+    }
+
+    /**
+     * @return how often committing threads found the queue full
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    public long getLastBatchMillis() {
+        return lastBatchMillis;
+    }
+
+    private static final class PendingTarget {
+        private final Long id;
+        private final long changedAt;
+
+        private PendingTarget(Long id, long changedAt) {
+            this.id = id;
+            this.changedAt = changedAt;
+        }
+    }
+
+    /**
+     * Targets changed by one transaction, queued if it commits.
+     */
+    private final class TransactionTargets implements Synchronization {
+        private final long startedAt;
+        private final Set<Long> ids = new LinkedHashSet<>();
+
+        private TransactionTargets(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void beforeCompletion() {
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            try {
+                if (status == Status.STATUS_COMMITTED) {
+                    enqueue(ids, startedAt);
+                }
+            } finally {
+                openTransactions.remove(this);
+            }
+        }
+    }
+}
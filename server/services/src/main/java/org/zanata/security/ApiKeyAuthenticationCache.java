@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.security;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.infinispan.manager.CacheContainer;
+import org.zanata.cache.InfinispanCacheWrapper;
+import org.zanata.model.HAccount;
+import org.zanata.util.Zanata;
+
+import com.google.common.collect.ImmutableList;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Short-lived cache of successful API key authentications, so that REST
+ * clients sending many requests don't pay for the account lookup and role
+ * expansion on every call.
+ * <p>
+ * Entries are keyed by username and only match the API key they were created
+ * with. They record the account's version number, so any change to the
+ * account (new API key, disabled, roles granted or revoked) makes the entry
+ * stale. Changes to role groups, which don't touch the account row, must call
+ * {@link #invalidateAll()}.
+ *
+ * @see org.zanata.seam.security.ZanataJpaIdentityStore
+ */
+@ApplicationScoped
+public class ApiKeyAuthenticationCache implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String CACHE_NAME =
+            ApiKeyAuthenticationCache.class.getName() + ".apiKeyAuthCache";
+    static final long TTL_SECONDS = 300;
+
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    private InfinispanCacheWrapper<String, CachedAuthentication> cache;
+
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    private CacheContainer cacheContainer;
+
+    // constructor for CDI
+    public ApiKeyAuthenticationCache() {
+    }
+
+    @Inject
+    public ApiKeyAuthenticationCache(@Zanata CacheContainer cacheContainer) {
+        this.cacheContainer = cacheContainer;
+    }
+
+    @PostConstruct
+    public void create() {
+        cache = InfinispanCacheWrapper.create(CACHE_NAME, cacheContainer);
+    }
+
+    /**
+     * @return the cached authentication for this username, if it was
+     *         created with the same API key and has not expired
+     */
+    public Optional<CachedAuthentication> get(String username,
+            String apiKey) {
+        CachedAuthentication cached = cache.get(username);
+        if (cached != null && cached.apiKeyHash.equals(hash(apiKey))) {
+            return Optional.of(cached);
+        }
+        return Optional.empty();
+    }
+
+    public void put(String username, String apiKey, HAccount account,
+            List<String> impliedRoles) {
+        cache.getCache().put(username,
+                new CachedAuthentication(hash(apiKey), account.getId(),
+                        account.getVersionNum(), impliedRoles),
+                TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void invalidate(String username) {
+        cache.remove(username);
+    }
+
+    public void invalidateAll() {
+        cache.getCache().clear();
+    }
+
+    private static String hash(String apiKey) {
+        // avoid keeping plain API keys in the cache
+        return DigestUtils.sha256Hex(apiKey);
+    }
+
+    public static final class CachedAuthentication implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String apiKeyHash;
+        private final long accountId;
+        private final Integer accountVersion;
+        private final ImmutableList<String> impliedRoles;
+
+        CachedAuthentication(String apiKeyHash, long accountId,
+                Integer accountVersion, List<String> impliedRoles) {
+            this.apiKeyHash = apiKeyHash;
+            this.accountId = accountId;
+            this.accountVersion = accountVersion;
+            this.impliedRoles = ImmutableList.copyOf(impliedRoles);
+        }
+
+        public long getAccountId() {
+            return accountId;
+        }
+
+        public Integer getAccountVersion() {
+            return accountVersion;
+        }
+
+        public ImmutableList<String> getImpliedRoles() {
+            return impliedRoles;
+        }
+    }
+}
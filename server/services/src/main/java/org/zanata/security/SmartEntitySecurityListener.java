@@ -1,7 +1,9 @@
 package org.zanata.security;
 
 import java.util.Arrays;
-import java.util.List;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 import javax.persistence.PostLoad;
 import javax.persistence.PrePersist;
@@ -19,6 +21,28 @@ import org.zanata.annotation.EntityRestrict;
  *
  */
 public class SmartEntitySecurityListener {
+    /**
+     * Restricted actions of each entity class, so that loading an entity does
+     * not have to read its annotation again.
+     */
+    private static final ClassValue<Set<EntityAction>> restrictedActions =
+            new ClassValue<Set<EntityAction>>() {
+                @Override
+                protected Set<EntityAction> computeValue(Class<?> type) {
+                    EntityRestrict entityRestrict =
+                            type.getAnnotation(EntityRestrict.class);
+                    if (entityRestrict == null) {
+                        // not restricted, just not specifically
+                        return Collections.emptySet();
+                    }
+                    if (entityRestrict.value().length == 0) {
+                        return EnumSet.allOf(EntityAction.class);
+                    }
+                    return EnumSet
+                            .copyOf(Arrays.asList(entityRestrict.value()));
+                }
+            };
+
     @PostLoad
     public void postLoad(Object entity) {
         if (ZanataIdentity.isSecurityEnabled()) {
@@ -57,19 +81,7 @@ public class SmartEntitySecurityListener {
 
     private static boolean
             isEntityRestricted(Object entity, EntityAction action) {
-        EntityRestrict entityRestrict =
-                entity.getClass().getAnnotation(EntityRestrict.class);
-        if (entityRestrict != null) {
-            List<EntityAction> restrictedActions = Arrays.asList(
-                    entityRestrict.value());
-            if (restrictedActions.isEmpty() || restrictedActions.contains(action)) {
-                return true; // restricted
-            } else {
-                return false; // not restricted
-            }
-        } else {
-            return false; // not restricted, just not specifically
-        }
+        return restrictedActions.get(entity.getClass()).contains(action);
     }
 
     @SuppressWarnings("deprecation")
@@ -29,6 +29,7 @@ import java.util.List;
 
 import javax.annotation.Nullable;
 import javax.annotation.PreDestroy;
+import javax.enterprise.context.ContextNotActiveException;
 import javax.enterprise.context.SessionScoped;
 import javax.enterprise.event.Event;
 import javax.inject.Inject;
@@ -62,6 +63,7 @@ import org.zanata.security.annotations.AuthenticatedLiteral;
 import org.zanata.security.jaas.InternalLoginModule;
 import org.zanata.security.permission.CustomPermissionResolver;
 import org.zanata.security.permission.MultiTargetList;
+import org.zanata.security.permission.PermissionDecisionCache;
 import org.zanata.servlet.annotations.SessionId;
 import org.zanata.util.ServiceLocator;
 import org.zanata.util.Synchronized;
@@ -114,6 +116,10 @@ public class ZanataIdentity implements Identity, Serializable {
     @SuppressWarnings("deprecation")
     private org.zanata.util.RequestContextValueStore requestContextValueStore;
 
+    @Inject
+    @SuppressFBWarnings(value = "SE_BAD_FIELD", justification = "CDI proxies are Serializable")
+    private PermissionDecisionCache permissionDecisionCache;
+
     @Inject
     private UrlUtil urlUtil;
 
@@ -282,6 +288,7 @@ public class ZanataIdentity implements Identity, Serializable {
     public void unAuthenticate() {
         principal = null;
         subject = new Subject();
+        forgetPermissionDecisions();
 
         credentials.clear();
     }
@@ -504,6 +511,7 @@ public class ZanataIdentity implements Identity, Serializable {
             preAuthenticationRoles.add(role);
             return false;
         } else {
+            forgetPermissionDecisions();
             for (Group sg : getSubject().getPrincipals(Group.class)) {
                 if (ROLES_GROUP.equals(sg.getName())) {
                     return sg.addMember(new Role(role));
@@ -703,6 +711,7 @@ public class ZanataIdentity implements Identity, Serializable {
             }
 
             systemOp.set(operation.isSystemOperation());
+            forgetPermissionDecisions();
 
             operation.execute();
         } finally {
@@ -713,6 +722,23 @@ public class ZanataIdentity implements Identity, Serializable {
             systemOp.set(false);
             principal = savedPrincipal;
             subject = savedSubject;
+            forgetPermissionDecisions();
+        }
+    }
+
+    /**
+     * Permissions granted earlier in the request were decided for the
+     * previous principal and roles, so they are forgotten whenever these
+     * change.
+     */
+    private void forgetPermissionDecisions() {
+        if (permissionDecisionCache == null) {
+            return;
+        }
+        try {
+            permissionDecisionCache.clear();
+        } catch (ContextNotActiveException e) {
+            // no request, so nothing has been remembered
         }
     }
 
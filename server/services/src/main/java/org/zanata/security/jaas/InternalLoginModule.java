@@ -106,8 +106,10 @@ public class InternalLoginModule implements LoginModule {
                     identityManager.authenticate(username, identity
                             .getCredentials().getPassword());
             if (success) {
-                List<String> impliedRoles =
-                        identityManager.getImpliedRoles(username);
+                List<String> impliedRoles = identity.isApiRequest()
+                        ? identityManager.getImpliedRolesForApiKey(username,
+                                identity.getApiKey())
+                        : identityManager.getImpliedRoles(username);
                 for (String role : impliedRoles) {
                     identity.addRole(role);
                 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.security.permission;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.Reception;
+
+import org.zanata.events.LoginSuccessfulEvent;
+import org.zanata.events.LogoutEvent;
+
+/**
+ * Remembers which permissions have been granted during the current request,
+ * so that checking the same action on the same target instances again does
+ * not run the granters (and their queries) again.
+ * <p>
+ * Only the read and translate actions in {@link #MEMOIZED_ACTIONS} are
+ * remembered. Those are the ones checked over and over for the same project
+ * and locale (eg once per text flow when saving translations), and they are
+ * not used to guard changes to the targets themselves. Actions such as
+ * "update" or "manage-members" are checked around changes to the very
+ * entities their granters look at, so they are always evaluated again.
+ * <p>
+ * Only grants are remembered: a permission which was denied earlier in the
+ * request may have been granted since (eg a project's creator being made its
+ * maintainer), so denials are always evaluated again. Grants are forgotten
+ * whenever the principal or its roles change: on login and logout, and when
+ * {@link org.zanata.security.ZanataIdentity} runs an operation as another
+ * subject or adds a role.
+ */
+@RequestScoped
+public class PermissionDecisionCache {
+    static final ImmutableSet<String> MEMOIZED_ACTIONS = ImmutableSet.of(
+            "read", "add-translation", "modify-translation",
+            "review-translation", "translation-review", "review-comment");
+
+    private final Set<Decision> granted = new HashSet<>();
+
+    public boolean isGranted(String action, Object[] targets) {
+        return MEMOIZED_ACTIONS.contains(action)
+                && granted.contains(new Decision(action, targets));
+    }
+
+    public void putGranted(String action, Object[] targets) {
+        if (MEMOIZED_ACTIONS.contains(action)) {
+            granted.add(new Decision(action, targets.clone()));
+        }
+    }
+
+    public void clear() {
+        granted.clear();
+    }
+
+    public void onLogin(@Observes(
+            notifyObserver = Reception.IF_EXISTS) LoginSuccessfulEvent event) {
+        clear();
+    }
+
+    public void onLogout(
+            @Observes(notifyObserver = Reception.IF_EXISTS) LogoutEvent event) {
+        clear();
+    }
+
+    /**
+     * An action on a list of targets, compared by identity of the targets.
+     */
+    private static final class Decision {
+        private final String action;
+        private final Object[] targets;
+        private final int hashCode;
+
+        private Decision(String action, Object[] targets) {
+            this.action = action;
+            this.targets = targets;
+            int hash = action.hashCode();
+            for (Object target : targets) {
+                hash = 31 * hash + System.identityHashCode(target);
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Decision)) {
+                return false;
+            }
+            Decision other = (Decision) o;
+            if (!action.equals(other.action)
+                    || targets.length != other.targets.length) {
+                return false;
+            }
+            for (int i = 0; i < targets.length; i++) {
+                if (targets[i] != other.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return action + Arrays.toString(targets);
+        }
+    }
+}
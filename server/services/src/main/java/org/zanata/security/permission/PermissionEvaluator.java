@@ -21,18 +21,34 @@
 package org.zanata.security.permission;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
+import org.zanata.util.BeanHolder;
+import org.zanata.util.ServiceLocator;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.ContextNotActiveException;
+import javax.enterprise.context.RequestScoped;
 import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
 import javax.inject.Named;
-import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Holds all application permissions and provides a way to evaluate these
  * permissions for an object and an action.
+ * <p>
+ * The granters which apply to an action and a list of target classes, and
+ * how the targets are passed to them, are worked out on the first check and
+ * kept in a dispatch table. Grants of read and translate actions are
+ * remembered for the rest of the request by {@link PermissionDecisionCache}.
  *
  * @author Carlos Munoz <a
  *         href="mailto:camunoz@redhat.com">camunoz@redhat.com</a>
@@ -46,9 +62,18 @@ public class PermissionEvaluator {
     private final Multimap<String, PermissionGranter> permissionGrantMethods =
             ArrayListMultimap.create();
 
+    private final ConcurrentMap<DispatchKey, List<BoundGranter>> dispatchTable =
+            new ConcurrentHashMap<>();
+
     @Inject
     private Instance<PermissionProvider> permissionProviders;
 
+    @Inject
+    private PermissionDecisionCache decisionCache;
+
+    @Inject
+    private BeanManager beanManager;
+
     @PostConstruct
     public void buildIndex() {
         permissionProviders.iterator().forEachRemaining(provider -> {
@@ -59,6 +84,7 @@ public class PermissionEvaluator {
     public <T extends PermissionProvider> void registerPermissionGranters(
             T provider) {
         permissionGrantMethods.putAll(provider.getPermissionGranters());
+        dispatchTable.clear();
     }
 
     /**
@@ -74,27 +100,111 @@ public class PermissionEvaluator {
      * @return True, if the permission has been granted. False otherwise.
      */
     public boolean checkPermission(String action, Object... targets) {
-        // Get granters for all actions (those with no declared action)
-        Collection<PermissionGranter> allActionGranters =
-                permissionGrantMethods.get(ALL_ACTION_GRANTER);
-        for (PermissionGranter granter : allActionGranters) {
-            if (granter.shouldInvokeGranter(targets)) {
-                if (granter.invoke(action, targets)) {
+        boolean memoized = decisionCache != null && isRequestScopeActive();
+        if (memoized && decisionCache.isGranted(action, targets)) {
+            return true;
+        }
+        boolean granted = evaluate(action, targets);
+        if (memoized && granted) {
+            decisionCache.putGranted(action, targets);
+        }
+        return granted;
+    }
+
+    private boolean isRequestScopeActive() {
+        try {
+            return beanManager.getContext(RequestScoped.class).isActive();
+        } catch (ContextNotActiveException e) {
+            return false;
+        }
+    }
+
+    private boolean evaluate(String action, Object[] targets) {
+        List<BoundGranter> granters = dispatchTable.computeIfAbsent(
+                new DispatchKey(action,
+                        PermissionGranter.targetClasses(targets)),
+                this::bindGranters);
+        // one instance of each granter class for all the granters of a check
+        Map<Class<?>, BeanHolder<?>> components = new HashMap<>();
+        try {
+            for (BoundGranter bound : granters) {
+                PermissionGranter granter = bound.granter;
+                Object component = null;
+                if (!granter.isStatic()) {
+                    component = components.computeIfAbsent(
+                            granter.getDeclaringClass(),
+                            c -> ServiceLocator.instance().getDependent(c))
+                            .get();
+                }
+                if (granter.invoke(component, action, targets,
+                        bound.binding)) {
                     return true;
                 }
             }
+            return false;
+        } finally {
+            for (BeanHolder<?> holder : components.values()) {
+                try {
+                    holder.close();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
         }
+    }
 
-        // Get granters for specific actions
-        Collection<PermissionGranter> actionGranters =
-                permissionGrantMethods.get(action);
-        for (PermissionGranter granter : actionGranters) {
-            if (granter.shouldInvokeGranter(targets)) {
-                if (granter.invoke(action, targets)) {
-                    return true;
+    /**
+     * Finds the granters which can be invoked for the action and target
+     * classes: first those for all actions, then those for the specific
+     * action.
+     */
+    private List<BoundGranter> bindGranters(DispatchKey key) {
+        ImmutableList.Builder<BoundGranter> result = ImmutableList.builder();
+        for (String granterKey : new String[] { ALL_ACTION_GRANTER,
+                key.action }) {
+            for (PermissionGranter granter : permissionGrantMethods
+                    .get(granterKey)) {
+                int[] binding = granter.bindParameters(key.targetClasses);
+                if (binding != null) {
+                    result.add(new BoundGranter(granter, binding));
                 }
             }
         }
-        return false;
+        return result.build();
+    }
+
+    private static final class DispatchKey {
+        private final String action;
+        private final List<Class<?>> targetClasses;
+
+        private DispatchKey(String action, List<Class<?>> targetClasses) {
+            this.action = action;
+            this.targetClasses = targetClasses;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DispatchKey)) {
+                return false;
+            }
+            DispatchKey other = (DispatchKey) o;
+            return action.equals(other.action)
+                    && targetClasses.equals(other.targetClasses);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(action, targetClasses);
+        }
+    }
+
+    private static final class BoundGranter {
+        private final PermissionGranter granter;
+        private final int[] binding;
+
+        private BoundGranter(PermissionGranter granter, int[] binding) {
+            this.granter = granter;
+            this.binding = binding;
+        }
     }
 }
@@ -21,12 +21,16 @@
 package org.zanata.security.permission;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import com.google.common.collect.Lists;
-import org.zanata.util.BeanHolder;
-import org.zanata.util.ServiceLocator;
 
 /**
  * Represents a function that grants a permission.
@@ -35,10 +39,17 @@ import org.zanata.util.ServiceLocator;
  *         <a href="mailto:camunoz@redhat.com">camunoz@redhat.com</a>
  */
 public class PermissionGranter {
+    static final int ACTION_ARGUMENT = -1;
+
     private final Method granterMethod;
     private Collection<String> evaluatedActions;
     private List<Class<?>> acceptedParameterTypes;
     private int actionParameterIndex = -1;
+    /**
+     * Invokes the granter method as (component, Object[] arguments), where the
+     * component is ignored for static methods.
+     */
+    private MethodHandle invoker;
 
     public PermissionGranter(Method granterMethod) {
         this.granterMethod = granterMethod;
@@ -71,6 +82,23 @@ public class PermissionGranter {
                 break; // Only one action parameter index is allowed
             }
         }
+        invoker = compileInvoker();
+    }
+
+    private MethodHandle compileInvoker() {
+        MethodHandle handle;
+        try {
+            granterMethod.setAccessible(true);
+            handle = MethodHandles.lookup().unreflect(granterMethod);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        if (isStatic()) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        int paramCount = acceptedParameterTypes.size();
+        return handle.asType(MethodType.genericMethodType(paramCount + 1))
+                .asSpreader(Object[].class, paramCount);
     }
 
     private boolean containsActionAnnotation(Annotation[] annotations) {
@@ -91,71 +119,94 @@ public class PermissionGranter {
      *         targets.
      */
     public boolean shouldInvokeGranter(Object... targets) {
-        // Only invoke the granter if all its parameters can be provided
-        int paramIdx = 0;
-        for (Class<?> paramType : acceptedParameterTypes) {
-            boolean foundParameter = false;
-            if (paramIdx == actionParameterIndex && paramType == String.class) {
-                foundParameter = true; // Action parameter can always be
-                // injected
-            } else {
-                for (Object t : targets) {
-                    if (t != null && paramType.isAssignableFrom(t.getClass())) {
-                        foundParameter = true;
-                        break;
-                    }
-                }
+        return bindParameters(targetClasses(targets)) != null;
+    }
+
+    /**
+     * Works out which target is passed as each of the granter's parameters.
+     *
+     * @param targetClasses
+     *            classes of the permission check targets (null for a null
+     *            target)
+     * @return for each granter parameter, the index of its target or
+     *         {@link #ACTION_ARGUMENT}; or null if the granter cannot be
+     *         invoked because a parameter has no matching target
+     */
+    int[] bindParameters(List<Class<?>> targetClasses) {
+        int[] binding = new int[acceptedParameterTypes.size()];
+        for (int paramIdx = 0; paramIdx < binding.length; paramIdx++) {
+            if (paramIdx == actionParameterIndex) {
+                // Action parameter can always be injected
+                binding[paramIdx] = ACTION_ARGUMENT;
+                continue;
+            }
+            Class<?> paramType = acceptedParameterTypes.get(paramIdx);
+            int targetIdx = 0;
+            while (targetIdx < targetClasses.size()
+                    && !isAssignable(paramType, targetClasses.get(targetIdx))) {
+                targetIdx++;
             }
             // If a matching parameter cannot be found, then the granter will
-            // not
-            // be executed
-            if (!foundParameter) {
-                return false;
+            // not be executed
+            if (targetIdx == targetClasses.size()) {
+                return null;
             }
-            paramIdx++;
+            binding[paramIdx] = targetIdx;
+        }
+        return binding;
+    }
+
+    private static boolean isAssignable(Class<?> paramType,
+            Class<?> targetClass) {
+        return targetClass != null && paramType.isAssignableFrom(targetClass);
+    }
+
+    static List<Class<?>> targetClasses(Object[] targets) {
+        List<Class<?>> classes = new ArrayList<>(targets.length);
+        for (Object t : targets) {
+            classes.add(t == null ? null : t.getClass());
         }
-        return true;
+        return classes;
     }
 
     /**
      * Invokes the granter.
      *
+     * @param component
+     *            instance of the declaring class, or null if the granter is
+     *            static
      * @param action
      *            The action that is being checked for permissions.
      * @param targets
      *            The target object instances that the action will apply to.
+     * @param binding
+     *            the result of {@link #bindParameters(List)} for the classes
+     *            of the targets
      * @return True, if the permission to perform the action on the targets has
      *         been granted. False otherwise.
      */
-    public boolean invoke(String action, Object... targets) {
-        Class<?> componentClass = granterMethod.getDeclaringClass();
-        Object[] granterParams = new Object[acceptedParameterTypes.size()];
-        int paramIdx = 0;
-        for (Class<?> paramType : acceptedParameterTypes) {
-            if (paramIdx == actionParameterIndex) {
-                // Inject the action
-                granterParams[paramIdx] = action;
-            } else {
-                granterParams[paramIdx] =
-                        findParameterForClass(targets, paramType);
-            }
-            paramIdx++;
+    boolean invoke(Object component, String action, Object[] targets,
+            int[] binding) {
+        Object[] granterParams = new Object[binding.length];
+        for (int paramIdx = 0; paramIdx < binding.length; paramIdx++) {
+            granterParams[paramIdx] = binding[paramIdx] == ACTION_ARGUMENT
+                    ? action : targets[binding[paramIdx]];
         }
-        try (BeanHolder<?> componentHolder =
-                ServiceLocator.instance().getDependent(componentClass)) {
-            return (Boolean) granterMethod.invoke(componentHolder.get(),
+        try {
+            return (Boolean) (Object) invoker.invokeExact(component,
                     granterParams);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        } catch (Throwable e) {
+            // wrapped the same way as reflective invocation used to be
+            throw new RuntimeException(new InvocationTargetException(e));
         }
     }
 
-    private Object findParameterForClass(Object[] params, Class<?> paramType) {
-        for (Object p : params) {
-            if (paramType.isAssignableFrom(p.getClass()))
-                return p;
-        }
-        return null;
+    public boolean isStatic() {
+        return Modifier.isStatic(granterMethod.getModifiers());
+    }
+
+    public Class<?> getDeclaringClass() {
+        return granterMethod.getDeclaringClass();
     }
 
     @Override
@@ -23,6 +23,11 @@ package org.zanata.service;
 
 import graphql.ExecutionResult;
 import graphql.GraphQL;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.tracing.TracingInstrumentation;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.SchemaPrinter;
 import io.leangen.graphql.GraphQLSchemaGenerator;
@@ -33,18 +38,36 @@ import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.google.common.annotations.VisibleForTesting;
 
 import static org.zanata.service.GraphQLScalarsKt.getAllScalarTypes;
 
 /**
+ * Executes GraphQL queries over the entity graph.
+ * <p>
+ * Queries deeper or more complex than {@link #MAX_QUERY_DEPTH} and
+ * {@link #MAX_QUERY_COMPLEXITY} are rejected before execution. With debug
+ * logging enabled, each query's per-field resolver timings are logged (in
+ * Apollo Tracing format). Nested entities are batch-fetched by Hibernate (see
+ * the BatchSize annotations of the entities), so a list of eg memberships does
+ * not load its projects one by one.
+ *
  * @author Alex Eng [aeng@redhat.com](mailto:aeng@redhat.com),
  * Sean Flanigan [sflaniga@redhat.com](mailto:sflaniga@redhat.com)
  */
 @ApplicationScoped
 public class GraphQLService {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(GraphQLService.class);
+    static final int MAX_QUERY_DEPTH = 12;
+    static final int MAX_QUERY_COMPLEXITY = 200;
+
     private final AccountDAO accountDAO;
     private GraphQL graphQL;
+    private GraphQL tracingGraphQL;
     private GraphQLSchema schema;
 
     @Inject
@@ -65,7 +88,21 @@ public class GraphQLService {
                 .withAdditionalTypes(getAllScalarTypes())
                 .withOperationsFromSingleton(accountDAO, AccountDAO.class)
                 .generate();
-        graphQL = GraphQL.newGraphQL(schema).build();
+        graphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(new ChainedInstrumentation(queryLimits()))
+                .build();
+        List<Instrumentation> tracing = queryLimits();
+        tracing.add(new TracingInstrumentation());
+        tracingGraphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(new ChainedInstrumentation(tracing))
+                .build();
+    }
+
+    private static List<Instrumentation> queryLimits() {
+        List<Instrumentation> limits = new ArrayList<>();
+        limits.add(new MaxQueryDepthInstrumentation(MAX_QUERY_DEPTH));
+        limits.add(new MaxQueryComplexityInstrumentation(MAX_QUERY_COMPLEXITY));
+        return limits;
     }
 
     public String getSchema() {
@@ -73,7 +110,12 @@ public class GraphQLService {
     }
 
     public ExecutionResult query(@Nonnull String query) {
-        return graphQL.execute(query);
+        if (!log.isDebugEnabled()) {
+            return graphQL.execute(query);
+        }
+        ExecutionResult result = tracingGraphQL.execute(query);
+        log.debug("GraphQL resolver timings: {}", result.getExtensions());
+        return result;
     }
 
 }
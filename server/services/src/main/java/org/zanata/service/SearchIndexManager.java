@@ -1,5 +1,6 @@
 package org.zanata.service;
 
+import java.io.File;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -9,13 +10,17 @@ import java.util.stream.Collectors;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.zanata.util.Synchronized;
+import org.zanata.ApplicationConfiguration;
 import org.zanata.ServerConstants;
 import org.zanata.action.ReindexClassOptions;
 import org.zanata.async.AsyncTaskHandle;
 import org.zanata.async.AsyncTaskHandleManager;
+import org.zanata.events.ServerStarted;
+import org.zanata.hibernate.search.TextFlowTargetShardIdentifierProvider;
 import org.zanata.model.HGlossaryTerm;
 import org.zanata.model.HProject;
 import org.zanata.model.HTextFlowTarget;
@@ -26,6 +31,8 @@ import org.zanata.model.tm.TransMemoryUnit;
 @ApplicationScoped
 @Synchronized(timeout = ServerConstants.DEFAULT_TIMEOUT)
 public class SearchIndexManager implements Serializable {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(SearchIndexManager.class);
     private static final long serialVersionUID = 1L;
     @Inject
     @SuppressFBWarnings(value = "SE_BAD_FIELD",
@@ -33,6 +40,8 @@ public class SearchIndexManager implements Serializable {
     private AsyncTaskHandleManager asyncTaskHandleManager;
     @Inject
     private IndexingService indexingServiceImpl;
+    @Inject
+    private ApplicationConfiguration applicationConfiguration;
     // we use a list to ensure predictable order
     private final List<Class<?>> indexables = new ArrayList<Class<?>>();
     private final LinkedHashMap<Class<?>, ReindexClassOptions> indexingOptions =
@@ -56,6 +65,30 @@ public class SearchIndexManager implements Serializable {
         }
     }
 
+    /**
+     * Rebuilds the HTextFlowTarget index if it has not been sharded by locale
+     * yet (eg after an upgrade), since translation memory searches only read
+     * the shards.
+     */
+    public void onServerStarted(@Observes ServerStarted payload) {
+        String indexBase =
+                applicationConfiguration.getHibernateSearchIndexBase();
+        if (indexBase == null || !TextFlowTargetShardIdentifierProvider
+                .isUnshardedIndex(new File(indexBase))) {
+            return;
+        }
+        log.warn(
+                "HTextFlowTarget index is not sharded by locale yet: reindexing HTextFlowTarget");
+        for (Class<?> c : indexables) {
+            boolean textFlowTargets = c == HTextFlowTarget.class;
+            ReindexClassOptions classOptions = indexingOptions.get(c);
+            classOptions.setPurge(textFlowTargets);
+            classOptions.setReindex(textFlowTargets);
+            classOptions.setOptimize(false);
+        }
+        startProcess();
+    }
+
     /**
      * Sets reindex options for all indexable classes.
      *
@@ -22,6 +22,7 @@ package org.zanata.service;
 
 import org.zanata.adapter.FileFormatAdapter;
 import org.zanata.adapter.FileFormatAdapter.ParserOptions;
+import org.zanata.adapter.FileFormatAdapter.WriterOptions;
 import org.zanata.common.DocumentType;
 import org.zanata.exception.ZanataServiceException;
 import org.zanata.rest.dto.resource.Resource;
@@ -31,6 +32,7 @@ import com.google.common.base.Optional;
 
 import java.io.File;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.Set;
 
@@ -149,6 +151,18 @@ public interface TranslationFileService extends Serializable {
 
     FileFormatAdapter getAdapterFor(DocumentType type);
 
+    /**
+     * Generate a translated document from its original, using a pooled
+     * adapter for the document type.
+     *
+     * @param output
+     *            stream to write the translated document to
+     * @param approvedOnly
+     *            true to use only approved translations
+     */
+    void writeTranslatedFile(DocumentType type, OutputStream output,
+            WriterOptions options, boolean approvedOnly);
+
     Set<DocumentType> getSupportedDocumentTypes();
 
     /**
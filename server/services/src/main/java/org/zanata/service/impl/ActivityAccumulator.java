@@ -0,0 +1,319 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.apache.deltaspike.cdise.api.ContextControl;
+import org.zanata.common.ActivityType;
+import org.zanata.dao.ActivityDAO;
+import org.zanata.dao.PersonDAO;
+import org.zanata.model.Activity;
+import org.zanata.model.HPerson;
+import org.zanata.model.type.EntityType;
+import org.zanata.transaction.TransactionUtil;
+import org.zanata.util.ServiceLocator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Write-behind buffer for high volume activities (translation and review
+ * updates). Events are coalesced in memory per (actor, context, activity
+ * type, hour) and written to the Activity table in batched transactions by
+ * {@link #flush()}, which is called periodically by
+ * ActivityFlushJob and once more on shutdown.
+ * <p>
+ * A batch which cannot be written is retried one activity at a time, so that a
+ * single bad row does not hold back the rest. Activities which still fail after
+ * {@link #MAX_WRITE_ATTEMPTS} flushes are dropped, as are new activities once
+ * {@link #MAX_PENDING} are waiting (eg while the database is unavailable).
+ */
+@Named("activityAccumulator")
+@ApplicationScoped
+public class ActivityAccumulator implements Serializable {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(ActivityAccumulator.class);
+    private static final long serialVersionUID = 6186326567384425375L;
+
+    /**
+     * Maximum number of activities written in a single transaction.
+     */
+    static final int FLUSH_BATCH_SIZE = 100;
+
+    /**
+     * Number of flushes an activity may fail before it is dropped.
+     */
+    static final int MAX_WRITE_ATTEMPTS = 3;
+
+    /**
+     * Maximum number of distinct activities held in memory.
+     */
+    static final int MAX_PENDING = 50000;
+
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    private final ConcurrentMap<ActivityKey, PendingActivity> pending =
+            new ConcurrentHashMap<>();
+
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    private final ConcurrentMap<ActivityKey, Integer> failedAttempts =
+            new ConcurrentHashMap<>();
+
+    private volatile boolean overflowLogged;
+
+    @Inject
+    private ActivityDAO activityDAO;
+
+    @Inject
+    private PersonDAO personDAO;
+
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    @Inject
+    private TransactionUtil transactionUtil;
+
+    public ActivityAccumulator() {
+    }
+
+    @VisibleForTesting
+    ActivityAccumulator(ActivityDAO activityDAO, PersonDAO personDAO,
+            TransactionUtil transactionUtil) {
+        this.activityDAO = activityDAO;
+        this.personDAO = personDAO;
+        this.transactionUtil = transactionUtil;
+    }
+
+    /**
+     * Records a single activity event. Nothing is written to the database
+     * until the next {@link #flush()}.
+     */
+    public void accumulate(long actorId, EntityType contextType,
+            long contextId, EntityType targetType, long targetId,
+            ActivityType activityType, int wordCount, Date actionTime) {
+        ActivityKey key = new ActivityKey(actorId, contextType, contextId,
+                activityType, DateUtils.truncate(actionTime, Calendar.HOUR));
+        PendingActivity event = new PendingActivity(actionTime, actionTime,
+                targetType, targetId, 1, wordCount);
+        if (pending.size() >= MAX_PENDING && !pending.containsKey(key)) {
+            if (!overflowLogged) {
+                overflowLogged = true;
+                log.warn("{} activities waiting to be written, "
+                        + "dropping new ones", pending.size());
+            }
+            return;
+        }
+        pending.merge(key, event, PendingActivity::merge);
+    }
+
+    /**
+     * @return number of activities waiting to be written
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes all accumulated activities to the database. Activities which
+     * fail to be written are put back for the next flush, up to
+     * {@link #MAX_WRITE_ATTEMPTS} times.
+     * <p>
+     * Precondition: a request context must be active.
+     */
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ActivityKey> keys = new ArrayList<>(pending.keySet());
+        log.debug("flushing {} accumulated activities", keys.size());
+        for (List<ActivityKey> batch : Lists.partition(keys,
+                FLUSH_BATCH_SIZE)) {
+            List<Pair> drained = new ArrayList<>(batch.size());
+            for (ActivityKey key : batch) {
+                PendingActivity value = pending.remove(key);
+                if (value != null) {
+                    drained.add(new Pair(key, value));
+                }
+            }
+            try {
+                transactionUtil.run(() -> drained.forEach(this::write));
+                drained.forEach(p -> failedAttempts.remove(p.key));
+            } catch (Exception e) {
+                log.warn("failed to flush {} activities, "
+                        + "writing them one by one", drained.size(), e);
+                drained.forEach(this::writeAlone);
+            }
+        }
+        overflowLogged = false;
+    }
+
+    private void writeAlone(Pair pair) {
+        try {
+            transactionUtil.run(() -> write(pair));
+            failedAttempts.remove(pair.key);
+        } catch (Exception e) {
+            int attempts = failedAttempts.merge(pair.key, 1, Integer::sum);
+            if (attempts >= MAX_WRITE_ATTEMPTS) {
+                failedAttempts.remove(pair.key);
+                log.error("dropping activity for actor {} on {} {} "
+                        + "after {} failed attempts", pair.key.actorId,
+                        pair.key.contextType, pair.key.contextId, attempts,
+                        e);
+            } else {
+                pending.merge(pair.key, pair.value, PendingActivity::merge);
+            }
+        }
+    }
+
+    private void write(Pair pair) {
+        ActivityKey key = pair.key;
+        PendingActivity value = pair.value;
+        Activity activity = activityDAO.findActivity(key.actorId,
+                key.contextType, key.contextId, key.activityType,
+                key.approxTime);
+        if (activity != null) {
+            activity.updateActivity(value.lastTime, value.lastTargetType,
+                    value.lastTargetId, value.wordCount, value.eventCount);
+        } else {
+            HPerson actor = personDAO.findById(key.actorId);
+            activity = new Activity(actor, key.contextType, key.contextId,
+                    value.lastTargetType, value.lastTargetId,
+                    key.activityType, value.firstTime, value.lastTime,
+                    value.eventCount, value.wordCount);
+        }
+        activityDAO.makePersistent(activity);
+        activityDAO.flush();
+    }
+
+    /**
+     * Writes out any remaining activities so that counts survive a graceful
+     * shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        ContextControl ctxCtrl =
+                ServiceLocator.instance().getInstance(ContextControl.class);
+        ctxCtrl.startContext(RequestScoped.class);
+        try {
+            flush();
+        } finally {
+            ctxCtrl.stopContext(RequestScoped.class);
+        }
+        if (!pending.isEmpty()) {
+            log.error("{} activities could not be written on shutdown",
+                    pending.size());
+        }
+    }
+
+    private static final class Pair {
+        private final ActivityKey key;
+        private final PendingActivity value;
+
+        private Pair(ActivityKey key, PendingActivity value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    static final class ActivityKey implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final long actorId;
+        private final EntityType contextType;
+        private final long contextId;
+        private final ActivityType activityType;
+        private final Date approxTime;
+
+        ActivityKey(long actorId, EntityType contextType, long contextId,
+                ActivityType activityType, Date approxTime) {
+            this.actorId = actorId;
+            this.contextType = contextType;
+            this.contextId = contextId;
+            this.activityType = activityType;
+            this.approxTime = approxTime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ActivityKey that = (ActivityKey) o;
+            return actorId == that.actorId && contextId == that.contextId
+                    && contextType == that.contextType
+                    && activityType == that.activityType
+                    && Objects.equals(approxTime, that.approxTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(actorId, contextType, contextId, activityType,
+                    approxTime);
+        }
+    }
+
+    /**
+     * Immutable summary of the events recorded for one ActivityKey.
+     */
+    static final class PendingActivity implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final Date firstTime;
+        private final Date lastTime;
+        private final EntityType lastTargetType;
+        private final long lastTargetId;
+        private final int eventCount;
+        private final int wordCount;
+
+        PendingActivity(Date firstTime, Date lastTime,
+                EntityType lastTargetType, long lastTargetId, int eventCount,
+                int wordCount) {
+            this.firstTime = firstTime;
+            this.lastTime = lastTime;
+            this.lastTargetType = lastTargetType;
+            this.lastTargetId = lastTargetId;
+            this.eventCount = eventCount;
+            this.wordCount = wordCount;
+        }
+
+        static PendingActivity merge(PendingActivity a, PendingActivity b) {
+            PendingActivity latest = b.lastTime.before(a.lastTime) ? a : b;
+            Date first =
+                    b.firstTime.before(a.firstTime) ? b.firstTime : a.firstTime;
+            return new PendingActivity(first, latest.lastTime,
+                    latest.lastTargetType, latest.lastTargetId,
+                    a.eventCount + b.eventCount, a.wordCount + b.wordCount);
+        }
+    }
+}
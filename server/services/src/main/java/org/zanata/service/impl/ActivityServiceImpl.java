@@ -20,10 +20,12 @@
  */
 package org.zanata.service.impl;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.Lock;
 
 import javax.enterprise.context.RequestScoped;
@@ -49,7 +51,6 @@ import org.zanata.model.Activity;
 import org.zanata.model.HDocument;
 import org.zanata.model.HPerson;
 import org.zanata.model.HTextFlow;
-import org.zanata.model.HTextFlowTarget;
 import org.zanata.model.IsEntityWithType;
 import org.zanata.model.type.EntityType;
 import org.zanata.service.ActivityService;
@@ -81,6 +82,9 @@ public class ActivityServiceImpl implements ActivityService {
     @Inject
     private ActivityLockManager activityLockManager;
 
+    @Inject
+    private ActivityAccumulator activityAccumulator;
+
     @SuppressFBWarnings(value = "SE_BAD_FIELD")
     @Inject
     private TransactionUtil transactionUtil;
@@ -178,8 +182,9 @@ public class ActivityServiceImpl implements ActivityService {
     }
 
     /**
-     * Logs each text flow target translation immediately after successful
-     * translation.
+     * Records each text flow target translation after successful translation.
+     * The activity is coalesced in memory by {@link ActivityAccumulator} and
+     * written to the database later in a batch.
      */
     // uses Async to ensure transaction environment is reset, because
     // this is triggered during transaction.commit
@@ -189,59 +194,51 @@ public class ActivityServiceImpl implements ActivityService {
         final TextFlowTargetStateEvent event = event_;
 
         Long actorId = event.getActorId();
-
-        if (actorId != null) {
-            Lock lock = activityLockManager.getLock(actorId);
-            lock.lock();
-            try {
-                transactionUtil.run(() -> {
-                    HDocument document =
-                        documentDAO.getById(event.getKey().getDocumentId());
-
-                    HTextFlowTarget lastReviewedTarget = null;
-                    HTextFlowTarget lastTranslatedTarget = null;
-
-                    int totalReviewedWords = 0;
-                    int totalTranslatedWords = 0;
-
-                    for (TextFlowTargetStateEvent.TextFlowTargetStateChange state : event
-                        .getStates()) {
-                        HTextFlowTarget target =
-                            textFlowTargetDAO.findById(
-                                state.getTextFlowTargetId(), false);
-                        if (state.getNewState().isReviewed()) {
-                            lastReviewedTarget = target;
-                            totalReviewedWords +=
-                                target.getTextFlow().getWordCount()
-                                    .intValue();
-                        } else {
-                            lastTranslatedTarget = target;
-                            totalTranslatedWords +=
-                                target.getTextFlow().getWordCount()
-                                    .intValue();
-                        }
-                    }
-                    if (lastReviewedTarget != null) {
-                        logActivityAlreadyLocked(actorId,
-                            document.getProjectIteration(), lastReviewedTarget,
-                            ActivityType.REVIEWED_TRANSLATION,
-                            totalReviewedWords);
-                    }
-
-                    if (lastTranslatedTarget != null) {
-                        logActivityAlreadyLocked(actorId,
-                            document.getProjectIteration(),
-                            lastTranslatedTarget,
-                            ActivityType.UPDATE_TRANSLATION,
-                            totalTranslatedWords);
-                    }
-                });
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            } finally {
-                lock.unlock();
+        if (actorId == null) {
+            return;
+        }
+        List<Long> targetIds = new ArrayList<>(event.getStates().size());
+        for (TextFlowTargetStateEvent.TextFlowTargetStateChange state : event
+                .getStates()) {
+            targetIds.add(state.getTextFlowTargetId());
+        }
+        Map<Long, Long> wordCounts =
+                textFlowTargetDAO.getWordCountsByTargetIds(targetIds);
+
+        Long lastReviewedTargetId = null;
+        Long lastTranslatedTargetId = null;
+
+        int totalReviewedWords = 0;
+        int totalTranslatedWords = 0;
+
+        for (TextFlowTargetStateEvent.TextFlowTargetStateChange state : event
+                .getStates()) {
+            Long targetId = state.getTextFlowTargetId();
+            Long wordCount = wordCounts.get(targetId);
+            int words = wordCount == null ? 0 : wordCount.intValue();
+            if (state.getNewState().isReviewed()) {
+                lastReviewedTargetId = targetId;
+                totalReviewedWords += words;
+            } else {
+                lastTranslatedTargetId = targetId;
+                totalTranslatedWords += words;
             }
         }
+        Date actionTime = new Date();
+        if (lastReviewedTargetId != null) {
+            activityAccumulator.accumulate(actorId,
+                    EntityType.HProjectIteration,
+                    event.getProjectIterationId(), EntityType.HTexFlowTarget,
+                    lastReviewedTargetId, ActivityType.REVIEWED_TRANSLATION,
+                    totalReviewedWords, actionTime);
+        }
+        if (lastTranslatedTargetId != null) {
+            activityAccumulator.accumulate(actorId,
+                    EntityType.HProjectIteration,
+                    event.getProjectIterationId(), EntityType.HTexFlowTarget,
+                    lastTranslatedTargetId, ActivityType.UPDATE_TRANSLATION,
+                    totalTranslatedWords, actionTime);
+        }
     }
 
     /**
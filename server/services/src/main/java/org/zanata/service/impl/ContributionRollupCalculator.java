@@ -0,0 +1,265 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.zanata.common.ContentState;
+import org.zanata.model.ContributionRollup.Role;
+
+/**
+ * Works out what a set of target versions contributes to the
+ * ContributionRollup table, using the same rules as the contribution and
+ * user matrix queries in TextFlowTargetHistoryDAO:
+ * <ul>
+ * <li>TRANSLATED and REVIEWED count the current version of a target, and the
+ * version before it if that was by a different (non-null) person.</li>
+ * <li>EDITED counts every saved version which has a translator or reviewer
+ * and is neither New nor Rejected.</li>
+ * </ul>
+ * Because the first rule depends on the latest versions only, a new version
+ * can retract counts which were made for older versions. The rollup is
+ * therefore maintained by applying the difference between the counts as of
+ * two points in time (see {@link #delta(Collection, Date, Date)}).
+ * <p>
+ * Counts are kept per quarter hour. Every time zone offset in use is a
+ * multiple of 15 minutes (eg India +5:30, Nepal +5:45), so the days of any
+ * user's time zone can be summed exactly from these periods.
+ */
+final class ContributionRollupCalculator {
+    static final long PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private ContributionRollupCalculator() {
+    }
+
+    /**
+     * Computes counts(versions saved up to {@code to}) minus counts(versions
+     * saved up to {@code from}).
+     *
+     * @param versions
+     *            all versions (history and current) of the affected targets
+     * @param from
+     *            exclusive start, or null to start from nothing
+     * @param to
+     *            inclusive end, or null for no end
+     * @return non-zero changes to the rollup, by rollup key
+     */
+    static Map<RollupKey, Counts> delta(Collection<TargetVersion> versions,
+            @Nullable Date from, @Nullable Date to) {
+        Map<RollupKey, Counts> result = new HashMap<>();
+        Map<Long, List<TargetVersion>> byTarget = versions.stream()
+                .collect(Collectors.groupingBy(v -> v.targetId));
+        for (List<TargetVersion> targetVersions : byTarget.values()) {
+            targetVersions.sort(Comparator.comparingInt(v -> v.versionNum));
+            count(targetVersions, to, 1, result);
+            if (from != null) {
+                count(targetVersions, from, -1, result);
+            }
+        }
+        result.values().removeIf(Counts::isZero);
+        return result;
+    }
+
+    private static void count(List<TargetVersion> sortedVersions,
+            @Nullable Date upTo, int sign, Map<RollupKey, Counts> result) {
+        List<TargetVersion> saved = new ArrayList<>(sortedVersions.size());
+        for (TargetVersion version : sortedVersions) {
+            if (upTo == null || !version.lastChanged.after(upTo)) {
+                saved.add(version);
+            }
+        }
+        if (saved.isEmpty()) {
+            return;
+        }
+        TargetVersion current = saved.get(saved.size() - 1);
+        TargetVersion previous =
+                saved.size() > 1 ? saved.get(saved.size() - 2) : null;
+        countLatest(current, previous, current.translatorId,
+                previous == null ? null : previous.translatorId,
+                Role.TRANSLATED, sign, result);
+        countLatest(current, previous, current.reviewerId,
+                previous == null ? null : previous.reviewerId,
+                Role.REVIEWED, sign, result);
+        for (TargetVersion version : saved) {
+            if (version.lastModifiedById != null
+                    && (version.translatorId != null
+                            || version.reviewerId != null)
+                    && version.state != ContentState.New
+                    && version.state != ContentState.Rejected) {
+                add(result, version, version.lastModifiedById, Role.EDITED,
+                        sign);
+            }
+        }
+    }
+
+    private static void countLatest(TargetVersion current,
+            @Nullable TargetVersion previous, @Nullable Long currentPerson,
+            @Nullable Long previousPerson, Role role, int sign,
+            Map<RollupKey, Counts> result) {
+        if (currentPerson != null && countsFor(role, current.state)) {
+            add(result, current, currentPerson, role, sign);
+        }
+        if (previous != null && previousPerson != null
+                && currentPerson != null
+                && !previousPerson.equals(currentPerson)
+                && countsFor(role, previous.state)) {
+            add(result, previous, previousPerson, role, sign);
+        }
+    }
+
+    private static boolean countsFor(Role role, ContentState state) {
+        if (role == Role.REVIEWED) {
+            return ContentState.REVIEWED_STATES.contains(state);
+        }
+        return ContentState.TRANSLATED_STATES.contains(state)
+                || ContentState.DRAFT_STATES.contains(state);
+    }
+
+    private static void add(Map<RollupKey, Counts> result,
+            TargetVersion version, long personId, Role role, int sign) {
+        RollupKey key = new RollupKey(personId, version.projectIterationId,
+                version.localeId, version.state, version.automatedEntry,
+                role, periodOf(version.lastChanged));
+        result.computeIfAbsent(key, k -> new Counts())
+                .add(sign * version.wordCount, sign);
+    }
+
+    /**
+     * @return start of the quarter hour (UTC) which contains the given time
+     */
+    static Date periodOf(Date time) {
+        long millis = time.getTime();
+        return new Date(millis - Math.floorMod(millis, PERIOD_MILLIS));
+    }
+
+    /**
+     * A single saved version of a target, from either HTextFlowTarget or
+     * HTextFlowTargetHistory.
+     */
+    static final class TargetVersion {
+        final long targetId;
+        final int versionNum;
+        final Date lastChanged;
+        final ContentState state;
+        final @Nullable Long translatorId;
+        final @Nullable Long reviewerId;
+        final @Nullable Long lastModifiedById;
+        final boolean automatedEntry;
+        final long projectIterationId;
+        final long localeId;
+        final long wordCount;
+
+        TargetVersion(long targetId, int versionNum, Date lastChanged,
+                ContentState state, @Nullable Long translatorId,
+                @Nullable Long reviewerId, @Nullable Long lastModifiedById,
+                boolean automatedEntry, long projectIterationId,
+                long localeId, long wordCount) {
+            this.targetId = targetId;
+            this.versionNum = versionNum;
+            this.lastChanged = lastChanged;
+            this.state = state;
+            this.translatorId = translatorId;
+            this.reviewerId = reviewerId;
+            this.lastModifiedById = lastModifiedById;
+            this.automatedEntry = automatedEntry;
+            this.projectIterationId = projectIterationId;
+            this.localeId = localeId;
+            this.wordCount = wordCount;
+        }
+    }
+
+    static final class RollupKey {
+        final long personId;
+        final long projectIterationId;
+        final long localeId;
+        final ContentState state;
+        final boolean automatedEntry;
+        final Role role;
+        final Date period;
+
+        RollupKey(long personId, long projectIterationId, long localeId,
+                ContentState state, boolean automatedEntry, Role role,
+                Date period) {
+            this.personId = personId;
+            this.projectIterationId = projectIterationId;
+            this.localeId = localeId;
+            this.state = state;
+            this.automatedEntry = automatedEntry;
+            this.role = role;
+            this.period = period;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey other = (RollupKey) o;
+            return personId == other.personId
+                    && projectIterationId == other.projectIterationId
+                    && localeId == other.localeId
+                    && automatedEntry == other.automatedEntry
+                    && state == other.state && role == other.role
+                    && period.equals(other.period);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(personId, projectIterationId, localeId, state,
+                    automatedEntry, role, period);
+        }
+
+        @Override
+        public String toString() {
+            return role + "/" + personId + "/" + projectIterationId + "/"
+                    + localeId + "/" + state + "/" + automatedEntry + "@"
+                    + period;
+        }
+    }
+
+    static final class Counts {
+        long words;
+        long messages;
+
+        void add(long words, long messages) {
+            this.words += words;
+            this.messages += messages;
+        }
+
+        boolean isZero() {
+            return words == 0 && messages == 0;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.zanata.ApplicationConfiguration;
+import org.zanata.common.ContentState;
+import org.zanata.dao.ApplicationConfigurationDAO;
+import org.zanata.dao.ContributionRollupDAO;
+import org.zanata.model.ContributionRollup;
+import org.zanata.model.ContributionRollup.Role;
+import org.zanata.model.HApplicationConfiguration;
+import org.zanata.service.impl.ContributionRollupCalculator.Counts;
+import org.zanata.service.impl.ContributionRollupCalculator.RollupKey;
+import org.zanata.service.impl.ContributionRollupCalculator.TargetVersion;
+import org.zanata.transaction.TransactionUtil;
+
+import com.google.common.annotations.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Maintains the ContributionRollup table and answers contribution statistics
+ * from it.
+ * <p>
+ * {@link #rollUp()} (called periodically by ContributionRollupJob) applies
+ * the versions saved since the last run, in batches, and records how far it
+ * got (the watermark) in the same transaction. Queries add the changes saved
+ * after the watermark, so results are as fresh as the history queries. Until
+ * the rollup has caught up with the history (eg after an upgrade) queries
+ * return null and callers should fall back to TextFlowTargetHistoryDAO.
+ * <p>
+ * A version is only rolled up once it is older than the settle window
+ * ({@link ApplicationConfiguration#getContributionRollupSettleMinutes()}),
+ * because the watermark is based on lastChanged and a version committed
+ * after the watermark has passed its lastChanged would never be counted.
+ * lastChanged is set after its transaction began, and the transaction
+ * manager rolls back any transaction which runs longer than its timeout
+ * (five minutes by default in WildFly). So nothing is missed as long as the
+ * settle window is longer than the transaction timeout, including long
+ * uploads and imports. Raise the window if the timeout is raised.
+ */
+@Named("contributionRollupService")
+@ApplicationScoped
+public class ContributionRollupService implements Serializable {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(ContributionRollupService.class);
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * HApplicationConfiguration key of the watermark. Deliberately not a
+     * KEY_ constant, since it is not a user setting.
+     */
+    static final String WATERMARK_KEY = "contribution.rollup.watermark";
+    /**
+     * Approximate number of saved versions rolled up per transaction.
+     */
+    static final int BATCH_SIZE = 5000;
+    /**
+     * Queries use the rollup only if it is at most this far behind the
+     * settle window.
+     */
+    static final long MAX_LAG_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Inject
+    private ContributionRollupDAO contributionRollupDAO;
+
+    @Inject
+    private ApplicationConfigurationDAO applicationConfigurationDAO;
+
+    @Inject
+    private ApplicationConfiguration applicationConfiguration;
+
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    @Inject
+    private TransactionUtil transactionUtil;
+
+    /**
+     * Rolls up all settled versions which have not been rolled up yet.
+     * <p>
+     * Precondition: a request context must be active.
+     */
+    public synchronized void rollUp() {
+        try {
+            boolean more = true;
+            while (more) {
+                more = transactionUtil.call(this::rollUpNextBatch);
+                contributionRollupDAO.clear();
+            }
+        } catch (Exception e) {
+            log.error("failed to roll up contribution statistics", e);
+        }
+    }
+
+    private boolean rollUpNextBatch() {
+        Date settled =
+                new Date(System.currentTimeMillis() - getSettleMillis());
+        Date watermark = getWatermark();
+        Date from = watermark != null ? watermark : new Date(0);
+        if (!from.before(settled)) {
+            return false;
+        }
+        Date batchEnd = contributionRollupDAO.findBatchEnd(from, BATCH_SIZE);
+        boolean more = batchEnd != null && batchEnd.before(settled);
+        Date to = more ? batchEnd : settled;
+        Set<Long> targetIds =
+                contributionRollupDAO.findTargetIdsChanged(from, to, null,
+                        null);
+        Map<RollupKey, Counts> delta = ContributionRollupCalculator
+                .delta(findVersions(targetIds), from, to);
+        delta.forEach(this::apply);
+        setWatermark(to);
+        contributionRollupDAO.flush();
+        log.debug("rolled up {} targets saved up to {}", targetIds.size(),
+                to);
+        return more;
+    }
+
+    private void apply(RollupKey key, Counts counts) {
+        ContributionRollup rollup = contributionRollupDAO.findRollup(
+                key.personId, key.projectIterationId, key.localeId, key.state,
+                key.automatedEntry, key.role, key.period);
+        if (rollup == null) {
+            rollup = new ContributionRollup(key.personId,
+                    key.projectIterationId, key.localeId, key.state,
+                    key.automatedEntry, key.role, key.period);
+        }
+        rollup.addCounts(counts.words, counts.messages);
+        if (rollup.getWordCount() == 0 && rollup.getMessageCount() == 0) {
+            if (rollup.getId() != null) {
+                contributionRollupDAO.makeTransient(rollup);
+            }
+        } else {
+            contributionRollupDAO.makePersistent(rollup);
+        }
+    }
+
+    /**
+     * Sums the TRANSLATED or REVIEWED words of a person in a version, with
+     * the same results as
+     * TextFlowTargetHistoryDAO.getUserTranslationStatisticInVersion and
+     * getUserReviewStatisticInVersion.
+     *
+     * @return list of Object[wordCount][contentState ordinal][HLocale id],
+     *         or null if the rollup is not up to date
+     */
+    @Nullable
+    public List<Object[]> getContributionTotals(Role role, long versionId,
+            long personId, Date fromDate, Date toDate,
+            boolean automatedEntry) {
+        Date watermark = getCurrentWatermark();
+        if (watermark == null) {
+            return null;
+        }
+        List<Object[]> rolledUp = contributionRollupDAO.getContributionTotals(
+                role, versionId, personId, fromDate, toDate, automatedEntry);
+        if (!watermark.equals(getWatermark())) {
+            // a batch was committed in between, so it may be counted twice
+            return getContributionTotals(role, versionId, personId, fromDate,
+                    toDate, automatedEntry);
+        }
+        // key: [contentState ordinal, HLocale id]
+        Map<List<Object>, Long> words = new LinkedHashMap<>();
+        for (Object[] row : rolledUp) {
+            words.merge(
+                    Arrays.asList(((ContentState) row[1]).ordinal(), row[2]),
+                    ((Number) row[0]).longValue(), Long::sum);
+        }
+        Set<Long> changedTargets = contributionRollupDAO
+                .findTargetIdsChanged(watermark, null, versionId, null);
+        findChangesSince(watermark, changedTargets).forEach((key, counts) -> {
+            if (key.role == role && key.personId == personId
+                    && key.automatedEntry == automatedEntry
+                    && inRange(key.period, fromDate, toDate)) {
+                words.merge(Arrays.asList(key.state.ordinal(), key.localeId),
+                        counts.words, Long::sum);
+            }
+        });
+        List<Object[]> result = new ArrayList<>(words.size());
+        words.forEach((key, count) -> {
+            if (count != 0) {
+                result.add(new Object[] { count, key.get(0), key.get(1) });
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sums the words a person saved (excluding automated entries), per period,
+     * version, locale and state, as counted by
+     * TextFlowTargetHistoryDAO.getUserTranslationMatrix.
+     *
+     * @return list of Object[period][projectIterationId][HLocale id]
+     *         [contentState ordinal][wordCount], or null if the rollup is not
+     *         up to date
+     */
+    @Nullable
+    public List<Object[]> getWorkTotals(long personId, Date fromDate,
+            Date toDate) {
+        Date watermark = getCurrentWatermark();
+        if (watermark == null) {
+            return null;
+        }
+        List<Object[]> rolledUp =
+                contributionRollupDAO.getWorkTotals(personId, fromDate, toDate);
+        if (!watermark.equals(getWatermark())) {
+            // a batch was committed in between, so it may be counted twice
+            return getWorkTotals(personId, fromDate, toDate);
+        }
+        // key: [period, projectIterationId, HLocale id, contentState ordinal]
+        Map<List<Object>, Long> words = new LinkedHashMap<>();
+        for (Object[] row : rolledUp) {
+            words.merge(Arrays.asList(row[0], row[1], row[2],
+                    ((ContentState) row[3]).ordinal()),
+                    ((Number) row[4]).longValue(), Long::sum);
+        }
+        Set<Long> changedTargets = contributionRollupDAO
+                .findTargetIdsChanged(watermark, null, null, personId);
+        findChangesSince(watermark, changedTargets).forEach((key, counts) -> {
+            if (key.role == Role.EDITED && key.personId == personId
+                    && !key.automatedEntry
+                    && inRange(key.period, fromDate, toDate)) {
+                words.merge(Arrays.asList(key.period, key.projectIterationId,
+                        key.localeId, key.state.ordinal()), counts.words,
+                        Long::sum);
+            }
+        });
+        List<Object[]> result = new ArrayList<>(words.size());
+        words.forEach((key, count) -> {
+            if (count != 0) {
+                result.add(new Object[] { key.get(0), key.get(1), key.get(2),
+                        key.get(3), count });
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return the changes to the rollup from versions of the given targets
+     *         which were saved after the watermark
+     */
+    private Map<RollupKey, Counts> findChangesSince(Date watermark,
+            Set<Long> targetIds) {
+        return ContributionRollupCalculator.delta(findVersions(targetIds),
+                watermark, null);
+    }
+
+    /**
+     * @return the watermark, or null if the rollup is too far behind to be
+     *         used
+     */
+    @Nullable
+    private Date getCurrentWatermark() {
+        Date watermark = getWatermark();
+        if (watermark == null || watermark.getTime() < System
+                .currentTimeMillis() - getSettleMillis() - MAX_LAG_MILLIS) {
+            return null;
+        }
+        return watermark;
+    }
+
+    private long getSettleMillis() {
+        return TimeUnit.MINUTES.toMillis(
+                applicationConfiguration.getContributionRollupSettleMinutes());
+    }
+
+    private static boolean inRange(Date date, Date fromDate, Date toDate) {
+        return !date.before(fromDate) && !date.after(toDate);
+    }
+
+    private List<TargetVersion> findVersions(Collection<Long> targetIds) {
+        List<TargetVersion> versions = new ArrayList<>();
+        if (targetIds.isEmpty()) {
+            return versions;
+        }
+        for (Object[] row : contributionRollupDAO.findVersions(targetIds)) {
+            versions.add(toTargetVersion(row));
+        }
+        return versions;
+    }
+
+    @VisibleForTesting
+    static TargetVersion toTargetVersion(Object[] row) {
+        return new TargetVersion((Long) row[0], (Integer) row[1],
+                (Date) row[2], (ContentState) row[3], (Long) row[4],
+                (Long) row[5], (Long) row[6], Boolean.TRUE.equals(row[7]),
+                (Long) row[8], (Long) row[9],
+                row[10] == null ? 0L : (Long) row[10]);
+    }
+
+    /**
+     * @return time up to which versions have been rolled up, or null if the
+     *         rollup has never run
+     */
+    @Nullable
+    public Date getWatermark() {
+        HApplicationConfiguration config =
+                applicationConfigurationDAO.findByKey(WATERMARK_KEY);
+        if (config == null) {
+            return null;
+        }
+        return new Date(Long.parseLong(config.getValue()));
+    }
+
+    private void setWatermark(Date watermark) {
+        HApplicationConfiguration config =
+                applicationConfigurationDAO.findByKey(WATERMARK_KEY);
+        if (config == null) {
+            config = new HApplicationConfiguration(WATERMARK_KEY, "");
+        }
+        config.setValue(String.valueOf(watermark.getTime()));
+        applicationConfigurationDAO.makePersistent(config);
+    }
+}
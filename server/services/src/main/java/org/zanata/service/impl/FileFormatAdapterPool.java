@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.zanata.adapter.FileFormatAdapter;
+import org.zanata.common.DocumentType;
+
+/**
+ * Keeps idle file format adapters for reuse, so that each upload does not have
+ * to construct (and configure) a new Okapi filter for its format.
+ * <p>
+ * An adapter is only used by one thread at a time: it is borrowed for the
+ * duration of one parse, then returned to the pool. Adapters reset their
+ * filter parameters at the start of every parse, so a returned adapter does
+ * not carry settings over to the next document. Adapters which failed are
+ * discarded rather than returned.
+ */
+@ApplicationScoped
+public class FileFormatAdapterPool {
+    /**
+     * Maximum number of idle adapters kept per document type. More adapters
+     * than this may be in use at once; the extras are discarded on return.
+     */
+    static final int MAX_IDLE_PER_TYPE = 4;
+
+    private final ConcurrentMap<DocumentType, BlockingDeque<FileFormatAdapter>> idleAdapters =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Runs work with an adapter for the given document type, reusing an idle
+     * adapter if there is one.
+     *
+     * @param type
+     *            document type of the adapter
+     * @param factory
+     *            creates a new adapter if none is idle
+     * @param work
+     *            the work to run with the adapter
+     * @return the result of work
+     */
+    public <T> T withAdapter(DocumentType type,
+            Supplier<? extends FileFormatAdapter> factory,
+            Function<FileFormatAdapter, T> work) {
+        BlockingDeque<FileFormatAdapter> idle = idleAdapters.computeIfAbsent(
+                type, t -> new LinkedBlockingDeque<>(MAX_IDLE_PER_TYPE));
+        FileFormatAdapter adapter = idle.pollFirst();
+        if (adapter == null) {
+            adapter = factory.get();
+        }
+        T result = work.apply(adapter);
+        // discarded if there are already enough idle adapters
+        idle.offerFirst(adapter);
+        return result;
+    }
+
+    int getIdleCount(DocumentType type) {
+        BlockingDeque<FileFormatAdapter> idle = idleAdapters.get(type);
+        return idle == null ? 0 : idle.size();
+    }
+}
@@ -20,10 +20,13 @@
  */
 package org.zanata.service.impl;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.persistence.EntityManagerFactory;
@@ -35,6 +38,7 @@ import org.zanata.action.ReindexClassOptions;
 import org.zanata.async.Async;
 import org.zanata.async.AsyncTaskHandle;
 import org.zanata.async.AsyncTaskResult;
+import org.zanata.events.TextFlowTargetsBulkUpdatedEvent;
 import org.zanata.model.HProject;
 import org.zanata.model.HProjectIteration;
 import org.zanata.model.HTextFlowTarget;
@@ -42,8 +46,11 @@ import org.zanata.search.AbstractIndexingStrategy;
 import org.zanata.search.ClassIndexer;
 import org.zanata.search.HTextFlowTargetIndexingStrategy;
 import org.zanata.search.SimpleClassIndexingStrategy;
+import org.zanata.search.TextFlowTargetIndexQueue;
 import org.zanata.service.IndexingService;
 import org.zanata.util.Zanata;
+
+import com.google.common.collect.Iterables;
 // Not @Transactional, because we manage EntityManager directly
 
 /**
@@ -56,11 +63,17 @@ public class IndexingServiceImpl implements IndexingService {
     private static final org.slf4j.Logger log =
             org.slf4j.LoggerFactory.getLogger(IndexingServiceImpl.class);
     private static final long serialVersionUID = 8853710030204952940L;
+    // ids per query when reindexing bulk updated targets, which keeps the
+    // 'in' clause within database parameter limits
+    private static final int BULK_REINDEX_BATCH_SIZE = 1000;
 
     @Inject
     @Zanata
     private EntityManagerFactory entityManagerFactory;
 
+    @Inject
+    private TextFlowTargetIndexQueue textFlowTargetIndexQueue;
+
     @Override
     @Async
     public Future<Void> startIndexing(
@@ -232,6 +245,30 @@ public class IndexingServiceImpl implements IndexingService {
         return AsyncTaskResult.completed();
     }
 
+    /**
+     * Reindexes targets after a bulk update has been committed, since bulk
+     * statements are not seen by Hibernate Search. The targets are left to
+     * the background index queue if it is running.
+     */
+    @Async
+    public void textFlowTargetsBulkUpdated(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS)
+            TextFlowTargetsBulkUpdatedEvent event) {
+        if (textFlowTargetIndexQueue.offer(event.getTextFlowTargetIds())) {
+            return;
+        }
+        try (FullTextSession session = openFullTextSession()) {
+            HTextFlowTargetIndexingStrategy indexingStrategy =
+                    new HTextFlowTargetIndexingStrategy();
+            for (List<Long> targetIds : Iterables.partition(
+                    event.getTextFlowTargetIds(), BULK_REINDEX_BATCH_SIZE)) {
+                indexingStrategy.reindexTargets(targetIds, session);
+            }
+            log.debug("reindexed {} bulk updated HTextFlowTargets",
+                    event.getTextFlowTargetIds().size());
+        }
+    }
+
     private static Long getHTextFlowTargetCountForProject(HProject hProject,
             FullTextSession session) {
         return (Long) session
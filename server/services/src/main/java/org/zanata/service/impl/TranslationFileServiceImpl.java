@@ -32,6 +32,7 @@ import org.xml.sax.InputSource;
 import org.zanata.adapter.DTDAdapter;
 import org.zanata.adapter.FileFormatAdapter;
 import org.zanata.adapter.FileFormatAdapter.ParserOptions;
+import org.zanata.adapter.FileFormatAdapter.WriterOptions;
 import org.zanata.adapter.GettextAdapter;
 import org.zanata.adapter.HTMLAdapter;
 import org.zanata.adapter.IDMLAdapter;
@@ -63,9 +64,11 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 import static com.google.common.base.Strings.nullToEmpty;
 import static org.zanata.common.DocumentType.GETTEXT;
@@ -134,6 +137,8 @@ public class TranslationFileServiceImpl implements TranslationFileService {
     private DocumentDAO documentDAO;
     @Inject
     private ProjectIterationDAO projectIterationDAO;
+    @Inject
+    private FileFormatAdapterPool adapterPool;
 
     @Override
     public TranslationsResource parseTranslationFile(InputStream fileContents,
@@ -182,10 +187,11 @@ public class TranslationFileServiceImpl implements TranslationFileService {
         HDocument doc = documentDAO.getByProjectIterationAndDocId(projectSlug,
                 iterationSlug, docId);
         TranslationsResource transRes;
-        FileFormatAdapter adapter = getAdapterFor(documentType, fileName);
+        ParserOptions options = new ParserOptions(tempFile.toURI(),
+                new LocaleId(localeId), getAdapterParams(doc));
         try {
-            transRes = adapter.parseTranslationFile(
-                    new ParserOptions(tempFile.toURI(), new LocaleId(localeId), getAdapterParams(doc)));
+            transRes = withAdapter(getDocumentTypeFor(documentType, fileName),
+                    adapter -> adapter.parseTranslationFile(options));
         } catch (FileFormatAdapterException e) {
             throw new ZanataServiceException(
                     "Error parsing translation file: " + fileName, e);
@@ -249,10 +255,10 @@ public class TranslationFileServiceImpl implements TranslationFileService {
     public Resource parseUpdatedAdapterDocumentFile(
             String docId, String fileName, ParserOptions options,
             Optional<String> documentType) throws ZanataServiceException {
-        FileFormatAdapter adapter = getAdapterFor(documentType, fileName);
         Resource doc;
         try {
-            doc = adapter.parseDocumentFile(options);
+            doc = withAdapter(getDocumentTypeFor(documentType, fileName),
+                    adapter -> adapter.parseDocumentFile(options));
         } catch (FileFormatAdapterException e) {
             throw new ZanataServiceException(
                     "Error parsing document file: " + fileName, e);
@@ -295,7 +301,7 @@ public class TranslationFileServiceImpl implements TranslationFileService {
         return DOCTYPEMAP.keySet();
     }
 
-    private FileFormatAdapter getAdapterFor(String fileNameOrExtension) {
+    private DocumentType getDocumentTypeFor(String fileNameOrExtension) {
         String extension = FilenameUtils.getExtension(fileNameOrExtension);
         if (extension == null) {
             throw new RuntimeException(
@@ -308,13 +314,12 @@ public class TranslationFileServiceImpl implements TranslationFileService {
                             + fileNameOrExtension
                             + "\' does not match any known document type.");
         }
-        FileFormatAdapter adapter = getAdapterFor(documentType);
         if (hasMultipleDocumentTypes(fileNameOrExtension)) {
             log.warn(
                     "More than 1 adapter found for this file extension: \'{}\'. Adapter \'{}\' will be used.",
-                    extension, adapter.getClass().getName());
+                    extension, DOCTYPEMAP.get(documentType));
         }
-        return adapter;
+        return documentType;
     }
 
     /**
@@ -338,23 +343,40 @@ public class TranslationFileServiceImpl implements TranslationFileService {
         }
     }
 
+    @Override
+    public void writeTranslatedFile(DocumentType type, OutputStream output,
+            WriterOptions options, boolean approvedOnly) {
+        withAdapter(type, adapter -> {
+            adapter.writeTranslatedFile(output, options, approvedOnly);
+            return null;
+        });
+    }
+
     /**
-     * Get an appropriate adapter for a document type or file name.
+     * Get an appropriate document type for a document type name or file name.
      *
      * @param documentType
      * @param fileName
-     * @return adapter for given documentType if present, otherwise return
-     *         adapter with given fileName.
+     * @return given documentType if present, otherwise the document type for
+     *         the given fileName.
      */
-    private FileFormatAdapter getAdapterFor(Optional<String> documentType,
+    private DocumentType getDocumentTypeFor(Optional<String> documentType,
             @Nonnull String fileName) {
         if (documentType.isPresent()
                 && StringUtils.isNotEmpty(documentType.get())) {
             DocumentType docType = DocumentType.valueOf(documentType.get());
-            return docType != null ? getAdapterFor(docType)
-                    : getAdapterFor(fileName);
+            return docType != null ? docType : getDocumentTypeFor(fileName);
         }
-        return getAdapterFor(fileName);
+        return getDocumentTypeFor(fileName);
+    }
+
+    /**
+     * Runs work with a pooled adapter for the document type, instead of
+     * constructing a new adapter (and filter) for every file.
+     */
+    private <T> T withAdapter(DocumentType type,
+            Function<FileFormatAdapter, T> work) {
+        return adapterPool.withAdapter(type, () -> getAdapterFor(type), work);
     }
 
     @Override
@@ -62,6 +62,7 @@ import org.zanata.common.EntityStatus;
 import org.zanata.common.LocaleId;
 import org.zanata.hibernate.search.IndexFieldLabels;
 import org.zanata.hibernate.search.TextContainerAnalyzerDiscriminator;
+import org.zanata.hibernate.search.TextFlowTargetShardIdentifierProvider;
 import org.zanata.jpa.FullText;
 import org.zanata.model.HDocument;
 import org.zanata.model.HLocale;
@@ -689,6 +690,11 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
         log.debug("Executing Lucene query: {}", textQuery);
         FullTextQuery ftQuery =
                 entityManager.createFullTextQuery(textQuery, entities);
+        // only reads the HTextFlowTarget shard of the target locale
+        ftQuery.enableFullTextFilter(
+                TextFlowTargetShardIdentifierProvider.LOCALE_FILTER)
+                .setParameter(TextFlowTargetShardIdentifierProvider.LOCALE_PARAMETER,
+                        targetLocale.getId());
         ftQuery.setProjection(
                 ProjectionConstants.SCORE,
                 ProjectionConstants.THIS,
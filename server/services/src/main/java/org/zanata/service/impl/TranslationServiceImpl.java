@@ -52,10 +52,12 @@ import org.zanata.dao.DocumentDAO;
 import org.zanata.dao.ProjectIterationDAO;
 import org.zanata.dao.TextFlowDAO;
 import org.zanata.dao.TextFlowTargetDAO;
+import org.zanata.dao.TextFlowTargetDAO.InvalidatedTarget;
 import org.zanata.events.DocStatsEvent;
 import org.zanata.events.DocumentLocaleKey;
 import org.zanata.events.DocumentUploadedEvent;
 import org.zanata.events.TextFlowTargetStateEvent;
+import org.zanata.events.TextFlowTargetsBulkUpdatedEvent;
 import org.zanata.exception.ZanataServiceException;
 import org.zanata.i18n.Messages;
 import org.zanata.lock.Lock;
@@ -98,6 +100,8 @@ public class TranslationServiceImpl implements TranslationService {
     private static final org.slf4j.Logger log =
             org.slf4j.LoggerFactory.getLogger(TranslationServiceImpl.class);
     private static final long serialVersionUID = -4409365256354251534L;
+    // number of targets cleared by each bulk update
+    private static final int BULK_UPDATE_BATCH_SIZE = 1000;
 
     @SuppressFBWarnings(value = "SE_BAD_FIELD")
     @Inject
@@ -136,6 +140,10 @@ public class TranslationServiceImpl implements TranslationService {
     @SuppressFBWarnings(value = "SE_BAD_FIELD")
     @Inject
     private Event<DocStatsEvent> docStatsEvent;
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    @Inject
+    private Event<TextFlowTargetsBulkUpdatedEvent>
+            textFlowTargetsBulkUpdatedEvent;
 
     @Transactional
     @Override
@@ -176,8 +184,11 @@ public class TranslationServiceImpl implements TranslationService {
         // project
         validateReviewPermissionIfApplicable(translationRequests,
                 projectIteration, hLocale);
-        List<TextFlowTargetStateChange> targetStates = Lists.newArrayList();
-        Map<ContentState, Long> contentStateDeltas = Maps.newHashMap();
+        // a batch of editor saves may span documents; events are per document
+        Map<Long, List<TextFlowTargetStateChange>> targetStatesByDocId =
+                Maps.newLinkedHashMap();
+        Map<Long, Map<ContentState, Long>> contentStateDeltasByDocId =
+                Maps.newHashMap();
         for (TransUnitUpdateRequest request : translationRequests) {
             ContentState newContentState = request.getNewContentState();
             HTextFlow hTextFlow = entityManager.find(HTextFlow.class,
@@ -196,8 +207,13 @@ public class TranslationServiceImpl implements TranslationService {
                     if (existingState.isTranslated()) {
                         // don't replace an existing translation with an invalid translation
                         log.warn(validationMessage);
+                        HTextFlowTarget existingTarget = textFlowTargetDAO
+                                .getTextFlowTarget(hTextFlow, hLocale);
                         result.isSuccess = false;
                         result.errorMessage = validationMessage;
+                        result.translatedTextFlowTarget = existingTarget;
+                        result.baseVersion = existingTarget.getVersionNum();
+                        result.baseContentState = existingTarget.getState();
                         results.add(result);
                         continue;
                     } else {
@@ -234,8 +250,13 @@ public class TranslationServiceImpl implements TranslationService {
                     if (result.targetChanged
                             || hTextFlowTarget.getVersionNum() == 0) {
                         HTextFlow textFlow = hTextFlowTarget.getTextFlow();
+                        Long documentId = textFlow.getDocument().getId();
                         aggregateChanges(textFlow, hTextFlowTarget,
-                                currentState, targetStates, contentStateDeltas);
+                                currentState,
+                                targetStatesByDocId.computeIfAbsent(
+                                        documentId, id -> Lists.newArrayList()),
+                                contentStateDeltasByDocId.computeIfAbsent(
+                                        documentId, id -> Maps.newHashMap()));
                     }
                     result.isSuccess = true;
                 } catch (HibernateException e) {
@@ -257,10 +278,11 @@ public class TranslationServiceImpl implements TranslationService {
             result.translatedTextFlowTarget = hTextFlowTarget;
             results.add(result);
         }
-        if (!targetStates.isEmpty()) {
-            DocumentLocaleKey documentLocaleKey =
-                    new DocumentLocaleKey(sampleHTextFlow.getDocument().getId(),
-                            hLocale.getLocaleId());
+        for (Map.Entry<Long, List<TextFlowTargetStateChange>> entry
+                : targetStatesByDocId.entrySet()) {
+            List<TextFlowTargetStateChange> targetStates = entry.getValue();
+            DocumentLocaleKey documentLocaleKey = new DocumentLocaleKey(
+                    entry.getKey(), hLocale.getLocaleId());
             TextFlowTargetStateEvent tftUpdatedEvent =
                     new TextFlowTargetStateEvent(documentLocaleKey,
                             projectIteration.getId(),
@@ -268,7 +290,8 @@ public class TranslationServiceImpl implements TranslationService {
                             ImmutableList.copyOf(targetStates));
             textFlowTargetStateEvent.fire(tftUpdatedEvent);
             DocStatsEvent docEvent = new DocStatsEvent(documentLocaleKey,
-                    projectIteration.getId(), contentStateDeltas,
+                    projectIteration.getId(),
+                    contentStateDeltasByDocId.get(entry.getKey()),
                     Iterables.getLast(targetStates).getTextFlowTargetId());
             docStatsEvent.fire(docEvent);
         }
@@ -632,13 +655,8 @@ public class TranslationServiceImpl implements TranslationService {
         final Collection<Long> removedTextFlowTargetIds = new HashSet<>();
         final List<String> warnings = new ArrayList<String>();
         if (mergeType == MergeType.IMPORT) {
-            for (HTextFlow textFlow : document.getTextFlows()) {
-                HTextFlowTarget hTarget =
-                        textFlow.getTargets().get(hLocale.getId());
-                if (hTarget != null) {
-                    removedTextFlowTargetIds.add(hTarget.getId());
-                }
-            }
+            removedTextFlowTargetIds.addAll(
+                    textFlowTargetDAO.getTargetIds(document, hLocale));
         }
         // Break the target into batches
         List<List<TextFlowTarget>> batches =
@@ -659,18 +677,13 @@ public class TranslationServiceImpl implements TranslationService {
         }
         if (changed || !removedTextFlowTargetIds.isEmpty()) {
             try {
+                Long actorId = authenticatedAccount.getPerson().getId();
                 runInTransaction(() -> {
-                    for (Long targetId : removedTextFlowTargetIds) {
-                        // need to refresh from persistence
-                        HTextFlowTarget target =
-                                textFlowTargetDAO.findById(targetId, true);
-                        target.clear();
-                    }
-                    textFlowTargetDAO.flush();
+                    clearRemovedTargets(removedTextFlowTargetIds, document,
+                            hProjectIteration.getId());
                     documentDAO.flush();
                     return null;
                 });
-                Long actorId = authenticatedAccount.getPerson().getId();
                 documentUploadedEvent.fire(new DocumentUploadedEvent(actorId,
                         document.getId(), false, hLocale.getLocaleId()));
             } catch (Exception e) {
@@ -682,6 +695,49 @@ public class TranslationServiceImpl implements TranslationService {
         return warnings;
     }
 
+    /**
+     * Clears the targets which were not in an imported file, in batches of
+     * bulk statements, and fires aggregated events for them.
+     * <p>
+     * The state event has no actor, so that clearing translations is not
+     * recorded as translation activity of the uploader.
+     */
+    private void clearRemovedTargets(Collection<Long> removedTextFlowTargetIds,
+            HDocument document, Long projectIterationId) {
+        List<InvalidatedTarget> clearedTargets = new ArrayList<>();
+        for (List<Long> targetIds : Iterables.partition(
+                removedTextFlowTargetIds, BULK_UPDATE_BATCH_SIZE)) {
+            clearedTargets.addAll(textFlowTargetDAO.clearTargets(targetIds));
+        }
+        if (clearedTargets.isEmpty()) {
+            return;
+        }
+        List<TextFlowTargetStateChange> targetStates = Lists.newArrayList();
+        Map<ContentState, Long> contentStateDeltas = Maps.newHashMap();
+        for (InvalidatedTarget target : clearedTargets) {
+            targetStates.add(new TextFlowTargetStateChange(
+                    target.getTextFlowId(), target.getTargetId(),
+                    ContentState.New, target.getPreviousState()));
+            DocStatsEvent.updateContentStateDeltas(contentStateDeltas,
+                    ContentState.New, target.getPreviousState(),
+                    target.getWordCount());
+        }
+        // all the targets are in the locale of the imported file
+        DocumentLocaleKey documentLocaleKey = new DocumentLocaleKey(
+                document.getId(), clearedTargets.get(0).getLocaleId());
+        textFlowTargetStateEvent.fire(new TextFlowTargetStateEvent(
+                documentLocaleKey, projectIterationId, null,
+                ImmutableList.copyOf(targetStates)));
+        docStatsEvent.fire(new DocStatsEvent(documentLocaleKey,
+                projectIterationId, contentStateDeltas,
+                Iterables.getLast(targetStates).getTextFlowTargetId()));
+        textFlowTargetsBulkUpdatedEvent
+                .fire(new TextFlowTargetsBulkUpdatedEvent(
+                        clearedTargets.stream()
+                                .map(InvalidatedTarget::getTargetId)
+                                .collect(Collectors.toList())));
+    }
+
     private int getNumPlurals(HLocale hLocale, HTextFlow textFlow) {
         int nPlurals;
         if (!textFlow.isPlural()) {
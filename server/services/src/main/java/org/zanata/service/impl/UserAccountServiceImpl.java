@@ -20,9 +20,6 @@
  */
 package org.zanata.service.impl;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.util.List;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
@@ -41,7 +38,7 @@ import org.zanata.dao.AccountDAO;
 import org.zanata.dao.AccountResetPasswordKeyDAO;
 import org.zanata.dao.RoleAssignmentRuleDAO;
 import org.zanata.exception.NoSuchUserException;
-import org.zanata.file.DocumentStorage;
+import org.zanata.file.FilePersistService;
 import org.zanata.model.HAccount;
 import org.zanata.model.HAccountResetPasswordKey;
 import org.zanata.model.HIterationGroup;
@@ -80,8 +77,7 @@ public class UserAccountServiceImpl implements UserAccountService {
     @Authenticated
     private HAccount authenticatedUser;
     @Inject
-    @DocumentStorage
-    private File documentStorageFolder;
+    private FilePersistService filePersistService;
 
     @Override
     public void clearPasswordResetRequests(HAccount account) {
@@ -225,15 +221,12 @@ public class UserAccountServiceImpl implements UserAccountService {
                 .setParameter("username", originalUsername)
                 .list();
         rawDocs.forEach(doc -> {
-            File fileOnDisk = new File(documentStorageFolder, doc.getFileId());
-            try {
-                Files.deleteIfExists(fileOnDisk.toPath());
-            } catch (IOException e) {
-                log.warn("unable to delete {}", fileOnDisk);
-            }
             doc.getDocument().setRawDocument(null);
             session.update(doc.getDocument());
             session.delete(doc);
+            // the file is only deleted after commit, and only if it is no
+            // longer shared with other raw documents
+            filePersistService.removeRawDocumentContent(doc);
         });
         session.flush();
     }
@@ -6,6 +6,7 @@ package org.zanata.service.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
@@ -43,6 +44,8 @@ public class ValidationServiceImpl implements ValidationService {
     private static final org.slf4j.Logger log =
             org.slf4j.LoggerFactory.getLogger(ValidationServiceImpl.class);
     private static final long serialVersionUID = 9200677945370459931L;
+    // number of text flows whose targets are loaded with one query
+    private static final int TARGET_BATCH_SIZE = 500;
 
     @Inject
     private ProjectDAO projectDAO;
@@ -190,12 +193,17 @@ public class ValidationServiceImpl implements ValidationService {
 
     private boolean documentHasWarningOrError(HDocument hDoc,
             List<ValidationId> validationIds, LocaleId localeId) {
-        for (HTextFlow textFlow : hDoc.getTextFlows()) {
-            boolean hasError = textFlowTargetHasWarningOrError(textFlow.getId(),
-                    validationIds, localeId);
-            if (hasError) {
-                // return true if error found, else continue
-                return true;
+        for (List<HTextFlow> batch : Lists.partition(hDoc.getTextFlows(),
+                TARGET_BATCH_SIZE)) {
+            Map<Long, HTextFlowTarget> targets =
+                    getTargetsByTextFlowId(batch, localeId);
+            for (HTextFlow textFlow : batch) {
+                boolean hasError = textFlowTargetHasWarningOrError(
+                        targets.get(textFlow.getId()), validationIds);
+                if (hasError) {
+                    // return true if error found, else continue
+                    return true;
+                }
             }
         }
         return false;
@@ -208,11 +216,16 @@ public class ValidationServiceImpl implements ValidationService {
         log.debug("Start filter {} textFlows", textFlows.size());
         Stopwatch stopwatch = Stopwatch.createStarted();
         List<HTextFlow> result = new ArrayList<HTextFlow>();
-        for (HTextFlow textFlow : textFlows) {
-            boolean hasWarningOrError = textFlowTargetHasWarningOrError(
-                    textFlow.getId(), validationIds, localeId);
-            if (hasWarningOrError) {
-                result.add(textFlow);
+        for (List<HTextFlow> batch : Lists.partition(textFlows,
+                TARGET_BATCH_SIZE)) {
+            Map<Long, HTextFlowTarget> targets =
+                    getTargetsByTextFlowId(batch, localeId);
+            for (HTextFlow textFlow : batch) {
+                boolean hasWarningOrError = textFlowTargetHasWarningOrError(
+                        targets.get(textFlow.getId()), validationIds);
+                if (hasWarningOrError) {
+                    result.add(textFlow);
+                }
             }
         }
         log.debug("Finished filter textFlows in {}", stopwatch);
@@ -226,10 +239,29 @@ public class ValidationServiceImpl implements ValidationService {
         return result.subList(startIndex, toIndex);
     }
 
-    private boolean textFlowTargetHasWarningOrError(Long textFlowId,
-            List<ValidationId> validationIds, LocaleId localeId) {
-        HTextFlowTarget target =
-                textFlowTargetDAO.getTextFlowTarget(textFlowId, localeId);
+    /**
+     * Loads the targets of the given text flows with a single query, instead
+     * of one query per text flow.
+     *
+     * @return targets in the locale, keyed by text flow id
+     */
+    private Map<Long, HTextFlowTarget> getTargetsByTextFlowId(
+            List<HTextFlow> textFlows, LocaleId localeId) {
+        List<Long> textFlowIds =
+                Lists.newArrayListWithCapacity(textFlows.size());
+        for (HTextFlow textFlow : textFlows) {
+            textFlowIds.add(textFlow.getId());
+        }
+        Map<Long, HTextFlowTarget> targets = new HashMap<>();
+        for (HTextFlowTarget target : textFlowTargetDAO
+                .findByTextFlowIdList(textFlowIds, localeId)) {
+            targets.put(target.getTextFlow().getId(), target);
+        }
+        return targets;
+    }
+
+    private boolean textFlowTargetHasWarningOrError(HTextFlowTarget target,
+            List<ValidationId> validationIds) {
         if (target != null) {
             for (ValidationId validationId : validationIds) {
                 Boolean value = translationStateCacheImpl
@@ -23,15 +23,14 @@ package org.zanata.servlet;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import javax.persistence.OptimisticLockException;
-import javax.persistence.PersistenceException;
+import java.util.Map;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.ws.rs.core.Response;
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 import org.apache.commons.fileupload.FileItem;
@@ -40,23 +39,21 @@ import org.apache.commons.fileupload.FileUploadException;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.hibernate.StaleStateException;
-import org.hibernate.exception.ConstraintViolationException;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.zanata.common.DocumentType;
 import org.zanata.file.GlobalDocumentId;
+import org.zanata.file.SourceDocumentBatchUpload;
 import org.zanata.file.SourceDocumentUpload;
 import org.zanata.file.UserFileUploadTracker;
 import org.zanata.model.HAccount;
 import org.zanata.rest.DocumentFileUploadForm;
-import org.zanata.rest.dto.ChunkUploadResponse;
 import org.zanata.security.annotations.AuthenticatedLiteral;
 import org.zanata.util.FileUtil;
 import org.zanata.util.ServiceLocator;
-import static com.google.common.base.Strings.emptyToNull;
 
 /**
  * Endpoint for upload dialogs using multi-file upload forms.
@@ -167,7 +164,9 @@ public class MultiFileUploadServlet extends HttpServlet {
      * the upload request.
      *
      * This method is responsible for making sure that a user only has one
-     * active upload at a time.
+     * active upload at a time. The user is de-registered once the response
+     * has been written, while accepted files may still be processing, since
+     * the upload page sends its files one request after another.
      */
     private void registerForUploadAndProcessMultipartPost(
             HttpServletRequest request, HttpServletResponse response)
@@ -286,16 +285,52 @@ public class MultiFileUploadServlet extends HttpServlet {
             return items;
         }
 
+        /**
+         * Checks each file item, then starts parsing and saving the valid
+         * ones in the background, where independent files are processed in
+         * parallel. The upload page polls the status URL of each accepted
+         * file for its outcome.
+         */
         private JSONArray processFilesFromItems(List<FileItem> items) {
             // parameters are required before processing files
             recordParametersFromItems(items);
             JSONArray filesJson = new JSONArray();
+            Map<GlobalDocumentId, DocumentFileUploadForm> accepted =
+                    new LinkedHashMap<>();
+            List<JSONObject> acceptedJson = Lists.newArrayList();
             for (FileItem item : items) {
                 if (!item.isFormField()) {
-                    JSONObject jsono = processFileItem(item);
+                    String docId = FileUtil.generateDocId(path, item.getName());
+                    GlobalDocumentId id =
+                            new GlobalDocumentId(projectSlug, versionSlug, docId);
+                    Optional<String> errorMessage =
+                            checkFileItem(item, id, accepted);
+                    JSONObject jsono = createJSONInfo(item, docId,
+                            errorMessage, Optional.of(
+                                    "Upload accepted, processing in the background."));
+                    if (!errorMessage.isPresent()) {
+                        acceptedJson.add(jsono);
+                    }
                     filesJson.put(jsono);
                 }
             }
+            if (accepted.isEmpty()) {
+                deleteItems(items);
+                return filesJson;
+            }
+            String keyId = ServiceLocator.instance()
+                    .getInstance(SourceDocumentBatchUpload.class)
+                    .startUpload(accepted, () -> deleteItems(items));
+            String statusUrl = request.getContextPath()
+                    + "/rest/process/key?keyId=" + keyId;
+            for (JSONObject jsono : acceptedJson) {
+                try {
+                    jsono.put("processKeyId", keyId);
+                    jsono.put("processStatusUrl", statusUrl);
+                } catch (JSONException e) {
+                    log.error("Error while generating JSON", e);
+                }
+            }
             return filesJson;
         }
 
@@ -324,47 +359,38 @@ public class MultiFileUploadServlet extends HttpServlet {
         }
 
         /**
-         * Process upload of a single file item from a multipart request.
+         * Check whether a single file item from a multipart request can be
+         * uploaded, and if so add its upload form to accepted.
          *
-         * @return JSON summary of outcome of the attempt.
+         * @return the reason the file cannot be uploaded, if any.
          */
 
-        private JSONObject processFileItem(FileItem item) {
-            String docId = FileUtil.generateDocId(path, item.getName());
-            GlobalDocumentId id =
-                    new GlobalDocumentId(projectSlug, versionSlug, docId);
-            Optional<String> errorMessage;
-            Optional<String> successMessage = Optional.absent();
-            Optional<String> concurrentUploadError = Optional
-                    .of("failed: someone else is already uploading this file");
+        private Optional<String> checkFileItem(FileItem item,
+                GlobalDocumentId id,
+                Map<GlobalDocumentId, DocumentFileUploadForm> accepted) {
+            if (accepted.containsKey(id)) {
+                return Optional.of("failed: file is repeated in this upload");
+            }
+            DocumentFileUploadForm form;
             try {
-                DocumentFileUploadForm form = createUploadFormForItem(item);
-                Response response =
-                        sourceUploader.tryUploadSourceFileWithoutHash(id, form);
-                ChunkUploadResponse responseEntity =
-                        (ChunkUploadResponse) response.getEntity();
-                errorMessage = optionalStringEmptyIsAbsent(
-                        responseEntity.getErrorMessage());
-                successMessage = optionalStringEmptyIsAbsent(
-                        responseEntity.getSuccessMessage());
+                form = createUploadFormForItem(item);
             } catch (IOException e) {
-                errorMessage = Optional.of("could not access file data");
-            } catch (OptimisticLockException e) {
-                errorMessage = concurrentUploadError;
-            } catch (StaleStateException e) {
-                // this happens in the same circumstances as
-                // OptimisticLockException
-                // but is thrown because we are using hibernate directly rather
-                // than
-                // through JPA.
-                errorMessage = concurrentUploadError;
-            } catch (ConstraintViolationException e) {
-                errorMessage = concurrentUploadError;
-            } catch (PersistenceException e) {
-                errorMessage = Optional.of(
-                        "Timed out: failed because the file took too long to process");
+                return Optional.of("could not access file data");
+            }
+            Optional<String> errorMessage =
+                    sourceUploader.getSourceUploadErrorWithoutHash(id, form);
+            if (errorMessage.isPresent()) {
+                IOUtils.closeQuietly(form.getFileStream());
+            } else {
+                accepted.put(id, form);
+            }
+            return errorMessage;
+        }
+
+        private static void deleteItems(List<FileItem> items) {
+            for (FileItem item : items) {
+                item.delete();
             }
-            return createJSONInfo(item, docId, errorMessage, successMessage);
         }
 
         /**
@@ -436,14 +462,5 @@ public class MultiFileUploadServlet extends HttpServlet {
             }
             return fileType == null ? extension : fileType.name();
         }
-
-        /**
-         * @return absent if the given String is null or empty, otherwise an
-         *         Option containing the given String.
-         */
-
-        private Optional<String> optionalStringEmptyIsAbsent(String value) {
-            return (Optional.fromNullable(emptyToNull(value)));
-        }
     }
 }
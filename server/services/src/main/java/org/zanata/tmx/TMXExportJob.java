@@ -0,0 +1,370 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.tmx;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+import javax.enterprise.context.Dependent;
+import javax.inject.Inject;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.io.FileUtils;
+import org.zanata.ApplicationConfiguration;
+import org.zanata.async.AsyncTask;
+import org.zanata.async.AsyncTaskHandleManager;
+import org.zanata.async.AsyncTaskManager;
+import org.zanata.async.AsyncTaskResult;
+import org.zanata.async.handle.TMXExportTaskHandle;
+import org.zanata.common.LocaleId;
+import org.zanata.dao.TextFlowStreamingDAO;
+import org.zanata.model.HTextFlow;
+import org.zanata.rest.service.TranslationsTMXExportStrategy;
+import org.zanata.security.ZanataIdentity;
+import org.zanata.service.FileSystemService;
+import org.zanata.util.CloseableIterator;
+import org.zanata.util.ServiceLocator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Range;
+
+/**
+ * Exports the translations of all projects as a gzip-compressed TMX file in
+ * the background.
+ * <p>
+ * The text flows are split into id ranges, and each range is streamed with
+ * its own database cursor, so that no cursor stays open for the whole
+ * export. The ranges are handed out to a small fixed number of async tasks,
+ * so that a large export is done in parallel without taking over the async
+ * thread pool shared with other jobs. Each range is written with StAX to a gzip part file;
+ * the finished file is the gzip header member, the parts in id order and the
+ * footer member, which together decompress to a single TMX document.
+ * <p>
+ * Part files are kept under the document storage directory until the export
+ * has finished, so an export which failed or was interrupted by a restart
+ * only needs to export the remaining ranges when it is started again with
+ * the same locales.
+ */
+@Dependent
+public class TMXExportJob implements Serializable {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(TMXExportJob.class);
+    private static final long serialVersionUID = 1L;
+
+    static final String EXPORT_DIRECTORY = "tmx-export";
+    static final String RANGES_FILE = "ranges.properties";
+    static final long TEXT_FLOWS_PER_RANGE = 20000;
+    static final int EXPORT_WORKERS = 2;
+    private static final String ALL_LOCALES = "allLocales";
+
+    // running exports by job directory, so that an export is not started
+    // twice at the same time
+    private static final Map<String, String> runningExports =
+            new ConcurrentHashMap<>();
+
+    @Inject
+    private AsyncTaskManager asyncTaskManager;
+    @Inject
+    private AsyncTaskHandleManager asyncTaskHandleManager;
+    @Inject
+    private TextFlowStreamingDAO textFlowStreamDAO;
+    @Inject
+    private ApplicationConfiguration appConfig;
+    @Inject
+    private ZanataIdentity identity;
+
+    /**
+     * Starts exporting translations of all projects, or joins an identical
+     * export which is already running.
+     *
+     * @param srcLocale
+     *            source locale of the text flows to export, or null for all
+     * @param locale
+     *            target locale to export, or null for all
+     * @param filename
+     *            download file name, without the gzip extension
+     * @return key id of the task handle, whose download id is set once the
+     *         export has finished
+     */
+    public String startExport(@Nullable LocaleId srcLocale,
+            @Nullable LocaleId locale, String filename) throws IOException {
+        File jobDir = getJobDirectory(srcLocale, locale);
+        String jobKey = jobDir.getAbsolutePath();
+        synchronized (runningExports) {
+            String running = runningExports.get(jobKey);
+            if (running != null) {
+                return running;
+            }
+            List<Range<Long>> ranges = loadOrPlanRanges(jobDir);
+            TMXExportTaskHandle handle =
+                    new TMXExportTaskHandle(ranges.size());
+            handle.setTriggeredBy(identity.getAccountUsername());
+            String keyId = asyncTaskHandleManager.registerTaskHandle(handle);
+            handle.setKeyId(keyId);
+
+            // each worker takes the next range until none are left; the
+            // worker which finishes the last range assembles the file
+            AtomicInteger nextRange = new AtomicInteger();
+            AtomicInteger remaining = new AtomicInteger(ranges.size());
+            List<AsyncTask<Future<String>>> tasks = new ArrayList<>();
+            int workers = Math.min(EXPORT_WORKERS, ranges.size());
+            for (int w = 0; w < workers; w++) {
+                tasks.add(() -> {
+                    List<String> outcomes = new ArrayList<>();
+                    int i;
+                    while ((i = nextRange.getAndIncrement()) < ranges
+                            .size()) {
+                        outcomes.add(exportRange(ranges.get(i),
+                                getPartFile(jobDir, i), srcLocale, locale,
+                                handle));
+                        handle.increaseProgress(1);
+                        if (remaining.decrementAndGet() == 0) {
+                            String downloadId = assemble(jobDir,
+                                    ranges.size(), srcLocale,
+                                    filename + ".gz",
+                                    handle.getTriggeredBy());
+                            handle.setDownloadId(downloadId);
+                            outcomes.add("export finished, download id "
+                                    + downloadId);
+                        }
+                    }
+                    return AsyncTaskResult
+                            .completed(String.join("; ", outcomes));
+                });
+            }
+            runningExports.put(jobKey, keyId);
+            asyncTaskManager.startTasks(handle, tasks)
+                    .whenComplete((outcomes, throwable) -> {
+                        runningExports.remove(jobKey);
+                        if (throwable != null) {
+                            log.warn("TMX export {} failed; finished parts "
+                                    + "are kept for the next attempt",
+                                    keyId, throwable);
+                        }
+                    });
+            log.info("started TMX export {} of {} id ranges with {} workers",
+                    keyId, ranges.size(), workers);
+            return keyId;
+        }
+    }
+
+    private File getJobDirectory(@Nullable LocaleId srcLocale,
+            @Nullable LocaleId locale) {
+        String name = (srcLocale != null ? srcLocale.getId() : ALL_LOCALES)
+                + "-" + (locale != null ? locale.getId() : ALL_LOCALES);
+        return new File(new File(appConfig.getDocumentFileStorageLocation(),
+                EXPORT_DIRECTORY), name);
+    }
+
+    /**
+     * Reads the id ranges of an earlier attempt, so that its part files can
+     * be reused, or else splits the current text flow ids into ranges.
+     */
+    private List<Range<Long>> loadOrPlanRanges(File jobDir)
+            throws IOException {
+        File rangesFile = new File(jobDir, RANGES_FILE);
+        Properties props = new Properties();
+        if (rangesFile.exists()) {
+            try (FileInputStream input = new FileInputStream(rangesFile)) {
+                props.load(input);
+            }
+            log.info("resuming TMX export in {}", jobDir);
+        } else {
+            Optional<Range<Long>> ids = textFlowStreamDAO.getTextFlowIdRange();
+            props.setProperty("firstId",
+                    String.valueOf(ids.map(Range::lowerEndpoint).orElse(0L)));
+            props.setProperty("lastId",
+                    String.valueOf(ids.map(Range::upperEndpoint).orElse(0L)));
+            props.setProperty("rangeSize",
+                    String.valueOf(TEXT_FLOWS_PER_RANGE));
+            if (!jobDir.isDirectory() && !jobDir.mkdirs()) {
+                throw new IOException("unable to create directory " + jobDir);
+            }
+            try (FileOutputStream output = new FileOutputStream(rangesFile)) {
+                props.store(output, "TMX export id ranges");
+            }
+        }
+        return splitIdRange(Long.parseLong(props.getProperty("firstId")),
+                Long.parseLong(props.getProperty("lastId")),
+                Long.parseLong(props.getProperty("rangeSize")));
+    }
+
+    /**
+     * Splits ids into ranges of at most rangeSize ids. The last range is open
+     * ended, so that text flows added since the export was planned are
+     * included.
+     */
+    @VisibleForTesting
+    static List<Range<Long>> splitIdRange(long firstId, long lastId,
+            long rangeSize) {
+        List<Range<Long>> ranges = new ArrayList<>();
+        long start = firstId;
+        while (start + rangeSize <= lastId) {
+            ranges.add(Range.closed(start, start + rangeSize - 1));
+            start += rangeSize;
+        }
+        ranges.add(Range.closed(start, Long.MAX_VALUE));
+        return ranges;
+    }
+
+    private static File getPartFile(File jobDir, int index) {
+        return new File(jobDir, String.format("part-%05d.tmx.gz", index));
+    }
+
+    /**
+     * Runs in an async task thread, which has its own request context.
+     *
+     * @return message describing the outcome for the range
+     */
+    private static String exportRange(Range<Long> range, File part,
+            @Nullable LocaleId srcLocale, @Nullable LocaleId locale,
+            TMXExportTaskHandle handle) throws IOException, XMLStreamException {
+        String rangeName = "ids " + range.lowerEndpoint() + "-"
+                + (range.upperEndpoint() == Long.MAX_VALUE ? ""
+                        : range.upperEndpoint());
+        if (part.exists()) {
+            return rangeName + ": exported by an earlier attempt";
+        }
+        TextFlowStreamingDAO dao = ServiceLocator.instance()
+                .getInstance(TextFlowStreamingDAO.class);
+        TranslationsTMXExportStrategy<HTextFlow> strategy =
+                new TranslationsTMXExportStrategy<>(srcLocale, locale);
+        File tempFile = new File(part.getPath() + ".tmp");
+        int tuCount = 0;
+        try (CloseableIterator<HTextFlow> iter = dao.findTextFlowsInIdRange(
+                Optional.ofNullable(srcLocale), range);
+                OutputStream output = gzip(new FileOutputStream(tempFile))) {
+            XMLStreamWriter writer = XMLOutputFactory.newInstance()
+                    .createXMLStreamWriter(output, "UTF-8");
+            while (iter.hasNext()) {
+                if (handle.isCancelled()) {
+                    throw new CancellationException(
+                            "TMX export cancelled at " + rangeName);
+                }
+                if (strategy.writeTU(writer, iter.next())) {
+                    ++tuCount;
+                }
+            }
+            writer.flush();
+            writer.close();
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            Files.deleteIfExists(tempFile.toPath());
+            throw e;
+        }
+        Files.move(tempFile.toPath(), part.toPath(),
+                StandardCopyOption.ATOMIC_MOVE);
+        return rangeName + ": " + tuCount + " TUs";
+    }
+
+    /**
+     * Concatenates the header, the part files and the footer into a download
+     * file, then removes the job directory.
+     *
+     * @return the download id
+     */
+    private static String assemble(File jobDir, int partCount,
+            @Nullable LocaleId srcLocale, String downloadFileName,
+            String user) throws IOException, XMLStreamException {
+        FileSystemService fileSystemService = ServiceLocator.instance()
+                .getInstance(FileSystemService.class);
+        File downloadFile = fileSystemService.createDownloadStagingFile("gz");
+        // header and footer come from one writer, so that the elements
+        // opened in the header are closed in the footer
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        XMLStreamWriter writer = XMLOutputFactory.newInstance()
+                .createXMLStreamWriter(buffer, "UTF-8");
+        TranslationsTMXExportStrategy<HTextFlow> strategy =
+                new TranslationsTMXExportStrategy<>(srcLocale, null);
+        strategy.writeStart(writer);
+        writer.flush();
+        byte[] header = buffer.toByteArray();
+        buffer.reset();
+        strategy.writeEnd(writer);
+        writer.close();
+        byte[] footer = buffer.toByteArray();
+
+        try (FileChannel output = FileChannel.open(downloadFile.toPath(),
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(output, gzipBytes(header));
+            for (int i = 0; i < partCount; i++) {
+                try (FileChannel part =
+                        FileChannel.open(getPartFile(jobDir, i).toPath())) {
+                    long size = part.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += part.transferTo(position,
+                                size - position, output);
+                    }
+                }
+            }
+            writeFully(output, gzipBytes(footer));
+        }
+        String downloadId = fileSystemService.createDownloadDescriptorFile(
+                downloadFile, downloadFileName, user);
+        FileUtils.deleteDirectory(jobDir);
+        return downloadId;
+    }
+
+    private static OutputStream gzip(OutputStream output) throws IOException {
+        return new GZIPOutputStream(new BufferedOutputStream(output));
+    }
+
+    private static byte[] gzipBytes(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream output = gzip(compressed)) {
+            output.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.websocket.CloseReason;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import org.zanata.webtrans.shared.WorkspaceEventChannel;
+import org.zanata.webtrans.shared.rpc.SessionEventData;
+
+import com.google.gwt.user.client.rpc.SerializationException;
+import com.google.gwt.user.server.rpc.RPC;
+import com.google.gwt.user.server.rpc.SerializationPolicy;
+
+/**
+ * An editor's WebSocket connection for workspace events, the WebSocket
+ * counterpart of a GWTEventService connection.
+ * <p>
+ * Events are sent asynchronously, one at a time. Events published while a
+ * send is in progress are queued; a client which falls more than
+ * {@link #MAX_QUEUED_EVENTS} events behind is disconnected, and will fall
+ * back to long polling.
+ */
+public class EventSocketConnection {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(EventSocketConnection.class);
+    static final int MAX_QUEUED_EVENTS = 500;
+    // GWT RPC responses start with "//OK", which the client does not expect
+    private static final int RPC_RESPONSE_PREFIX_LENGTH = 4;
+    private static final Method EVENT_METHOD;
+
+    static {
+        try {
+            EVENT_METHOD = WorkspaceEventChannel.class.getMethod("nextEvent");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final String connectionId;
+    private final String httpSessionId;
+    private final Session session;
+    private final SerializationPolicy serializationPolicy;
+    private final Deque<String> queue = new ArrayDeque<>();
+    private boolean sending;
+    private volatile Runnable closeListener;
+
+    EventSocketConnection(String connectionId, String httpSessionId,
+            Session session, SerializationPolicy serializationPolicy) {
+        this.connectionId = connectionId;
+        this.httpSessionId = httpSessionId;
+        this.session = session;
+        this.serializationPolicy = serializationPolicy;
+    }
+
+    public String getConnectionId() {
+        return connectionId;
+    }
+
+    public String getHttpSessionId() {
+        return httpSessionId;
+    }
+
+    public SerializationPolicy getSerializationPolicy() {
+        return serializationPolicy;
+    }
+
+    /**
+     * @param closeListener
+     *            run once the connection has been closed, by either side
+     */
+    public void setCloseListener(Runnable closeListener) {
+        this.closeListener = closeListener;
+    }
+
+    /**
+     * Encodes an event for the clients which use the given serialization
+     * policy.
+     *
+     * @return the encoded event, or null if it can not be serialized
+     */
+    public static String encode(SessionEventData eventData,
+            SerializationPolicy serializationPolicy) {
+        try {
+            return RPC.encodeResponseForSuccess(EVENT_METHOD, eventData,
+                    serializationPolicy)
+                    .substring(RPC_RESPONSE_PREFIX_LENGTH);
+        } catch (SerializationException e) {
+            log.error("Unable to serialize event {}", eventData, e);
+            return null;
+        }
+    }
+
+    /**
+     * Sends a message without waiting for the client to receive it.
+     */
+    public void send(String message) {
+        synchronized (this) {
+            if (sending) {
+                if (queue.size() < MAX_QUEUED_EVENTS) {
+                    queue.add(message);
+                    return;
+                }
+                queue.clear();
+            } else {
+                sending = true;
+                session.getAsyncRemote().sendText(message, this::onSent);
+                return;
+            }
+        }
+        log.warn("Closing event socket {}: client is too slow",
+                connectionId);
+        close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER,
+                "too many queued events"));
+    }
+
+    private void onSent(SendResult result) {
+        if (!result.isOK()) {
+            log.debug("Unable to send event on socket {}", connectionId,
+                    result.getException());
+        }
+        String next;
+        synchronized (this) {
+            next = queue.poll();
+            if (next == null) {
+                sending = false;
+                return;
+            }
+        }
+        session.getAsyncRemote().sendText(next, this::onSent);
+    }
+
+    void close(CloseReason reason) {
+        try {
+            session.close(reason);
+        } catch (IOException e) {
+            log.debug("Error closing event socket {}", connectionId, e);
+        }
+    }
+
+    void onClosed() {
+        Runnable listener = closeListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+import javax.enterprise.context.ApplicationScoped;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpSession;
+import javax.websocket.Session;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gwt.user.server.rpc.SerializationPolicy;
+import com.google.gwt.user.server.rpc.SerializationPolicyLoader;
+
+/**
+ * Open WebSocket connections for workspace events, by connection id, and the
+ * GWT serialization policies their clients were compiled with.
+ *
+ * @see WorkspaceEventEndpoint
+ */
+@ApplicationScoped
+public class EventSocketConnections {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(EventSocketConnections.class);
+    // where the compiled GWT module (and its serialization policies) lives
+    static final String MODULE_BASE_PATH = "/webtrans/";
+    private static final Pattern POLICY_NAME = Pattern.compile("[0-9A-F]{32}");
+
+    private final Map<String, EventSocketConnection> connections =
+            new ConcurrentHashMap<>();
+    private final Map<String, SerializationPolicy> policies =
+            new ConcurrentHashMap<>();
+    // one-time tokens for opening a socket, issued within the last minute
+    private final Cache<String, SocketToken> tokens = CacheBuilder
+            .newBuilder().expireAfterWrite(1, TimeUnit.MINUTES).build();
+
+    /**
+     * @return a new one-time token which lets a handshake made within the
+     *         given HTTP session open a socket
+     */
+    public String issueToken(String httpSessionId) {
+        String token = UUID.randomUUID().toString();
+        tokens.put(token, new SocketToken(httpSessionId));
+        return token;
+    }
+
+    /**
+     * Accepts a token for the HTTP session of a handshake, if that is the
+     * session the token was issued to.
+     */
+    void onHandshake(String token, HttpSession httpSession) {
+        SocketToken socketToken = tokens.getIfPresent(token);
+        if (socketToken != null
+                && socketToken.httpSessionId.equals(httpSession.getId())) {
+            socketToken.servletContext = httpSession.getServletContext();
+        }
+    }
+
+    /**
+     * Uses up a token.
+     *
+     * @return the token, or null if it is unknown, expired, already used, or
+     *         was not accepted by a handshake
+     */
+    @Nullable
+    SocketToken redeemToken(String token) {
+        SocketToken socketToken = tokens.getIfPresent(token);
+        // only one caller can remove the token
+        if (socketToken == null
+                || !tokens.asMap().remove(token, socketToken)) {
+            return null;
+        }
+        return socketToken.servletContext != null ? socketToken : null;
+    }
+
+    EventSocketConnection register(Session session, String httpSessionId,
+            SerializationPolicy serializationPolicy) {
+        EventSocketConnection connection =
+                new EventSocketConnection(UUID.randomUUID().toString(),
+                        httpSessionId, session, serializationPolicy);
+        connections.put(connection.getConnectionId(), connection);
+        return connection;
+    }
+
+    public Optional<EventSocketConnection> find(String connectionId) {
+        return Optional.ofNullable(connections.get(connectionId));
+    }
+
+    void remove(String connectionId) {
+        EventSocketConnection connection = connections.remove(connectionId);
+        if (connection != null) {
+            connection.onClosed();
+        }
+    }
+
+    /**
+     * @param policyName
+     *            strong name of the serialization policy, as reported by the
+     *            client
+     * @return the policy, or null if there is no such policy
+     */
+    SerializationPolicy getSerializationPolicy(ServletContext servletContext,
+            String policyName) {
+        if (policyName == null || !POLICY_NAME.matcher(policyName).matches()) {
+            return null;
+        }
+        SerializationPolicy policy = policies.get(policyName);
+        if (policy == null) {
+            policy = loadSerializationPolicy(servletContext, policyName);
+            if (policy != null) {
+                policies.put(policyName, policy);
+            }
+        }
+        return policy;
+    }
+
+    private static SerializationPolicy loadSerializationPolicy(
+            ServletContext servletContext, String policyName) {
+        String path = SerializationPolicyLoader.getSerializationPolicyFileName(
+                MODULE_BASE_PATH + policyName);
+        try (InputStream in = servletContext.getResourceAsStream(path)) {
+            if (in == null) {
+                log.warn("Serialization policy {} not found", path);
+                return null;
+            }
+            return SerializationPolicyLoader.loadFromStream(in, null);
+        } catch (IOException | ParseException e) {
+            log.error("Unable to load serialization policy {}", path, e);
+            return null;
+        }
+    }
+
+    static final class SocketToken {
+        final String httpSessionId;
+        // set once a handshake in the right HTTP session presents the token
+        volatile ServletContext servletContext;
+
+        private SocketToken(String httpSessionId) {
+            this.httpSessionId = httpSessionId;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.zanata.webtrans.shared.auth.EditorClientId;
+import org.zanata.webtrans.shared.model.DocumentId;
+import org.zanata.webtrans.shared.model.TransUnitId;
+import org.zanata.webtrans.shared.model.TransUnitUpdateInfo;
+import org.zanata.webtrans.shared.rpc.SessionEventData;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdated;
+import org.zanata.webtrans.shared.rpc.TransUnitsBulkUpdated;
+
+/**
+ * Collects the TransUnitUpdated events of a workspace for a short window
+ * before passing them on, so that clients receive one event per text flow
+ * rather than one per save.
+ * <p>
+ * Several updates of the same text flow within the window are merged into
+ * one, keeping the previous state of the first update (which the clients'
+ * statistics are based on) and the text flow of the last one. If more than
+ * {@link #BULK_THRESHOLD} text flows change within the window, the pending
+ * updates are replaced by a count per document and a single
+ * {@link TransUnitsBulkUpdated} is sent for each document instead. This also
+ * bounds the memory held for a workspace, however fast updates arrive.
+ * <p>
+ * Other events are passed on immediately, after any pending updates, so
+ * clients see events in the order they were published.
+ */
+class TransUnitUpdateCoalescer {
+    static final long WINDOW_MILLIS = 250;
+    static final int BULK_THRESHOLD = 100;
+
+    private final Consumer<SessionEventData> sink;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final int bulkThreshold;
+
+    private final Map<TransUnitId, TransUnitUpdated> pendingUpdates =
+            new LinkedHashMap<>();
+    private final Map<DocumentId, Integer> bulkUpdateCounts =
+            new LinkedHashMap<>();
+    private EditorClientId lastEditorClientId;
+    private boolean flushScheduled;
+
+    TransUnitUpdateCoalescer(Consumer<SessionEventData> sink,
+            ScheduledExecutorService scheduler) {
+        this(sink, scheduler, WINDOW_MILLIS, BULK_THRESHOLD);
+    }
+
+    TransUnitUpdateCoalescer(Consumer<SessionEventData> sink,
+            ScheduledExecutorService scheduler, long windowMillis,
+            int bulkThreshold) {
+        this.sink = sink;
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.bulkThreshold = bulkThreshold;
+    }
+
+    synchronized void publish(SessionEventData eventData) {
+        if (!(eventData instanceof TransUnitUpdated)) {
+            flush();
+            sink.accept(eventData);
+            return;
+        }
+        TransUnitUpdated updated = (TransUnitUpdated) eventData;
+        TransUnitUpdateInfo updateInfo = updated.getUpdateInfo();
+        lastEditorClientId = updated.getEditorClientId();
+        if (!bulkUpdateCounts.isEmpty()) {
+            countBulkUpdate(updateInfo.getDocumentId());
+        } else {
+            TransUnitId id = updateInfo.getTransUnit().getId();
+            TransUnitUpdated previous = pendingUpdates.get(id);
+            if (previous == null) {
+                pendingUpdates.put(id, updated);
+            } else if (canMerge(previous, updated)) {
+                pendingUpdates.put(id, merge(previous, updated));
+            } else {
+                flush();
+                pendingUpdates.put(id, updated);
+            }
+            if (pendingUpdates.size() > bulkThreshold) {
+                switchToBulk();
+            }
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Sends all pending updates now.
+     */
+    synchronized void flush() {
+        flushScheduled = false;
+        pendingUpdates.values().forEach(sink);
+        bulkUpdateCounts.forEach((docId, count) -> sink
+                .accept(new TransUnitsBulkUpdated(docId, count,
+                        lastEditorClientId)));
+        pendingUpdates.clear();
+        bulkUpdateCounts.clear();
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            scheduler.schedule(this::flush, windowMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void switchToBulk() {
+        for (TransUnitUpdated pending : pendingUpdates.values()) {
+            countBulkUpdate(pending.getUpdateInfo().getDocumentId());
+        }
+        pendingUpdates.clear();
+    }
+
+    private void countBulkUpdate(DocumentId documentId) {
+        bulkUpdateCounts.merge(documentId, 1, Integer::sum);
+    }
+
+    private static boolean canMerge(TransUnitUpdated previous,
+            TransUnitUpdated next) {
+        return previous.getUpdateType() == next.getUpdateType()
+                && Objects.equals(previous.getEditorClientId(),
+                        next.getEditorClientId());
+    }
+
+    private static TransUnitUpdated merge(TransUnitUpdated previous,
+            TransUnitUpdated next) {
+        TransUnitUpdateInfo first = previous.getUpdateInfo();
+        TransUnitUpdateInfo last = next.getUpdateInfo();
+        TransUnitUpdateInfo merged = new TransUnitUpdateInfo(last.isSuccess(),
+                first.isTargetChanged() || last.isTargetChanged(),
+                last.getDocumentId(), last.getTransUnit(),
+                last.getSourceWordCount(), first.getPreviousVersionNum(),
+                first.getPreviousState(), last.getErrorMessage());
+        return new TransUnitUpdated(merged, next.getEditorClientId(),
+                next.getUpdateType());
+    }
+}
@@ -57,4 +57,10 @@ public interface TranslationWorkspace {
 
     void onEventServiceConnected(EditorClientId editorClientId,
             String connectionId);
+
+    /**
+     * Subscribes an editor's WebSocket connection to this workspace's events.
+     */
+    void onEventSocketConnected(EditorClientId editorClientId,
+            EventSocketConnection connection);
 }
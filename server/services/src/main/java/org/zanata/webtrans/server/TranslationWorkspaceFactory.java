@@ -31,8 +31,14 @@ import org.zanata.webtrans.shared.NoSuchWorkspaceException;
 import org.zanata.webtrans.shared.model.WorkspaceContext;
 import org.zanata.webtrans.shared.model.WorkspaceId;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.Serializable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * @author Carlos Munoz <a href="mailto:camunoz@redhat.com">camunoz@redhat.com</a>
@@ -42,6 +48,13 @@ public class TranslationWorkspaceFactory implements Serializable {
     private static final long serialVersionUID = 1046141105089444565L;
     private final ProjectIterationDAO projectIterationDAO;
     private final LocaleService localeServiceImpl;
+    // sends the coalesced TransUnitUpdated events of all workspaces
+    @SuppressFBWarnings(value = "SE_BAD_FIELD")
+    private final ScheduledExecutorService eventFlusher =
+            Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("workspace-event-flusher")
+                            .setDaemon(true).build());
 
     @Inject
     public TranslationWorkspaceFactory(
@@ -99,7 +112,12 @@ public class TranslationWorkspaceFactory implements Serializable {
             throws NoSuchWorkspaceException {
         WorkspaceContext workspaceContext =
                 validateAndGetWorkspaceContext(workspaceId);
-        return new TranslationWorkspaceImpl(workspaceContext);
+        return new TranslationWorkspaceImpl(workspaceContext, eventFlusher);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        eventFlusher.shutdownNow();
     }
 
 }
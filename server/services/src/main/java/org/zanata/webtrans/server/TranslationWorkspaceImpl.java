@@ -2,8 +2,12 @@ package org.zanata.webtrans.server;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.websocket.CloseReason;
 import org.zanata.webtrans.shared.auth.EditorClientId;
 import org.zanata.webtrans.shared.model.Person;
 import org.zanata.webtrans.shared.model.PersonId;
@@ -19,6 +23,7 @@ import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.gwt.user.server.rpc.SerializationPolicy;
 import de.novanic.eventservice.client.event.domain.Domain;
 import de.novanic.eventservice.client.event.domain.DomainFactory;
 import de.novanic.eventservice.service.EventExecutorService;
@@ -38,6 +43,9 @@ public class TranslationWorkspaceImpl implements TranslationWorkspace {
     private final Multimap<String, EditorClientId> httpSessionToEditorClientId;
     private final Map<String, EditorClientId> connectionIdToEditorClientId;
     private final EventExecutorService eventExecutorService;
+    private final TransUnitUpdateCoalescer updateCoalescer;
+    private final Map<EditorClientId, EventSocketConnection> eventSockets =
+            new ConcurrentHashMap<>();
     {
         ArrayListMultimap<String, EditorClientId> almm =
                 ArrayListMultimap.create();
@@ -46,7 +54,13 @@ public class TranslationWorkspaceImpl implements TranslationWorkspace {
         connectionIdToEditorClientId = Collections.synchronizedMap(connMap);
     }
 
-    public TranslationWorkspaceImpl(WorkspaceContext workspaceContext) {
+    /**
+     * @param eventFlusher
+     *            sends the coalesced TransUnitUpdated events; shared by all
+     *            workspaces and shut down by its owner
+     */
+    public TranslationWorkspaceImpl(WorkspaceContext workspaceContext,
+            ScheduledExecutorService eventFlusher) {
         Preconditions.checkNotNull(workspaceContext,
                 "workspaceContext is null");
         this.workspaceContext = workspaceContext;
@@ -56,6 +70,11 @@ public class TranslationWorkspaceImpl implements TranslationWorkspace {
                 EventExecutorServiceFactory.getInstance();
         this.eventExecutorService =
                 factory.getEventExecutorService(workspaceId);
+        this.updateCoalescer = new TransUnitUpdateCoalescer(
+                event -> {
+                    eventExecutorService.addEvent(domain, event);
+                    sendToEventSockets(event);
+                }, eventFlusher);
         UserManager userManager =
                 UserManagerFactory.getInstance().getUserManager();
         // this will notify us of all user timeouts (whether part of this
@@ -111,6 +130,35 @@ public class TranslationWorkspaceImpl implements TranslationWorkspace {
         connectionIdToEditorClientId.put(connectionId, editorClientId);
     }
 
+    @Override
+    public void onEventSocketConnected(final EditorClientId editorClientId,
+            EventSocketConnection connection) {
+        log.info("EditorClientId {} has event socket {}", editorClientId,
+                connection.getConnectionId());
+        eventSockets.put(editorClientId, connection);
+        // The client falls back to long polling when its socket closes, so
+        // the editor client stays in the workspace until it exits or its
+        // HTTP session ends.
+        connection.setCloseListener(
+                () -> eventSockets.remove(editorClientId, connection));
+    }
+
+    private void sendToEventSockets(SessionEventData eventData) {
+        if (eventSockets.isEmpty()) {
+            return;
+        }
+        // encode once for all clients compiled with the same policy
+        Map<SerializationPolicy, String> encoded = new IdentityHashMap<>();
+        for (EventSocketConnection socket : eventSockets.values()) {
+            String message = encoded.computeIfAbsent(
+                    socket.getSerializationPolicy(),
+                    policy -> EventSocketConnection.encode(eventData, policy));
+            if (message != null) {
+                socket.send(message);
+            }
+        }
+    }
+
     @Override
     public Collection<EditorClientId>
             removeEditorClients(String httpSessionId) {
@@ -124,6 +172,12 @@ public class TranslationWorkspaceImpl implements TranslationWorkspace {
 
     @Override
     public boolean removeEditorClient(EditorClientId editorClientId) {
+        EventSocketConnection socket = eventSockets.remove(editorClientId);
+        if (socket != null) {
+            socket.close(new CloseReason(
+                    CloseReason.CloseCodes.NORMAL_CLOSURE,
+                    "editor client left the workspace"));
+        }
         PersonSessionDetails details = sessions.remove(editorClientId);
         if (details != null) {
             String httpSessionId = editorClientId.getHttpSessionId();
@@ -156,7 +210,7 @@ public class TranslationWorkspaceImpl implements TranslationWorkspace {
 
     @Override
     public <T extends SessionEventData> void publish(T eventData) {
-        eventExecutorService.addEvent(domain, eventData);
+        updateCoalescer.publish(eventData);
     }
 
     @Override
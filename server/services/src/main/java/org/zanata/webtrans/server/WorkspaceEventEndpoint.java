@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpSession;
+import javax.websocket.CloseReason;
+import javax.websocket.HandshakeResponse;
+import javax.websocket.OnClose;
+import javax.websocket.OnError;
+import javax.websocket.OnOpen;
+import javax.websocket.Session;
+import javax.websocket.server.HandshakeRequest;
+import javax.websocket.server.ServerEndpoint;
+import javax.websocket.server.ServerEndpointConfig;
+
+import org.zanata.util.ServiceLocator;
+
+import com.google.gwt.user.server.rpc.SerializationPolicy;
+
+/**
+ * WebSocket endpoint which pushes workspace events to the editor, as an
+ * alternative to GWTEventService long polling. An idle connection does not
+ * hold a request thread.
+ * <p>
+ * The handshake carries a one-time "token" parameter, which the editor gets
+ * with GetEventSocketTokenAction. The socket is only accepted if the
+ * handshake was made within the HTTP session the token was issued to.
+ * <p>
+ * The first message sent on a new connection is its connection id. As with
+ * GWTEventService, the client reports it with EventServiceConnectedAction,
+ * which subscribes the connection to the client's workspace. Every other
+ * message is a workspace event, encoded with the serialization policy named
+ * by the "policy" parameter.
+ *
+ * @see org.zanata.webtrans.server.rpc.EventServiceConnectedHandler
+ */
+@ServerEndpoint(value = "/webtrans/events",
+        configurator = WorkspaceEventEndpoint.HttpSessionConfigurator.class)
+public class WorkspaceEventEndpoint {
+    private static final org.slf4j.Logger log =
+            org.slf4j.LoggerFactory.getLogger(WorkspaceEventEndpoint.class);
+    static final String POLICY_PARAM = "policy";
+    static final String TOKEN_PARAM = "token";
+    private static final String CONNECTION_ID = "zanata.connectionId";
+
+    @OnOpen
+    public void onOpen(Session session) throws IOException {
+        String token = getParameter(session, TOKEN_PARAM);
+        String policyName = getParameter(session, POLICY_PARAM);
+        EventSocketConnections.SocketToken socketToken =
+                token == null ? null : connections().redeemToken(token);
+        SerializationPolicy policy = null;
+        if (socketToken != null && policyName != null) {
+            policy = connections().getSerializationPolicy(
+                    socketToken.servletContext, policyName);
+        }
+        if (policy == null) {
+            session.close(new CloseReason(
+                    CloseReason.CloseCodes.CANNOT_ACCEPT,
+                    "no http session or unknown serialization policy"));
+            return;
+        }
+        EventSocketConnection connection = connections()
+                .register(session, socketToken.httpSessionId, policy);
+        session.getUserProperties().put(CONNECTION_ID,
+                connection.getConnectionId());
+        connection.send(connection.getConnectionId());
+    }
+
+    @OnClose
+    public void onClose(Session session) {
+        String connectionId =
+                (String) session.getUserProperties().get(CONNECTION_ID);
+        if (connectionId != null) {
+            log.debug("event socket {} closed", connectionId);
+            connections().remove(connectionId);
+        }
+    }
+
+    @OnError
+    public void onError(Session session, Throwable e) {
+        log.debug("event socket error", e);
+    }
+
+    @Nullable
+    private static String getParameter(Session session, String name) {
+        List<String> values = session.getRequestParameterMap().get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static EventSocketConnections connections() {
+        return ServiceLocator.instance()
+                .getInstance(EventSocketConnections.class);
+    }
+
+    /**
+     * Accepts the token of each handshake for the handshake's HTTP session.
+     * The endpoint config is shared by all connections, so it is not used to
+     * pass the session on.
+     */
+    public static class HttpSessionConfigurator
+            extends ServerEndpointConfig.Configurator {
+        @Override
+        public void modifyHandshake(ServerEndpointConfig config,
+                HandshakeRequest request, HandshakeResponse response) {
+            HttpSession httpSession = (HttpSession) request.getHttpSession();
+            List<String> tokens = request.getParameterMap().get(TOKEN_PARAM);
+            if (httpSession != null && tokens != null && tokens.size() == 1) {
+                connections().onHandshake(tokens.get(0), httpSession);
+            }
+        }
+    }
+}
@@ -3,11 +3,15 @@ package org.zanata.webtrans.server.rpc;
 import net.customware.gwt.dispatch.server.ExecutionContext;
 import net.customware.gwt.dispatch.shared.ActionException;
 
+import java.util.Optional;
+
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.zanata.security.ZanataIdentity;
 import org.zanata.webtrans.server.ActionHandlerFor;
+import org.zanata.webtrans.server.EventSocketConnection;
+import org.zanata.webtrans.server.EventSocketConnections;
 import org.zanata.webtrans.server.TranslationWorkspace;
 import org.zanata.webtrans.server.TranslationWorkspaceManager;
 import org.zanata.webtrans.shared.rpc.EventServiceConnectedAction;
@@ -24,6 +28,9 @@ public class EventServiceConnectedHandler extends
     @Inject
     private TranslationWorkspaceManager translationWorkspaceManager;
 
+    @Inject
+    private EventSocketConnections eventSocketConnections;
+
     @Override
     public NoOpResult execute(EventServiceConnectedAction action,
             ExecutionContext context) throws ActionException {
@@ -31,8 +38,20 @@ public class EventServiceConnectedHandler extends
         TranslationWorkspace workspace =
                 translationWorkspaceManager.getOrRegisterWorkspace(action
                         .getWorkspaceId());
-        workspace.onEventServiceConnected(action.getEditorClientId(),
-                action.getConnectionId());
+        Optional<EventSocketConnection> socket =
+                eventSocketConnections.find(action.getConnectionId());
+        if (socket.isPresent()) {
+            if (!socket.get().getHttpSessionId().equals(
+                    action.getEditorClientId().getHttpSessionId())) {
+                throw new ActionException(
+                        "Event socket belongs to another session");
+            }
+            workspace.onEventSocketConnected(action.getEditorClientId(),
+                    socket.get());
+        } else {
+            workspace.onEventServiceConnected(action.getEditorClientId(),
+                    action.getConnectionId());
+        }
         return new NoOpResult();
     }
 
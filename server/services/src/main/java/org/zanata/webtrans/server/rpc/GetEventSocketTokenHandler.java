@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server.rpc;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.servlet.http.HttpSession;
+
+import net.customware.gwt.dispatch.server.ExecutionContext;
+import net.customware.gwt.dispatch.shared.ActionException;
+
+import org.apache.deltaspike.core.api.common.DeltaSpike;
+import org.zanata.security.ZanataIdentity;
+import org.zanata.webtrans.server.ActionHandlerFor;
+import org.zanata.webtrans.server.EventSocketConnections;
+import org.zanata.webtrans.shared.rpc.GetEventSocketTokenAction;
+import org.zanata.webtrans.shared.rpc.GetEventSocketTokenResult;
+
+@Named("webtrans.gwt.GetEventSocketTokenHandler")
+@RequestScoped
+@ActionHandlerFor(GetEventSocketTokenAction.class)
+public class GetEventSocketTokenHandler extends
+        AbstractActionHandler<GetEventSocketTokenAction, GetEventSocketTokenResult> {
+    @Inject
+    private ZanataIdentity identity;
+
+    @Inject
+    private EventSocketConnections eventSocketConnections;
+
+    @Inject
+    @DeltaSpike
+    private HttpSession session;
+
+    @Override
+    public GetEventSocketTokenResult execute(GetEventSocketTokenAction action,
+            ExecutionContext context) throws ActionException {
+        identity.checkLoggedIn();
+        return new GetEventSocketTokenResult(
+                eventSocketConnections.issueToken(session.getId()));
+    }
+
+    @Override
+    public void rollback(GetEventSocketTokenAction action,
+            GetEventSocketTokenResult result, ExecutionContext context)
+            throws ActionException {
+    }
+}
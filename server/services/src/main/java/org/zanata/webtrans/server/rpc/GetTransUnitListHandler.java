@@ -21,6 +21,7 @@
 package org.zanata.webtrans.server.rpc;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import net.customware.gwt.dispatch.server.ExecutionContext;
@@ -29,9 +30,12 @@ import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.zanata.dao.TextFlowDAO;
+import org.zanata.dao.TextFlowTargetDAO;
+import org.zanata.dao.TextFlowTargetReviewCommentsDAO;
 import org.zanata.exception.ZanataServiceException;
 import org.zanata.model.HLocale;
 import org.zanata.model.HTextFlow;
+import org.zanata.model.HTextFlowTarget;
 import org.zanata.webtrans.shared.search.FilterConstraints;
 import org.zanata.security.ZanataIdentity;
 import org.zanata.service.LocaleService;
@@ -45,9 +49,7 @@ import org.zanata.webtrans.shared.rpc.GetTransUnitListResult;
 import org.zanata.webtrans.shared.rpc.GetTransUnitsNavigation;
 import org.zanata.webtrans.shared.rpc.GetTransUnitsNavigationResult;
 import org.zanata.webtrans.shared.util.FindByTransUnitIdPredicate;
-import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
 
 @Named("webtrans.gwt.GetTransUnitListHandler")
 @RequestScoped
@@ -62,6 +64,10 @@ public class GetTransUnitListHandler extends
     @Inject
     private TextFlowDAO textFlowDAO;
     @Inject
+    private TextFlowTargetDAO textFlowTargetDAO;
+    @Inject
+    private TextFlowTargetReviewCommentsDAO textFlowTargetReviewCommentsDAO;
+    @Inject
     private LocaleService localeServiceImpl;
     @Inject
     private ZanataIdentity identity;
@@ -204,10 +210,19 @@ public class GetTransUnitListHandler extends
     private GetTransUnitListResult transformToTransUnits(
             GetTransUnitList action, HLocale hLocale, List<HTextFlow> textFlows,
             int targetOffset, int targetPage) {
-        List<TransUnit> units = textFlows.stream()
-                .map(new HTextFlowToTransUnitFunction(
-                        hLocale, transUnitTransformer))
+        // load everything shown for the page with a fixed number of queries,
+        // rather than lazily for each text flow
+        List<Long> textFlowIds = textFlows.stream().map(HTextFlow::getId)
                 .collect(Collectors.toList());
+        textFlowDAO.loadCommentsAndPotEntryData(textFlowIds);
+        Map<Long, HTextFlowTarget> targets =
+                textFlowTargetDAO.getTargetsWithDetails(textFlowIds, hLocale);
+        Map<Long, Long> reviewCommentCounts = textFlowTargetReviewCommentsDAO
+                .getCommentCountsByTargetIds(targets.values().stream()
+                        .map(HTextFlowTarget::getId)
+                        .collect(Collectors.toList()));
+        List<TransUnit> units = transUnitTransformer.transform(textFlows,
+                targets, reviewCommentCounts, hLocale);
         int gotoRow = 0;
         if (action.getTargetTransUnitId() != null) {
             int row = Iterables.indexOf(units, new FindByTransUnitIdPredicate(
@@ -224,21 +239,4 @@ public class GetTransUnitListHandler extends
     public void rollback(GetTransUnitList action, GetTransUnitListResult result,
             ExecutionContext context) throws ActionException {
     }
-
-    private static class HTextFlowToTransUnitFunction
-            implements Function<HTextFlow, TransUnit> {
-        private final HLocale hLocale;
-        private final TransUnitTransformer transformer;
-
-        public HTextFlowToTransUnitFunction(HLocale hLocale,
-                TransUnitTransformer transformer) {
-            this.hLocale = hLocale;
-            this.transformer = transformer;
-        }
-
-        @Override
-        public TransUnit apply(HTextFlow input) {
-            return transformer.transform(input, hLocale);
-        }
-    }
 }
@@ -21,6 +21,9 @@
 package org.zanata.webtrans.server.rpc;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -53,6 +56,44 @@ public class TransUnitTransformer {
 
     public TransUnit transform(HTextFlow hTextFlow, HTextFlowTarget target,
             HLocale hLocale) {
+        int nPlurals =
+                resourceUtils.getNumPlurals(hTextFlow.getDocument(), hLocale);
+        return transform(hTextFlow, target, hLocale, nPlurals,
+                getCommentCount(target));
+    }
+
+    /**
+     * Transforms a list of text flows whose targets and review comment counts
+     * have already been loaded in bulk, eg by GetTransUnitListHandler, so that
+     * no query is needed per text flow.
+     *
+     * @param targets
+     *            targets in hLocale, by text flow id
+     * @param reviewCommentCounts
+     *            review comment counts, by target id
+     */
+    public List<TransUnit> transform(List<HTextFlow> textFlows,
+            Map<Long, HTextFlowTarget> targets,
+            Map<Long, Long> reviewCommentCounts, HLocale hLocale) {
+        Map<Long, Integer> nPluralsByDocId = new HashMap<>();
+        List<TransUnit> units = new ArrayList<>(textFlows.size());
+        for (HTextFlow hTextFlow : textFlows) {
+            HTextFlowTarget target = targets.get(hTextFlow.getId());
+            int nPlurals = nPluralsByDocId.computeIfAbsent(
+                    hTextFlow.getDocument().getId(),
+                    docId -> resourceUtils.getNumPlurals(
+                            hTextFlow.getDocument(), hLocale));
+            int commentCount = target == null ? 0
+                    : reviewCommentCounts.getOrDefault(target.getId(), 0L)
+                            .intValue();
+            units.add(transform(hTextFlow, target, hLocale, nPlurals,
+                    commentCount));
+        }
+        return units;
+    }
+
+    private TransUnit transform(HTextFlow hTextFlow, HTextFlowTarget target,
+            HLocale hLocale, int nPlurals, int commentCount) {
         HPotEntryData potEntryData = hTextFlow.getPotEntryData();
         String msgContext = null;
         String refs = null;
@@ -62,8 +103,6 @@ public class TransUnitTransformer {
             refs = potEntryData.getReferences();
             flags = potEntryData.getFlags();
         }
-        int nPlurals =
-                resourceUtils.getNumPlurals(hTextFlow.getDocument(), hLocale);
         ArrayList<String> sourceContents =
                 GwtRpcUtil.getSourceContents(hTextFlow);
         ArrayList<String> targetContents = GwtRpcUtil
@@ -80,7 +119,7 @@ public class TransUnitTransformer {
                 .setSourceFlags(flags).setRowIndex(hTextFlow.getPos())
                 .setVerNum(target == null ? NULL_TARGET_VERSION_NUM
                         : target.getVersionNum())
-                .setCommentsCount(getCommentCount(target));
+                .setCommentsCount(commentCount);
         if (target != null) {
             builder.setStatus(target.getState());
             if (target.getLastModifiedBy() != null
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.zanata.cache.CacheRegionStats.UNAVAILABLE;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.manager.DefaultCacheManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CacheStatisticsServiceTest {
+    private static final String REGION = "org.zanata.model.HProject";
+
+    private DefaultCacheManager cacheManager;
+    private Statistics statistics;
+    private CacheStatisticsService service;
+
+    @Before
+    public void setUp() {
+        cacheManager = new DefaultCacheManager(new GlobalConfigurationBuilder()
+                .globalJmxStatistics().allowDuplicateDomains(true).build());
+        statistics = mock(Statistics.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        service = new CacheStatisticsService(cacheManager, sessionFactory);
+    }
+
+    @After
+    public void tearDown() {
+        cacheManager.stop();
+    }
+
+    @Test
+    public void zanataCacheStatsIncludeCountersAndSettings() {
+        cacheManager.defineConfiguration("test-cache",
+                new ConfigurationBuilder().jmxStatistics().enable()
+                        .eviction().strategy(EvictionStrategy.LRU)
+                        .maxEntries(100).expiration().lifespan(60000)
+                        .maxIdle(30000).build());
+        Cache<String, String> cache = cacheManager.getCache("test-cache");
+        cache.put("key", "value");
+        cache.get("key");
+        cache.get("missing");
+
+        List<CacheRegionStats> stats = service.getZanataCacheStats();
+
+        assertThat(stats).extracting(CacheRegionStats::getName)
+                .containsExactly("test-cache");
+        CacheRegionStats cacheStats = stats.get(0);
+        assertThat(cacheStats.getHits()).isEqualTo(1);
+        assertThat(cacheStats.getMisses()).isEqualTo(1);
+        assertThat(cacheStats.getPuts()).isEqualTo(1);
+        assertThat(cacheStats.getEntries()).isEqualTo(1);
+        assertThat(cacheStats.getEvictionStrategy()).isEqualTo("LRU");
+        assertThat(cacheStats.getMaxEntries()).isEqualTo(100);
+        assertThat(cacheStats.getLifespan()).isEqualTo(60000);
+        assertThat(cacheStats.getMaxIdle()).isEqualTo(30000);
+    }
+
+    @Test
+    public void zanataCacheCountersAreUnavailableWithoutCacheStatistics() {
+        cacheManager.defineConfiguration("test-cache",
+                new ConfigurationBuilder().build());
+        cacheManager.getCache("test-cache").put("key", "value");
+
+        CacheRegionStats cacheStats = service.getZanataCacheStats().get(0);
+
+        assertThat(cacheStats.getHits()).isEqualTo(UNAVAILABLE);
+        assertThat(cacheStats.getPuts()).isEqualTo(UNAVAILABLE);
+        assertThat(cacheStats.getEntries()).isEqualTo(UNAVAILABLE);
+    }
+
+    @Test
+    public void hibernateRegionStatsIncludeCountersWhenEnabled() {
+        givenHibernateRegion(true);
+
+        List<CacheRegionStats> stats = service.getHibernateRegionStats();
+
+        assertThat(stats).hasSize(1);
+        CacheRegionStats regionStats = stats.get(0);
+        assertThat(regionStats.getName()).isEqualTo(REGION);
+        assertThat(regionStats.getHits()).isEqualTo(3);
+        assertThat(regionStats.getMisses()).isEqualTo(1);
+        assertThat(regionStats.getPuts()).isEqualTo(2);
+        assertThat(regionStats.getEntries()).isEqualTo(2);
+        assertThat(regionStats.getSizeInMemory()).isEqualTo(512);
+        // no "hibernate" cache container in JNDI outside the app server
+        assertThat(regionStats.getEvictionStrategy()).isNull();
+        assertThat(regionStats.getMaxEntries()).isEqualTo(UNAVAILABLE);
+    }
+
+    @Test
+    public void hibernateRegionCountersAreUnavailableWhenDisabled() {
+        givenHibernateRegion(false);
+
+        CacheRegionStats regionStats = service.getHibernateRegionStats().get(0);
+
+        assertThat(regionStats.getHits()).isEqualTo(UNAVAILABLE);
+        assertThat(regionStats.getMisses()).isEqualTo(UNAVAILABLE);
+        assertThat(regionStats.getPuts()).isEqualTo(UNAVAILABLE);
+        assertThat(regionStats.getEntries()).isEqualTo(2);
+    }
+
+    @Test
+    public void queryCacheTotalsAreSummedByHibernate() {
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getQueryCacheHitCount()).thenReturn(10L);
+        when(statistics.getQueryCacheMissCount()).thenReturn(4L);
+        when(statistics.getQueryCachePutCount()).thenReturn(4L);
+
+        CacheRegionStats totals = service.getQueryCacheTotals();
+
+        assertThat(totals.getName())
+                .isEqualTo(CacheStatisticsService.QUERY_CACHE_TOTALS);
+        assertThat(totals.getHits()).isEqualTo(10);
+        assertThat(totals.getMisses()).isEqualTo(4);
+        assertThat(totals.getPuts()).isEqualTo(4);
+    }
+
+    @Test
+    public void switchesAndResetsHibernateStatistics() {
+        service.setHibernateStatisticsEnabled(true);
+        service.resetHibernateStatistics();
+
+        verify(statistics).setStatisticsEnabled(true);
+        verify(statistics).clear();
+    }
+
+    private void givenHibernateRegion(boolean statisticsEnabled) {
+        SecondLevelCacheStatistics regionStats =
+                mock(SecondLevelCacheStatistics.class);
+        when(regionStats.getHitCount()).thenReturn(3L);
+        when(regionStats.getMissCount()).thenReturn(1L);
+        when(regionStats.getPutCount()).thenReturn(2L);
+        when(regionStats.getElementCountInMemory()).thenReturn(2L);
+        when(regionStats.getSizeInMemory()).thenReturn(512L);
+        when(statistics.isStatisticsEnabled()).thenReturn(statisticsEnabled);
+        when(statistics.getSecondLevelCacheRegionNames())
+                .thenReturn(new String[] { REGION });
+        when(statistics.getSecondLevelCacheStatistics(REGION))
+                .thenReturn(regionStats);
+    }
+}
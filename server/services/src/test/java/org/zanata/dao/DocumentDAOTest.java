@@ -164,6 +164,15 @@ public class DocumentDAOTest extends ZanataDbunitJpaTest {
         }, true);
     }
 
+    @Test
+    public void deletedTranslationChangesHash() throws Exception {
+        testHashChange(doc -> {
+            HTextFlow tf = doc.getTextFlows().get(0);
+            HTextFlowTarget tft = tf.getTargets().remove(as.getId());
+            getSession().delete(tft);
+        }, true);
+    }
+
     @Test
     public void getStatisticsBySourceType() {
         int[] result = documentDAO
@@ -21,10 +21,16 @@
 
 package org.zanata.dao;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.dbunit.operation.DatabaseOperation;
 import org.junit.Before;
 import org.junit.Test;
 import org.zanata.ZanataDbunitJpaTest;
+import org.zanata.common.ContentState;
+import org.zanata.dao.TextFlowTargetDAO.InvalidatedTarget;
 import org.zanata.model.HTextFlowTarget;
 import org.zanata.model.HTextFlowTargetHistory;
 import org.zanata.model.type.EntityType;
@@ -106,4 +112,43 @@ public class TextFlowTargetDAOTest extends ZanataDbunitJpaTest {
         assertThat(history1.getSourceType()).isEqualTo(sourceType1);
         assertThat(history1.getCopiedEntityId()).isEqualTo(copiedEntityId1);
     }
+
+    @Test
+    public void markTranslatedTargetsNeedReviewKeepsHistory() {
+        List<InvalidatedTarget> changed = textFlowTargetDAO
+                .markTranslatedTargetsNeedReview(Collections.singletonList(1L));
+
+        assertThat(changed).extracting(InvalidatedTarget::getTargetId)
+                .containsOnly(1L, 2L);
+        assertThat(changed).extracting(InvalidatedTarget::getPreviousState)
+                .containsOnly(ContentState.Translated);
+        getSession().clear();
+        HTextFlowTarget target = textFlowTargetDAO.findById(1L);
+        assertThat(target.getState()).isEqualTo(ContentState.NeedReview);
+        assertThat(target.getVersionNum()).isEqualTo(2);
+        HTextFlowTargetHistory history = target.getHistory().get(1);
+        assertThat(history.getState()).isEqualTo(ContentState.Translated);
+        assertThat(history.getContents()).containsExactly("hei verden");
+        // already fuzzy
+        assertThat(textFlowTargetDAO.findById(3L).getVersionNum())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void clearTargetsKeepsHistory() {
+        List<InvalidatedTarget> cleared =
+                textFlowTargetDAO.clearTargets(Arrays.asList(1L, 4L));
+
+        // target 4 is already New
+        assertThat(cleared).extracting(InvalidatedTarget::getTargetId)
+                .containsExactly(1L);
+        getSession().clear();
+        HTextFlowTarget target = textFlowTargetDAO.findById(1L);
+        assertThat(target.getState()).isEqualTo(ContentState.New);
+        assertThat(target.getContents()).isEmpty();
+        assertThat(target.getLastModifiedBy()).isNull();
+        assertThat(target.getVersionNum()).isEqualTo(2);
+        assertThat(target.getHistory().get(1).getContents())
+                .containsExactly("hei verden");
+    }
 }
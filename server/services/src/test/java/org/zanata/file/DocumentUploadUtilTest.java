@@ -33,22 +33,19 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.sql.Blob;
-import java.sql.SQLException;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.deltaspike.core.spi.scope.window.WindowContext;
 import org.hibernate.Session;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.zanata.common.EntityStatus;
 import org.zanata.exception.DocumentUploadException;
+import org.zanata.file.UploadPartPersistService.AssembledUpload;
 import org.zanata.model.HDocumentUpload;
-import org.zanata.model.HDocumentUploadPart;
 import org.zanata.rest.DocumentFileUploadForm;
 import org.zanata.service.TranslationFileService;
 
@@ -68,7 +65,7 @@ import javax.ws.rs.core.Response;
 public class DocumentUploadUtilTest extends DocumentUploadTest {
 
     private static final String HASH_OF_ABCDEFGHI =
-            "d41d8cd98f00b204e9800998ecf8427e";
+            "8aa99b1f439ff71293e95357bac6fd94";
     @Produces @Mock
     Session session;
     @Produces @Mock
@@ -84,14 +81,6 @@ public class DocumentUploadUtilTest extends DocumentUploadTest {
     @Produces @ServerPath String serverPath = "";
     @Produces @ContextPath String contextPath = "";
 
-    @Mock
-    Blob partBlob0;
-    @Mock
-    Blob partBlob1;
-
-    @Captor
-    private ArgumentCaptor<InputStream> persistedInputStreamCaptor;
-
     @Inject
     private DocumentUploadUtil util;
 
@@ -302,6 +291,28 @@ public class DocumentUploadUtilTest extends DocumentUploadTest {
         }
     }
 
+    @Test
+    public void subsequentPartSentBeforeEarlierParts() {
+        conf = defaultUpload().first(false).uploadId(5L).build();
+        conf.uploadForm.setPart(3);
+        mockLoggedIn();
+        mockProjectAndVersionStatus();
+
+        HDocumentUpload upload = new HDocumentUpload();
+        upload.setDocId(conf.docId);
+        when(documentUploadDAO.findById(conf.uploadId)).thenReturn(upload);
+        when(uploadPartPersistService.getPartCount(upload)).thenReturn(1);
+
+        try {
+            util.failIfUploadNotValid(conf.id, conf.uploadForm);
+            fail("Should throw exception if an earlier part is missing");
+        } catch (DocumentUploadException e) {
+            assertThat(e.getStatusCode()).isEqualTo(PRECONDITION_FAILED);
+            assertThat(e.getMessage()).isEqualTo(
+                    "Part 3 of upload '5' was sent, but part 2 was expected.");
+        }
+    }
+
     @Test
     public void returnFormStreamWhenFileIsAbsent() throws FileNotFoundException {
         InputStream streamFromForm =
@@ -337,35 +348,36 @@ public class DocumentUploadUtilTest extends DocumentUploadTest {
     }
 
     @Test
-    public void canCombineUploadPartsInOrder() throws SQLException, IOException {
-        HDocumentUpload upload = mockTwoPartUploadUsingHash(HASH_OF_ABCDEFGHI);
-
-        InputStream finalPartStream =
-                new ByteArrayInputStream("ghi".getBytes());
-        File persistedFile = new File("test");
-
-        DocumentFileUploadForm uploadForm = new DocumentFileUploadForm();
-        uploadForm.setFileStream(finalPartStream);
-
-        when(
-                translationFileService
-                        .persistToTempFile(persistedInputStreamCaptor.capture()))
-                .thenReturn(persistedFile);
-
-        File returnedFile =
-                util.combineToTempFileAndDeleteUploadRecord(upload,
-                        uploadForm);
-
-        assertThat(returnedFile).isSameAs(persistedFile);
-        String persistedContents =
-                IOUtils.toString(persistedInputStreamCaptor.getValue(), "utf-8");
-        assertThat(persistedContents).isEqualTo("abcdefghi");
-        verify(session).delete(upload);
+    public void canCombineUploadParts() throws IOException {
+        File assembledFile = File.createTempFile("test", "upload");
+        try {
+            HDocumentUpload upload = mockTwoPartUploadUsingHash(
+                    HASH_OF_ABCDEFGHI, assembledFile);
+            InputStream finalPartStream =
+                    new ByteArrayInputStream("ghi".getBytes());
+
+            DocumentFileUploadForm uploadForm = new DocumentFileUploadForm();
+            uploadForm.setFileStream(finalPartStream);
+
+            File returnedFile =
+                    util.combineToTempFileAndDeleteUploadRecord(upload,
+                            uploadForm);
+
+            assertThat(returnedFile).isSameAs(assembledFile);
+            // no part number sent, so the part after the stored ones
+            verify(uploadPartPersistService).assembleUpload(upload, 1,
+                    finalPartStream);
+            verify(session).delete(upload);
+        } finally {
+            assembledFile.delete();
+        }
     }
 
     @Test
-    public void combineFailsOnHashMismatch() throws SQLException {
-        HDocumentUpload upload = mockTwoPartUploadUsingHash("incorrect hash");
+    public void combineFailsOnHashMismatch() throws IOException {
+        File assembledFile = File.createTempFile("test", "upload");
+        HDocumentUpload upload =
+                mockTwoPartUploadUsingHash("incorrect hash", assembledFile);
         InputStream finalPartStream =
                 new ByteArrayInputStream("ghi".getBytes());
 
@@ -374,6 +386,7 @@ public class DocumentUploadUtilTest extends DocumentUploadTest {
 
         try {
             util.combineToTempFileAndDeleteUploadRecord(upload, uploadForm);
+            fail("Should throw exception if combined hash does not match");
         } catch (DocumentUploadException e) {
             assertThat(e.getStatusCode()).isEqualTo(CONFLICT);
             assertThat(e.getMessage()).isEqualTo(
@@ -381,37 +394,38 @@ public class DocumentUploadUtilTest extends DocumentUploadTest {
                             "not match server-generated hash. Aborted upload " +
                             "operation.");
         }
+        assertThat(assembledFile).doesNotExist();
+        verify(session).delete(upload);
     }
 
     @Test
-    public void combineSetsHashWhenNoHashProvided() throws SQLException {
-        HDocumentUpload upload = mockTwoPartUploadUsingHash("");
-        InputStream finalPartStream =
-                new ByteArrayInputStream("ghi".getBytes());
+    public void combineSetsHashWhenNoHashProvided() throws IOException {
+        File assembledFile = File.createTempFile("test", "upload");
+        try {
+            HDocumentUpload upload =
+                    mockTwoPartUploadUsingHash("", assembledFile);
+            InputStream finalPartStream =
+                    new ByteArrayInputStream("ghi".getBytes());
 
-        DocumentFileUploadForm uploadForm = new DocumentFileUploadForm();
-        uploadForm.setFileStream(finalPartStream);
+            DocumentFileUploadForm uploadForm = new DocumentFileUploadForm();
+            uploadForm.setFileStream(finalPartStream);
 
-        util.combineToTempFileAndDeleteUploadRecord(upload, uploadForm);
-        assertThat(uploadForm.getHash()).isEqualTo(HASH_OF_ABCDEFGHI);
+            util.combineToTempFileAndDeleteUploadRecord(upload, uploadForm);
+            assertThat(uploadForm.getHash()).isEqualTo(HASH_OF_ABCDEFGHI);
+        } finally {
+            assembledFile.delete();
+        }
     }
 
-    private HDocumentUpload mockTwoPartUploadUsingHash(String hash)
-            throws SQLException {
+    private HDocumentUpload mockTwoPartUploadUsingHash(String hash,
+            File assembledFile) throws IOException {
         HDocumentUpload upload = new HDocumentUpload();
         upload.setContentHash(hash);
-
-        HDocumentUploadPart part0 = new HDocumentUploadPart();
-        when(partBlob0.getBinaryStream()).thenReturn(
-                new ByteArrayInputStream("abc".getBytes()));
-        part0.setContent(partBlob0);
-        upload.getParts().add(part0);
-
-        HDocumentUploadPart part1 = new HDocumentUploadPart();
-        when(partBlob1.getBinaryStream()).thenReturn(
-                new ByteArrayInputStream("def".getBytes()));
-        part1.setContent(partBlob1);
-        upload.getParts().add(part1);
+        when(uploadPartPersistService.assembleUpload(
+                ArgumentMatchers.same(upload), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.any(InputStream.class)))
+                .thenReturn(new AssembledUpload(assembledFile,
+                        HASH_OF_ABCDEFGHI));
         return upload;
     }
 
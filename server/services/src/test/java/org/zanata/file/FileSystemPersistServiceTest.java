@@ -0,0 +1,210 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+import javax.enterprise.event.Event;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+
+import org.apache.commons.io.FileUtils;
+import org.jglue.cdiunit.InRequestScope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.zanata.ApplicationConfiguration;
+import org.zanata.common.ContentType;
+import org.zanata.dao.DocumentDAO;
+import org.zanata.dao.RawDocumentDAO;
+import org.zanata.events.RawDocumentContentRemovedEvent;
+import org.zanata.model.HDocument;
+import org.zanata.model.HProject;
+import org.zanata.model.HProjectIteration;
+import org.zanata.model.HRawDocument;
+import org.zanata.rest.service.VirusScanner;
+import org.zanata.test.CdiUnitRunner;
+import org.zanata.transaction.TransactionUtil;
+
+import com.google.common.io.Files;
+
+@RunWith(CdiUnitRunner.class)
+public class FileSystemPersistServiceTest {
+
+    private static final String HASH_OF_CONTENT =
+            "9a0364b9e99bb480dd25e1f0284c8555";
+
+    @Produces @Mock
+    ApplicationConfiguration appConfig;
+    @Produces @Mock
+    DocumentDAO documentDAO;
+    @Produces @Mock
+    RawDocumentDAO rawDocumentDAO;
+    @Produces @Mock
+    VirusScanner virusScanner;
+    @Produces @Mock
+    TransactionUtil transactionUtil;
+    @Produces @Mock
+    Event<RawDocumentContentRemovedEvent> rawDocumentContentRemovedEvent;
+
+    @Inject
+    private FileSystemPersistService service;
+
+    private File storageDirectory;
+    private File sourceFile;
+
+    @Before
+    public void setUp() throws Exception {
+        when(transactionUtil.call(any())).thenAnswer(
+                invocation -> ((Callable<?>) invocation.getArgument(0))
+                        .call());
+        storageDirectory = Files.createTempDir();
+        when(appConfig.getDocumentFileStorageLocation())
+                .thenReturn(storageDirectory.getAbsolutePath());
+        sourceFile = new File(storageDirectory, "source.po");
+        FileUtils.writeStringToFile(sourceFile, "content",
+                StandardCharsets.UTF_8);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(storageDirectory);
+    }
+
+    @Test
+    @InRequestScope
+    public void storesContentUnderItsHash() throws IOException {
+        HRawDocument rawDoc = rawDocument(null);
+
+        service.persistRawDocumentContentFromFile(rawDoc, sourceFile, "po");
+
+        assertThat(rawDoc.getFileId()).isEqualTo(HASH_OF_CONTENT + ".po");
+        assertThat(storedFile(rawDoc)).hasContent("content");
+        verify(virusScanner).scan(any(File.class), anyString());
+    }
+
+    @Test
+    @InRequestScope
+    public void sameContentIsStoredOnce() {
+        HRawDocument first = rawDocument(HASH_OF_CONTENT);
+        HRawDocument second = rawDocument(HASH_OF_CONTENT);
+
+        service.persistRawDocumentContentFromFile(first, sourceFile, "po");
+        service.persistRawDocumentContentFromFile(second, sourceFile, "po");
+
+        assertThat(second.getFileId()).isEqualTo(first.getFileId());
+        verify(virusScanner, times(1)).scan(any(File.class), anyString());
+        assertThat(storedFile(first).getParentFile().list()).hasSize(1);
+    }
+
+    @Test
+    @InRequestScope
+    public void copyOnlySharesFileId() {
+        HRawDocument from = rawDocument(HASH_OF_CONTENT);
+        service.persistRawDocumentContentFromFile(from, sourceFile, "po");
+        HRawDocument to = new HRawDocument();
+
+        service.copyAndPersistRawDocument(from, to);
+
+        assertThat(to.getFileId()).isEqualTo(from.getFileId());
+        assertThat(storedFile(from).getParentFile().list()).hasSize(1);
+    }
+
+    @Test
+    @InRequestScope
+    public void removalIsDeferredUntilCommit() {
+        HRawDocument rawDoc = rawDocument(HASH_OF_CONTENT);
+        service.persistRawDocumentContentFromFile(rawDoc, sourceFile, "po");
+
+        service.removeRawDocumentContent(rawDoc);
+
+        verify(rawDocumentContentRemovedEvent)
+                .fire(any(RawDocumentContentRemovedEvent.class));
+        assertThat(storedFile(rawDoc)).exists();
+    }
+
+    @Test
+    @InRequestScope
+    public void keepsContentWhileStillReferenced() throws Exception {
+        HRawDocument rawDoc = rawDocument(HASH_OF_CONTENT);
+        service.persistRawDocumentContentFromFile(rawDoc, sourceFile, "po");
+        RawDocumentContentRemovedEvent removed =
+                new RawDocumentContentRemovedEvent(rawDoc.getFileId());
+        when(rawDocumentDAO.countByFileId(rawDoc.getFileId())).thenReturn(1L);
+
+        service.onRawDocumentContentRemoved(removed);
+        assertThat(storedFile(rawDoc)).exists();
+
+        when(rawDocumentDAO.countByFileId(rawDoc.getFileId())).thenReturn(0L);
+        service.onRawDocumentContentRemoved(removed);
+        assertThat(storedFile(rawDoc)).doesNotExist();
+    }
+
+    @Test
+    @InRequestScope
+    public void keepsRecentlyReusedContent() throws Exception {
+        HRawDocument first = rawDocument(HASH_OF_CONTENT);
+        HRawDocument second = rawDocument(HASH_OF_CONTENT);
+        service.persistRawDocumentContentFromFile(first, sourceFile, "po");
+        // the second raw document is not committed, so it is not counted
+        service.persistRawDocumentContentFromFile(second, sourceFile, "po");
+        when(rawDocumentDAO.countByFileId(first.getFileId())).thenReturn(0L);
+
+        service.onRawDocumentContentRemoved(
+                new RawDocumentContentRemovedEvent(first.getFileId()));
+
+        assertThat(storedFile(second)).exists();
+        verify(rawDocumentDAO, never()).countByFileId(anyString());
+    }
+
+    private File storedFile(HRawDocument rawDoc) {
+        return new File(new File(storageDirectory, "documents"),
+                rawDoc.getFileId());
+    }
+
+    private static HRawDocument rawDocument(String contentHash) {
+        HProject project = new HProject();
+        project.setSlug("project");
+        HProjectIteration version = new HProjectIteration();
+        version.setSlug("master");
+        version.setProject(project);
+        HDocument document =
+                new HDocument("doc.po", ContentType.PO, null);
+        document.setProjectIteration(version);
+        HRawDocument rawDoc = new HRawDocument();
+        rawDoc.setDocument(document);
+        rawDoc.setContentHash(contentHash);
+        return rawDoc;
+    }
+}
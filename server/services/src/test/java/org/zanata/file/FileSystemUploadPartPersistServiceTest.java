@@ -0,0 +1,201 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.zanata.ApplicationConfiguration;
+import org.zanata.file.UploadPartPersistService.AssembledUpload;
+import org.zanata.model.HDocumentUpload;
+
+import com.google.common.io.Files;
+
+public class FileSystemUploadPartPersistServiceTest {
+
+    private static final String HASH_OF_ABCDEFGHI =
+            "8aa99b1f439ff71293e95357bac6fd94";
+
+    @Mock
+    private ApplicationConfiguration appConfig;
+    private File storageDirectory;
+    private FileSystemUploadPartPersistService service;
+    private HDocumentUpload upload;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        storageDirectory = Files.createTempDir();
+        when(appConfig.getDocumentFileStorageLocation())
+                .thenReturn(storageDirectory.getAbsolutePath());
+        service = new FileSystemUploadPartPersistService(appConfig);
+        upload = new HDocumentUpload();
+        upload.setId(1L);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(storageDirectory);
+    }
+
+    @Test
+    public void countsStoredParts() throws IOException {
+        assertThat(service.getPartCount(upload)).isEqualTo(0);
+        assertThat(service.appendUploadPart(upload, 1, stream("abc")))
+                .isEqualTo(1);
+        assertThat(service.appendUploadPart(upload, 2, stream("def")))
+                .isEqualTo(2);
+        assertThat(service.getPartCount(upload)).isEqualTo(2);
+    }
+
+    @Test
+    public void assemblesPartsInOrderWithHash() throws IOException {
+        service.appendUploadPart(upload, 1, stream("abc"));
+        service.appendUploadPart(upload, 2, stream("def"));
+
+        AssembledUpload assembled =
+                service.assembleUpload(upload, 3, stream("ghi"));
+
+        assertThat(FileUtils.readFileToString(assembled.getFile(),
+                StandardCharsets.UTF_8)).isEqualTo("abcdefghi");
+        assertThat(assembled.getMd5Hash()).isEqualTo(HASH_OF_ABCDEFGHI);
+    }
+
+    @Test
+    public void assemblesWhenServiceIsRecreated() throws IOException {
+        service.appendUploadPart(upload, 1, stream("abc"));
+        service.appendUploadPart(upload, 2, stream("def"));
+        // simulates a server restart between parts
+        FileSystemUploadPartPersistService restarted =
+                new FileSystemUploadPartPersistService(appConfig);
+
+        AssembledUpload assembled =
+                restarted.assembleUpload(upload, 3, stream("ghi"));
+
+        assertThat(assembled.getMd5Hash()).isEqualTo(HASH_OF_ABCDEFGHI);
+    }
+
+    @Test
+    public void storesRepeatedPartOnce() throws IOException {
+        service.appendUploadPart(upload, 1, stream("abc"));
+        service.appendUploadPart(upload, 2, stream("def"));
+
+        assertThat(service.appendUploadPart(upload, 2, stream("def")))
+                .isEqualTo(2);
+        AssembledUpload assembled =
+                service.assembleUpload(upload, 3, stream("ghi"));
+
+        assertThat(FileUtils.readFileToString(assembled.getFile(),
+                StandardCharsets.UTF_8)).isEqualTo("abcdefghi");
+        assertThat(assembled.getMd5Hash()).isEqualTo(HASH_OF_ABCDEFGHI);
+    }
+
+    @Test
+    public void discardsContentOfFailedPart() throws IOException {
+        service.appendUploadPart(upload, 1, stream("abc"));
+        try {
+            service.appendUploadPart(upload, 2, failingStream("de"));
+            fail("expected the part to fail");
+        } catch (IOException e) {
+            assertThat(service.getPartCount(upload)).isEqualTo(1);
+        }
+
+        service.appendUploadPart(upload, 2, stream("def"));
+        AssembledUpload assembled =
+                service.assembleUpload(upload, 3, stream("ghi"));
+
+        assertThat(FileUtils.readFileToString(assembled.getFile(),
+                StandardCharsets.UTF_8)).isEqualTo("abcdefghi");
+        assertThat(assembled.getMd5Hash()).isEqualTo(HASH_OF_ABCDEFGHI);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPartBeforeEarlierParts() throws IOException {
+        service.appendUploadPart(upload, 1, stream("abc"));
+
+        service.appendUploadPart(upload, 3, stream("ghi"));
+    }
+
+    @Test
+    public void removesStoredParts() throws IOException {
+        service.appendUploadPart(upload, 1, stream("abc"));
+
+        service.removeUploadParts(upload);
+
+        assertThat(service.getPartCount(upload)).isEqualTo(0);
+        AssembledUpload assembled =
+                service.assembleUpload(upload, 1, stream("x"));
+        assertThat(FileUtils.readFileToString(assembled.getFile(),
+                StandardCharsets.UTF_8)).isEqualTo("x");
+    }
+
+    @Test
+    public void listsFilesOfAbandonedUploads() throws IOException {
+        service.appendUploadPart(upload, 1, stream("abc"));
+        HDocumentUpload activeUpload = new HDocumentUpload();
+        activeUpload.setId(2L);
+        service.appendUploadPart(activeUpload, 1, stream("abc"));
+        File uploadsDirectory = new File(storageDirectory, "uploads");
+        long twoDaysAgo = System.currentTimeMillis()
+                - TimeUnit.DAYS.toMillis(2);
+        for (String name : new String[] { "1.upload", "1.parts" }) {
+            assertThat(new File(uploadsDirectory, name)
+                    .setLastModified(twoDaysAgo)).isTrue();
+        }
+
+        assertThat(service.getExpiredUploadPartFiles())
+                .extracting(File::getName)
+                .containsOnly("1.upload", "1.parts");
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(
+                content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return a stream which fails after the given content, like an
+     *         interrupted request
+     */
+    private static InputStream failingStream(String content) {
+        return new SequenceInputStream(stream(content), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+    }
+}
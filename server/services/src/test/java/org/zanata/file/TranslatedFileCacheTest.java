@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.zanata.ApplicationConfiguration;
+
+import com.google.common.io.Files;
+
+public class TranslatedFileCacheTest {
+
+    private static final long ONE_MB = 1024 * 1024;
+
+    @Mock
+    private ApplicationConfiguration appConfig;
+    private File storageDirectory;
+    private TranslatedFileCache cache;
+    private AtomicInteger generated;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        storageDirectory = Files.createTempDir();
+        when(appConfig.getDocumentFileStorageLocation())
+                .thenReturn(storageDirectory.getAbsolutePath());
+        when(appConfig.getTranslatedFileCacheMaxMB()).thenReturn(1L);
+        cache = new TranslatedFileCache(appConfig);
+        generated = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(storageDirectory);
+    }
+
+    @Test
+    public void generatesOnlyOnce() throws IOException {
+        String key = TranslatedFileCache.key("doc", "de", "state1");
+
+        assertThat(read(cache.open(key, content("hallo")))).isEqualTo("hallo");
+        assertThat(read(cache.open(key, content("ignored"))))
+                .isEqualTo("hallo");
+        assertThat(generated.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void newStateIsGeneratedAgain() throws IOException {
+        read(cache.open(TranslatedFileCache.key("doc", "de", "state1"),
+                content("alt")));
+
+        String updated = read(cache.open(
+                TranslatedFileCache.key("doc", "de", "state2"),
+                content("neu")));
+
+        assertThat(updated).isEqualTo("neu");
+        assertThat(generated.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        String first = TranslatedFileCache.key("first");
+        String second = TranslatedFileCache.key("second");
+        read(cache.open(first, bytes(ONE_MB / 2)));
+        read(cache.open(second, bytes(ONE_MB / 2)));
+        // touch the first entry so the second is least recently used
+        read(cache.open(first, bytes(1)));
+
+        read(cache.open(TranslatedFileCache.key("third"), bytes(ONE_MB / 2)));
+
+        assertThat(cache.getTotalBytes()).isEqualTo(ONE_MB);
+        assertThat(cacheFile(first)).exists();
+        assertThat(cacheFile(second)).doesNotExist();
+    }
+
+    @Test
+    public void reindexesFilesAfterRestart() throws IOException {
+        String key = TranslatedFileCache.key("doc", "de", "state1");
+        read(cache.open(key, content("hallo")));
+
+        TranslatedFileCache restarted = new TranslatedFileCache(appConfig);
+
+        assertThat(read(restarted.open(key, content("ignored"))))
+                .isEqualTo("hallo");
+        assertThat(restarted.getTotalBytes()).isEqualTo(5);
+    }
+
+    @Test
+    public void failedGenerationLeavesNoEntry() throws IOException {
+        String key = TranslatedFileCache.key("doc");
+        try {
+            cache.open(key, output -> {
+                throw new IOException("broken adapter");
+            });
+        } catch (IOException expected) {
+        }
+
+        assertThat(cache.getTotalBytes()).isEqualTo(0);
+        assertThat(cacheFile(key).getParentFile().list()).isEmpty();
+    }
+
+    private File cacheFile(String key) {
+        return new File(new File(storageDirectory,
+                TranslatedFileCache.CACHE_SUBDIRECTORY), key);
+    }
+
+    private TranslatedFileCache.Generator content(String text) {
+        return output -> {
+            generated.incrementAndGet();
+            output.write(text.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private TranslatedFileCache.Generator bytes(long size) {
+        return output -> {
+            generated.incrementAndGet();
+            output.write(new byte[(int) size]);
+        };
+    }
+
+    private static String read(FileChannel channel) throws IOException {
+        try (FileChannel input = channel) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) input.size());
+            while (buffer.hasRemaining() && input.read(buffer) >= 0) {
+            }
+            return new String(buffer.array(), StandardCharsets.UTF_8);
+        }
+    }
+}
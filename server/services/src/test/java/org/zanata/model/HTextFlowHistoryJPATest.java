@@ -133,6 +133,53 @@ public class HTextFlowHistoryJPATest extends ZanataDbunitJpaTest {
                 .isEqualTo(Arrays.asList("hello world 1", "hello world 2"));
     }
 
+    @Test
+    public void loadedTextFlowRecordsOneHistoryOfLoadedState() {
+        HTextFlow tf = makeTextFlow("hello world");
+        Integer loadedRevision = tf.getRevision();
+        Session session = getSession();
+        session.clear();
+
+        HTextFlow loaded = session.get(HTextFlow.class, tf.getId());
+        loaded.setContents("hello world again");
+        loaded.setContents("hello world a third time");
+        loaded.setRevision(loadedRevision + 1);
+        session.flush();
+
+        List<HTextFlowHistory> historyElems = getHistory(loaded);
+        assertThat(historyElems).hasSize(1);
+        assertThat(historyElems.get(0).getContents())
+                .isEqualTo(Arrays.asList("hello world"));
+        assertThat(historyElems.get(0).getRevision())
+                .isEqualTo(loadedRevision);
+    }
+
+    @Test
+    public void loadedTextFlowWithoutChangesRecordsNoHistory() {
+        HTextFlow tf = makeTextFlow("hello world");
+        Session session = getSession();
+        session.clear();
+
+        HTextFlow loaded = session.get(HTextFlow.class, tf.getId());
+        loaded.setContents("hello world");
+        session.flush();
+
+        assertThat(getHistory(loaded)).isEmpty();
+    }
+
+    private HTextFlow makeTextFlow(String contents) {
+        Session session = getSession();
+        HDocument d =
+                new HDocument("/path/to/document.txt", ContentType.TextPlain,
+                        en_US);
+        d.setProjectIteration(session.load(HProjectIteration.class, 1L));
+        session.save(d);
+        HTextFlow tf = new HTextFlow(d, "mytf", contents);
+        d.getTextFlows().add(tf);
+        session.flush();
+        return tf;
+    }
+
     @SuppressWarnings("unchecked")
     private List<HTextFlowHistory> getHistory(HTextFlow tf) {
         return getSession().createCriteria(HTextFlowHistory.class)
@@ -9,6 +9,7 @@ import org.hibernate.criterion.Restrictions;
 import org.junit.Before;
 import org.junit.Test;
 import org.zanata.ZanataDbunitJpaTest;
+import org.zanata.common.ContentState;
 import org.zanata.common.ContentType;
 import org.zanata.common.LocaleId;
 import org.zanata.dao.LocaleDAO;
@@ -134,6 +135,63 @@ public class HTextFlowTargetHistoryJPATest extends ZanataDbunitJpaTest {
                 Arrays.asList("blah", "blah!"));
     }
 
+    @Test
+    public void loadedTargetRecordsOneHistoryOfLoadedState() {
+        HTextFlowTarget target = makeTarget("helleu world");
+        Integer loadedVersionNum = target.getVersionNum();
+        Session session = getSession();
+        session.clear();
+
+        HTextFlowTarget loaded =
+                session.get(HTextFlowTarget.class, target.getId());
+        loaded.setContents("blah!");
+        loaded.setContents("hola mundo!");
+        loaded.setState(ContentState.NeedReview);
+        session.flush();
+
+        List<HTextFlowTargetHistory> historyElems = getHistory(loaded);
+        assertThat(historyElems).hasSize(1);
+        HTextFlowTargetHistory hist = historyElems.get(0);
+        assertThat(hist.getContents())
+                .isEqualTo(Arrays.asList("helleu world"));
+        assertThat(hist.getState()).isEqualTo(ContentState.Translated);
+        assertThat(hist.getVersionNum()).isEqualTo(loadedVersionNum);
+    }
+
+    @Test
+    public void loadedTargetWithoutChangesRecordsNoHistory() {
+        HTextFlowTarget target = makeTarget("helleu world");
+        Session session = getSession();
+        session.clear();
+
+        HTextFlowTarget loaded =
+                session.get(HTextFlowTarget.class, target.getId());
+        loaded.setContents("helleu world");
+        session.flush();
+
+        assertThat(getHistory(loaded)).isEmpty();
+        assertThat(loaded.getVersionNum()).isEqualTo(target.getVersionNum());
+    }
+
+    private HTextFlowTarget makeTarget(String contents) {
+        Session session = getSession();
+        HDocument d =
+                new HDocument("/path/to/document.txt", ContentType.TextPlain,
+                        en_US);
+        d.setProjectIteration(session.load(HProjectIteration.class, 1L));
+        session.save(d);
+        HTextFlow tf = new HTextFlow(d, "mytf", "hello world");
+        d.getTextFlows().add(tf);
+        session.flush();
+
+        HTextFlowTarget target = new HTextFlowTarget(tf, de_DE);
+        target.setContents(contents);
+        target.setState(ContentState.Translated);
+        session.save(target);
+        session.flush();
+        return target;
+    }
+
     @SuppressWarnings("unchecked")
     private List<HTextFlowTargetHistory> getHistory(HTextFlowTarget tft) {
         return getSession().createCriteria(HTextFlowTargetHistory.class)
@@ -26,6 +26,7 @@ import static org.mockito.Mockito.when;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -40,6 +41,7 @@ import org.mockito.MockitoAnnotations;
 import org.zanata.async.AsyncTaskHandle;
 import org.zanata.async.AsyncTaskHandleManager;
 import org.zanata.async.UserTriggeredTaskHandle;
+import org.zanata.async.handle.SourceDocumentUploadTaskHandle;
 import org.zanata.exception.AuthorizationException;
 import org.zanata.rest.dto.ProcessStatus;
 import org.zanata.security.ZanataIdentity;
@@ -312,6 +314,29 @@ public class AsyncProcessServiceTest {
                 .contains("Cancelled by " + currentUsername);
     }
 
+    @Test
+    public void sourceUploadStatusIncludesOutcomeOfEachFile()
+            throws URISyntaxException {
+        FinishedSourceUploadTaskHandle taskHandle =
+                new FinishedSourceUploadTaskHandle();
+        taskHandle.setTriggeredBy(currentUsername);
+        taskHandle.fileSucceeded("good.txt", "Document good.txt uploaded.");
+        taskHandle.fileFailed("bad.txt", "failed: invalid file");
+
+        when(taskHandleManager.getHandleByKeyId("id")).thenReturn(taskHandle);
+        when(urlInfo.getRequestUri())
+                .thenReturn(new URI(baseUriStr + "process/id"));
+        Response response = service.getAsyncProcessStatus("id");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        ProcessStatus processStatus = (ProcessStatus) response.getEntity();
+        assertThat(processStatus.getStatusCode())
+                .isEqualTo(ProcessStatus.ProcessStatusCode.Failed);
+        assertThat(processStatus.getMessages()).containsExactly(
+                "good.txt: Document good.txt uploaded.",
+                "bad.txt: failed: invalid file");
+    }
+
     private static class FinishedAsyncTaskHandle
             extends AsyncTaskHandle<Object> {
         private static final long serialVersionUID = 1L;
@@ -323,6 +348,17 @@ public class AsyncProcessServiceTest {
         }
     }
 
+    private static class FinishedSourceUploadTaskHandle
+            extends SourceDocumentUploadTaskHandle {
+        private static final long serialVersionUID = 1L;
+
+        private FinishedSourceUploadTaskHandle() {
+            super(2);
+            setFutureResult(CompletableFuture
+                    .completedFuture(Arrays.asList("good.txt", "bad.txt")));
+        }
+    }
+
     private static class StartedAsyncTaskHandle
             extends AsyncTaskHandle<Object> {
         private static final long serialVersionUID = 1L;
@@ -2,11 +2,15 @@ package org.zanata.rest.service;
 
 import static org.zanata.common.ContentState.Approved;
 
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.Map;
 
 import javax.annotation.Nonnull;
 import javax.ws.rs.core.StreamingOutput;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.junit.Test;
 import org.zanata.common.LocaleId;
@@ -38,6 +42,21 @@ public class ExportTranslationsTest extends TMXStreamingOutputTest {
         checkGerman(output);
     }
 
+    @Test
+    public void exportAllLocalesWithStax() throws Exception {
+        checkAllLocales(writeSourceContents(null, null));
+    }
+
+    @Test
+    public void exportFrenchWithStax() throws Exception {
+        checkFrench(writeSourceContents(LocaleId.EN_US, LocaleId.FR));
+    }
+
+    @Test
+    public void exportGermanWithStax() throws Exception {
+        checkGerman(writeSourceContents(LocaleId.EN_US, LocaleId.DE));
+    }
+
     @Override
     boolean expectAttributes() {
         return false;
@@ -54,6 +73,27 @@ public class ExportTranslationsTest extends TMXStreamingOutputTest {
                 new TranslationsTMXExportStrategy<>(srcLocale, targetLocale));
     }
 
+    private StreamingOutput writeSourceContents(LocaleId srcLocale,
+            LocaleId targetLocale) {
+        TranslationsTMXExportStrategy<ITextFlow> strategy =
+                new TranslationsTMXExportStrategy<>(srcLocale, targetLocale);
+        return output -> {
+            try {
+                XMLStreamWriter writer = XMLOutputFactory.newInstance()
+                        .createXMLStreamWriter(output, "UTF-8");
+                strategy.writeStart(writer);
+                Iterator<ITextFlow> iter = createTestData();
+                while (iter.hasNext()) {
+                    strategy.writeTU(writer, iter.next());
+                }
+                strategy.writeEnd(writer);
+                writer.close();
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            }
+        };
+    }
+
     private @Nonnull
     Iterator<ITextFlow> createTestData() {
         LocaleId fr = LocaleId.FR;
@@ -16,6 +16,7 @@ import org.junit.runners.Parameterized.UseParametersRunnerFactory;
 import org.mockito.Mock;
 import org.zanata.ZanataTest;
 import org.zanata.dao.LocaleDAO;
+import org.zanata.dao.TextFlowTargetDAO;
 import org.zanata.test.CdiUnitRunnerWithParameters;
 import org.zanata.test.ParamTestCdiExtension;
 
@@ -38,6 +39,10 @@ public class ResourceUtilsParamTest extends ZanataTest {
     @Mock
     private LocaleDAO mockLocaleDAO;
 
+    @Produces
+    @Mock
+    private TextFlowTargetDAO mockTextFlowTargetDAO;
+
     @Parameter(0)
     String encoded;
     @Parameter(1)
@@ -25,6 +25,7 @@ import org.zanata.common.ContentState;
 import org.zanata.common.LocaleId;
 import org.zanata.common.MergeType;
 import org.zanata.dao.LocaleDAO;
+import org.zanata.dao.TextFlowTargetDAO;
 import org.zanata.model.HDocument;
 import org.zanata.model.HLocale;
 import org.zanata.model.HPerson;
@@ -57,6 +58,9 @@ public class ResourceUtilsTest extends ZanataTest {
     @Produces @Mock
     private LocaleDAO mockLocaleDAO;
 
+    @Produces @Mock
+    private TextFlowTargetDAO mockTextFlowTargetDAO;
+
     @BeforeClass
     public static void logMemoryForTests() {
         // FIXME why is this here?
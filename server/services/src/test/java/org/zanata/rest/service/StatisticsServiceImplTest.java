@@ -71,6 +71,7 @@ import org.zanata.seam.security.CurrentUserImpl;
 import org.zanata.security.ZanataIdentity;
 import org.zanata.security.annotations.Authenticated;
 import org.zanata.service.ValidationService;
+import org.zanata.service.impl.ContributionRollupService;
 import org.zanata.service.impl.TranslationStateCacheImpl;
 import org.zanata.service.impl.TranslationStateCacheImpl.DocumentStatisticLoader;
 import org.zanata.service.impl.TranslationStateCacheImpl.HTextFlowTargetIdLoader;
@@ -136,6 +137,10 @@ public class StatisticsServiceImplTest extends ZanataDbunitJpaTest {
     @Produces @Mock
     private TextFlowDAO textFlowDAO;
 
+    // no rollup: statistics come from the history queries
+    @Produces @Mock
+    private ContributionRollupService contributionRollupService;
+
     private final SimpleDateFormat formatter =
             new SimpleDateFormat(StatisticsResource.DATE_FORMAT);
 
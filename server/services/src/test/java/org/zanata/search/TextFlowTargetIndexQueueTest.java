@@ -0,0 +1,223 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zanata.hibernate.search.TextFlowTargetIndexDeferral;
+
+import com.google.common.io.Files;
+
+public class TextFlowTargetIndexQueueTest {
+
+    private FakeTransactionRegistry transaction;
+    private TestIndexQueue indexQueue;
+    private File indexDirectory;
+    private File checkpointFile;
+
+    @Before
+    public void setUp() {
+        transaction = new FakeTransactionRegistry();
+        indexQueue = new TestIndexQueue(transaction);
+        indexDirectory = Files.createTempDir();
+        checkpointFile = new File(indexDirectory,
+                TextFlowTargetIndexQueue.CHECKPOINT_FILE);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TextFlowTargetIndexDeferral.setListener(null);
+        FileUtils.deleteDirectory(indexDirectory);
+    }
+
+    @Test
+    public void indexesTargetsInBatchesAfterCommit() {
+        start(10, 2);
+
+        assertThat(indexQueue.deferIndexing(1L)).isTrue();
+        assertThat(indexQueue.deferIndexing(2L)).isTrue();
+        assertThat(indexQueue.deferIndexing(1L)).isTrue();
+        assertThat(indexQueue.deferIndexing(3L)).isTrue();
+        indexQueue.processQueue();
+        assertThat(indexQueue.indexed).isEmpty();
+
+        transaction.complete(Status.STATUS_COMMITTED);
+        assertThat(indexQueue.getQueueSize()).isEqualTo(3);
+        indexQueue.processQueue();
+
+        assertThat(indexQueue.indexed).containsExactly(Arrays.asList(1L, 2L),
+                Arrays.asList(3L));
+        assertThat(indexQueue.getQueueSize()).isEqualTo(0);
+        assertThat(indexQueue.getIndexedCount()).isEqualTo(3);
+        assertThat(checkpointFile).exists();
+    }
+
+    @Test
+    public void ignoresTargetsOfRolledBackTransaction() {
+        start(10, 10);
+        indexQueue.deferIndexing(1L);
+
+        transaction.complete(Status.STATUS_ROLLEDBACK);
+        indexQueue.processQueue();
+
+        assertThat(indexQueue.indexed).isEmpty();
+    }
+
+    @Test
+    public void doesNotDeferWithoutTransaction() {
+        start(10, 10);
+        transaction.status = Status.STATUS_NO_TRANSACTION;
+
+        assertThat(indexQueue.deferIndexing(1L)).isFalse();
+    }
+
+    @Test
+    public void reindexesChangesSinceOverflow() {
+        start(1, 10);
+        indexQueue.changedTargets = Arrays.asList(1L, 2L, 3L);
+
+        indexQueue.offer(Arrays.asList(1L, 2L, 3L));
+        assertThat(indexQueue.getOverflowCount()).isEqualTo(1);
+        // drains the queue first, then catches up
+        indexQueue.processQueue();
+        indexQueue.processQueue();
+
+        assertThat(indexQueue.indexed).containsExactly(Arrays.asList(1L),
+                Arrays.asList(1L, 2L, 3L));
+        assertThat(indexQueue.changedSince).hasSize(1);
+    }
+
+    @Test
+    public void replaysChangesSinceCheckpointAfterRestart() throws IOException {
+        start(10, 10);
+        indexQueue.offer(Arrays.asList(1L, 2L));
+        indexQueue.stop();
+        long checkpoint = Long.parseLong(FileUtils
+                .readFileToString(checkpointFile, StandardCharsets.US_ASCII));
+        assertThat(checkpoint).isLessThanOrEqualTo(System.currentTimeMillis()
+                - TextFlowTargetIndexQueue.CHECKPOINT_MARGIN_MILLIS);
+
+        TestIndexQueue restarted = new TestIndexQueue(transaction);
+        restarted.changedTargets = Arrays.asList(1L, 2L);
+        restarted.start(10, 10, checkpointFile,
+                mock(ScheduledExecutorService.class));
+        restarted.processQueue();
+
+        assertThat(restarted.changedSince).containsExactly(new Date(checkpoint));
+        assertThat(restarted.indexed).containsExactly(Arrays.asList(1L, 2L));
+    }
+
+    private void start(int capacity, int batchSize) {
+        indexQueue.start(capacity, batchSize, checkpointFile,
+                mock(ScheduledExecutorService.class));
+    }
+
+    private static class TestIndexQueue extends TextFlowTargetIndexQueue {
+        private final List<List<Long>> indexed = new ArrayList<>();
+        private final List<Date> changedSince = new ArrayList<>();
+        private List<Long> changedTargets = new ArrayList<>();
+
+        TestIndexQueue(TransactionSynchronizationRegistry registry) {
+            super(registry, 0);
+        }
+
+        @Override
+        protected void indexTargets(Collection<Long> ids) {
+            indexed.add(new ArrayList<>(ids));
+        }
+
+        @Override
+        protected List<Long> findTargetsChangedSince(Date since) {
+            changedSince.add(since);
+            return changedTargets;
+        }
+    }
+
+    private static class FakeTransactionRegistry
+            implements TransactionSynchronizationRegistry {
+        private final Map<Object, Object> resources = new HashMap<>();
+        private final List<Synchronization> synchronizations =
+                new ArrayList<>();
+        private int status = Status.STATUS_ACTIVE;
+
+        void complete(int completionStatus) {
+            synchronizations.forEach(s -> s.afterCompletion(completionStatus));
+            synchronizations.clear();
+            resources.clear();
+        }
+
+        @Override
+        public Object getTransactionKey() {
+            return this;
+        }
+
+        @Override
+        public void putResource(Object key, Object value) {
+            resources.put(key, value);
+        }
+
+        @Override
+        public Object getResource(Object key) {
+            return resources.get(key);
+        }
+
+        @Override
+        public void registerInterposedSynchronization(
+                Synchronization sync) {
+            synchronizations.add(sync);
+        }
+
+        @Override
+        public int getTransactionStatus() {
+            return status;
+        }
+
+        @Override
+        public void setRollbackOnly() {
+        }
+
+        @Override
+        public boolean getRollbackOnly() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zanata.cache.InfinispanTestCacheContainer;
+import org.zanata.model.HAccount;
+import org.zanata.security.ApiKeyAuthenticationCache.CachedAuthentication;
+
+public class ApiKeyAuthenticationCacheTest {
+    private ApiKeyAuthenticationCache cache;
+    private HAccount account;
+
+    @Before
+    public void setUp() {
+        cache = new ApiKeyAuthenticationCache(
+                new InfinispanTestCacheContainer());
+        cache.create();
+        account = mock(HAccount.class);
+        when(account.getId()).thenReturn(1L);
+        when(account.getVersionNum()).thenReturn(3);
+    }
+
+    @Test
+    public void returnsEntryForSameApiKey() {
+        cache.put("admin", "key1", account, Arrays.asList("admin", "user"));
+
+        Optional<CachedAuthentication> cached = cache.get("admin", "key1");
+
+        assertThat(cached.isPresent()).isTrue();
+        assertThat(cached.get().getAccountId()).isEqualTo(1L);
+        assertThat(cached.get().getAccountVersion()).isEqualTo(3);
+        assertThat(cached.get().getImpliedRoles()).containsExactly("admin",
+                "user");
+    }
+
+    @Test
+    public void ignoresEntryForDifferentApiKey() {
+        cache.put("admin", "key1", account, Arrays.asList("admin"));
+
+        assertThat(cache.get("admin", "key2").isPresent()).isFalse();
+        assertThat(cache.get("other", "key1").isPresent()).isFalse();
+    }
+
+    @Test
+    public void canInvalidate() {
+        cache.put("admin", "key1", account, Arrays.asList("admin"));
+        cache.put("bob", "key2", account, Arrays.asList("user"));
+
+        cache.invalidate("admin");
+        assertThat(cache.get("admin", "key1").isPresent()).isFalse();
+        assertThat(cache.get("bob", "key2").isPresent()).isTrue();
+
+        cache.invalidateAll();
+        assertThat(cache.get("bob", "key2").isPresent()).isFalse();
+    }
+}
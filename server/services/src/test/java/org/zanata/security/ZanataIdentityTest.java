@@ -16,6 +16,7 @@ import org.zanata.exception.NotLoggedInException;
 import org.zanata.model.HAccount;
 import org.zanata.model.HAccountRole;
 import org.zanata.model.HProjectIteration;
+import org.zanata.seam.security.AbstractRunAsOperation;
 import org.zanata.seam.security.CurrentUserImpl;
 import org.zanata.seam.security.IdentityManager;
 import org.zanata.security.annotations.Authenticated;
@@ -223,6 +224,30 @@ public class ZanataIdentityTest extends ZanataJpaTest {
         assertThat(identity.hasPermission(target, "seam.insert")).isTrue();
     }
 
+    @Test
+    public void runAsGrantIsNotRememberedForRealUser() {
+        HAccountRole target = new HAccountRole();
+        target.setName("user");
+        identity.getCredentials().setUsername(username);
+        identity.getCredentials().setPassword(validPassword);
+        identity.login();
+        identity.addRole("user");
+        boolean[] grantedAsAdmin = new boolean[1];
+
+        identity.runAs(new AbstractRunAsOperation() {
+            @Override
+            public void execute() {
+                grantedAsAdmin[0] =
+                        identity.hasPermission(target, "seam.insert");
+            }
+        }.addRole("admin"));
+
+        assertThat(grantedAsAdmin[0]).isTrue();
+        assertThat(identity.hasPermission(target, "seam.insert"))
+                .as("grant to the run-as admin is not reused")
+                .isFalse();
+    }
+
     @Test(expected = AuthorizationException.class)
     public void canCheckPermission() {
         identity.getCredentials().setUsername(username);
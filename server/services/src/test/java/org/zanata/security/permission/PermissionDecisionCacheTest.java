@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.security.permission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.zanata.common.LocaleId;
+import org.zanata.model.HLocale;
+import org.zanata.model.HProject;
+
+public class PermissionDecisionCacheTest {
+    private final PermissionDecisionCache cache = new PermissionDecisionCache();
+
+    @Test
+    public void remembersGrantForSameTargetInstances() {
+        HProject project = new HProject();
+        HLocale locale = new HLocale(LocaleId.DE);
+        Object[] targets = { project, locale };
+
+        cache.putGranted("modify-translation", targets);
+        // the caller's array may be reused
+        targets[0] = null;
+
+        assertThat(cache.isGranted("modify-translation",
+                new Object[] { project, locale })).isTrue();
+        assertThat(cache.isGranted("review-translation",
+                new Object[] { project, locale })).isFalse();
+        assertThat(cache.isGranted("modify-translation",
+                new Object[] { locale, project })).isFalse();
+    }
+
+    @Test
+    public void comparesTargetsByIdentity() {
+        HProject project = new HProject();
+        project.setSlug("same-slug");
+        HProject equalProject = new HProject();
+        equalProject.setSlug("same-slug");
+
+        cache.putGranted("read", new Object[] { project });
+
+        assertThat(cache.isGranted("read", new Object[] { equalProject }))
+                .isFalse();
+    }
+
+    @Test
+    public void doesNotRememberActionsWhichGuardChangesToTheTargets() {
+        HProject project = new HProject();
+        cache.putGranted("update", new Object[] { project });
+        cache.putGranted("manage-members", new Object[] { project });
+
+        assertThat(cache.isGranted("update", new Object[] { project }))
+                .isFalse();
+        assertThat(cache.isGranted("manage-members", new Object[] { project }))
+                .isFalse();
+    }
+
+    @Test
+    public void forgetsGrantsWhenCleared() {
+        HProject project = new HProject();
+        cache.putGranted("read", new Object[] { project });
+
+        cache.onLogout(null);
+
+        assertThat(cache.isGranted("read", new Object[] { project }))
+                .isFalse();
+    }
+}
@@ -196,6 +196,13 @@ public class PermissionEvaluatorTest {
                 .isFalse();
     }
 
+    @Test
+    public void ignoresNullTargets() throws Exception {
+        assertThat(complexPermissionEvaluator
+                .checkPermission("project-action", null, new HProject()))
+                .isTrue();
+    }
+
     @Test
     public void allowSpecificActionAndType() throws Exception {
         assertThat(complexPermissionEvaluator
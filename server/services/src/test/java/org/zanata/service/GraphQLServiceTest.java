@@ -24,6 +24,7 @@ package org.zanata.service;
 import javax.enterprise.inject.Produces;
 import javax.persistence.EntityManager;
 
+import graphql.ExecutionResult;
 import org.hibernate.Session;
 import org.jglue.cdiunit.InRequestScope;
 import org.junit.Before;
@@ -68,4 +69,21 @@ public class GraphQLServiceTest extends ZanataJpaTest {
 //        System.out.println(schema);
     }
 
+    @Test
+    @InRequestScope
+    public void rejectsQueryDeeperThanLimit() {
+        StringBuilder fields = new StringBuilder("slug");
+        for (int i = 0; i < GraphQLService.MAX_QUERY_DEPTH; i++) {
+            fields.insert(0, "project { projectIterations { ")
+                    .append(" } }");
+        }
+        String query = "{ account (username: \"admin\") { person { "
+                + "projectMemberships { " + fields + " } } } }";
+
+        ExecutionResult result = graphQLService.query(query);
+
+        assertThat(result.getErrors()).isNotEmpty();
+        assertThat(result.getErrors().get(0).getMessage()).contains("depth");
+    }
+
 }
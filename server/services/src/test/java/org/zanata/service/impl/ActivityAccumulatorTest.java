@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.zanata.common.ActivityType;
+import org.zanata.dao.ActivityDAO;
+import org.zanata.dao.PersonDAO;
+import org.zanata.model.Activity;
+import org.zanata.model.HPerson;
+import org.zanata.model.type.EntityType;
+import org.zanata.transaction.TransactionUtil;
+
+public class ActivityAccumulatorTest {
+    private static final long GOOD_ACTOR = 1L;
+    private static final long BAD_ACTOR = 2L;
+
+    @Mock
+    private ActivityDAO activityDAO;
+    @Mock
+    private PersonDAO personDAO;
+    @Mock
+    private TransactionUtil transactionUtil;
+
+    private ActivityAccumulator accumulator;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> {
+            invocation.<Runnable> getArgument(0).run();
+            return null;
+        }).when(transactionUtil).run(any(Runnable.class));
+        when(personDAO.findById(GOOD_ACTOR)).thenReturn(new HPerson());
+        when(personDAO.findById(BAD_ACTOR))
+                .thenThrow(new IllegalStateException("bad row"));
+        accumulator =
+                new ActivityAccumulator(activityDAO, personDAO, transactionUtil);
+    }
+
+    private void accumulate(long actorId, long contextId) {
+        accumulator.accumulate(actorId, EntityType.HProjectIteration,
+                contextId, EntityType.HTexFlowTarget, 1L,
+                ActivityType.UPDATE_TRANSLATION, 5, new Date());
+    }
+
+    @Test
+    public void failingActivityDoesNotHoldBackOthers() {
+        accumulate(BAD_ACTOR, 1L);
+        accumulate(GOOD_ACTOR, 1L);
+
+        accumulator.flush();
+
+        verify(activityDAO).makePersistent(any(Activity.class));
+        assertThat(accumulator.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void failingActivityIsDroppedAfterMaxAttempts() {
+        accumulate(BAD_ACTOR, 1L);
+
+        for (int i = 1; i < ActivityAccumulator.MAX_WRITE_ATTEMPTS; i++) {
+            accumulator.flush();
+            assertThat(accumulator.getPendingCount()).isEqualTo(1);
+        }
+        accumulator.flush();
+
+        assertThat(accumulator.getPendingCount()).isEqualTo(0);
+        verify(activityDAO, times(0)).makePersistent(any(Activity.class));
+    }
+
+    @Test
+    public void pendingActivitiesAreCapped() {
+        for (int i = 0; i <= ActivityAccumulator.MAX_PENDING; i++) {
+            accumulate(GOOD_ACTOR, i);
+        }
+
+        assertThat(accumulator.getPendingCount())
+                .isEqualTo(ActivityAccumulator.MAX_PENDING);
+    }
+}
@@ -72,6 +72,9 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
     @Inject
     private ActivityServiceImpl activityService;
 
+    @Inject
+    private ActivityAccumulator activityAccumulator;
+
     @Produces @Mock IServiceLocator serviceLocator;
 
     @Override
@@ -124,6 +127,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 new LocaleId("as"), textFlowTargetId, ContentState.Approved,
                 ContentState.NeedReview);
         activityService.logTextFlowStateUpdate(event);
+        activityAccumulator.flush();
         Activity activity =
                 activityService.findActivity(personId,
                         EntityType.HProjectIteration, projectVersionId,
@@ -141,6 +145,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 textFlowTargetId, ContentState.Approved,
                 ContentState.NeedReview);
         activityService.logTextFlowStateUpdate(event);
+        activityAccumulator.flush();
         List<Activity> activities =
                 activityService.findLatestActivitiesForContext(personId,
                         projectVersionId, 0, 10);
@@ -152,6 +157,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 textFlowTargetId, ContentState.Rejected,
                 ContentState.NeedReview);
         activityService.logTextFlowStateUpdate(event2);
+        activityAccumulator.flush();
 
         activities =
                 activityService.findLatestActivitiesForContext(personId,
@@ -165,6 +171,30 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
         assertThat(activity.getEventCount()).isEqualTo(2);
     }
 
+    @Test
+    @InRequestScope
+    public void testActivitiesCoalescedBeforeFlush() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            activityService.logTextFlowStateUpdate(
+                buildEvent(personId, versionId, documentId, null,
+                    new LocaleId("as"), textFlowTargetId,
+                    ContentState.Approved, ContentState.NeedReview));
+        }
+        assertThat(activityAccumulator.getPendingCount()).isEqualTo(1);
+        assertThat(activityService.findLatestActivitiesForContext(personId,
+                projectVersionId, 0, 10)).isEmpty();
+
+        activityAccumulator.flush();
+
+        assertThat(activityAccumulator.getPendingCount()).isEqualTo(0);
+        Activity activity =
+                activityService.findActivity(personId,
+                        EntityType.HProjectIteration, projectVersionId,
+                        ActivityType.REVIEWED_TRANSLATION, new Date());
+        assertThat(activity).isNotNull();
+        assertThat(activity.getEventCount()).isEqualTo(3);
+    }
+
     @Test
     @InRequestScope
     public void testActivityInsertAndUpdate() throws Exception {
@@ -174,6 +204,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 textFlowTargetId, ContentState.Translated,
                 ContentState.NeedReview);
         activityService.logTextFlowStateUpdate(event);
+        activityAccumulator.flush();
 
         Activity activity =
                 activityService.findActivity(personId,
@@ -188,6 +219,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 new LocaleId("as"), textFlowTargetId, ContentState.NeedReview,
                 ContentState.New);
         activityService.logTextFlowStateUpdate(event2);
+        activityAccumulator.flush();
         activity =
                 activityService.findActivity(personId,
                         EntityType.HProjectIteration, projectVersionId,
@@ -204,6 +236,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 textFlowTargetId, ContentState.Translated,
                 ContentState.NeedReview);
         activityService.logTextFlowStateUpdate(event);
+        activityAccumulator.flush();
 
         TextFlowTargetStateEvent event2 =
             buildEvent(personId, versionId, documentId, null,
@@ -211,6 +244,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 textFlowTargetId, ContentState.Approved,
                 ContentState.NeedReview);
         activityService.logTextFlowStateUpdate(event2);
+        activityAccumulator.flush();
 
         activityService.onDocumentUploaded(new DocumentUploadedEvent(personId,
                 documentId, false, new LocaleId("as")));
@@ -230,26 +264,31 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
             buildEvent(personId, versionId, documentId2, null, LocaleId.EN_US,
                 new Long(5), ContentState.Translated, ContentState.NeedReview);
         activityService.logTextFlowStateUpdate(event);
+        activityAccumulator.flush();
 
         TextFlowTargetStateEvent event2 =
             buildEvent(personId, versionId, documentId2, null, LocaleId.EN_US,
                 new Long(5), ContentState.Approved, ContentState.NeedReview);
         activityService.logTextFlowStateUpdate(event2);
+        activityAccumulator.flush();
 
         TextFlowTargetStateEvent event3 =
             buildEvent(personId, versionId, documentId2, null, LocaleId.EN_US,
                 new Long(5), ContentState.Approved, ContentState.NeedReview);
         activityService.logTextFlowStateUpdate(event3);
+        activityAccumulator.flush();
 
         TextFlowTargetStateEvent event4 =
             buildEvent(personId, versionId, documentId2, null, LocaleId.EN_US,
                 new Long(6), ContentState.Rejected, ContentState.Translated);
         activityService.logTextFlowStateUpdate(event4);
+        activityAccumulator.flush();
 
         TextFlowTargetStateEvent event5 =
             buildEvent(personId, versionId, documentId2, null, LocaleId.EN_US,
                 new Long(6), ContentState.NeedReview, ContentState.New);
         activityService.logTextFlowStateUpdate(event5);
+        activityAccumulator.flush();
 
         List<Activity> activities =
             activityService.findLatestActivitiesForContext(personId,
@@ -258,6 +297,18 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
         assertThat(activities.size()).isEqualTo(2);
     }
 
+    @Test
+    @InRequestScope
+    public void testNoActivityWithoutActor() throws Exception {
+        // eg targets cleared by a translation import
+        activityService.logTextFlowStateUpdate(
+            buildEvent(null, versionId, documentId, null,
+                new LocaleId("as"), textFlowTargetId, ContentState.New,
+                ContentState.Translated));
+
+        assertThat(activityAccumulator.getPendingCount()).isEqualTo(0);
+    }
+
     private TextFlowTargetStateEvent buildEvent(Long personId, Long versionId,
         Long documentId, Long tfIf, LocaleId localeId,
         Long tftId, ContentState newState, ContentState oldState) {
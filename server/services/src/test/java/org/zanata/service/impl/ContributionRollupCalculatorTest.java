@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.zanata.common.ContentState;
+import org.zanata.model.ContributionRollup.Role;
+import org.zanata.service.impl.ContributionRollupCalculator.Counts;
+import org.zanata.service.impl.ContributionRollupCalculator.RollupKey;
+import org.zanata.service.impl.ContributionRollupCalculator.TargetVersion;
+
+public class ContributionRollupCalculatorTest {
+    private static final long HOUR = 3600_000L;
+    private static final long MINUTE = 60_000L;
+    private static final long TARGET = 1L;
+    private static final long VERSION = 10L;
+    private static final long LOCALE = 20L;
+    private static final long WORDS = 5L;
+    private static final long ALICE = 100L;
+    private static final long BOB = 101L;
+    private static final long CAROL = 102L;
+
+    private final List<TargetVersion> versions = new ArrayList<>();
+
+    @Test
+    public void countsNewTranslation() {
+        translate(1, ALICE, ContentState.Translated);
+
+        Map<RollupKey, Counts> delta =
+                ContributionRollupCalculator.delta(versions, null, null);
+
+        assertThat(words(delta)).containsOnly(
+                entry(Role.TRANSLATED, ALICE, 1, WORDS),
+                entry(Role.EDITED, ALICE, 1, WORDS));
+    }
+
+    @Test
+    public void keepsPreviousTranslatorWhenSomeoneElseTranslates() {
+        translate(1, ALICE, ContentState.Translated);
+        translate(2, BOB, ContentState.Translated);
+
+        Map<RollupKey, Counts> delta =
+                ContributionRollupCalculator.delta(versions, at(1), null);
+
+        assertThat(words(delta)).containsOnly(
+                entry(Role.TRANSLATED, BOB, 2, WORDS),
+                entry(Role.EDITED, BOB, 2, WORDS));
+    }
+
+    @Test
+    public void retractsOlderTranslatorOnceTwoVersionsBack() {
+        translate(1, ALICE, ContentState.Translated);
+        translate(2, BOB, ContentState.Translated);
+        translate(3, CAROL, ContentState.Translated);
+
+        Map<RollupKey, Counts> delta =
+                ContributionRollupCalculator.delta(versions, at(2), null);
+
+        assertThat(words(delta)).containsOnly(
+                entry(Role.TRANSLATED, CAROL, 3, WORDS),
+                entry(Role.TRANSLATED, ALICE, 1, -WORDS),
+                entry(Role.EDITED, CAROL, 3, WORDS));
+    }
+
+    @Test
+    public void samePersonIsOnlyCountedForLatestVersion() {
+        review(1, ALICE, ContentState.Approved);
+        review(2, ALICE, ContentState.Approved);
+
+        Map<RollupKey, Counts> delta =
+                ContributionRollupCalculator.delta(versions, at(1), null);
+
+        assertThat(words(delta)).containsOnly(
+                entry(Role.REVIEWED, ALICE, 1, -WORDS),
+                entry(Role.REVIEWED, ALICE, 2, WORDS),
+                entry(Role.EDITED, ALICE, 2, WORDS));
+    }
+
+    @Test
+    public void doesNotCountRejectedAsEdited() {
+        review(1, ALICE, ContentState.Rejected);
+
+        Map<RollupKey, Counts> delta =
+                ContributionRollupCalculator.delta(versions, null, null);
+
+        assertThat(words(delta)).containsOnly(
+                entry(Role.REVIEWED, ALICE, 1, WORDS));
+    }
+
+    @Test
+    public void batchesAddUpToTheWholeHistory() {
+        translate(1, ALICE, ContentState.Translated);
+        review(2, BOB, ContentState.Approved);
+        translate(3, CAROL, ContentState.NeedReview);
+        review(4, ALICE, ContentState.Rejected);
+
+        Map<RollupKey, Counts> whole =
+                ContributionRollupCalculator.delta(versions, null, null);
+        Map<List<Object>, Long> batched = new HashMap<>();
+        Date from = null;
+        for (int hour = 1; hour <= 4; hour++) {
+            words(ContributionRollupCalculator.delta(versions, from, at(hour)))
+                    .forEach((key, words) -> batched.merge(key, words,
+                            Long::sum));
+            from = at(hour);
+        }
+        batched.values().removeIf(words -> words == 0);
+
+        assertThat(batched).isEqualTo(words(whole));
+    }
+
+    @Test
+    public void versionCommittedAfterWatermarkIsCountedOnce() {
+        translate(1, ALICE, ContentState.Translated);
+        translate(2, BOB, ContentState.Translated);
+        // saved at hour 3, but its transaction has not committed when the
+        // first batch runs; the settle window keeps the watermark behind it
+        List<TargetVersion> committed = new ArrayList<>(versions);
+        review(3, CAROL, ContentState.Approved);
+
+        Map<List<Object>, Long> batched = new HashMap<>(words(
+                ContributionRollupCalculator.delta(committed, null, at(2))));
+        words(ContributionRollupCalculator.delta(versions, at(2), at(3)))
+                .forEach((key, words) -> batched.merge(key, words,
+                        Long::sum));
+        batched.values().removeIf(words -> words == 0);
+
+        assertThat(batched).isEqualTo(words(
+                ContributionRollupCalculator.delta(versions, null, null)));
+    }
+
+    @Test
+    public void versionCommittedBehindWatermarkIsMissed() {
+        // the bound: a version whose transaction commits after the watermark
+        // has passed its lastChanged is never counted, which is why the
+        // settle window must be longer than the transaction timeout
+        translate(1, ALICE, ContentState.Translated);
+        List<TargetVersion> committed = new ArrayList<>(versions);
+        translate(2, BOB, ContentState.Translated);
+
+        Map<RollupKey, Counts> firstBatch =
+                ContributionRollupCalculator.delta(committed, null, at(3));
+        Map<RollupKey, Counts> secondBatch =
+                ContributionRollupCalculator.delta(versions, at(3), at(4));
+
+        assertThat(words(firstBatch)).containsOnly(
+                entry(Role.TRANSLATED, ALICE, 1, WORDS),
+                entry(Role.EDITED, ALICE, 1, WORDS));
+        assertThat(secondBatch).isEmpty();
+    }
+
+    @Test
+    public void periodsStartOnQuarterHours() {
+        // 00:05 on 2 January in India (UTC+5:30) and Nepal (UTC+5:45)
+        Date india = new Date(18 * HOUR + 35 * MINUTE);
+        Date nepal = new Date(18 * HOUR + 20 * MINUTE);
+
+        assertThat(ContributionRollupCalculator.periodOf(india))
+                .isEqualTo(new Date(18 * HOUR + 30 * MINUTE));
+        assertThat(ContributionRollupCalculator.periodOf(nepal))
+                .isEqualTo(new Date(18 * HOUR + 15 * MINUTE));
+        assertThat(ContributionRollupCalculator.periodOf(at(2)))
+                .isEqualTo(at(2));
+    }
+
+    private void translate(int hour, long personId, ContentState state) {
+        versions.add(new TargetVersion(TARGET, hour, at(hour), state,
+                personId, null, personId, false, VERSION, LOCALE, WORDS));
+    }
+
+    private void review(int hour, long personId, ContentState state) {
+        versions.add(new TargetVersion(TARGET, hour, at(hour), state, null,
+                personId, personId, false, VERSION, LOCALE, WORDS));
+    }
+
+    private static Date at(int hour) {
+        return new Date(hour * HOUR);
+    }
+
+    private static Map<List<Object>, Long> words(
+            Map<RollupKey, Counts> delta) {
+        Map<List<Object>, Long> result = new HashMap<>();
+        delta.forEach((key, counts) -> result.put(
+                Arrays.asList(key.role, key.personId, key.period),
+                counts.words));
+        return result;
+    }
+
+    private static Map.Entry<List<Object>, Long> entry(Role role,
+            long personId, int hour, long words) {
+        return new java.util.AbstractMap.SimpleEntry<>(
+                Arrays.asList(role, personId, at(hour)), words);
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.zanata.common.ContentState.Approved;
+import static org.zanata.common.ContentState.NeedReview;
+import static org.zanata.common.ContentState.Translated;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.jglue.cdiunit.ContextController;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.zanata.ApplicationConfiguration;
+import org.zanata.ZanataJpaTest;
+import org.zanata.common.ContentState;
+import org.zanata.common.LocaleId;
+import org.zanata.dao.TextFlowTargetHistoryDAO;
+import org.zanata.model.ContributionRollup.Role;
+import org.zanata.model.HAccount;
+import org.zanata.model.HDocument;
+import org.zanata.model.HLocale;
+import org.zanata.model.HPerson;
+import org.zanata.model.HProject;
+import org.zanata.model.HProjectIteration;
+import org.zanata.model.HTextFlowBuilder;
+import org.zanata.model.HTextFlowTarget;
+import org.zanata.model.HTextFlowTargetHistory;
+import org.zanata.rest.dto.TranslationMatrix;
+import org.zanata.rest.service.StatisticsServiceImpl.UserMatrixResultTransformer;
+import org.zanata.security.ZanataIdentity;
+import org.zanata.test.CdiUnitRunner;
+import org.zanata.transaction.TransactionUtil;
+
+import com.github.huangp.entityunit.entity.EntityMakerBuilder;
+import com.github.huangp.entityunit.maker.FixedValueMaker;
+import com.google.common.base.Optional;
+
+/**
+ * Rolls up a fixture history and checks that the rollup answers the same as
+ * the TextFlowTargetHistoryDAO queries it replaces.
+ */
+@RunWith(CdiUnitRunner.class)
+public class ContributionRollupServiceJPATest extends ZanataJpaTest {
+    private static final DateTimeFormatter dateFormatter =
+            DateTimeFormat.mediumDate();
+
+    @Inject
+    private ContributionRollupService rollupService;
+
+    @Inject
+    private ContextController contextController;
+
+    @Produces @Mock
+    private ApplicationConfiguration applicationConfiguration;
+
+    @Produces @Mock
+    private TransactionUtil transactionUtil;
+
+    private TextFlowTargetHistoryDAO historyDAO;
+    private HLocale locale;
+    private HDocument document;
+    private HPerson translator;
+    private HPerson reviewer;
+    private DateTime threeDaysAgo = new DateTime().minusDays(3)
+            .withTime(10, 0, 0, 0);
+    private DateTime twoDaysAgo = new DateTime().minusDays(2)
+            .withTime(14, 7, 0, 0);
+    // not settled yet, so only counted when querying
+    private DateTime aMinuteAgo = new DateTime().minusMinutes(1);
+
+    @Override
+    @Produces
+    protected Session getSession() {
+        return super.getSession();
+    }
+
+    @Override
+    @Produces
+    protected EntityManager getEm() {
+        return super.getEm();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        contextController.openRequest();
+        when(applicationConfiguration.getContributionRollupSettleMinutes())
+                .thenReturn(10L);
+        when(transactionUtil.call(any())).thenAnswer(
+                invocation -> ((Callable<?>) invocation.getArgument(0))
+                        .call());
+        historyDAO = new TextFlowTargetHistoryDAO(getSession()) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected String stripTimeFromDateTimeFunction(String columnName) {
+                // we override mysql function with a h2 one
+                return "formatdatetime(" + columnName + ", 'yyyy-MM-dd')";
+            }
+        };
+        deleteAllTables();
+        locale = new HLocale(LocaleId.DE);
+        getEm().persist(locale);
+        translator = makePerson("translator");
+        reviewer = makePerson("reviewer");
+        document = EntityMakerBuilder.builder()
+                .addFieldOrPropertyMaker(HProject.class, "sourceViewURL",
+                        FixedValueMaker.EMPTY_STRING_MAKER)
+                .build().makeAndPersist(getEm(), HDocument.class);
+        makeFixtureHistory();
+        rollupService.rollUp();
+    }
+
+    private void makeFixtureHistory() {
+        // translated once
+        target("res1", translator, Translated, threeDaysAgo, 1);
+        // fuzzy translation, then translated by someone else
+        HTextFlowTarget res2 =
+                target("res2", reviewer, Translated, twoDaysAgo, 2);
+        // translated, then approved
+        HTextFlowTarget res3 =
+                target("res3", reviewer, Approved, twoDaysAgo, 2);
+        // translated twice, then retranslated by someone else just now
+        HTextFlowTarget res4 =
+                target("res4", reviewer, Translated, aMinuteAgo, 3);
+        getEm().flush();
+        history(res2, 1, translator, NeedReview, threeDaysAgo);
+        history(res3, 1, translator, Translated, threeDaysAgo);
+        history(res4, 1, translator, Translated, threeDaysAgo);
+        history(res4, 2, translator, Translated, twoDaysAgo);
+        getEm().flush();
+    }
+
+    @Test
+    public void contributionTotalsMatchHistoryQueries() {
+        Long versionId = document.getProjectIteration().getId();
+        Date from = threeDaysAgo.minusDays(1)
+                .withTimeAtStartOfDay().toDate();
+        Date to = new DateTime().toDate();
+        for (HPerson person : Arrays.asList(translator, reviewer)) {
+            Map<List<Object>, Long> translated = historyTotals(historyDAO
+                    .getUserTranslationStatisticInVersion(versionId,
+                            person.getId(), from, to, false));
+            Map<List<Object>, Long> reviewed = historyTotals(historyDAO
+                    .getUserReviewStatisticInVersion(versionId,
+                            person.getId(), from, to, false));
+
+            assertThat(rollupTotals(rollupService.getContributionTotals(
+                    Role.TRANSLATED, versionId, person.getId(), from, to,
+                    false))).describedAs("words translated by %s",
+                            person.getName())
+                            .isEqualTo(translated);
+            assertThat(rollupTotals(rollupService.getContributionTotals(
+                    Role.REVIEWED, versionId, person.getId(), from, to,
+                    false))).describedAs("words reviewed by %s",
+                            person.getName())
+                            .isEqualTo(reviewed);
+        }
+        assertThat(historyTotals(historyDAO
+                .getUserTranslationStatisticInVersion(versionId,
+                        translator.getId(), from, to, false)))
+                                .describedAs("fixture is not empty")
+                                .isNotEmpty();
+    }
+
+    @Test
+    public void workTotalsMatchUserTranslationMatrix() {
+        ZanataIdentity identity = mock(ZanataIdentity.class);
+        when(identity.hasPermission(any(), anyString())).thenReturn(true);
+        UserMatrixResultTransformer resultTransformer =
+                new UserMatrixResultTransformer(getEm(), identity,
+                        dateFormatter);
+        DateTime from = threeDaysAgo.minusDays(1).withTimeAtStartOfDay();
+        DateTime to = new DateTime();
+        for (HPerson person : Arrays.asList(translator, reviewer)) {
+            Map<List<Object>, Long> matrix = new HashMap<>();
+            for (TranslationMatrix row : historyDAO.getUserTranslationMatrix(
+                    person, from, to, Optional.absent(),
+                    DateTimeZone.getDefault(), resultTransformer)) {
+                matrix.merge(Arrays.asList(row.getSavedDate(),
+                        row.getVersionSlug(), row.getLocaleId(),
+                        row.getSavedState()), row.getWordCount(), Long::sum);
+            }
+
+            Map<List<Object>, Long> rolledUp = new HashMap<>();
+            for (Object[] row : rollupService.getWorkTotals(person.getId(),
+                    from.toDate(), to.toDate())) {
+                HProjectIteration version = getEm().find(
+                        HProjectIteration.class, (Long) row[1]);
+                HLocale rowLocale = getEm().find(HLocale.class, (Long) row[2]);
+                rolledUp.merge(Arrays.asList(
+                        dateFormatter.print(
+                                ((Date) row[0]).getTime()),
+                        version.getSlug(), rowLocale.getLocaleId(),
+                        ContentState.values()[(Integer) row[3]]),
+                        ((Number) row[4]).longValue(), Long::sum);
+            }
+
+            assertThat(rolledUp).describedAs("work of %s", person.getName())
+                    .isEqualTo(matrix).isNotEmpty();
+        }
+    }
+
+    /**
+     * @param rows
+     *            Object[wordCount][contentState][localeId] from the history
+     *            queries
+     * @return words by [state, LocaleId]
+     */
+    private static Map<List<Object>, Long> historyTotals(List<Object[]> rows) {
+        Map<List<Object>, Long> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            totals.merge(
+                    Arrays.asList(
+                            ContentState.values()[((Number) row[1])
+                                    .intValue()],
+                            new LocaleId(row[2].toString())),
+                    ((Number) row[0]).longValue(), Long::sum);
+        }
+        return totals;
+    }
+
+    /**
+     * @param rows
+     *            Object[wordCount][contentState ordinal][HLocale id] from the
+     *            rollup
+     * @return words by [state, LocaleId]
+     */
+    private Map<List<Object>, Long> rollupTotals(List<Object[]> rows) {
+        assertThat(rows).describedAs("rollup is up to date").isNotNull();
+        Map<List<Object>, Long> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            HLocale rowLocale = getEm().find(HLocale.class, (Long) row[2]);
+            totals.merge(
+                    Arrays.asList(ContentState.values()[(Integer) row[1]],
+                            rowLocale.getLocaleId()),
+                    ((Number) row[0]).longValue(), Long::sum);
+        }
+        return totals;
+    }
+
+    private HTextFlowTarget target(String resId, HPerson person,
+            ContentState state, DateTime saved, int versionNum) {
+        HTextFlowTarget target = new HTextFlowBuilder()
+                .withDocument(document).withTargetLocale(locale)
+                .withResId(resId).withSourceContent("source " + resId)
+                .withTargetContent("target " + resId)
+                .withLastModifiedBy(person).withLastModifiedDate(saved)
+                .withTargetState(state).build().getTargets()
+                .get(locale.getId());
+        // earlier versions are added as history
+        target.setVersionNum(versionNum);
+        return target;
+    }
+
+    private void history(HTextFlowTarget target, int versionNum,
+            HPerson person, ContentState state, DateTime saved) {
+        HTextFlowTargetHistory history = new HTextFlowTargetHistory();
+        history.setTextFlowTarget(target);
+        history.setVersionNum(versionNum);
+        history.setContents(target.getContents());
+        history.setTextFlowRevision(target.getTextFlowRevision());
+        history.setLastModifiedBy(person);
+        history.setLastChanged(saved.toDate());
+        history.setState(state);
+        if (state == Approved) {
+            history.setReviewer(person);
+        } else {
+            history.setTranslator(person);
+        }
+        getEm().persist(history);
+    }
+
+    private HPerson makePerson(String username) {
+        HAccount hAccount = new HAccount();
+        hAccount.setUsername(username);
+        getEm().persist(hAccount);
+        return EntityMakerBuilder.builder()
+                .reuseEntity(hAccount)
+                .includeOptionalOneToOne().build()
+                .makeAndPersist(getEm(), HPerson.class);
+    }
+}
@@ -55,6 +55,7 @@ import org.zanata.common.ContentState;
 import org.zanata.common.ContentType;
 import org.zanata.common.LocaleId;
 import org.zanata.file.FileSystemPersistService;
+import org.zanata.file.RawDocumentFileLocks;
 import org.zanata.i18n.Messages;
 import org.zanata.jpa.FullText;
 import org.zanata.model.HAccount;
@@ -92,6 +93,7 @@ import static com.github.huangp.entityunit.entity.EntityCleaner.deleteAll;
 @AdditionalClasses({ LocaleServiceImpl.class,
         TranslationMemoryServiceImpl.class,
         FileSystemPersistService.class,
+        RawDocumentFileLocks.class,
         TranslationStateCache.class,
         VersionStateCacheImpl.class,
         ValidationServiceImpl.class,
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zanata.adapter.FileFormatAdapter;
+import org.zanata.adapter.PlainTextAdapter;
+import org.zanata.common.DocumentType;
+
+public class FileFormatAdapterPoolTest {
+    private FileFormatAdapterPool pool;
+    private AtomicInteger created;
+
+    @Before
+    public void setUp() {
+        pool = new FileFormatAdapterPool();
+        created = new AtomicInteger();
+    }
+
+    @Test
+    public void reusesReturnedAdapter() {
+        FileFormatAdapter first = pool.withAdapter(DocumentType.PLAIN_TEXT,
+                this::newAdapter, adapter -> adapter);
+        FileFormatAdapter second = pool.withAdapter(DocumentType.PLAIN_TEXT,
+                this::newAdapter, adapter -> adapter);
+
+        assertThat(second).isSameAs(first);
+        assertThat(created.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void createsAnotherAdapterWhileOneIsInUse() {
+        FileFormatAdapter inner = pool.withAdapter(DocumentType.PLAIN_TEXT,
+                this::newAdapter,
+                outer -> pool.withAdapter(DocumentType.PLAIN_TEXT,
+                        this::newAdapter, adapter -> {
+                            assertThat(adapter).isNotSameAs(outer);
+                            return adapter;
+                        }));
+
+        assertThat(inner).isNotNull();
+        assertThat(created.get()).isEqualTo(2);
+        assertThat(pool.getIdleCount(DocumentType.PLAIN_TEXT)).isEqualTo(2);
+    }
+
+    @Test
+    public void discardsAdapterWhichFailed() {
+        assertThatThrownBy(() -> pool.withAdapter(DocumentType.PLAIN_TEXT,
+                this::newAdapter, adapter -> {
+                    throw new IllegalStateException("parse failed");
+                })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(pool.getIdleCount(DocumentType.PLAIN_TEXT)).isEqualTo(0);
+    }
+
+    @Test
+    public void keepsLimitedNumberOfIdleAdapters() {
+        int inUse = FileFormatAdapterPool.MAX_IDLE_PER_TYPE + 2;
+        borrowNested(inUse);
+
+        assertThat(created.get()).isEqualTo(inUse);
+        assertThat(pool.getIdleCount(DocumentType.PLAIN_TEXT))
+                .isEqualTo(FileFormatAdapterPool.MAX_IDLE_PER_TYPE);
+    }
+
+    private void borrowNested(int depth) {
+        if (depth > 0) {
+            pool.withAdapter(DocumentType.PLAIN_TEXT, this::newAdapter,
+                    adapter -> {
+                        borrowNested(depth - 1);
+                        return adapter;
+                    });
+        }
+    }
+
+    private FileFormatAdapter newAdapter() {
+        created.incrementAndGet();
+        return new PlainTextAdapter();
+    }
+}
@@ -2,6 +2,7 @@ package org.zanata.service.impl;
 
 import java.util.List;
 import java.util.Set;
+import javax.enterprise.event.Event;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
@@ -17,6 +18,7 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.zanata.PerformanceProfiling;
 import org.zanata.ZanataJpaTest;
@@ -24,6 +26,7 @@ import org.zanata.common.ContentState;
 import org.zanata.common.ContentType;
 import org.zanata.common.LocaleId;
 import org.zanata.common.MergeType;
+import org.zanata.events.TextFlowTargetStateEvent;
 import org.zanata.i18n.Messages;
 import org.zanata.jpa.FullText;
 import org.zanata.model.HAccount;
@@ -50,6 +53,7 @@ import org.zanata.service.TranslationStateCache;
 import org.zanata.test.CdiUnitRunner;
 import org.zanata.transaction.TransactionUtilImpl;
 import org.zanata.util.IServiceLocator;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(CdiUnitRunner.class)
@@ -85,6 +89,9 @@ public class TranslationServiceImplJpaTest extends ZanataJpaTest {
     IServiceLocator serviceLocator;
     @Mock
     UserTransaction userTransaction;
+    @Produces
+    @Mock
+    Event<TextFlowTargetStateEvent> textFlowTargetStateEvent;
 
     @Override
     @Produces
@@ -183,6 +190,44 @@ public class TranslationServiceImplJpaTest extends ZanataJpaTest {
         Assertions.assertThat(histories).hasSize(numOfTextFlowsHavingTarget);
     }
 
+    @Test
+    @InRequestScope
+    public void importWhichClearsTargetsRecordsNoActivity() {
+        EntityMaker entityMaker = EntityMakerBuilder
+                .builder().addFieldOrPropertyMaker(HProject.class,
+                        "sourceViewURL", FixedValueMaker.EMPTY_STRING_MAKER)
+                .build();
+        HProjectIteration iteration =
+                entityMaker.makeAndPersist(getEm(), HProjectIteration.class);
+        HLocale srcLocale = createAndPersistLocale(LocaleId.EN_US, getEm());
+        HLocale transLocale = createAndPersistLocale(LocaleId.DE, getEm());
+        HDocument document =
+                new HDocument("message", ContentType.PO, srcLocale);
+        document.setProjectIteration(iteration);
+        getEm().persist(document);
+        getEm().flush();
+        int numOfTextFlowsHavingTarget =
+                createSourceAndSomeTargets(document, transLocale, 4);
+        getEm().getTransaction().commit();
+        getEm().getTransaction().begin();
+
+        // the imported file has no translations, so all of them are cleared
+        TranslationsResource translations = new TranslationsResource();
+        translations.setRevision(1);
+        service.translateAllInDoc(iteration.getProject().getSlug(),
+                iteration.getSlug(), document.getDocId(),
+                transLocale.getLocaleId(), translations, extensions,
+                MergeType.IMPORT, true, TranslationSourceType.API_UPLOAD);
+
+        ArgumentCaptor<TextFlowTargetStateEvent> event =
+                ArgumentCaptor.forClass(TextFlowTargetStateEvent.class);
+        verify(textFlowTargetStateEvent).fire(event.capture());
+        Assertions.assertThat(event.getValue().getStates())
+                .hasSize(numOfTextFlowsHavingTarget);
+        // ActivityServiceImpl records nothing for events without an actor
+        Assertions.assertThat(event.getValue().getActorId()).isNull();
+    }
+
     private static HLocale createAndPersistLocale(LocaleId localeId,
             EntityManager entityManager) {
         HLocale hLocale = new HLocale(localeId, true, true);
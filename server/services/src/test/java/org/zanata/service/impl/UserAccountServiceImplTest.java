@@ -20,7 +20,6 @@
  */
 package org.zanata.service.impl;
 
-import java.io.File;
 import java.util.Date;
 import java.util.List;
 
@@ -31,11 +30,12 @@ import org.jglue.cdiunit.InRequestScope;
 import org.jglue.cdiunit.deltaspike.SupportDeltaspikeCore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mock;
 import org.zanata.ZanataDbunitJpaTest;
 import org.zanata.common.EntityStatus;
 import org.zanata.common.LocaleId;
 import org.zanata.dao.RoleAssignmentRuleDAO;
-import org.zanata.file.DocumentStorage;
+import org.zanata.file.FilePersistService;
 import org.zanata.model.HAccount;
 import org.zanata.model.HAccountActivationKey;
 import org.zanata.model.HAccountResetPasswordKey;
@@ -95,10 +95,8 @@ public class UserAccountServiceImplTest extends ZanataDbunitJpaTest {
         return getEm().find(HAccount.class, 3L);
     }
 
-    @Produces @DocumentStorage
-    protected File getDocumentStorage() {
-        return new File(System.getProperty("java.io.tmpdir"));
-    }
+    @Produces @Mock
+    FilePersistService filePersistService;
 
     @Override
     protected void prepareDBUnitOperations() {
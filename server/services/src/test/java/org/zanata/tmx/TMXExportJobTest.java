@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.tmx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Range;
+
+public class TMXExportJobTest {
+
+    @Test
+    public void splitsIdsIntoRangesWithOpenEnd() {
+        List<Range<Long>> ranges = TMXExportJob.splitIdRange(1, 25, 10);
+
+        assertThat(ranges).containsExactly(Range.closed(1L, 10L),
+                Range.closed(11L, 20L), Range.closed(21L, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void exactMultipleEndsWithOpenRange() {
+        List<Range<Long>> ranges = TMXExportJob.splitIdRange(1, 20, 10);
+
+        assertThat(ranges).containsExactly(Range.closed(1L, 10L),
+                Range.closed(11L, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void noTextFlowsGivesSingleRange() {
+        assertThat(TMXExportJob.splitIdRange(0, 0, 10))
+                .containsExactly(Range.closed(0L, Long.MAX_VALUE));
+    }
+}
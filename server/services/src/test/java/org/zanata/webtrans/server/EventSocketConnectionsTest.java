@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpSession;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventSocketConnectionsTest {
+    private EventSocketConnections connections;
+    private ServletContext servletContext;
+
+    @Before
+    public void setUp() {
+        connections = new EventSocketConnections();
+        servletContext = mock(ServletContext.class);
+    }
+
+    private HttpSession httpSession(String id) {
+        HttpSession session = mock(HttpSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.getServletContext()).thenReturn(servletContext);
+        return session;
+    }
+
+    @Test
+    public void tokenCanBeRedeemedOnceAfterHandshakeInItsSession() {
+        String token = connections.issueToken("session1");
+
+        connections.onHandshake(token, httpSession("session1"));
+
+        EventSocketConnections.SocketToken socketToken =
+                connections.redeemToken(token);
+        assertThat(socketToken).isNotNull();
+        assertThat(socketToken.httpSessionId).isEqualTo("session1");
+        assertThat(socketToken.servletContext).isSameAs(servletContext);
+        assertThat(connections.redeemToken(token)).isNull();
+    }
+
+    @Test
+    public void tokenIsRejectedForHandshakeInAnotherSession() {
+        String token = connections.issueToken("session1");
+
+        connections.onHandshake(token, httpSession("session2"));
+
+        assertThat(connections.redeemToken(token)).isNull();
+    }
+
+    @Test
+    public void unknownTokenIsRejected() {
+        connections.onHandshake("made-up", httpSession("session1"));
+
+        assertThat(connections.redeemToken("made-up")).isNull();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.zanata.common.ContentState;
+import org.zanata.webtrans.shared.auth.EditorClientId;
+import org.zanata.webtrans.shared.model.DocumentId;
+import org.zanata.webtrans.shared.model.Person;
+import org.zanata.webtrans.shared.model.PersonId;
+import org.zanata.webtrans.shared.model.TransUnitUpdateInfo;
+import org.zanata.webtrans.shared.rpc.ExitWorkspace;
+import org.zanata.webtrans.shared.rpc.SessionEventData;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdated;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdated.UpdateType;
+import org.zanata.webtrans.shared.rpc.TransUnitsBulkUpdated;
+import org.zanata.webtrans.test.GWTTestData;
+
+public class TransUnitUpdateCoalescerTest {
+    private static final int BULK_THRESHOLD = 3;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+    private List<SessionEventData> sent;
+    private TransUnitUpdateCoalescer coalescer;
+    private DocumentId docId = new DocumentId(1L, "doc.po");
+    private EditorClientId editorClientId = new EditorClientId("session", 1);
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        sent = new ArrayList<>();
+        coalescer = new TransUnitUpdateCoalescer(sent::add, scheduler,
+                TransUnitUpdateCoalescer.WINDOW_MILLIS, BULK_THRESHOLD);
+    }
+
+    @Test
+    public void updatesAreSentWhenWindowEnds() {
+        coalescer.publish(updated(1L, ContentState.New, UpdateType.NonEditorSave));
+        coalescer.publish(updated(2L, ContentState.New, UpdateType.NonEditorSave));
+
+        assertThat(sent).isEmpty();
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(),
+                any(TimeUnit.class));
+
+        coalescer.flush();
+        assertThat(sent).hasSize(2);
+    }
+
+    @Test
+    public void updatesOfSameTextFlowAreMerged() {
+        coalescer.publish(updated(1L, ContentState.New, UpdateType.WebEditorSave));
+        coalescer.publish(updated(1L, ContentState.NeedReview,
+                UpdateType.WebEditorSave));
+
+        coalescer.flush();
+
+        assertThat(sent).hasSize(1);
+        TransUnitUpdateInfo info =
+                ((TransUnitUpdated) sent.get(0)).getUpdateInfo();
+        // stats on the clients were based on the state before the first save
+        assertThat(info.getPreviousState()).isEqualTo(ContentState.New);
+    }
+
+    @Test
+    public void differentUpdateTypesAreNotMerged() {
+        coalescer.publish(updated(1L, ContentState.New, UpdateType.WebEditorSave));
+        coalescer.publish(updated(1L, ContentState.Translated,
+                UpdateType.NonEditorSave));
+
+        coalescer.flush();
+
+        assertThat(sent).hasSize(2);
+    }
+
+    @Test
+    public void otherEventsAreSentAfterPendingUpdates() {
+        coalescer.publish(updated(1L, ContentState.New, UpdateType.NonEditorSave));
+        ExitWorkspace exit = new ExitWorkspace(editorClientId,
+                new Person(new PersonId("person"), "name", null));
+
+        coalescer.publish(exit);
+
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(1)).isSameAs(exit);
+    }
+
+    @Test
+    public void manyUpdatesAreCollapsedPerDocument() {
+        for (long id = 1; id <= 10; id++) {
+            coalescer.publish(updated(id, ContentState.New,
+                    UpdateType.NonEditorSave));
+        }
+
+        coalescer.flush();
+
+        assertThat(sent).hasSize(1);
+        TransUnitsBulkUpdated bulkUpdated = (TransUnitsBulkUpdated) sent.get(0);
+        assertThat(bulkUpdated.getDocumentId()).isEqualTo(docId);
+        assertThat(bulkUpdated.getUpdateCount()).isEqualTo(10);
+    }
+
+    private TransUnitUpdated updated(long id, ContentState previousState,
+            UpdateType updateType) {
+        TransUnitUpdateInfo info = new TransUnitUpdateInfo(true, true, docId,
+                GWTTestData.makeTransUnit(id, ContentState.Translated), 2, 0,
+                previousState);
+        return new TransUnitUpdated(info, editorClientId, updateType);
+    }
+}
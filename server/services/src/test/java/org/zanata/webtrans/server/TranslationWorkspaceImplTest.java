@@ -22,6 +22,10 @@ package org.zanata.webtrans.server;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.websocket.CloseReason;
+import javax.websocket.Session;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -39,6 +43,9 @@ import org.zanata.webtrans.test.GWTTestData;
 import com.google.common.collect.MapMaker;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 public class TranslationWorkspaceImplTest {
     private TranslationWorkspaceImpl translationWorkspace;
@@ -51,12 +58,14 @@ public class TranslationWorkspaceImplTest {
                         ProjectType.Podir), new LocaleId("en-US"));
         WorkspaceContext workspaceContext =
                 new WorkspaceContext(workspaceId, "workspaceName", "en-US");
-        translationWorkspace = new TranslationWorkspaceImpl(workspaceContext);
+        translationWorkspace = new TranslationWorkspaceImpl(workspaceContext,
+                mock(ScheduledExecutorService.class));
     }
 
     @Test(expected = NullPointerException.class)
     public void willNotCreateTranslationWorkspaceWithNullContext() {
-        translationWorkspace = new TranslationWorkspaceImpl(null);
+        translationWorkspace = new TranslationWorkspaceImpl(null,
+                mock(ScheduledExecutorService.class));
     }
 
     @Test
@@ -116,6 +125,36 @@ public class TranslationWorkspaceImplTest {
         assertThat(translationWorkspace.getUsers().entrySet()).isEmpty();
     }
 
+    @Test
+    public void keepsClientWhenEventSocketCloses() {
+        EditorClientId editorClientId = new EditorClientId("sessionId", 1);
+        translationWorkspace.addEditorClient("sessionId", editorClientId,
+                new PersonId("personId"));
+        EventSocketConnection socket = new EventSocketConnection("socket",
+                "sessionId", mock(Session.class), null);
+        translationWorkspace.onEventSocketConnected(editorClientId, socket);
+
+        socket.onClosed();
+
+        // the client carries on by long polling
+        assertThat(translationWorkspace.getUsers()).containsKey(editorClientId);
+    }
+
+    @Test
+    public void closesEventSocketWhenClientIsRemoved() throws Exception {
+        EditorClientId editorClientId = new EditorClientId("sessionId", 1);
+        translationWorkspace.addEditorClient("sessionId", editorClientId,
+                new PersonId("personId"));
+        Session session = mock(Session.class);
+        EventSocketConnection socket = new EventSocketConnection("socket",
+                "sessionId", session, null);
+        translationWorkspace.onEventSocketConnected(editorClientId, socket);
+
+        translationWorkspace.removeEditorClient(editorClientId);
+
+        verify(session).close(any(CloseReason.class));
+    }
+
     @Test
     public void canUpdateUserSelection() {
         EditorClientId editorClientId = new EditorClientId("sessionId", 1);
@@ -7,6 +7,8 @@ import org.mockito.Mock;
 import org.zanata.ZanataTest;
 import org.zanata.security.ZanataIdentity;
 import org.zanata.test.CdiUnitRunner;
+import org.zanata.webtrans.server.EventSocketConnection;
+import org.zanata.webtrans.server.EventSocketConnections;
 import org.zanata.webtrans.server.TranslationWorkspace;
 import org.zanata.webtrans.server.TranslationWorkspaceManager;
 import org.zanata.webtrans.shared.auth.EditorClientId;
@@ -20,6 +22,9 @@ import javax.enterprise.inject.Any;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
 
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +42,8 @@ public class EventServiceConnectedHandlerTest extends ZanataTest {
     private TranslationWorkspaceManager translationWorkspaceManager;
     @Produces @Mock
     private TranslationWorkspace translationWorkspace;
+    @Produces @Mock
+    private EventSocketConnections eventSocketConnections;
 
     @Test
     @InRequestScope
@@ -57,6 +64,46 @@ public class EventServiceConnectedHandlerTest extends ZanataTest {
                 "connectionId");
     }
 
+    @Test
+    @InRequestScope
+    public void subscribesEventSocketToWorkspace() throws ActionException {
+        WorkspaceId workspaceId = GWTTestData.workspaceId();
+        EditorClientId editorClientId = new EditorClientId("sessionId", 1);
+        EventServiceConnectedAction action =
+                new EventServiceConnectedAction("socketId");
+        action.setWorkspaceId(workspaceId);
+        action.setEditorClientId(editorClientId);
+        EventSocketConnection socket = mock(EventSocketConnection.class);
+        when(socket.getHttpSessionId()).thenReturn("sessionId");
+        when(eventSocketConnections.find("socketId"))
+                .thenReturn(Optional.of(socket));
+        when(translationWorkspaceManager.getOrRegisterWorkspace(workspaceId))
+                .thenReturn(translationWorkspace);
+
+        handler.execute(action, null);
+
+        verify(translationWorkspace).onEventSocketConnected(editorClientId,
+                socket);
+    }
+
+    @Test(expected = ActionException.class)
+    @InRequestScope
+    public void rejectsEventSocketOfAnotherSession() throws ActionException {
+        WorkspaceId workspaceId = GWTTestData.workspaceId();
+        EventServiceConnectedAction action =
+                new EventServiceConnectedAction("socketId");
+        action.setWorkspaceId(workspaceId);
+        action.setEditorClientId(new EditorClientId("sessionId", 1));
+        EventSocketConnection socket = mock(EventSocketConnection.class);
+        when(socket.getHttpSessionId()).thenReturn("otherSessionId");
+        when(eventSocketConnections.find("socketId"))
+                .thenReturn(Optional.of(socket));
+        when(translationWorkspaceManager.getOrRegisterWorkspace(workspaceId))
+                .thenReturn(translationWorkspace);
+
+        handler.execute(action, null);
+    }
+
     @Test
     @InRequestScope
     public void testRollback() throws Exception {
@@ -171,6 +171,23 @@ public class GetTransUnitListHandlerTest extends ZanataDbunitJpaTest {
                 .contains(1, 2, 3, 4, 5);
     }
 
+    @Test
+    @InRequestScope
+    public void pageIncludesTargetDetailsLoadedInBulk() throws Exception {
+        GetTransUnitList action = GetTransUnitList
+                .newAction(new GetTransUnitActionContext(document));
+        prepareActionAndMockLocaleService(action);
+
+        GetTransUnitListResult result = handler.execute(action, null);
+
+        TransUnit first = result.getUnits().get(0);
+        TransUnit second = result.getUnits().get(1);
+        assertThat(first.getVerNum()).isEqualTo(20);
+        assertThat(first.getCommentsCount()).isEqualTo(0);
+        assertThat(second.getVerNum()).isEqualTo(8);
+        assertThat(second.getCommentsCount()).isEqualTo(2);
+    }
+
     @Test
     @InRequestScope
     public void testExecuteWithStatusFilterOnly() throws Exception {
@@ -48,6 +48,9 @@ public class TextFlowTargetEntityIndexingInterceptor implements
         if (projectIteration.getProject().getStatus() == EntityStatus.OBSOLETE) {
             return IndexingOverride.SKIP;
         }
+        if (TextFlowTargetIndexDeferral.defer(hTextFlowTarget.getId())) {
+            return IndexingOverride.SKIP;
+        }
         return IndexingOverride.APPLY_DEFAULT;
     }
 
@@ -68,6 +71,10 @@ public class TextFlowTargetEntityIndexingInterceptor implements
         if (projectIteration.getProject().getStatus() == EntityStatus.OBSOLETE) {
             return IndexingOverride.REMOVE;
         }
+        if (TextFlowTargetIndexDeferral.defer(hTextFlowTarget.getId())) {
+            // the current document stays in the index until it is replaced
+            return IndexingOverride.SKIP;
+        }
         return IndexingOverride.UPDATE;
     }
 
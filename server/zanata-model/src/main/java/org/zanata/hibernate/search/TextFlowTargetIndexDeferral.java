@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.hibernate.search;
+
+/**
+ * Lets the application take over indexing of added and updated
+ * HTextFlowTargets, so that the index writes happen after the transaction
+ * instead of during its commit.
+ *
+ * @see TextFlowTargetEntityIndexingInterceptor
+ */
+public final class TextFlowTargetIndexDeferral {
+
+    public interface Listener {
+        /**
+         * @param textFlowTargetId
+         *            id of an added or updated target
+         * @return true if the listener will index the target itself, false if
+         *         it should be indexed as usual
+         */
+        boolean deferIndexing(Long textFlowTargetId);
+    }
+
+    private static volatile Listener listener;
+
+    private TextFlowTargetIndexDeferral() {
+    }
+
+    /**
+     * @param newListener
+     *            listener to consult, or null to index synchronously again
+     */
+    public static void setListener(Listener newListener) {
+        listener = newListener;
+    }
+
+    static boolean defer(Long textFlowTargetId) {
+        Listener current = listener;
+        return current != null && textFlowTargetId != null
+                && current.deferIndexing(textFlowTargetId);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.hibernate.search;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.hibernate.search.filter.FullTextFilterImplementor;
+import org.hibernate.search.spi.BuildContext;
+import org.hibernate.search.store.ShardIdentifierProviderTemplate;
+import org.zanata.model.HTextFlowTarget;
+
+/**
+ * Keeps the HTextFlowTarget index in one shard per translation locale, so
+ * that a translation memory query only has to read the shard of the locale
+ * it is looking for.
+ * <p>
+ * Queries select their shard by enabling {@link #LOCALE_FILTER} with the
+ * {@link #LOCALE_PARAMETER} parameter. Queries without it read all shards.
+ * <p>
+ * Enabled with the property
+ * {@code hibernate.search.org.zanata.model.HTextFlowTarget.sharding_strategy}.
+ * An index from before sharding is rebuilt at startup (see
+ * {@link #isUnshardedIndex(File)}).
+ */
+public class TextFlowTargetShardIdentifierProvider
+        extends ShardIdentifierProviderTemplate {
+    public static final String LOCALE_FILTER = "textFlowTargetLocaleShard";
+    public static final String LOCALE_PARAMETER = "locale";
+    static final String INDEX_NAME = HTextFlowTarget.class.getName();
+    private static final String INDEX_BASE = "indexBase";
+    private static final String INDEX_BASE_SYSTEM_PROPERTY =
+            "hibernate.search.default.indexBase";
+
+    @Override
+    protected Set<String> loadInitialShardNames(Properties properties,
+            BuildContext buildContext) {
+        String indexBase = properties.getProperty(INDEX_BASE,
+                System.getProperty(INDEX_BASE_SYSTEM_PROPERTY));
+        if (indexBase == null) {
+            // eg RAMDirectoryProvider: shards only exist once indexed
+            return new HashSet<>();
+        }
+        return findShardNames(new File(indexBase));
+    }
+
+    static Set<String> findShardNames(File indexBase) {
+        Set<String> shards = new HashSet<>();
+        File[] files = indexBase.listFiles();
+        if (files == null) {
+            return shards;
+        }
+        String prefix = INDEX_NAME + ".";
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory() && name.startsWith(prefix)
+                    && name.length() > prefix.length()) {
+                shards.add(name.substring(prefix.length()));
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * @return true if indexBase only holds the HTextFlowTarget index from
+     *         before it was sharded by locale, which queries do not read. It
+     *         has to be rebuilt before translation memory searches can find
+     *         anything.
+     */
+    public static boolean isUnshardedIndex(File indexBase) {
+        return new File(indexBase, INDEX_NAME).isDirectory()
+                && findShardNames(indexBase).isEmpty();
+    }
+
+    @Override
+    public String getShardIdentifier(Class<?> entityType, Serializable id,
+            Document document) {
+        String shard = document.get(IndexFieldLabels.LOCALE_ID_FIELD);
+        addShard(shard);
+        return shard;
+    }
+
+    @Override
+    public Set<String> getShardIdentifiersForQuery(
+            FullTextFilterImplementor[] fullTextFilters) {
+        for (FullTextFilterImplementor filter : fullTextFilters) {
+            if (LOCALE_FILTER.equals(filter.getName())) {
+                Object locale = filter.getParameter(LOCALE_PARAMETER);
+                // no shard yet means nothing translated to the locale
+                return getAllShardIdentifiers().contains(locale)
+                        ? Collections.singleton((String) locale)
+                        : Collections.emptySet();
+            }
+        }
+        return getAllShardIdentifiers();
+    }
+}
@@ -111,14 +111,46 @@ public class Activity extends ModelEntityBase implements Serializable {
         this.wordCount = wordCount;
     }
 
+    /**
+     * Creates an activity which already represents one or more events
+     * recorded between startTime and endTime (which must fall in the same
+     * hour).
+     *
+     * see org.zanata.service.impl.ActivityAccumulator
+     */
+    public Activity(HPerson actor, EntityType contextType, long contextId,
+            EntityType lastTargetType, long lastTargetId,
+            ActivityType activityType, Date startTime, Date endTime,
+            int eventCount, int wordCount) {
+        this.actor = actor;
+        this.contextType = contextType;
+        this.contextId = contextId;
+        this.lastTargetType = lastTargetType;
+        this.lastTargetId = lastTargetId;
+        this.activityType = activityType;
+        this.eventCount = eventCount;
+        this.wordCount = wordCount;
+        setCreationDate(startTime);
+        this.approxTime = DateUtils.truncate(startTime, Calendar.HOUR);
+        this.startOffsetMillis =
+                (int) (startTime.getTime() - approxTime.getTime());
+        this.endOffsetMillis = (int) (endTime.getTime() - approxTime.getTime());
+    }
+
     public void updateActivity(Date currentTime, IsEntityWithType target,
             int wordCount) {
+        updateActivity(currentTime, target.getEntityType(), target.getId(),
+                wordCount, 1);
+    }
+
+    public void updateActivity(Date currentTime, EntityType lastTargetType,
+            long lastTargetId, int wordCount, int eventCount) {
         this.endOffsetMillis =
                 (int) (currentTime.getTime() - approxTime.getTime());
         this.wordCount += wordCount;
-        this.eventCount++;
-        this.lastTargetType = target.getEntityType();
-        this.lastTargetId = target.getId();
+        this.eventCount += eventCount;
+        this.lastTargetType = lastTargetType;
+        this.lastTargetId = lastTargetId;
     }
 
     @Transient
@@ -130,6 +162,10 @@ public class Activity extends ModelEntityBase implements Serializable {
 
         @PrePersist
         private void onPrePersist(Activity activity) {
+            if (activity.approxTime != null) {
+                // already initialised from an accumulated event range
+                return;
+            }
             activity.approxTime = DateUtils.truncate(activity.getCreationDate(),
                     Calendar.HOUR);
             activity.startOffsetMillis = (int) (activity.getCreationDate().getTime()
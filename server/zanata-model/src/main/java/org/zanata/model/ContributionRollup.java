@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.model;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Access;
+import javax.persistence.AccessType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+import org.zanata.common.ContentState;
+
+/**
+ * Pre-aggregated word and message counts of one person's translation work,
+ * per project version, locale, content state and quarter hour. Rows are
+ * maintained incrementally from HTextFlowTarget and HTextFlowTargetHistory by
+ * org.zanata.service.impl.ContributionRollupService, so that contribution
+ * statistics can be summed without scanning the history table.
+ * <p>
+ * Ids are stored as plain columns rather than associations: the rollup is
+ * derived data and rows may outlive the targets they were counted from.
+ */
+@Entity
+@Access(AccessType.FIELD)
+@Table(uniqueConstraints = @UniqueConstraint(name = "UKcontributionRollup",
+        columnNames = { "person_id", "period", "role",
+                "project_iteration_id", "locale_id", "state",
+                "automatedEntry" }))
+public class ContributionRollup extends ModelEntityBase
+        implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Which kind of contribution a row counts.
+     */
+    public enum Role {
+        /**
+         * translated_by of the latest two versions of a target, as counted
+         * by the contribution statistics
+         */
+        TRANSLATED,
+        /**
+         * reviewed_by of the latest two versions of a target, as counted by
+         * the contribution statistics
+         */
+        REVIEWED,
+        /**
+         * last_modified_by of every version of a target, as counted by the
+         * user work matrix
+         */
+        EDITED
+    }
+
+    @NotNull
+    @Column(name = "person_id", nullable = false)
+    private long personId;
+
+    @NotNull
+    @Column(name = "project_iteration_id", nullable = false)
+    private long projectIterationId;
+
+    @NotNull
+    @Column(name = "locale_id", nullable = false)
+    private long localeId;
+
+    @NotNull
+    private ContentState state;
+
+    @NotNull
+    private boolean automatedEntry;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private Role role;
+
+    /**
+     * start of the quarter hour (UTC) in which the counted versions were
+     * saved
+     */
+    @NotNull
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date period;
+
+    private long wordCount;
+    private long messageCount;
+
+    public ContributionRollup() {
+    }
+
+    public ContributionRollup(long personId, long projectIterationId,
+            long localeId, ContentState state, boolean automatedEntry,
+            Role role, Date period) {
+        this.personId = personId;
+        this.projectIterationId = projectIterationId;
+        this.localeId = localeId;
+        this.state = state;
+        this.automatedEntry = automatedEntry;
+        this.role = role;
+        this.period = period;
+    }
+
+    public void addCounts(long words, long messages) {
+        this.wordCount += words;
+        this.messageCount += messages;
+    }
+
+    public long getPersonId() {
+        return personId;
+    }
+
+    public long getProjectIterationId() {
+        return projectIterationId;
+    }
+
+    public long getLocaleId() {
+        return localeId;
+    }
+
+    public ContentState getState() {
+        return state;
+    }
+
+    public boolean isAutomatedEntry() {
+        return automatedEntry;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public Date getPeriod() {
+        return period;
+    }
+
+    public long getWordCount() {
+        return wordCount;
+    }
+
+    public long getMessageCount() {
+        return messageCount;
+    }
+}
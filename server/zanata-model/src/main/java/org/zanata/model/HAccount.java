@@ -46,6 +46,7 @@ import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.Size;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
@@ -59,6 +60,7 @@ import io.leangen.graphql.annotations.types.GraphQLType;
  */
 @Entity
 @Cacheable
+@BatchSize(size = 20)
 @Table(uniqueConstraints = @UniqueConstraint(columnNames = "username"),
         indexes = @Index(name = "Idx_enabled_username", columnList = "enabled, username"))
 @GraphQLType(name = "Account")
@@ -142,6 +144,7 @@ public class HAccount extends ModelEntityBase
 
     @Cache(usage = CacheConcurrencyStrategy.TRANSACTIONAL)
     @ManyToMany(targetEntity = HAccountRole.class)
+    @BatchSize(size = 20)
     @JoinTable(name = "HAccountMembership",
             joinColumns = @JoinColumn(name = "accountId"),
             inverseJoinColumns = @JoinColumn(name = "memberOf"))
@@ -23,6 +23,7 @@ package org.zanata.model
 import com.ibm.icu.util.ULocale
 import io.leangen.graphql.annotations.GraphQLQuery
 import io.leangen.graphql.annotations.types.GraphQLType
+import org.hibernate.annotations.BatchSize
 import org.hibernate.annotations.Cache
 import org.hibernate.annotations.CacheConcurrencyStrategy
 import org.hibernate.annotations.NaturalId
@@ -49,6 +50,7 @@ import java.util.HashSet
  */
 @Entity
 @Cacheable
+@BatchSize(size = 20)
 @TypeDef(name = "localeId", typeClass = LocaleIdType::class)
 @GraphQLType(name = "Locale")
 class HLocale : ModelEntityBase, Serializable, HasUserFriendlyToString {
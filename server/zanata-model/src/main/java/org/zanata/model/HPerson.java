@@ -43,6 +43,7 @@ import javax.validation.constraints.Size;
 
 import io.leangen.graphql.annotations.GraphQLIgnore;
 import io.leangen.graphql.annotations.types.GraphQLType;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.NaturalId;
 import org.hibernate.validator.constraints.Email;
 import org.hibernate.validator.constraints.NotEmpty;
@@ -58,6 +59,7 @@ import static org.zanata.model.ProjectRole.Maintainer;
  */
 @Entity
 @Cacheable
+@BatchSize(size = 20)
 @GraphQLType(name = "Person")
 public class HPerson extends ModelEntityBase implements Serializable, Eraseable {
     private static final long serialVersionUID = 1L;
@@ -129,6 +131,7 @@ public class HPerson extends ModelEntityBase implements Serializable, Eraseable
     }
 
     @OneToMany(cascade = CascadeType.REMOVE, mappedBy = "id.person", orphanRemoval = true)
+    @BatchSize(size = 20)
     public Set<HLocaleMember> getLanguageTeamMemberships() {
         if (this.languageTeamMemberships == null) {
             this.languageTeamMemberships = new HashSet<>();
@@ -137,6 +140,7 @@ public class HPerson extends ModelEntityBase implements Serializable, Eraseable
     }
 
     @OneToMany(cascade = CascadeType.REMOVE, mappedBy = "person", orphanRemoval = true)
+    @BatchSize(size = 20)
     public Set<HProjectLocaleMember> getProjectLocaleMemberships() {
         if (projectLocaleMemberships == null) {
             projectLocaleMemberships = new HashSet<>();
@@ -145,6 +149,7 @@ public class HPerson extends ModelEntityBase implements Serializable, Eraseable
     }
 
     @OneToMany(cascade = CascadeType.REMOVE, mappedBy = "person", orphanRemoval = true)
+    @BatchSize(size = 20)
     public Set<HProjectMember> getProjectMemberships() {
         if (projectMemberships == null) {
             projectMemberships = Sets.newHashSet();
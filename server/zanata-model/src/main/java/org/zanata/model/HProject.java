@@ -49,6 +49,7 @@ import javax.persistence.Transient;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import com.google.common.collect.ImmutableSet;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
@@ -78,6 +79,7 @@ import io.leangen.graphql.annotations.types.GraphQLType;
  */
 @Entity
 @Cacheable
+@BatchSize(size = 20)
 @Access(AccessType.FIELD)
 @TypeDefs({ @TypeDef(name = "entityStatus", typeClass = EntityStatusType.class),
         @TypeDef(name = "localeId", defaultForType = LocaleId.class,
@@ -165,6 +167,7 @@ public class HProject extends SlugEntityBase
     private Map<String, String> customizedValidations = Maps.newHashMap();
     @OneToMany(mappedBy = "project")
     @Cache(usage = CacheConcurrencyStrategy.TRANSACTIONAL)
+    @BatchSize(size = 20)
     private List<HProjectIteration> projectIterations = Lists.newArrayList();
     @Type(type = "entityStatus")
     @NotNull
@@ -115,6 +115,8 @@ public class HTextFlow extends HTextContainer implements Serializable,
     private Integer oldRevision;
     // Only for internal use (persistence transient)
     private HTextFlowHistory initialState;
+    // Only for internal use (persistence transient)
+    private boolean initialStatePending;
 
     public HTextFlow(HDocument document, String resId) {
         this.document = document;
@@ -249,6 +251,7 @@ public class HTextFlow extends HTextContainer implements Serializable,
 
     public void setContents(List<String> newContents) {
         if (!newContents.equals(this.getContents())) {
+            beforeChange();
             for (int i = 0; i < MAX_PLURALS; i++) {
                 String value =
                         i < newContents.size() ? newContents.get(i) : null;
@@ -469,11 +472,25 @@ public class HTextFlow extends HTextContainer implements Serializable,
         @PostLoad
         private void updateInternalHistory(HTextFlow tf) {
             tf.oldRevision = tf.revision;
-            tf.initialState = new HTextFlowHistory(tf);
+            // captured by beforeChange() if the text flow is modified
+            tf.initialState = null;
+            tf.initialStatePending = true;
+        }
+    }
+
+    /**
+     * Captures the persisted state before the first change since this text
+     * flow was loaded or flushed, so that read-only use allocates no history.
+     */
+    private void beforeChange() {
+        if (initialStatePending) {
+            initialStatePending = false;
+            initialState = new HTextFlowHistory(this);
         }
     }
 
     public void setRevision(final Integer revision) {
+        beforeChange();
         this.revision = revision;
     }
 
@@ -503,26 +520,32 @@ public class HTextFlow extends HTextContainer implements Serializable,
     }
 
     public void setContent0(final String content0) {
+        beforeChange();
         this.content0 = content0;
     }
 
     public void setContent1(final String content1) {
+        beforeChange();
         this.content1 = content1;
     }
 
     public void setContent2(final String content2) {
+        beforeChange();
         this.content2 = content2;
     }
 
     public void setContent3(final String content3) {
+        beforeChange();
         this.content3 = content3;
     }
 
     public void setContent4(final String content4) {
+        beforeChange();
         this.content4 = content4;
     }
 
     public void setContent5(final String content5) {
+        beforeChange();
         this.content5 = content5;
     }
 
@@ -23,6 +23,7 @@ package org.zanata.model;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,9 +54,11 @@ import org.hibernate.search.annotations.Analyze;
 import org.hibernate.search.annotations.AnalyzerDiscriminator;
 import org.hibernate.search.annotations.Field;
 import org.hibernate.search.annotations.FieldBridge;
+import org.hibernate.search.annotations.FullTextFilterDef;
 import org.hibernate.search.annotations.Indexed;
 import org.hibernate.search.annotations.IndexedEmbedded;
 import org.hibernate.search.annotations.Parameter;
+import org.hibernate.search.filter.ShardSensitiveOnlyFilter;
 import org.zanata.common.ContentState;
 import org.zanata.common.HasContents;
 import org.zanata.common.LocaleId;
@@ -65,6 +68,7 @@ import org.zanata.hibernate.search.IndexFieldLabels;
 import org.zanata.hibernate.search.LocaleIdBridge;
 import org.zanata.hibernate.search.StringListBridge;
 import org.zanata.hibernate.search.TextContainerAnalyzerDiscriminator;
+import org.zanata.hibernate.search.TextFlowTargetShardIdentifierProvider;
 import org.zanata.model.type.EntityType;
 import org.zanata.model.type.EntityTypeType;
 import org.zanata.rest.dto.TranslationSourceType;
@@ -89,6 +93,8 @@ import io.leangen.graphql.annotations.types.GraphQLType;
                 typeClass = TranslationSourceTypeType.class),
         @TypeDef(name = "entityType", typeClass = EntityTypeType.class) })
 @Indexed(interceptor = TextFlowTargetEntityIndexingInterceptor.class)
+@FullTextFilterDef(name = TextFlowTargetShardIdentifierProvider.LOCALE_FILTER,
+        impl = ShardSensitiveOnlyFilter.class)
 @GraphQLType(name = "TextFlowTarget")
 public class HTextFlowTarget extends ModelEntityBase
         implements HasContents, HasSimpleComment, ITextFlowTargetHistory,
@@ -126,6 +132,7 @@ public class HTextFlowTarget extends ModelEntityBase
     }
 
     public void setRevisionComment(String revisionComment) {
+        beforeChange();
         this.revisionComment = revisionComment;
         revisionCommentSet = true;
     }
@@ -137,6 +144,8 @@ public class HTextFlowTarget extends ModelEntityBase
 
     // Only for internal use (persistence transient)
     private HTextFlowTargetHistory initialState;
+    // Only for internal use (persistence transient)
+    private boolean initialStatePending;
 
     public HTextFlowTarget(HTextFlow textFlow, @Nonnull HLocale locale) {
         this.locale = locale;
@@ -175,6 +184,7 @@ public class HTextFlowTarget extends ModelEntityBase
     }
 
     public void setState(@Nonnull ContentState newState) {
+        beforeChange();
         state = newState;
     }
 
@@ -193,6 +203,7 @@ public class HTextFlowTarget extends ModelEntityBase
     }
 
     public void setLastModifiedBy(HPerson date) {
+        beforeChange();
         lastModifiedBy = date;
     }
 
@@ -276,6 +287,7 @@ public class HTextFlowTarget extends ModelEntityBase
 
     public void setContents(List<String> contents) {
         if (!Objects.equal(contents, this.getContents())) {
+            beforeChange();
             clearContents();
             for (int i = 0; i < contents.size(); i++) {
                 this.setContent(i, contents.get(i));
@@ -498,15 +510,42 @@ public class HTextFlowTarget extends ModelEntityBase
         @PostLoad
         private void updateInternalHistory(HTextFlowTarget tft) {
             tft.oldVersionNum = tft.getVersionNum();
-            tft.initialState = new HTextFlowTargetHistory(tft);
+            // captured by beforeChange() if the target is modified
+            tft.initialState = null;
+            tft.initialStatePending = true;
+        }
+    }
+
+    /**
+     * Captures the persisted state before the first change since this target
+     * was loaded or flushed, so that read-only use allocates no history.
+     */
+    private void beforeChange() {
+        if (initialStatePending) {
+            initialStatePending = false;
+            initialState = new HTextFlowTargetHistory(this);
         }
     }
 
+    @Override
+    public void setVersionNum(Integer versionNum) {
+        beforeChange();
+        super.setVersionNum(versionNum);
+    }
+
+    @Override
+    public void setLastChanged(Date lastChanged) {
+        beforeChange();
+        super.setLastChanged(lastChanged);
+    }
+
     public void setTextFlow(final HTextFlow textFlow) {
+        beforeChange();
         this.textFlow = textFlow;
     }
 
     public void setLocale(@Nonnull final HLocale locale) {
+        beforeChange();
         if (locale == null) {
             throw new NullPointerException("locale");
         }
@@ -514,42 +553,52 @@ public class HTextFlowTarget extends ModelEntityBase
     }
 
     public void setContent0(final String content0) {
+        beforeChange();
         this.content0 = content0;
     }
 
     public void setContent1(final String content1) {
+        beforeChange();
         this.content1 = content1;
     }
 
     public void setContent2(final String content2) {
+        beforeChange();
         this.content2 = content2;
     }
 
     public void setContent3(final String content3) {
+        beforeChange();
         this.content3 = content3;
     }
 
     public void setContent4(final String content4) {
+        beforeChange();
         this.content4 = content4;
     }
 
     public void setContent5(final String content5) {
+        beforeChange();
         this.content5 = content5;
     }
 
     public void setTextFlowRevision(final Integer textFlowRevision) {
+        beforeChange();
         this.textFlowRevision = textFlowRevision;
     }
 
     public void setTranslator(final HPerson translator) {
+        beforeChange();
         this.translator = translator;
     }
 
     public void setReviewer(final HPerson reviewer) {
+        beforeChange();
         this.reviewer = reviewer;
     }
 
     public void setComment(final HSimpleComment comment) {
+        beforeChange();
         this.comment = comment;
     }
 
@@ -563,14 +612,17 @@ public class HTextFlowTarget extends ModelEntityBase
     }
 
     public void setCopiedEntityType(final EntityType copiedEntityType) {
+        beforeChange();
         this.copiedEntityType = copiedEntityType;
     }
 
     public void setCopiedEntityId(final Long copiedEntityId) {
+        beforeChange();
         this.copiedEntityId = copiedEntityId;
     }
 
     public void setSourceType(final TranslationSourceType sourceType) {
+        beforeChange();
         this.sourceType = sourceType;
     }
 
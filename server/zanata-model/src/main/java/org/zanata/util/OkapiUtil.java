@@ -20,8 +20,17 @@
  */
 package org.zanata.util;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.annotation.Nonnull;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Maps;
 import net.sf.okapi.common.exceptions.OkapiIOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +41,18 @@ import net.sf.okapi.steps.tokenization.tokens.Tokens;
 
 public class OkapiUtil {
     private static final Logger log = LoggerFactory.getLogger(OkapiUtil.class);
+    // total length of the cached strings, in chars
+    private static final long MAX_CACHED_CHARS = 2_000_000;
+
+    // locale and string -> word count
+    private static final Cache<Map.Entry<String, String>, Long> WORD_COUNTS =
+            CacheBuilder.newBuilder().maximumWeight(MAX_CACHED_CHARS)
+                    .weigher((Map.Entry<String, String> key,
+                            Long count) -> key.getValue().length())
+                    .recordStats().build();
+    // BCP-47 locale -> parsed Okapi locale
+    private static final ConcurrentMap<String, LocaleId> OKAPI_LOCALES =
+            new ConcurrentHashMap<>();
 
     private OkapiUtil() {
     }
@@ -54,6 +75,13 @@ public class OkapiUtil {
      * standard <a href=
      * "http://web.archive.org/web/20090403134742/http://www.lisa.org/Global-information-m.105.0.html"
      * >GMX-V</a>
+     * <p>
+     * Okapi's tokenizer is slow and can only be used by one thread at a time.
+     * Pushing a new version of a document usually repeats most of its
+     * strings, so recent counts are remembered for each locale and string.
+     * The cache is limited by the total length of the strings it holds rather
+     * than by their number, so that long strings cannot fill the heap. A
+     * string which could not be counted is not remembered.
      *
      * @param s
      * @param bcp47Locale
@@ -64,25 +92,42 @@ public class OkapiUtil {
             log.debug("null string");
             return 0;
         }
+        Map.Entry<String, String> key = Maps.immutableEntry(bcp47Locale, s);
+        Long count = WORD_COUNTS.getIfPresent(key);
+        if (count != null) {
+            return count;
+        }
         try {
-            LocaleId locale;
-            try {
-                locale = LocaleId.fromBCP47(bcp47Locale);
-            } catch (Exception e) {
-                log.error(
-                        "can't understand '{}' as a BCP-47 locale; defaulting to English",
-                        bcp47Locale);
-                locale = LocaleId.ENGLISH;
-            }
-
+            LocaleId locale = bcp47Locale != null
+                    ? OKAPI_LOCALES.computeIfAbsent(bcp47Locale,
+                            OkapiUtil::parseBCP47)
+                    : parseBCP47(null);
             Tokens tokens = StringTokenizer.tokenizeString(s, locale, "WORD");
-            return tokens.size();
+            count = (long) tokens.size();
         } catch (Exception e) {
             Object[] args = new Object[] { s, bcp47Locale, e };
             log.error("unable to count words in string '{}' for locale '{}'",
                     args);
             return 0;
         }
+        WORD_COUNTS.put(key, count);
+        return count;
+    }
+
+    @VisibleForTesting
+    static CacheStats wordCountCacheStats() {
+        return WORD_COUNTS.stats();
+    }
+
+    private static LocaleId parseBCP47(String bcp47Locale) {
+        try {
+            return LocaleId.fromBCP47(bcp47Locale);
+        } catch (Exception e) {
+            log.error(
+                    "can't understand '{}' as a BCP-47 locale; defaulting to English",
+                    bcp47Locale);
+            return LocaleId.ENGLISH;
+        }
     }
 
     private static class StringTokenizer extends Tokenizer {
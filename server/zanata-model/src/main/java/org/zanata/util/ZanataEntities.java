@@ -23,6 +23,7 @@ package org.zanata.util;
 import java.util.List;
 
 import org.zanata.model.Activity;
+import org.zanata.model.ContributionRollup;
 import org.zanata.model.Glossary;
 import org.zanata.model.HAccount;
 import org.zanata.model.HAccountActivationKey;
@@ -79,7 +80,7 @@ public class ZanataEntities {
         // TMX
         builder.add(TransMemoryUnitVariant.class, TransMemoryUnit.class,
                 TransMemory.class);
-        builder.add(Activity.class);
+        builder.add(Activity.class, ContributionRollup.class);
         // glossary
         builder.add(HGlossaryTerm.class, HGlossaryEntry.class, Glossary.class);
         // text flows and targets
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.hibernate.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TextFlowTargetShardIdentifierProviderTest {
+    private static final String INDEX_NAME =
+            TextFlowTargetShardIdentifierProvider.INDEX_NAME;
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private File indexBase;
+
+    @Before
+    public void setUp() throws IOException {
+        indexBase = temporaryFolder.newFolder();
+    }
+
+    @Test
+    public void findsShardsOfExistingIndex() {
+        new File(indexBase, INDEX_NAME + ".de").mkdir();
+        new File(indexBase, INDEX_NAME + ".zh-Hans").mkdir();
+        new File(indexBase, "org.zanata.model.HProject").mkdir();
+        new File(indexBase, "org.zanata.model.tm.TransMemoryUnit").mkdir();
+
+        assertThat(TextFlowTargetShardIdentifierProvider
+                .findShardNames(indexBase)).containsOnly("de", "zh-Hans");
+    }
+
+    @Test
+    public void unshardedIndexHasNoShards() {
+        new File(indexBase, INDEX_NAME).mkdir();
+
+        assertThat(TextFlowTargetShardIdentifierProvider
+                .findShardNames(indexBase)).isEmpty();
+    }
+
+    @Test
+    public void missingIndexBaseHasNoShards() {
+        assertThat(TextFlowTargetShardIdentifierProvider
+                .findShardNames(new File(indexBase, "missing"))).isEmpty();
+    }
+
+    @Test
+    public void indexWithoutShardsIsUnsharded() {
+        new File(indexBase, INDEX_NAME).mkdir();
+
+        assertThat(TextFlowTargetShardIdentifierProvider
+                .isUnshardedIndex(indexBase)).isTrue();
+    }
+
+    @Test
+    public void shardedOrMissingIndexIsNotUnsharded() {
+        assertThat(TextFlowTargetShardIdentifierProvider
+                .isUnshardedIndex(indexBase)).isFalse();
+
+        new File(indexBase, INDEX_NAME).mkdir();
+        new File(indexBase, INDEX_NAME + ".de").mkdir();
+
+        assertThat(TextFlowTargetShardIdentifierProvider
+                .isUnshardedIndex(indexBase)).isFalse();
+    }
+}
@@ -1,5 +1,6 @@
 package org.zanata.util;
 
+import com.google.common.cache.CacheStats;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -61,4 +62,29 @@ public class OkapiUtilTest {
         }
     }
 
+    @Test
+    public void secondCountComesFromCache() {
+        // not used by any other test, so the first count is a miss
+        String s = "Remembered counts are returned again";
+        CacheStats before = OkapiUtil.wordCountCacheStats();
+
+        Assert.assertEquals(5, countWords(s, "en-US"));
+        Assert.assertEquals(5, countWords(s, "en-US"));
+
+        CacheStats stats = OkapiUtil.wordCountCacheStats().minus(before);
+        Assert.assertEquals(1, stats.missCount());
+        Assert.assertEquals(1, stats.hitCount());
+    }
+
+    @Test
+    public void countsAreCachedForEachLocale() {
+        String s = "Graphic Design";
+        countWords(s, "en-US");
+        CacheStats before = OkapiUtil.wordCountCacheStats();
+
+        Assert.assertEquals(2, countWords(s, "de"));
+
+        Assert.assertEquals(1,
+                OkapiUtil.wordCountCacheStats().minus(before).missCount());
+    }
 }
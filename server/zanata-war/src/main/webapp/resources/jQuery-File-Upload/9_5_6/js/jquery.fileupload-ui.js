@@ -114,6 +114,13 @@
                 return this.getFileCounts().total;
             },
 
+            // Returns a promise which is resolved once the server has
+            // finished processing an uploaded file. The file's error or
+            // message may be updated before it is resolved.
+            waitForProcessing: function (file) {
+                return $.Deferred().resolve(file).promise();
+            },
+
             // Callback to retrieve the list of files from the server response:
             getFilesFromResponse: function (data) {
                 if (data.result && $.isArray(data.result.files)) {
@@ -203,33 +210,39 @@
                             file.error = null;
                         }
 
-                        deferred = widget._addFinishedDeferreds();
-                        widget._transition($(this)).done(
-                            function () {
-                                var node = $(this);
-
-                                if (files[index]) {
-                                    node = widget._renderDownload([file])
-                                        .replaceAll(node);
-                                    widget._forceReflow(node);
-                                    widget.options.setUploadState(node, 'js-upload-successful');
-                                } else {
-                                    node.find('.loader').removeClass('is-active');
-                                    node.addClass('txt--danger');
-                                    widget._showSingletonError(options.i18n('jsf.upload.ServerStoppedResponding')); // Some files could not be uploaded. The server stopped responding.
-                                    widget.options.setUploadState(node, 'js-upload-failed');
-                                }
+                        var row = $(this),
+                            finished = widget._addFinishedDeferreds();
+                        // keep the row in progress until the server has
+                        // finished processing the file
+                        $.when(options.waitForProcessing(file)).always(function () {
+                            widget._transition(row).done(
+                                function () {
+                                    var node = $(this);
 
-                                widget._transition(node).done(
-                                    function () {
-                                        data.context = $(this);
-                                        widget._trigger('completed', e, data);
-                                        widget._trigger('finished', e, data);
-                                        deferred.resolve();
+                                    if (files[index]) {
+                                        node = widget._renderDownload([file])
+                                            .replaceAll(node);
+                                        widget._forceReflow(node);
+                                        widget.options.setUploadState(node,
+                                            file.error ? 'js-upload-failed' : 'js-upload-successful');
+                                    } else {
+                                        node.find('.loader').removeClass('is-active');
+                                        node.addClass('txt--danger');
+                                        widget._showSingletonError(options.i18n('jsf.upload.ServerStoppedResponding')); // Some files could not be uploaded. The server stopped responding.
+                                        widget.options.setUploadState(node, 'js-upload-failed');
                                     }
-                                );
-                            }
-                        );
+
+                                    widget._transition(node).done(
+                                        function () {
+                                            data.context = $(this);
+                                            widget._trigger('completed', e, data);
+                                            widget._trigger('finished', e, data);
+                                            finished.resolve();
+                                        }
+                                    );
+                                }
+                            );
+                        });
                     });
                 } else {
                     var node = widget._renderDownload(files)[
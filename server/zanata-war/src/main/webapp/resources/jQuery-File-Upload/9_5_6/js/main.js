@@ -217,7 +217,46 @@ $(function () {
                 options = that.options;
                 updateUploadCountIndicator(options);
             }),
-            updateUploadCountIndicator: updateUploadCountIndicator
+            updateUploadCountIndicator: updateUploadCountIndicator,
+            // Files are parsed and saved in the background after the upload
+            // request returns, so poll the process status for the outcome.
+            // Its messages are "docId: outcome" for each file in the batch.
+            waitForProcessing: (function waitForProcessing (file) {
+                var processed = $.Deferred();
+                if (file.error || !file.processStatusUrl) {
+                    return processed.resolve(file).promise();
+                }
+                (function poll () {
+                    $.ajax({
+                        url: file.processStatusUrl,
+                        dataType: 'json',
+                        cache: false
+                    }).done(function (status) {
+                        var prefix = file.name + ': ',
+                            outcome;
+                        if (status.statusCode === 'Running' ||
+                                status.statusCode === 'Waiting') {
+                            window.setTimeout(poll, 1000);
+                            return;
+                        }
+                        $.each(status.messages || [], function (i, message) {
+                            if (message.indexOf(prefix) === 0) {
+                                outcome = message.substring(prefix.length);
+                            }
+                        });
+                        if (status.statusCode === 'Finished') {
+                            file.message = outcome;
+                        } else {
+                            file.error = outcome || i18n('jsf.upload.FailedToUpload'); // Failed to upload this file.
+                        }
+                        processed.resolve(file);
+                    }).fail(function () {
+                        file.error = i18n('jsf.upload.ServerStoppedResponding'); // Some files could not be uploaded. The server stopped responding.
+                        processed.resolve(file);
+                    });
+                })();
+                return processed.promise();
+            })
         });
 
         // FIXME may be unnecessary. If necessary, it could just go in the above options